@@ -31,6 +31,14 @@ android {
     buildFeatures {
         viewBinding = true
     }
+    androidResources {
+        // 预置数据库不压缩：首次启动时通过文件通道直接从APK复制（见SeedAssetInstaller）
+        noCompress += "db"
+    }
+    testOptions {
+        // Robolectric测试需要加载应用资源（布局、菜单等）
+        unitTests.isIncludeAndroidResources = true
+    }
 }
 
 dependencies {
@@ -56,6 +64,9 @@ dependencies {
 
     // 测试依赖（保留不变）
     testImplementation("junit:junit:4.13.2")
+    // 主线程I/O检查测试（在JVM上驱动各界面）
+    testImplementation("org.robolectric:robolectric:4.11.1")
+    testImplementation("androidx.test:core:1.5.0")
     androidTestImplementation("androidx.test.ext:junit:1.1.5")
     androidTestImplementation("androidx.test.espresso:espresso-core:3.5.1")
 }
\ No newline at end of file
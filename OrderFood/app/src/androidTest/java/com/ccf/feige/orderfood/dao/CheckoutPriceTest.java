@@ -0,0 +1,106 @@
+package com.ccf.feige.orderfood.dao;
+
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.ccf.feige.orderfood.bean.CartBean;
+import com.ccf.feige.orderfood.bean.FoodBean;
+import com.ccf.feige.orderfood.bean.OrderBean;
+import com.ccf.feige.orderfood.bean.OrderDetailBean;
+import com.ccf.feige.orderfood.db.TestDatabase;
+import com.ccf.feige.orderfood.until.Tools;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 结算改价测试：商品加入购物车后商家改价，结算弹窗中的明细单价、总金额、购物车总金额和订单中记录的快照单价一致
+ * 说明：按UserBottomDialog的流程调用FoodDao.fillOrderDetails、CartBean.updatePrices，再用弹窗中的明细下单
+ */
+@RunWith(AndroidJUnit4.class)
+public class CheckoutPriceTest {
+
+    private SQLiteDatabase db;
+    private FoodBean food;
+
+    @Before
+    public void setUp() {
+        // 内存数据库（不复制内置图片），不影响应用真实数据
+        db = TestDatabase.attach();
+        food = FoodDao.getAllFoodListByBusinessId("admin").get(0);
+    }
+
+    @After
+    public void tearDown() {
+        TestDatabase.detach(db);
+    }
+
+    @Test
+    public void priceChangedAfterAddToCart_checkoutUsesCurrentPrice() {
+        CartBean cart = new CartBean();
+        cart.register(food);
+        cart.add(food.getFoodId());
+        cart.add(food.getFoodId());
+        long oldPrice = food.getFoodPriceCents();
+        assertEquals(2 * oldPrice, cart.getTotalCents());
+
+        // 加入购物车后商家涨价1元
+        long newPrice = oldPrice + 100;
+        assertEquals(1, updatePrice(newPrice));
+
+        // 打开结算弹窗：按当前价格补全明细，并更新购物车
+        List<OrderDetailBean> details = FoodDao.fillOrderDetails(cart.toOrderDetails());
+        cart.updatePrices(details);
+        assertEquals(1, details.size());
+        assertEquals(newPrice, details.get(0).getFoodPriceCents());
+        long shownTotal = sum(details);
+        assertEquals(2 * newPrice, shownTotal);
+        assertEquals(shownTotal, cart.getTotalCents());
+
+        // 下单后订单明细中的单价与弹窗一致
+        assertEquals(shownTotal, sum(placeOrder("o1", details)));
+    }
+
+    @Test
+    public void priceChangedAfterDialogOpened_orderKeepsShownPrice() {
+        CartBean cart = new CartBean();
+        cart.register(food);
+        cart.add(food.getFoodId());
+        List<OrderDetailBean> details = FoodDao.fillOrderDetails(cart.toOrderDetails());
+        cart.updatePrices(details);
+        long shownTotal = sum(details);
+
+        // 弹窗打开后商家又改价：订单引用弹窗中展示的版本（旧快照），不按新价格计价
+        assertEquals(1, updatePrice(food.getFoodPriceCents() + 300));
+        List<OrderDetailBean> ordered = placeOrder("o2", details);
+        assertEquals(shownTotal, sum(ordered));
+        assertEquals(food.getFoodPriceCents(), ordered.get(0).getFoodPriceCents());
+    }
+
+    private int updatePrice(long priceCents) {
+        return FoodDao.updateFood(food.getFoodId(), food.getFoodName(), food.getFoodDes(),
+                Tools.centsToYuan(priceCents), food.getFoodImg());
+    }
+
+    private List<OrderDetailBean> placeOrder(String orderId, List<OrderDetailBean> details) {
+        OrderBean order = new OrderBean(orderId, System.currentTimeMillis(), "admin", "test", "d_" + orderId,
+                Integer.parseInt(OrderBean.ORDER_STA_UNHANDLED), "张三-南京-13800000000");
+        assertEquals(1, OrderDao.placeOrder(order, details));
+        return OrderDao.getAllOrderDetail("d_" + orderId);
+    }
+
+    private static long sum(List<OrderDetailBean> details) {
+        long total = 0;
+        for (OrderDetailBean detail : details) {
+            total += detail.getSubtotalCents();
+        }
+        return total;
+    }
+}
@@ -0,0 +1,148 @@
+package com.ccf.feige.orderfood.dao;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.ccf.feige.orderfood.bean.OrderBean;
+import com.ccf.feige.orderfood.bean.OrderDetailBean;
+import com.ccf.feige.orderfood.db.TestDatabase;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 订单归档测试：只移动超过期限的已完成订单；待处理列表只查订单主表；历史列表、搜索、明细、评论对已归档订单照常可用
+ * 说明：在内存数据库中下4个订单——100天前的已完成订单、已评论订单、未处理订单，以及1天前的已完成订单，按90天期限归档
+ */
+@RunWith(AndroidJUnit4.class)
+public class OrderArchiveTest {
+
+    private static final long DAY_MS = 24L * 60 * 60 * 1000;
+
+    private SQLiteDatabase db;
+    private final long now = System.currentTimeMillis();
+
+    @Before
+    public void setUp() {
+        // 内存数据库（不复制内置图片），不影响应用真实数据
+        db = TestDatabase.attach();
+
+        placeOrder("old_finish", now - 100 * DAY_MS, OrderBean.ORDER_STA_FINISH, "南京烤鸭");
+        placeOrder("old_commented", now - 100 * DAY_MS + 1, OrderBean.ORDER_STA_FINISH_COMMENTED, "鸭血粉丝汤");
+        placeOrder("old_pending", now - 100 * DAY_MS + 2, OrderBean.ORDER_STA_UNHANDLED, "金陵汤包");
+        placeOrder("recent_finish", now - DAY_MS, OrderBean.ORDER_STA_FINISH, "南京烤鸭");
+        assertEquals(2, OrderArchive.archiveBefore(now - 90 * DAY_MS));
+    }
+
+    @After
+    public void tearDown() {
+        TestDatabase.detach(db);
+    }
+
+    @Test
+    public void archive_movesOnlyOldFinishedOrders() {
+        assertEquals(2, count("select count(*) from d_orders_archive where s_order_id in ('old_finish', 'old_commented')"));
+        assertEquals(0, count("select count(*) from d_orders where s_order_id in ('old_finish', 'old_commented')"));
+        // 明细、全文索引行随订单一起移动
+        assertEquals(0, count("select count(*) from d_order_details where s_details_id in ('d_old_finish', 'd_old_commented')"));
+        assertEquals(2, count("select count(*) from d_order_details_archive"));
+        assertEquals(2, count("select count(*) from d_orders_archive_fts"));
+        assertEquals(count("select count(*) from d_orders"), count("select count(*) from d_orders_fts"));
+        // 没有可归档的订单时返回0
+        assertEquals(0, OrderArchive.archiveBefore(now - 90 * DAY_MS));
+    }
+
+    @Test
+    public void pendingList_onlyHotOrders_historyListIncludesArchive() {
+        List<String> pending = orderIds(OrderDao.pageOrdersBySta("admin", OrderBean.ORDER_STA_UNHANDLED, null, 20).loadFirst());
+        assertTrue(pending.contains("old_pending"));
+
+        // 已处理订单：主表和归档表按时间倒序合并，已归档订单的明细从归档明细表装配
+        List<OrderBean> finished = OrderDao.pageOrdersFinish("admin", null, 20).loadFirst();
+        List<String> ids = orderIds(finished);
+        assertTrue(ids.indexOf("recent_finish") < ids.indexOf("old_commented"));
+        assertTrue(ids.indexOf("old_commented") < ids.indexOf("old_finish"));
+        OrderBean archived = finished.get(ids.indexOf("old_finish"));
+        assertEquals(1, archived.getOrderDetailBeanList().size());
+        assertEquals("南京烤鸭", archived.getOrderDetailBeanList().get(0).getFoodName());
+        assertEquals(1, OrderDao.getAllOrderDetail("d_old_finish").size());
+
+        // 键集分页跨越两张表：从recent_finish之后继续加载，能加载到归档订单
+        OrderBean recent = finished.get(ids.indexOf("recent_finish"));
+        List<String> older = orderIds(OrderDao.pageOrdersByUser("test", null, 20)
+                .loadOlderThan(recent.getOrderTimeMillis(), recent.getOrderId()));
+        assertTrue(older.contains("old_finish") && older.contains("old_pending"));
+    }
+
+    @Test
+    public void search_findsArchivedOrders() {
+        List<String> ids = orderIds(OrderDao.pageOrdersFinish("admin", "烤鸭", 20).loadFirst());
+        assertEquals(2, ids.size());
+        assertEquals("recent_finish", ids.get(0));
+        assertEquals("old_finish", ids.get(1));
+    }
+
+    @Test
+    public void loadOrdersByIds_manyIdsWithArchive_staysWithinBindLimit() {
+        // 同时查询归档表时每个ID绑定两次：600个ID需分批查询，否则超出SQLite的999个绑定变量上限
+        // 三个存在的订单分散在不同批次中
+        List<String> ids = new ArrayList<>();
+        ids.add("old_finish");
+        for (int i = 0; i < 597; i++) {
+            ids.add("missing_" + i);
+            if (i == 300) {
+                ids.add("recent_finish");
+            }
+        }
+        ids.add("old_pending");
+        List<String> loaded = orderIds(OrderRepository.loadOrdersByIds(ids, true));
+        assertEquals(3, loaded.size());
+        // 多批结果合并后仍按时间倒序
+        assertEquals("recent_finish", loaded.get(0));
+        assertEquals("old_pending", loaded.get(1));
+        assertEquals("old_finish", loaded.get(2));
+    }
+
+    @Test
+    public void commentArchivedOrder_updatesArchive() {
+        assertEquals(1, OrderDao.updateOrderStatusToCommented("old_finish"));
+        assertEquals(4, count("select s_order_sta from d_orders_archive where s_order_id='old_finish'"));
+        // 已归档订单不能改回未完成状态
+        assertEquals(0, OrderDao.updateOrderStatus("old_finish", OrderBean.ORDER_STA_UNHANDLED));
+    }
+
+    private void placeOrder(String orderId, long time, String sta, String foodName) {
+        OrderBean order = new OrderBean(orderId, time, "admin", "test", "d_" + orderId,
+                Integer.parseInt(sta), "张三-南京-13800000000");
+        List<OrderDetailBean> details = new ArrayList<>();
+        details.add(new OrderDetailBean(null, "1", foodName, "描述", 1900L, 1, ""));
+        assertEquals(1, OrderDao.placeOrder(order, details));
+    }
+
+    private static List<String> orderIds(List<OrderBean> orders) {
+        List<String> ids = new ArrayList<>();
+        for (OrderBean order : orders) {
+            ids.add(order.getOrderId());
+        }
+        return ids;
+    }
+
+    private long count(String sql) {
+        Cursor rs = db.rawQuery(sql, null);
+        try {
+            return rs.moveToNext() ? rs.getLong(0) : 0;
+        } finally {
+            rs.close();
+        }
+    }
+}
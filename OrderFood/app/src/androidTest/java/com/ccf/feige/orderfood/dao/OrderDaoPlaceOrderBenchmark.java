@@ -0,0 +1,153 @@
+package com.ccf.feige.orderfood.dao;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.ccf.feige.orderfood.bean.OrderBean;
+import com.ccf.feige.orderfood.bean.OrderDetailBean;
+import com.ccf.feige.orderfood.db.DBManager;
+import com.ccf.feige.orderfood.db.TestDatabase;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 下单耗时基准测试：对比OrderDao.placeOrder（单事务 + 预编译语句复用）与原有逐条自动提交写法
+ * 说明：使用独立的数据库文件（每次自动提交都会真实落盘），分别测量每单1、10、50道菜品时的单笔下单耗时，
+ * 结果以中位数/平均值输出到logcat（TAG：OrderDaoPlaceOrderBenchmark）
+ */
+@RunWith(AndroidJUnit4.class)
+public class OrderDaoPlaceOrderBenchmark {
+
+    private static final String TAG = "OrderDaoPlaceOrderBenchmark";
+    // 每种菜品数量下的预热次数与测量次数
+    private static final int WARMUP = 5;
+    private static final int ROUNDS = 30;
+
+    private File dbFile;
+    private SQLiteDatabase db;
+
+    @Before
+    public void setUp() {
+        Context appContext = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        dbFile = new File(appContext.getCacheDir(), "bench_place_order.db");
+        // 文件数据库（不复制内置图片），测量包含磁盘同步的耗时
+        db = TestDatabase.create(dbFile);
+        DBManager.attach(db);
+    }
+
+    @After
+    public void tearDown() {
+        // 断开测试连接，避免影响其他测试（应用代码会通过DBManager.init()重新打开数据库）
+        DBManager.attach(null);
+        db.close();
+        SQLiteDatabase.deleteDatabase(dbFile);
+    }
+
+    @Test
+    public void placeOrder_latencyPerOrder() {
+        for (int items : new int[]{1, 10, 50}) {
+            // 预热
+            for (int i = 0; i < WARMUP; i++) {
+                assertEquals(1, OrderDao.placeOrder(newOrder(), newDetails(items)));
+                placeOrderLegacy(newOrder(), newDetails(items));
+            }
+            long[] batched = new long[ROUNDS];
+            long[] legacy = new long[ROUNDS];
+            for (int i = 0; i < ROUNDS; i++) {
+                OrderBean order = newOrder();
+                List<OrderDetailBean> details = newDetails(items);
+                long start = System.nanoTime();
+                assertEquals(1, OrderDao.placeOrder(order, details));
+                batched[i] = System.nanoTime() - start;
+
+                OrderBean legacyOrder = newOrder();
+                List<OrderDetailBean> legacyDetails = newDetails(items);
+                start = System.nanoTime();
+                placeOrderLegacy(legacyOrder, legacyDetails);
+                legacy[i] = System.nanoTime() - start;
+            }
+            Log.i(TAG, "items=" + items + " placeOrder " + summary(batched) + " | legacy " + summary(legacy));
+        }
+    }
+
+    @Test
+    public void placeOrder_rollsBackOnFailure() {
+        OrderBean order = newOrder();
+        assertEquals(1, OrderDao.placeOrder(order, newDetails(3)));
+
+        // 订单ID重复导致主表插入失败，整个事务回滚，新的详情ID下不应残留任何明细
+        OrderBean duplicate = newOrder();
+        duplicate.setOrderId(order.getOrderId());
+        assertEquals(0, OrderDao.placeOrder(duplicate, newDetails(3)));
+        assertEquals(0, count("select count(*) from d_order_details where s_details_id=?", duplicate.getOrderDetailsId()));
+        assertEquals(3, count("select count(*) from d_order_details where s_details_id=?", order.getOrderDetailsId()));
+    }
+
+    /**
+     * 原有写法：主表和每条详情各自自动提交（对照组）
+     */
+    private void placeOrderLegacy(OrderBean order, List<OrderDetailBean> details) {
+        OrderDao.installOrder(order.getOrderId(), order.getOrderTime(), order.getBusinessId(), order.getUserId(),
+                order.getOrderDetailsId(), order.getOrderStatus(), order.getOrderAddress());
+        for (OrderDetailBean detail : details) {
+            detail.setDetailsId(order.getOrderDetailsId());
+            OrderDao.saveOrderDetail(detail);
+        }
+    }
+
+    private OrderBean newOrder() {
+        return new OrderBean(uuid(), System.currentTimeMillis(), "admin", "test", uuid(),
+                Integer.parseInt(OrderBean.ORDER_STA_UNHANDLED), "张三-南京-13800000000");
+    }
+
+    private List<OrderDetailBean> newDetails(int items) {
+        List<OrderDetailBean> details = new ArrayList<>();
+        for (int i = 0; i < items; i++) {
+            details.add(new OrderDetailBean(null, "food" + i, "菜品" + i, "描述", 1900L, 2, ""));
+        }
+        return details;
+    }
+
+    private int count(String sql, String... args) {
+        Cursor rs = db.rawQuery(sql, args);
+        try {
+            rs.moveToFirst();
+            return rs.getInt(0);
+        } finally {
+            rs.close();
+        }
+    }
+
+    private static String uuid() {
+        return UUID.randomUUID().toString().replace("-", "");
+    }
+
+    /**
+     * 汇总耗时：中位数与平均值（单位：毫秒）
+     */
+    private static String summary(long[] nanos) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        long total = 0;
+        for (long n : sorted) {
+            total += n;
+        }
+        return String.format("median=%.3fms avg=%.3fms", sorted[sorted.length / 2] / 1e6, total / (double) sorted.length / 1e6);
+    }
+}
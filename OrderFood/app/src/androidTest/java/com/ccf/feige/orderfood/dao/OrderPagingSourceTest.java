@@ -0,0 +1,211 @@
+package com.ccf.feige.orderfood.dao;
+
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.ccf.feige.orderfood.bean.OrderBean;
+import com.ccf.feige.orderfood.bean.OrderDetailBean;
+import com.ccf.feige.orderfood.db.TestDatabase;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 订单键集分页测试：下单时间相同的订单按订单ID区分先后，逐页向下、向上加载既不重复也不遗漏；
+ * 边界订单被移出列表后仍能从原边界继续加载；窗口头部被裁剪后loadRange只加载首尾边界之间的订单；关键词分页走全文索引
+ * 说明：在内存数据库中为用户test下单，每页3个订单；时间相同的订单分别位于订单主表和归档表中（历史列表合并两张表分页）
+ */
+@RunWith(AndroidJUnit4.class)
+public class OrderPagingSourceTest {
+
+    private static final long DAY_MS = 24L * 60 * 60 * 1000;
+    private static final int PAGE_SIZE = 3;
+
+    private SQLiteDatabase db;
+    private final long now = System.currentTimeMillis();
+    // 旧订单的下单时间：t0~t5共6个订单同一时间，其中奇数号为已完成订单（归档），偶数号为未处理订单
+    private final long tiedTime = now - 100 * DAY_MS;
+
+    @Before
+    public void setUp() {
+        // 内存数据库（不复制内置图片），不影响应用真实数据
+        db = TestDatabase.attach();
+        for (int i = 0; i < 6; i++) {
+            placeOrder("t" + i, tiedTime, i % 2 == 1 ? OrderBean.ORDER_STA_FINISH : OrderBean.ORDER_STA_UNHANDLED,
+                    i < 3 ? "南京烤鸭" : "金陵汤包");
+        }
+        // 近期订单：n0~n3时间各不相同，n2、n3与t系列同样匹配"烤鸭"
+        for (int i = 0; i < 4; i++) {
+            placeOrder("n" + i, now - (4 - i) * DAY_MS, OrderBean.ORDER_STA_UNHANDLED, i < 2 ? "鸭血粉丝汤" : "南京烤鸭");
+        }
+        assertEquals(3, OrderArchive.archiveBefore(now - 90 * DAY_MS));
+    }
+
+    @After
+    public void tearDown() {
+        TestDatabase.detach(db);
+    }
+
+    @Test
+    public void tiedOrderTimes_pagesWithoutGapsOrDuplicates() {
+        // 历史列表：主表和归档表中时间相同的订单按订单ID倒序合并
+        List<String> all = Arrays.asList("n3", "n2", "n1", "n0", "t5", "t4", "t3", "t2", "t1", "t0");
+        OrderPagingSource history = OrderDao.pageOrdersByUser("test", null, PAGE_SIZE);
+        assertEquals(all, loadDown(history));
+        assertEquals(all, loadUp(history, "t0"));
+
+        // 待处理列表只查主表：t0、t2、t4时间相同
+        OrderPagingSource pending = OrderDao.pageOrdersByStaAndUser("test", OrderBean.ORDER_STA_UNHANDLED, null, PAGE_SIZE);
+        List<String> hot = Arrays.asList("n3", "n2", "n1", "n0", "t4", "t2", "t0");
+        assertEquals(hot, loadDown(pending));
+        assertEquals(hot, loadUp(pending, "t0"));
+    }
+
+    @Test
+    public void loadNewerThan_returnsAdjacentPageNewestFirst() {
+        OrderPagingSource history = OrderDao.pageOrdersByUser("test", null, PAGE_SIZE);
+        // 边界t2与t3、t4、t5时间相同：紧挨在t2之前的一页是t5、t4、t3
+        assertEquals(Arrays.asList("t5", "t4", "t3"), orderIds(history.loadNewerThan(tiedTime, "t2")));
+        assertEquals(Arrays.asList("n1", "n0", "t5"), orderIds(history.loadNewerThan(tiedTime, "t4")));
+        // 头部之前只剩不足一页时返回剩余的订单
+        OrderBean n1 = find(history, "n1");
+        assertEquals(Arrays.asList("n3", "n2"), orderIds(history.loadNewerThan(n1.getOrderTimeMillis(), "n1")));
+        OrderBean n3 = find(history, "n3");
+        assertTrue(history.loadNewerThan(n3.getOrderTimeMillis(), "n3").isEmpty());
+    }
+
+    @Test
+    public void boundaryOrdersRemoved_keysetContinuesFromOldBounds() {
+        OrderPagingSource pending = OrderDao.pageOrdersByStaAndUser("test", OrderBean.ORDER_STA_UNHANDLED, null, PAGE_SIZE);
+        List<OrderBean> first = pending.loadFirst();
+        assertEquals(Arrays.asList("n3", "n2", "n1"), orderIds(first));
+        OrderBean head = first.get(0);
+        OrderBean tail = first.get(first.size() - 1);
+
+        // 首尾边界订单被接单（移出待处理列表）后，键集仍从原边界继续
+        assertEquals(1, OrderDao.updateOrderStatus("n3", OrderBean.ORDER_STA_FINISH));
+        assertEquals(1, OrderDao.updateOrderStatus("n1", OrderBean.ORDER_STA_CANCEL));
+        assertEquals(Arrays.asList("n0", "t4", "t2"), orderIds(pending.loadOlderThan(tail.getOrderTimeMillis(), tail.getOrderId())));
+        assertEquals(Arrays.asList("n2"), orderIds(pending.loadRange(false, head.getOrderTimeMillis(), head.getOrderId(),
+                tail.getOrderTimeMillis(), tail.getOrderId(), PAGE_SIZE * 5)));
+        assertEquals(Arrays.asList("n2"), orderIds(pending.loadNewerThan(tail.getOrderTimeMillis(), tail.getOrderId())));
+
+        // 边界t2（与t0、t4同一时间）被接单后，向下仍只加载t0
+        assertEquals(1, OrderDao.updateOrderStatus("t2", OrderBean.ORDER_STA_FINISH));
+        assertEquals(Arrays.asList("t0"), orderIds(pending.loadOlderThan(tiedTime, "t2")));
+    }
+
+    @Test
+    public void loadRange_headTrimmed_onlyBetweenBounds() {
+        OrderPagingSource history = OrderDao.pageOrdersByUser("test", null, PAGE_SIZE);
+        // 窗口头部已裁剪到t5：新下的订单不在范围内，只在向上滚动时由loadNewerThan加载
+        placeOrder("new", now, OrderBean.ORDER_STA_UNHANDLED, "南京烤鸭");
+        assertEquals(Arrays.asList("t5", "t4", "t3", "t2", "t1"),
+                orderIds(history.loadRange(false, tiedTime, "t5", tiedTime, "t1", PAGE_SIZE * 5)));
+        // 超出条数上限时保留靠近头部的订单
+        assertEquals(Arrays.asList("t5", "t4"),
+                orderIds(history.loadRange(false, tiedTime, "t5", tiedTime, "t1", 2)));
+        // 头部未被裁剪时从最新的订单开始，新订单出现在最前面
+        List<String> newest = orderIds(history.loadRange(true, 0, null, tiedTime, "t4", PAGE_SIZE * 5));
+        assertEquals(Arrays.asList("new", "n3", "n2", "n1", "n0", "t5", "t4"), newest);
+        assertEquals(Arrays.asList("n0", "t5", "t4"), orderIds(history.loadNewerThan(tiedTime, "t3")));
+    }
+
+    @Test
+    public void keyword_pagesThroughSearchIndex() {
+        // 匹配"烤鸭"的订单：n3、n2，以及同一时间的t2（归档）、t1（归档）、t0
+        List<String> matched = Arrays.asList("n3", "n2", "t2", "t1", "t0");
+        OrderPagingSource history = OrderDao.pageOrdersByUser("test", "烤鸭", PAGE_SIZE);
+        assertEquals(matched, loadDown(history));
+        assertEquals(matched, loadUp(history, "t0"));
+        assertEquals(Arrays.asList("n2", "t2", "t1"), orderIds(history.loadNewerThan(tiedTime, "t0")));
+        assertEquals(Arrays.asList("t2", "t1"),
+                orderIds(history.loadRange(false, tiedTime, "t2", tiedTime, "t1", PAGE_SIZE * 5)));
+
+        // 待处理列表只搜索主表
+        OrderPagingSource pending = OrderDao.pageOrdersByStaAndUser("test", OrderBean.ORDER_STA_UNHANDLED, "烤鸭", PAGE_SIZE);
+        assertEquals(Arrays.asList("n3", "n2", "t2", "t0"), loadDown(pending));
+        assertEquals(Arrays.asList("t2", "t0"), orderIds(pending.loadOlderThan(tiedTime, "t4")));
+    }
+
+    /**
+     * 从第一页开始逐页向下加载到最后，每页不超过PAGE_SIZE
+     */
+    private static List<String> loadDown(OrderPagingSource source) {
+        List<String> ids = new ArrayList<>();
+        List<OrderBean> page = source.loadFirst();
+        while (!page.isEmpty()) {
+            assertTrue(page.size() <= PAGE_SIZE);
+            ids.addAll(orderIds(page));
+            OrderBean tail = page.get(page.size() - 1);
+            page = source.loadOlderThan(tail.getOrderTimeMillis(), tail.getOrderId());
+        }
+        assertEquals("分页结果中有重复的订单", ids.size(), new HashSet<>(ids).size());
+        return ids;
+    }
+
+    /**
+     * 从最旧的订单开始逐页向上加载到最新（模拟窗口头部被裁剪后向上滚动），返回按时间倒序排列的全部订单
+     */
+    private static List<String> loadUp(OrderPagingSource source, String oldestId) {
+        OrderBean oldest = find(source, oldestId);
+        List<List<String>> pages = new ArrayList<>();
+        long time = oldest.getOrderTimeMillis();
+        String id = oldestId;
+        List<OrderBean> page;
+        while (!(page = source.loadNewerThan(time, id)).isEmpty()) {
+            assertTrue(page.size() <= PAGE_SIZE);
+            pages.add(0, orderIds(page));
+            time = page.get(0).getOrderTimeMillis();
+            id = page.get(0).getOrderId();
+        }
+        List<String> all = new ArrayList<>();
+        for (List<String> p : pages) {
+            all.addAll(p);
+        }
+        all.add(oldestId);
+        assertEquals("分页结果中有重复的订单", all.size(), new HashSet<>(all).size());
+        return all;
+    }
+
+    private static OrderBean find(OrderPagingSource source, String orderId) {
+        List<OrderBean> page = source.loadFirst();
+        while (!page.isEmpty()) {
+            for (OrderBean order : page) {
+                if (order.getOrderId().equals(orderId)) {
+                    return order;
+                }
+            }
+            OrderBean tail = page.get(page.size() - 1);
+            page = source.loadOlderThan(tail.getOrderTimeMillis(), tail.getOrderId());
+        }
+        throw new AssertionError("未找到订单" + orderId);
+    }
+
+    private void placeOrder(String orderId, long time, String sta, String foodName) {
+        OrderBean order = new OrderBean(orderId, time, "admin", "test", "d_" + orderId,
+                Integer.parseInt(sta), "张三-南京-13800000000");
+        List<OrderDetailBean> details = new ArrayList<>();
+        details.add(new OrderDetailBean(null, "1", foodName, "描述", 1900L, 1, ""));
+        assertEquals(1, OrderDao.placeOrder(order, details));
+    }
+
+    private static List<String> orderIds(List<OrderBean> orders) {
+        List<String> ids = new ArrayList<>();
+        for (OrderBean order : orders) {
+            ids.add(order.getOrderId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,177 @@
+package com.ccf.feige.orderfood.db;
+
+import android.app.Activity;
+import android.app.Application;
+import android.app.Instrumentation;
+import android.content.Context;
+import android.content.Intent;
+import android.os.Bundle;
+import android.os.SystemClock;
+import android.util.Log;
+import android.view.View;
+import android.view.ViewTreeObserver;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.ccf.feige.orderfood.MainActivity;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 冷启动耗时测试：模拟应用启动（DBManager.init() + 打开登录界面），测量登录界面首帧绘制时间和数据库就绪时间
+ * 说明：分别测量首次安装（删除数据库文件，打开时需要复制预置数据库）和再次启动（数据库已存在）两种情况，
+ * 结果以中位数/平均值输出到logcat（TAG：ColdStartTest）。数据库在后台线程中打开，首帧时间不应受首次安装影响
+ */
+@RunWith(AndroidJUnit4.class)
+public class ColdStartTest {
+
+    private static final String TAG = "ColdStartTest";
+    private static final int ROUNDS = 5;
+    private static final long TIMEOUT_MS = 30000;
+
+    private final Instrumentation instrumentation = InstrumentationRegistry.getInstrumentation();
+    private final Context context = instrumentation.getTargetContext();
+
+    @After
+    public void tearDown() {
+        // 恢复为应用正常使用的数据库（测试中删除过数据库文件时会重新安装预置数据库）
+        DBManager.init(context);
+        DBManager.awaitReady(TIMEOUT_MS);
+    }
+
+    @Test
+    public void firstFrame_withAndWithoutSeeding() throws InterruptedException {
+        long[] seededFrame = new long[ROUNDS];
+        long[] seededReady = new long[ROUNDS];
+        long[] existingFrame = new long[ROUNDS];
+        long[] existingReady = new long[ROUNDS];
+        for (int i = 0; i < ROUNDS; i++) {
+            long[] seeded = launch(true);
+            seededFrame[i] = seeded[0];
+            seededReady[i] = seeded[1];
+            long[] existing = launch(false);
+            existingFrame[i] = existing[0];
+            existingReady[i] = existing[1];
+        }
+        Log.i(TAG, "首次安装（复制预置数据库） firstFrame " + summary(seededFrame) + " | dbReady " + summary(seededReady));
+        Log.i(TAG, "再次启动（数据库已存在） firstFrame " + summary(existingFrame) + " | dbReady " + summary(existingReady));
+    }
+
+    /**
+     * 模拟一次启动：关闭数据库（首次安装时同时删除数据库文件），与OrderFoodApplication一致调用DBManager.init()，再打开登录界面
+     * @param seed 是否删除数据库文件（打开时重新安装预置数据库）
+     * @return {首帧绘制耗时, 数据库就绪耗时}（毫秒，均从调用init()开始计时）
+     */
+    private long[] launch(boolean seed) throws InterruptedException {
+        DBManager.close();
+        if (seed) {
+            context.deleteDatabase(DBUntil.databaseName);
+        }
+        final long[] frameAt = {0};
+        final long[] readyAt = {0};
+        final CountDownLatch drawn = new CountDownLatch(1);
+        Application app = (Application) context.getApplicationContext();
+        Application.ActivityLifecycleCallbacks callbacks = new FirstDrawCallbacks(frameAt, drawn);
+        app.registerActivityLifecycleCallbacks(callbacks);
+        try {
+            long start = SystemClock.uptimeMillis();
+            DBManager.init(context);
+            // 在单独的线程中等待数据库就绪并记录时间（不影响主线程绘制）
+            Thread readyWatcher = new Thread(() -> {
+                DBManager.awaitReady(TIMEOUT_MS);
+                readyAt[0] = SystemClock.uptimeMillis();
+            });
+            readyWatcher.start();
+
+            Intent intent = new Intent(context, MainActivity.class)
+                    .addFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
+            Activity activity = instrumentation.startActivitySync(intent);
+            assertTrue("登录界面未绘制", drawn.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+            readyWatcher.join(TIMEOUT_MS);
+            assertTrue("数据库未就绪", DBManager.isReady());
+
+            activity.finish();
+            instrumentation.waitForIdleSync();
+            return new long[]{frameAt[0] - start, readyAt[0] - start};
+        } finally {
+            app.unregisterActivityLifecycleCallbacks(callbacks);
+        }
+    }
+
+    private static String summary(long[] millis) {
+        long[] sorted = millis.clone();
+        Arrays.sort(sorted);
+        long total = 0;
+        for (long m : sorted) {
+            total += m;
+        }
+        return String.format("median=%dms avg=%.1fms", sorted[sorted.length / 2], total / (double) sorted.length);
+    }
+
+    /**
+     * 记录登录界面首次绘制的时间
+     */
+    private static class FirstDrawCallbacks implements Application.ActivityLifecycleCallbacks {
+        private final long[] frameAt;
+        private final CountDownLatch drawn;
+
+        FirstDrawCallbacks(long[] frameAt, CountDownLatch drawn) {
+            this.frameAt = frameAt;
+            this.drawn = drawn;
+        }
+
+        @Override
+        public void onActivityCreated(Activity activity, Bundle savedInstanceState) {
+            if (!(activity instanceof MainActivity)) {
+                return;
+            }
+            final View decor = activity.getWindow().getDecorView();
+            decor.getViewTreeObserver().addOnDrawListener(new ViewTreeObserver.OnDrawListener() {
+                @Override
+                public void onDraw() {
+                    if (drawn.getCount() == 0) {
+                        return;
+                    }
+                    frameAt[0] = SystemClock.uptimeMillis();
+                    drawn.countDown();
+                    // 绘制回调中不能移除监听，投递到下一帧之前移除
+                    final ViewTreeObserver.OnDrawListener listener = this;
+                    decor.post(() -> decor.getViewTreeObserver().removeOnDrawListener(listener));
+                }
+            });
+        }
+
+        @Override
+        public void onActivityStarted(Activity activity) {
+        }
+
+        @Override
+        public void onActivityResumed(Activity activity) {
+        }
+
+        @Override
+        public void onActivityPaused(Activity activity) {
+        }
+
+        @Override
+        public void onActivityStopped(Activity activity) {
+        }
+
+        @Override
+        public void onActivitySaveInstanceState(Activity activity, Bundle outState) {
+        }
+
+        @Override
+        public void onActivityDestroyed(Activity activity) {
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.ccf.feige.orderfood.db;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 数据库迁移测试：40 → 41订单明细改为引用菜品快照，重复的菜品内容只保存一份，读取到的明细与迁移前一致
+ * 说明：在内存数据库中执行DBUntil.onCreate()后，把订单明细表还原为版本40的结构并写入旧数据，再执行onUpgrade(40, 41)
+ */
+@RunWith(AndroidJUnit4.class)
+public class DBUntilMigrationTest {
+
+    private SQLiteDatabase db;
+    private DBUntil helper;
+
+    @Before
+    public void setUp() {
+        // 内存数据库（不复制内置图片），不影响应用真实数据
+        db = TestDatabase.create();
+        helper = TestDatabase.newHelper();
+        // 还原版本40的订单明细表（每行复制菜品内容），删除版本41新增的快照表
+        db.execSQL("drop table d_order_details");
+        db.execSQL("drop table d_food_snapshot");
+        db.execSQL("create table d_order_details(s_details_id varchar(30), s_food_id varchar(20)," +
+                "s_food_name varchar(20), s_food_des varchar(200), s_food_price INTEGER DEFAULT 0," +
+                "s_food_num INTEGER DEFAULT 0, s_food_img varchar(255))");
+    }
+
+    @After
+    public void tearDown() {
+        db.close();
+    }
+
+    @Test
+    public void migrateTo41_deduplicatesDetailContent() {
+        // 菜品1下单时为旧价格（两个订单），涨价后又下单一次；菜品2的图片一次为null、一次为空字符串
+        db.execSQL("insert into d_order_details values " +
+                "('d1', '1', '南京烤鸭', '旧描述', 1800, 1, 'a.jpg'), ('d1', '2', '鸭血粉丝汤', '汤', 2400, 2, null), " +
+                "('d2', '1', '南京烤鸭', '旧描述', 1800, 3, 'a.jpg'), " +
+                "('d3', '1', '南京烤鸭', '新描述', 1900, 1, 'a.jpg'), ('d3', '2', '鸭血粉丝汤', '汤', 2400, 1, '')");
+
+        helper.onUpgrade(db, 40, 41);
+
+        // 明细中的3种内容 + onCreate写入的4道菜品当前内容（均与明细不同）
+        assertEquals(7, count("select count(*) from d_food_snapshot"));
+        assertEquals(2, count("select count(*) from d_food_snapshot where s_food_id='1' and s_food_name='南京烤鸭' " +
+                "and s_food_des in ('旧描述', '新描述')"));
+        // 版本号按首次出现的顺序编号：旧价格为版本1、新价格为版本2、菜品当前内容排在最后
+        assertEquals(1, count("select s_version from d_food_snapshot where s_food_id='1' and s_food_price=1800"));
+        assertEquals(2, count("select s_version from d_food_snapshot where s_food_id='1' and s_food_price=1900 and s_food_des='新描述'"));
+        assertEquals(3, count("select MAX(s_version) from d_food_snapshot where s_food_id='1'"));
+
+        // 明细行数、顺序、数量不变，关联快照后读取到的内容与迁移前一致（null按空字符串保存）
+        assertEquals(5, count("select count(*) from d_order_details"));
+        assertEquals(0, count("select count(*) from d_order_details where s_snapshot_id is null"));
+        assertEquals(1800 * 1 + 2400 * 2, count("select SUM(s.s_food_price * d.s_food_num) from d_order_details d " +
+                "join d_food_snapshot s on s.s_snapshot_id = d.s_snapshot_id where d.s_details_id='d1'"));
+        assertEquals(1, count("select COUNT(DISTINCT s_snapshot_id) from d_order_details where s_food_id='2'"));
+        assertEquals(2, count("select COUNT(DISTINCT s_snapshot_id) from d_order_details where s_food_id='1'"));
+    }
+
+    private long count(String sql) {
+        Cursor rs = db.rawQuery(sql, null);
+        try {
+            return rs.moveToNext() ? rs.getLong(0) : 0;
+        } finally {
+            rs.close();
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package com.ccf.feige.orderfood.db;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.ccf.feige.orderfood.until.Tools;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 查询计划测试：校验各DAO高频查询均命中DBUntil.createIndexes()创建的索引，不做全表扫描
+ * 说明：在内存数据库中执行DBUntil.onCreate()建表，再对每条DAO查询执行EXPLAIN QUERY PLAN，
+ * 若计划中出现未使用索引的SCAN（全表扫描）则测试失败
+ */
+@RunWith(AndroidJUnit4.class)
+public class DBUntilQueryPlanTest {
+
+    private SQLiteDatabase db;
+
+    @Before
+    public void setUp() {
+        // 内存数据库（不复制内置图片），不影响应用真实数据
+        db = TestDatabase.create();
+    }
+
+    @After
+    public void tearDown() {
+        db.close();
+    }
+
+    @Test
+    public void orderQueries_useIndex() {
+        // OrderPagingSource：商家按状态（pageOrdersBySta）
+        assertUsesIndexWithoutSort(DBQueries.WHERE_BUSINESS_STA, "admin", "1");
+        // OrderPagingSource：商家非未处理订单（pageOrdersFinish）
+        assertUsesIndexWithoutSort(DBQueries.WHERE_BUSINESS_FINISH, "admin", "1");
+        // OrderPagingSource：用户按状态（pageOrdersByStaAndUser）
+        assertUsesIndexWithoutSort(DBQueries.WHERE_USER_STA, "test", "1");
+        // OrderPagingSource：用户全部订单（pageOrdersByUser）
+        assertUsesIndexWithoutSort(DBQueries.WHERE_USER, "test");
+        // OrderRepository.getOrderDetailsByIds / getSnapshotsByIds / OrderDao.getAllOrderDetail
+        assertUsesIndex(DBQueries.selectDetailRows(DBQueries.DETAIL_TABLES[0], 2), "a", "b");
+        assertUsesIndex(DBQueries.selectSnapshots(2), "1", "2");
+        assertUsesIndex(DBQueries.SELECT_DETAILS, "a");
+    }
+
+    @Test
+    public void archiveQueries_useIndex() {
+        // 历史列表同时查询订单主表和归档表（OrderRepository.loadOrders的includeArchive）：两边各自走索引，归并合并，不额外排序
+        assertUnionUsesIndexWithoutSort(DBQueries.WHERE_BUSINESS_FINISH, "admin", "1");
+        assertUnionUsesIndexWithoutSort(DBQueries.WHERE_USER, "test");
+        // OrderRepository.getOrderDetailsByIds / OrderDao.getAllOrderDetail / OrderDao.updateOrderStatus：已归档订单
+        assertUsesIndex(DBQueries.selectDetailRows(DBQueries.DETAIL_TABLES[1], 2), "a", "b");
+        assertUsesIndex(DBQueries.SELECT_ARCHIVE_DETAILS, "a");
+        assertUsesIndex("select s_order_sta from d_orders_archive where s_order_id=?", "a");
+        // OrderArchive.archiveBatch：按(状态, 时间)索引定位一批订单，明细按详情ID定位
+        assertUsesIndex(DBQueries.SELECT_ARCHIVE_BATCH_BOUND, "3", "1000");
+        assertUsesIndex("SELECT s_order_id FROM d_orders WHERE s_order_sta=? AND s_order_time<=?", "3", "1000");
+        assertUsesIndex("SELECT s_details_id FROM d_order_details " +
+                "WHERE s_details_id IN (SELECT s_order_details_id FROM d_orders WHERE s_order_sta=? AND s_order_time<=?)", "3", "1000");
+    }
+
+    @Test
+    public void foodQueries_useIndex() {
+        // FoodDao.getAllFoodListByBusinessId
+        assertUsesIndex("SELECT f.* FROM d_food f " +
+                "LEFT JOIN d_business b ON f.s_business_id = b.s_id " +
+                "WHERE f.s_business_id=? AND f.s_is_delete=? AND b.s_is_delete=?", "admin", "0", "0");
+        // FoodDao.getAllFoodById
+        assertUsesIndex("SELECT f.* FROM d_food f " +
+                "LEFT JOIN d_business b ON f.s_business_id = b.s_id " +
+                "WHERE f.s_food_id=? AND f.s_is_delete=? AND b.s_is_delete=?", "1", "0", "0");
+        // FoodDao.getMouSalesNum（月销量汇总表按主键查询）
+        assertUsesIndex(DBQueries.SELECT_MONTHLY_SALES, "1", "202401", "0", "0");
+        // OrderDao.updateOrderStatus（累加月销量前按详情ID读取明细）/ FoodDao.getOrderDetailsByOrderAndFoodId
+        assertUsesIndex("SELECT s_food_id, SUM(s_food_num) FROM d_order_details WHERE s_details_id=? GROUP BY s_food_id", "a");
+        assertUsesIndex("select * from d_order_details where s_details_id=? and s_food_id=?", "a", "1");
+        // FoodDao.getOrCreateSnapshot：按菜品ID定位快照版本
+        assertUsesIndex(DBQueries.FIND_SNAPSHOT, "1", "南京烤鸭", "", "1900", "");
+    }
+
+    @Test
+    public void foodSearch_usesFullTextIndex() {
+        // FoodDao.getAllFoodListUser：全文索引匹配，菜品表按rowid回表，不扫描菜品表
+        String sql = "SELECT f.* FROM d_food_fts t " +
+                "JOIN d_food f ON f.rowid = t.docid " +
+                "LEFT JOIN d_business b ON f.s_business_id = b.s_id " +
+                "WHERE d_food_fts MATCH ? AND f.s_is_delete=? AND b.s_is_delete=?";
+        String match = Tools.toFtsMatchQuery("烤鸭");
+        Cursor rs = db.rawQuery("EXPLAIN QUERY PLAN " + sql, new String[]{match, "0", "0"});
+        try {
+            int detailIndex = rs.getColumnIndex("detail");
+            while (rs.moveToNext()) {
+                String detail = rs.getString(detailIndex);
+                // 全文索引的MATCH走虚拟表索引（VIRTUAL TABLE INDEX），其余表不能出现无索引的全表扫描
+                if (detail.startsWith("SCAN") && !detail.contains("VIRTUAL TABLE")) {
+                    assertTrue("出现全表扫描：" + detail, detail.contains("USING"));
+                }
+            }
+        } finally {
+            rs.close();
+        }
+
+        // onCreate()插入的初始化菜品已建立索引：名称或描述中包含"烤鸭"的为南京烤鸭、金陵汤包（描述"用烤鸭肉制成"）
+        assertEquals(2, count(sql, match));
+        // 中文按短语匹配："京"和"鸭"不相邻，不应匹配到"南京烤鸭"
+        assertEquals(0, count(sql, Tools.toFtsMatchQuery("京鸭")));
+        assertTrue(count(sql, Tools.toFtsMatchQuery("鸭")) >= 3);
+    }
+
+    /**
+     * 统计菜品搜索SQL的结果条数
+     * @param sql 菜品搜索SQL（参数依次为MATCH表达式、菜品未删除、商家未注销）
+     * @param match MATCH表达式
+     * @return 结果条数
+     */
+    private int count(String sql, String match) {
+        Cursor rs = db.rawQuery(sql, new String[]{match, "0", "0"});
+        try {
+            return rs.getCount();
+        } finally {
+            rs.close();
+        }
+    }
+
+    @Test
+    public void orderSearch_usesFullTextIndex() {
+        // 准备两个订单：test用户（张硕）购买南京烤鸭+鸭血粉丝汤、购买金陵汤包
+        db.execSQL("insert into d_orders(s_order_id, s_order_time, s_business_id, s_user_id, s_order_details_id, s_order_sta) " +
+                "values ('o1', 1000, 'admin', 'test', 'd1', 1), ('o2', 2000, 'admin', 'test', 'd2', 1)");
+        // 菜品1、2、4的快照由onCreate写入（快照ID与菜品ID相同）
+        db.execSQL("insert into d_order_details(s_details_id, s_food_id, s_snapshot_id, s_food_num) " +
+                "values ('d1', '1', 1, 1), ('d1', '2', 2, 1), ('d2', '4', 4, 2)");
+        DBUntil.rebuildOrderSearchIndex(db);
+
+        // OrderRepository.searchOrderIds：全文索引匹配在外层，订单表按rowid回表，不扫描订单表
+        String sql = DBQueries.SELECT_SEARCH + " and " + DBQueries.WHERE_BUSINESS_STA + DBQueries.ORDER_BY_TIME_DESC;
+        Cursor rs = db.rawQuery("EXPLAIN QUERY PLAN " + sql, new String[]{Tools.toFtsMatchQuery("烤鸭"), "admin", "1"});
+        try {
+            int detailIndex = rs.getColumnIndex("detail");
+            assertTrue(rs.moveToNext());
+            // 第一步必须是全文索引匹配（MATCH只执行一次），而不是以订单表索引为外层逐行匹配
+            assertTrue("全文索引不在外层：" + rs.getString(detailIndex), rs.getString(detailIndex).contains("VIRTUAL TABLE"));
+            while (rs.moveToNext()) {
+                String detail = rs.getString(detailIndex);
+                if (detail.startsWith("SCAN")) {
+                    assertTrue("出现全表扫描：" + detail, detail.contains("USING"));
+                }
+            }
+        } finally {
+            rs.close();
+        }
+
+        // 按菜品名称匹配：只有o1包含烤鸭；按用户昵称匹配：两个订单都属于张硕
+        assertEquals(1, countOrders(sql, "烤鸭"));
+        assertEquals(2, countOrders(sql, "张硕"));
+        assertEquals(0, countOrders(sql, "盐水鸭"));
+    }
+
+    /**
+     * 统计订单搜索SQL的结果条数（商家admin、状态1）
+     * @param sql 订单搜索SQL（参数依次为MATCH表达式、商家ID、订单状态）
+     * @param keyword 搜索关键词
+     * @return 结果条数
+     */
+    private int countOrders(String sql, String keyword) {
+        Cursor rs = db.rawQuery(sql, new String[]{Tools.toFtsMatchQuery(keyword), "admin", "1"});
+        try {
+            return rs.getCount();
+        } finally {
+            rs.close();
+        }
+    }
+
+    @Test
+    public void commentAndAddressQueries_useIndex() {
+        // CommentDao.getCommetByBusinessId
+        assertUsesIndex("select * from d_comments where s_comment_business_id=?", "admin");
+        // CommentDao.getAvgScoreBusiness（评分汇总表按主键查询）
+        assertUsesIndex(DBQueries.SELECT_BUSINESS_RATING, "admin");
+        // AddressDao.getAllAddressByUserId
+        assertUsesIndex("select * from d_address where s_user_id=?", "test");
+    }
+
+    /**
+     * 断言查询计划中不存在全表扫描：所有SCAN行都必须带有USING（即覆盖索引扫描），且至少有一行使用了索引
+     * @param sql 待校验的查询语句
+     * @param args 查询参数
+     */
+    /**
+     * 断言订单分页查询（OrderPagingSource.loadOlderThan）走索引，且排序由索引顺序满足（不出现USE TEMP B-TREE FOR ORDER BY）
+     * @param where 订单表筛选条件（不含键集条件）
+     * @param args 筛选条件参数
+     */
+    private void assertUsesIndexWithoutSort(String where, String... args) {
+        String sql = DBQueries.SELECT_ORDERS + " where " + where + " and " + DBQueries.OLDER_THAN +
+                DBQueries.ORDER_BY_TIME_DESC + " LIMIT 20";
+        String[] pageArgs = withOlderThanArgs(args);
+        assertUsesIndex(sql, pageArgs);
+        assertNoSort(sql, pageArgs);
+    }
+
+    /**
+     * 断言订单主表 + 归档表的合并分页查询走索引，且不需要额外排序（两边按索引顺序归并）
+     * @param where 订单表筛选条件（含键集条件，两边相同）
+     * @param args 一边的查询参数
+     */
+    private void assertUnionUsesIndexWithoutSort(String where, String... args) {
+        String pageWhere = " where " + where + " and " + DBQueries.OLDER_THAN;
+        String sql = DBQueries.SELECT_ORDERS + pageWhere + " union all " + DBQueries.SELECT_ARCHIVE_ORDERS + pageWhere +
+                DBQueries.UNION_ORDER_BY_TIME_DESC + " LIMIT 20";
+        String[] pageArgs = withOlderThanArgs(args);
+        String[] both = new String[pageArgs.length * 2];
+        System.arraycopy(pageArgs, 0, both, 0, pageArgs.length);
+        System.arraycopy(pageArgs, 0, both, pageArgs.length, pageArgs.length);
+        assertUsesIndex(sql, both);
+        assertNoSort(sql, both);
+    }
+
+    /**
+     * 在筛选条件参数后追加键集条件的参数（边界订单的时间和订单ID）
+     */
+    private static String[] withOlderThanArgs(String[] args) {
+        String[] pageArgs = new String[args.length + 2];
+        System.arraycopy(args, 0, pageArgs, 0, args.length);
+        pageArgs[args.length] = "9999999999999";
+        pageArgs[args.length + 1] = "zzz";
+        return pageArgs;
+    }
+
+    /**
+     * 断言查询计划中没有额外排序（USE TEMP B-TREE FOR ORDER BY）
+     * @param sql 待校验的查询语句
+     * @param args 查询参数
+     */
+    private void assertNoSort(String sql, String... args) {
+        Cursor rs = db.rawQuery("EXPLAIN QUERY PLAN " + sql, args);
+        try {
+            int detailIndex = rs.getColumnIndex("detail");
+            while (rs.moveToNext()) {
+                String detail = rs.getString(detailIndex);
+                assertFalse("分页查询需要额外排序：" + detail + "，SQL：" + sql, detail.contains("TEMP B-TREE"));
+            }
+        } finally {
+            rs.close();
+        }
+    }
+
+    private void assertUsesIndex(String sql, String... args) {
+        List<String> plan = new ArrayList<>();
+        Cursor rs = db.rawQuery("EXPLAIN QUERY PLAN " + sql, args);
+        try {
+            int detailIndex = rs.getColumnIndex("detail");
+            while (rs.moveToNext()) {
+                plan.add(rs.getString(detailIndex));
+            }
+        } finally {
+            rs.close();
+        }
+        assertFalse("查询计划为空：" + sql, plan.isEmpty());
+        boolean usesIndex = false;
+        for (String detail : plan) {
+            if (detail.startsWith("SCAN")) {
+                assertTrue("出现全表扫描：" + detail + "，SQL：" + sql, detail.contains("USING"));
+            }
+            if (detail.contains("USING")) {
+                usesIndex = true;
+            }
+        }
+        assertTrue("未使用索引：" + plan + "，SQL：" + sql, usesIndex);
+    }
+}
@@ -0,0 +1,163 @@
+package com.ccf.feige.orderfood.db;
+
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.ccf.feige.orderfood.bean.OrderBean;
+import com.ccf.feige.orderfood.bean.OrderDetailBean;
+import com.ccf.feige.orderfood.dao.AddressDao;
+import com.ccf.feige.orderfood.dao.OrderDao;
+import com.ccf.feige.orderfood.dao.OrderPagingSource;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 表级失效通知测试：写SQL解析出的表、事务提交后才通知、多次写入合并为一次回调、下单后商家待处理列表能查到新订单
+ */
+@RunWith(AndroidJUnit4.class)
+public class InvalidationTrackerTest {
+
+    private static final long TIMEOUT_MS = 5000;
+
+    private SQLiteDatabase db;
+    private final List<InvalidationTracker.Observer> observers = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        // 内存数据库（不复制内置图片），不影响应用真实数据
+        db = TestDatabase.attach();
+    }
+
+    @After
+    public void tearDown() {
+        for (InvalidationTracker.Observer observer : observers) {
+            InvalidationTracker.removeObserver(observer);
+        }
+        TestDatabase.detach(db);
+    }
+
+    @Test
+    public void parseTable_writeStatements() {
+        assertEquals("d_orders", InvalidationTracker.parseTable("INSERT INTO d_orders (s_order_id) VALUES (?)"));
+        assertEquals("d_business_rating", InvalidationTracker.parseTable("insert or replace into d_business_rating values (?)"));
+        assertEquals("d_user", InvalidationTracker.parseTable("  update d_user set s_name=? where s_id=?"));
+        assertEquals("d_food_fts", InvalidationTracker.parseTable("DELETE FROM d_food_fts WHERE food_id=?"));
+        assertEquals("*", InvalidationTracker.parseTable("PRAGMA optimize"));
+    }
+
+    @Test
+    public void placeOrder_notifiesOrderTablesOnceAfterCommit() throws InterruptedException {
+        Recorder orders = observe(OrderPagingSource.TABLES);
+        Recorder addresses = observe("d_address");
+
+        OrderBean order = newOrder();
+        assertEquals(1, OrderDao.placeOrder(order, newDetails(3)));
+
+        assertTrue("未收到订单表变化通知", orders.await());
+        // 同一事务写入主表、明细、全文索引，合并为一次回调
+        assertEquals(1, orders.calls.get());
+        assertTrue(orders.tables.contains("d_orders"));
+        assertTrue(orders.tables.contains("d_order_details"));
+        assertEquals(0, addresses.calls.get());
+
+        // 回调时事务已提交：商家待处理订单列表能查到新订单
+        List<OrderBean> pendingOrders = OrderDao.pageOrdersBySta("admin", OrderBean.ORDER_STA_UNHANDLED, null,
+                OrderPagingSource.DEFAULT_PAGE_SIZE).loadFirst();
+        assertEquals(order.getOrderId(), pendingOrders.get(0).getOrderId());
+    }
+
+    @Test
+    public void writeInsideTransaction_notifiesAfterEnd() throws InterruptedException {
+        Recorder addresses = observe("d_address");
+        db.beginTransaction();
+        try {
+            assertEquals(1, AddressDao.addAddress("test", "张硕", "徐州市", "12312312312"));
+            db.setTransactionSuccessful();
+        } finally {
+            // 事务结束前不通知
+            InstrumentationRegistry.getInstrumentation().waitForIdleSync();
+            assertEquals(0, addresses.calls.get());
+            DBManager.endTransaction(db);
+        }
+        assertTrue("事务结束后未收到通知", addresses.await());
+        assertEquals(Collections.singleton("d_address"), addresses.tables);
+    }
+
+    @Test
+    public void removedObserver_isNotCalled() {
+        Recorder orders = observe(OrderPagingSource.TABLES);
+        InvalidationTracker.removeObserver(orders);
+        assertEquals(1, OrderDao.placeOrder(newOrder(), newDetails(1)));
+        InstrumentationRegistry.getInstrumentation().waitForIdleSync();
+        assertEquals(0, orders.calls.get());
+    }
+
+    private Recorder observe(String... tables) {
+        Recorder recorder = new Recorder(tables);
+        observers.add(recorder);
+        InvalidationTracker.addObserver(recorder);
+        return recorder;
+    }
+
+    private static OrderBean newOrder() {
+        return new OrderBean(uuid(), System.currentTimeMillis(), "admin", "test", uuid(),
+                Integer.parseInt(OrderBean.ORDER_STA_UNHANDLED), "张三-南京-13800000000");
+    }
+
+    private static List<OrderDetailBean> newDetails(int items) {
+        List<OrderDetailBean> details = new ArrayList<>();
+        for (int i = 0; i < items; i++) {
+            details.add(new OrderDetailBean(null, "food" + i, "菜品" + i, "描述", 1900L, 2, ""));
+        }
+        return details;
+    }
+
+    private static String uuid() {
+        return UUID.randomUUID().toString().replace("-", "");
+    }
+
+    /**
+     * 记录回调次数和变化的表
+     */
+    private static class Recorder extends InvalidationTracker.Observer {
+        final AtomicInteger calls = new AtomicInteger();
+        final Set<String> tables = Collections.synchronizedSet(new HashSet<>());
+        private final CountDownLatch called = new CountDownLatch(1);
+
+        Recorder(String... tables) {
+            super(tables);
+        }
+
+        @Override
+        public void onInvalidated(Set<String> changed) {
+            tables.addAll(changed);
+            calls.incrementAndGet();
+            called.countDown();
+        }
+
+        boolean await() throws InterruptedException {
+            boolean ok = called.await(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            // 等待主线程处理完已投递的回调，确认没有多余的回调
+            InstrumentationRegistry.getInstrumentation().waitForIdleSync();
+            return ok;
+        }
+    }
+}
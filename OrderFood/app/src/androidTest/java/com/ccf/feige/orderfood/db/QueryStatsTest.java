@@ -0,0 +1,85 @@
+package com.ccf.feige.orderfood.db;
+
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.ccf.feige.orderfood.dao.AddressDao;
+import com.ccf.feige.orderfood.dao.FoodDao;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * 查询统计测试：DAO调用按名称、界面累计次数和行数，并记录查询计划
+ */
+@RunWith(AndroidJUnit4.class)
+public class QueryStatsTest {
+
+    private SQLiteDatabase db;
+
+    @Before
+    public void setUp() {
+        // 内存数据库（不复制内置图片），不影响应用真实数据
+        db = TestDatabase.attach();
+        QueryStats.setEnabled(true);
+        QueryStats.setExplainAlways(true);
+        QueryStats.reset();
+    }
+
+    @After
+    public void tearDown() {
+        QueryStats.setExplainAlways(false);
+        QueryStats.setScreen(null);
+        QueryStats.reset();
+        TestDatabase.detach(db);
+    }
+
+    @Test
+    public void query_recordsCallsRowsAndScreen() {
+        QueryStats.setScreen("ManageManActivity");
+        FoodDao.getAllFoodListByBusinessId("admin");
+        FoodDao.getAllFoodListByBusinessId("admin");
+        QueryStats.setScreen("ManageUserActivity");
+        FoodDao.getAllFoodListByBusinessId("admin");
+
+        QueryStats.Snapshot snapshot = QueryStats.snapshot("FoodDao.getAllFoodListByBusinessId");
+        assertNotNull(snapshot);
+        assertEquals(3, snapshot.getCalls());
+        // onCreate插入了admin商家的4道菜品
+        assertEquals(12, snapshot.getRows());
+        assertEquals(Integer.valueOf(2), snapshot.getCallsByScreen().get("ManageManActivity"));
+        assertEquals(Integer.valueOf(1), snapshot.getCallsByScreen().get("ManageUserActivity"));
+        // 商家菜品列表走idx_food_business_delete索引
+        assertNotNull(snapshot.getPlan());
+        assertFalse(snapshot.getPlan(), snapshot.hasFullScan());
+    }
+
+    @Test
+    public void execute_recordsAffectedRows() {
+        assertEquals(1, AddressDao.addAddress("test", "张硕", "徐州市", "12312312312"));
+        QueryStats.Snapshot snapshot = QueryStats.snapshot("AddressDao.addAddress");
+        assertNotNull(snapshot);
+        assertEquals(1, snapshot.getCalls());
+        assertEquals(1, snapshot.getRows());
+        assertEquals(0, snapshot.getErrors());
+    }
+
+    @Test
+    public void disabled_recordsNothing() {
+        QueryStats.setEnabled(false);
+        try {
+            FoodDao.getAllFoodListByBusinessId("admin");
+            assertNull(QueryStats.snapshot("FoodDao.getAllFoodListByBusinessId"));
+        } finally {
+            QueryStats.setEnabled(true);
+        }
+    }
+}
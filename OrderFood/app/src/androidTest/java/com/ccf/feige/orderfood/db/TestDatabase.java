@@ -0,0 +1,74 @@
+package com.ccf.feige.orderfood.db;
+
+import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import java.io.File;
+
+/**
+ * 测试数据库工具类：建好全部表结构并写入内置初始化数据（商家admin、用户test、4道菜品）
+ * 说明：
+ * 1. 数据库建在内存中（或测试指定的缓存目录文件中），不读写应用真实的db_takeaway.db
+ * 2. 建库时不复制内置图片：图片路径指向缓存目录下的临时目录TEST_IMAGE_DIR，应用files目录下的seed_images不受影响
+ *    （DBUntil(Context)的onCreate会把图片复制到files目录，测试中请勿直接使用）
+ */
+public final class TestDatabase {
+
+    /** 测试数据库中内置图片路径的目录名（位于缓存目录下，不实际创建） */
+    private static final String TEST_IMAGE_DIR = "test_seed_images";
+
+    private TestDatabase() {
+    }
+
+    /**
+     * 创建测试用的数据库辅助类（onCreate不复制内置图片）
+     * @return DBUntil对象，迁移测试可调用其onCreate/onUpgrade
+     */
+    public static DBUntil newHelper() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        return new DBUntil(context, new File(context.getCacheDir(), TEST_IMAGE_DIR).getAbsolutePath());
+    }
+
+    /**
+     * 创建内存数据库，建表并写入内置初始化数据
+     * @return 数据库连接，测试结束时需调用close()
+     */
+    public static SQLiteDatabase create() {
+        SQLiteDatabase db = SQLiteDatabase.create(null);
+        newHelper().onCreate(db);
+        return db;
+    }
+
+    /**
+     * 在指定文件中创建数据库（文件已存在时先删除），建表并写入内置初始化数据
+     * @param file 数据库文件
+     * @return 数据库连接，测试结束时需调用close()
+     */
+    public static SQLiteDatabase create(File file) {
+        SQLiteDatabase.deleteDatabase(file);
+        SQLiteDatabase db = SQLiteDatabase.openOrCreateDatabase(file, null);
+        newHelper().onCreate(db);
+        return db;
+    }
+
+    /**
+     * 创建内存数据库并设为DAO使用的连接（DBManager.attach）
+     * @return 数据库连接，测试结束时需调用detach()
+     */
+    public static SQLiteDatabase attach() {
+        SQLiteDatabase db = create();
+        DBManager.attach(db);
+        return db;
+    }
+
+    /**
+     * 断开DAO使用的测试连接并关闭数据库（应用代码会通过DBManager.init()重新打开数据库）
+     * @param db attach()返回的数据库连接
+     */
+    public static void detach(SQLiteDatabase db) {
+        DBManager.attach(null);
+        db.close();
+    }
+}
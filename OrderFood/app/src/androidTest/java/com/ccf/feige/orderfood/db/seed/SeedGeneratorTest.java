@@ -0,0 +1,96 @@
+package com.ccf.feige.orderfood.db.seed;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.ccf.feige.orderfood.db.TestDatabase;
+import com.ccf.feige.orderfood.until.Tools;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 测试数据生成器测试：在DBUntil.onCreate建好的内存数据库中生成数据，校验行数、全文索引、汇总表与数据分布
+ */
+@RunWith(AndroidJUnit4.class)
+public class SeedGeneratorTest {
+
+    private static final int ORDERS = 5000;
+
+    private SQLiteDatabase db;
+    private SeedConfig config;
+
+    @Before
+    public void setUp() {
+        // 内存数据库（不复制内置图片），不影响应用真实数据
+        db = TestDatabase.create();
+        config = SeedConfig.forOrders(ORDERS);
+        SQLiteSeedSink.seed(db, config);
+    }
+
+    @After
+    public void tearDown() {
+        db.close();
+    }
+
+    @Test
+    public void seed_fillsEveryTable() {
+        // onCreate已插入1个商家、1个用户、4道菜品
+        assertEquals(config.getMerchants() + 1, count("select count(*) from d_business"));
+        assertEquals(config.getCustomers() + 1, count("select count(*) from d_user"));
+        assertEquals(config.getMerchants() * config.getDishesPerMerchant() + 4, count("select count(*) from d_food"));
+        assertEquals(ORDERS, count("select count(*) from d_orders"));
+        assertTrue(count("select count(*) from d_address") >= config.getCustomers());
+        // 每个订单至少1道菜，明细与订单一一关联
+        assertEquals(0, count("select count(*) from d_orders o where not exists " +
+                "(select 1 from d_order_details d where d.s_details_id = o.s_order_details_id)"));
+        // 已评论的订单与评论条数一致
+        assertEquals(count("select count(*) from d_orders where s_order_sta=4"), count("select count(*) from d_comments"));
+    }
+
+    @Test
+    public void seed_writesSearchIndexAndSummaries() {
+        // 每个订单、每道菜品都有全文索引行，docid指向对应的rowid
+        assertEquals(ORDERS, count("select count(*) from d_orders_fts t join d_orders o on o.rowid = t.docid"));
+        assertEquals(count("select count(*) from d_food"), count("select count(*) from d_food_fts t join d_food f on f.rowid = t.docid"));
+        assertTrue(count("select count(*) from d_orders_fts where d_orders_fts match ?", Tools.toFtsMatchQuery("烤鸭")) > 0);
+
+        // 月销量汇总与已完成订单的明细数量一致，评分汇总与评论一致
+        assertEquals(count("select SUM(d.s_food_num) from d_orders o join d_order_details d on d.s_details_id = o.s_order_details_id " +
+                "where o.s_order_sta in (3,4)"), count("select SUM(s_qty) from d_food_sales_monthly"));
+        assertEquals(count("select count(*) from d_comments"), count("select SUM(s_score_count) from d_business_rating"));
+    }
+
+    @Test
+    public void seed_isSkewed() {
+        // 热度排名第0的商家订单最多，且明显多于平均值
+        Cursor rs = db.rawQuery("select s_business_id, count(*) c from d_orders group by s_business_id order by c desc limit 1", null);
+        try {
+            assertTrue(rs.moveToFirst());
+            assertEquals(SeedGenerator.businessId(0), rs.getString(0));
+            assertTrue(rs.getInt(1) > 2 * ORDERS / config.getMerchants());
+        } finally {
+            rs.close();
+        }
+        // 午餐高峰（本地时间12点）的订单多于凌晨3点
+        String byHour = "select count(*) from d_orders where strftime('%H', s_order_time / 1000, 'unixepoch', 'localtime') = ?";
+        assertTrue(count(byHour, "12") > count(byHour, "03"));
+    }
+
+    private int count(String sql, String... args) {
+        Cursor rs = db.rawQuery(sql, args);
+        try {
+            rs.moveToFirst();
+            return rs.getInt(0);
+        } finally {
+            rs.close();
+        }
+    }
+}
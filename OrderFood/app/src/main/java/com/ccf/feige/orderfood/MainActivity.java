@@ -17,7 +17,7 @@ import com.ccf.feige.orderfood.activity.man.RegisterManActivity;
 import com.ccf.feige.orderfood.activity.user.ManageUserActivity;
 import com.ccf.feige.orderfood.activity.user.RegisterUserActivity;
 import com.ccf.feige.orderfood.dao.AdminDao;
-import com.ccf.feige.orderfood.db.DBUntil;
+import com.ccf.feige.orderfood.db.DBManager;
 
 /**
  * 程序主入口 - 登录界面Activity
@@ -35,9 +35,7 @@ public class MainActivity extends AppCompatActivity {
         // 绑定当前Activity对应的布局文件（activity_main.xml）
         setContentView(R.layout.activity_main);
 
-        // 初始化数据库工具类，获取可读写的数据库连接并赋值给静态变量con，供全局操作数据库使用
-        DBUntil dbUntil = new DBUntil(this);
-        DBUntil.con = dbUntil.getWritableDatabase();
+        // 数据库已在OrderFoodApplication中开始后台打开，这里不等待（登录查询在读线程中等待打开完成）
 
         // 实现共享数据存储 - 获取名为"data"的SharedPreferences实例，用于缓存登录账号等临时数据
         // Context.MODE_PRIVATE：表示该SharedPreferences文件仅当前应用可访问，私有权限
@@ -106,38 +104,40 @@ public class MainActivity extends AppCompatActivity {
 
                     // 判断当前选中的身份：是否为商家（管理员）身份
                     if (role.isChecked()) {
-                        // 管理员/商家登录 - 调用AdminDao的商家登录验证方法，获取验证结果
-                        int a = AdminDao.loginBusiness(account, pwd);
-                        // 验证结果为1表示登录成功（约定返回值：1=成功，其他=失败）
-                        if (a == 1) {
-                            // 弹出登录成功提示
-                            Toast.makeText(MainActivity.this, "管理员登录成功", Toast.LENGTH_SHORT).show();
-                            // 构建意图对象，跳转到商家管理主界面
-                            Intent intent = new Intent(MainActivity.this, ManageManActivity.class);
-                            startActivity(intent);
-                        }
-                        // 验证失败，账号或密码错误
-                        else {
-                            Toast.makeText(MainActivity.this, "管理员账号或密码错误", Toast.LENGTH_SHORT).show();
-                        }
+                        // 管理员/商家登录 - 在后台线程调用AdminDao的商家登录验证方法，结果回调到主线程
+                        DBManager.read(() -> AdminDao.loginBusiness(account, pwd), a -> {
+                            // 验证结果为1表示登录成功（约定返回值：1=成功，其他=失败）
+                            if (a == 1) {
+                                // 弹出登录成功提示
+                                Toast.makeText(MainActivity.this, "管理员登录成功", Toast.LENGTH_SHORT).show();
+                                // 构建意图对象，跳转到商家管理主界面
+                                Intent intent = new Intent(MainActivity.this, ManageManActivity.class);
+                                startActivity(intent);
+                            }
+                            // 验证失败，账号或密码错误
+                            else {
+                                Toast.makeText(MainActivity.this, "管理员账号或密码错误", Toast.LENGTH_SHORT).show();
+                            }
+                        });
 
                     }
                     // 普通用户身份登录（未选中商家单选按钮）
                     else {
-                        // 普通用户登录 - 调用AdminDao的用户登录验证方法，获取验证结果
-                        int a = AdminDao.loginUser(account, pwd);
-                        // 验证结果为1表示登录成功（约定返回值：1=成功，其他=失败）
-                        if (a == 1) {
-                            // 弹出登录成功提示
-                            Toast.makeText(MainActivity.this, "用户登录成功", Toast.LENGTH_SHORT).show();
-                            // 构建意图对象，跳转到用户管理主界面
-                            Intent intent = new Intent(MainActivity.this, ManageUserActivity.class);
-                            startActivity(intent);
-                        }
-                        // 验证失败，账号或密码错误
-                        else {
-                            Toast.makeText(MainActivity.this, "用户账号或密码错误", Toast.LENGTH_SHORT).show();
-                        }
+                        // 普通用户登录 - 在后台线程调用AdminDao的用户登录验证方法，结果回调到主线程
+                        DBManager.read(() -> AdminDao.loginUser(account, pwd), a -> {
+                            // 验证结果为1表示登录成功（约定返回值：1=成功，其他=失败）
+                            if (a == 1) {
+                                // 弹出登录成功提示
+                                Toast.makeText(MainActivity.this, "用户登录成功", Toast.LENGTH_SHORT).show();
+                                // 构建意图对象，跳转到用户管理主界面
+                                Intent intent = new Intent(MainActivity.this, ManageUserActivity.class);
+                                startActivity(intent);
+                            }
+                            // 验证失败，账号或密码错误
+                            else {
+                                Toast.makeText(MainActivity.this, "用户账号或密码错误", Toast.LENGTH_SHORT).show();
+                            }
+                        });
                     }
                 }
             }
@@ -169,7 +169,7 @@ public class MainActivity extends AppCompatActivity {
      */
     private void clearAllData() {
         // 1. 清空数据库静态引用，释放数据库连接资源，防止内存泄漏
-        DBUntil.con = null;
+        DBManager.attach(null);
 
         // 2. 清空SharedPreferences所有残留数据（登录/商家/用户缓存）
         clearSPResidue();
@@ -0,0 +1,28 @@
+package com.ccf.feige.orderfood;
+
+import android.app.Application;
+
+import com.ccf.feige.orderfood.dao.OrderArchive;
+import com.ccf.feige.orderfood.db.DBManager;
+import com.ccf.feige.orderfood.until.MainThreadGuard;
+
+/**
+ * 应用入口（在AndroidManifest.xml的application节点中注册）
+ * 功能：
+ * 1. 调试包中开启主线程I/O检查（MainThreadGuard），发现主线程上的数据库/文件访问时输出到logcat
+ * 2. 在后台线程中打开数据库（首次安装/升级时的建表、迁移、初始化数据不阻塞登录界面显示）
+ * 3. 在写线程中分批归档已完成的旧订单（OrderArchive），待处理订单列表只需查询近期订单
+ */
+public class OrderFoodApplication extends Application {
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        // 仅调试包开启（内部判断FLAG_DEBUGGABLE），正式包不做任何检查
+        MainThreadGuard.install(this);
+        // 尽早开始后台打开数据库，界面显示期间即可完成；打开完成前调用的DAO方法会等待就绪
+        DBManager.init(this);
+        // 数据库打开后在写线程中分批执行，批次之间不阻塞下单等写操作
+        OrderArchive.archiveInBackground(getResources().getInteger(R.integer.order_archive_days));
+    }
+}
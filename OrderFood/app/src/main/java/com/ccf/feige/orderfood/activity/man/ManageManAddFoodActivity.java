@@ -28,6 +28,7 @@ import android.widget.Toast;
 import com.ccf.feige.orderfood.MainActivity;
 import com.ccf.feige.orderfood.R;
 import com.ccf.feige.orderfood.dao.FoodDao;
+import com.ccf.feige.orderfood.db.DBManager;
 import com.ccf.feige.orderfood.until.FileImgUntil;
 
 /**
@@ -149,15 +150,15 @@ public class ManageManAddFoodActivity extends AppCompatActivity {
                         // 将选中的图片保存到本地文件中
                         FileImgUntil.saveImageBitmapToFileImg(uri,ManageManAddFoodActivity.this,path);//保存图片
 
-                        // 准备就绪，调用Dao层方法添加商品信息到数据库
-                        int a=FoodDao.addFood(businessId,name,des,price,path);
-
-                        // 根据Dao层返回结果判断添加是否成功，并给出对应提示
-                        if(a==1){
-                            Toast.makeText(ManageManAddFoodActivity.this, "添加商品成功", Toast.LENGTH_SHORT).show();
-                        }else{
-                            Toast.makeText(ManageManAddFoodActivity.this, "添加商品失败", Toast.LENGTH_SHORT).show();
-                        }
+                        // 准备就绪，在后台写线程中调用Dao层方法添加商品信息到数据库
+                        DBManager.write(() -> FoodDao.addFood(businessId,name,des,price,path), a -> {
+                            // 根据Dao层返回结果判断添加是否成功，并给出对应提示
+                            if(a==1){
+                                Toast.makeText(ManageManAddFoodActivity.this, "添加商品成功", Toast.LENGTH_SHORT).show();
+                            }else{
+                                Toast.makeText(ManageManAddFoodActivity.this, "添加商品失败", Toast.LENGTH_SHORT).show();
+                            }
+                        });
                     }
                 }
             }
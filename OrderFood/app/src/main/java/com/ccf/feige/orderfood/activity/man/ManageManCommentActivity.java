@@ -2,16 +2,17 @@ package com.ccf.feige.orderfood.activity.man;
 
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.widget.Toolbar;
+import androidx.recyclerview.widget.RecyclerView;
 
 import android.content.Intent;
 import android.os.Bundle;
 import android.view.View;
-import android.widget.ListView;
 
 import com.ccf.feige.orderfood.R;
 import com.ccf.feige.orderfood.activity.man.adapter.CommentLIstAdapter;
 import com.ccf.feige.orderfood.bean.CommentBean;
 import com.ccf.feige.orderfood.dao.CommentDao;
+import com.ccf.feige.orderfood.db.DBManager;
 import com.ccf.feige.orderfood.until.Tools;
 
 import java.util.List;
@@ -53,22 +54,17 @@ public class ManageManCommentActivity extends AppCompatActivity {
             }
         });
 
-        // 绑定评论列表的ListView控件
-        ListView listView = findViewById(R.id.man_my_comment_listview);
+        // 绑定评论列表的RecyclerView控件，初始化纵向列表并设置评论列表适配器
+        RecyclerView listView = findViewById(R.id.man_my_comment_listview);
+        CommentLIstAdapter adapter = new CommentLIstAdapter();
+        Tools.initVerticalList(listView);
+        listView.setAdapter(adapter);
         // 通过工具类获取当前登录的商家账号
         String account= Tools.getOnAccount(this);
-        // 调用数据访问层方法，根据商家账号查询对应的评论列表
-        List<CommentBean> list = CommentDao.getCommetByBusinessId(account);
-
-        // 初始化评论列表的适配器（用于绑定数据和视图）
-        CommentLIstAdapter commentLIstAdapter=new CommentLIstAdapter(this,list);
-        // 判断评论列表是否为空
-        if(list==null||list.size()==0){
-            // 列表为空时，设置适配器为null，不展示任何内容
-            listView.setAdapter(null);
-        }else{
-            // 列表不为空时，设置适配器，展示评论数据
-            listView.setAdapter(commentLIstAdapter);
-        }
+        // 在后台线程中根据商家账号查询对应的评论列表，查询完成后在主线程展示
+        DBManager.read(() -> CommentDao.getCommetByBusinessId(account), list -> {
+            // 向适配器提交评论列表（为空时不展示任何内容）
+            adapter.submitList(list);
+        });
     }
 }
\ No newline at end of file
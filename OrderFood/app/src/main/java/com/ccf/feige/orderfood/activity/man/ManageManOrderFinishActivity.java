@@ -3,17 +3,18 @@ package com.ccf.feige.orderfood.activity.man;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.widget.SearchView;
 import androidx.appcompat.widget.Toolbar;
+import androidx.recyclerview.widget.RecyclerView;
 
 import android.content.Intent;
 import android.os.Bundle;
 import android.view.View;
-import android.widget.ListView;
 
 import com.ccf.feige.orderfood.R;
 import com.ccf.feige.orderfood.activity.man.adapter.OrderFinishIstAdapter;
-import com.ccf.feige.orderfood.activity.man.adapter.OrderNoFinishIstAdapter;
 import com.ccf.feige.orderfood.bean.OrderBean;
 import com.ccf.feige.orderfood.dao.OrderDao;
+import com.ccf.feige.orderfood.dao.OrderPagingSource;
+import com.ccf.feige.orderfood.until.OrderPager;
 import com.ccf.feige.orderfood.until.Tools;
 
 import java.util.List;
@@ -24,6 +25,9 @@ import java.util.List;
  */
 public class ManageManOrderFinishActivity extends AppCompatActivity {
 
+    // 订单列表分页加载器：首屏只加载一页，滚动到末尾附近时在后台预取下一页
+    private OrderPager pager;
+
     /**
      * 页面创建时执行的初始化方法
      * @param savedInstanceState 保存的页面状态数据（用于页面恢复）
@@ -52,25 +56,15 @@ public class ManageManOrderFinishActivity extends AppCompatActivity {
             }
         });
 
-        // 查找布局中的ListView控件（用于展示已完成订单列表）
-        ListView listView= findViewById(R.id.man_my_order_finish_listView);
+        // 查找布局中的RecyclerView控件（用于展示已完成订单列表）
+        RecyclerView listView= findViewById(R.id.man_my_order_finish_listView);
         // 通过工具类获取当前登录的账号信息
         String account= Tools.getOnAccount(this);
 
-        // 从订单数据库访问对象中，获取当前账号对应的所有已完成订单列表
-        List<OrderBean> list = OrderDao.getAllOrdersFinish(account);
+        // 创建订单列表分页加载器，加载当前账号已完成订单的第一页
         //List<OrderBean> list = OrderDao.getAllOrders(); // 注释：获取所有订单（未启用）
-        // 创建已完成订单列表的适配器，关联当前上下文和订单数据
-        OrderFinishIstAdapter orderNoFinishIstAdapter=new OrderFinishIstAdapter(this,list);
-
-        // 判断订单列表是否为空或无数据
-        if(list==null||list.size()==0){
-            // 若无数据，设置ListView的适配器为null（不展示任何内容）
-            listView.setAdapter(null);
-        }else{
-            // 若有数据，设置ListView的适配器为创建好的订单适配器（展示订单列表）
-            listView.setAdapter(orderNoFinishIstAdapter);
-        }
+        pager = new OrderPager(listView, new OrderFinishIstAdapter());
+        pager.setSource(OrderDao.pageOrdersFinish(account, null, OrderPagingSource.DEFAULT_PAGE_SIZE));
 
         // 查找布局中的SearchView控件（用于订单搜索）
         SearchView searchView=findViewById(R.id.man_my_order_finish_search);
@@ -83,20 +77,8 @@ public class ManageManOrderFinishActivity extends AppCompatActivity {
              */
             @Override
             public boolean onQueryTextSubmit(String query) {
-                // 重新获取当前账号对应的所有已完成订单列表
-                List<OrderBean> list = OrderDao.getAllOrdersFinish(account);
-                // 通过工具类过滤订单列表，筛选出包含搜索关键词的订单
-                List<OrderBean> list1 = Tools.filterOrder(list, query);
-                // 创建新的订单适配器，关联筛选后的订单数据
-                OrderFinishIstAdapter orderNoFinishIstAdapter=new OrderFinishIstAdapter(ManageManOrderFinishActivity.this,list1);
-                // 判断筛选后的订单列表是否为空或无数据
-                if(list==null||list.size()==0){
-                    // 若无匹配数据，设置ListView适配器为null
-                    listView.setAdapter(null);
-                }else{
-                    // 若有匹配数据，设置ListView适配器为筛选后的订单适配器（展示搜索结果）
-                    listView.setAdapter(orderNoFinishIstAdapter);
-                }
+                // 切换为按关键词搜索的数据源（订单全文索引匹配），重新从第一页开始加载
+                pager.setSource(OrderDao.pageOrdersFinish(account, query, OrderPagingSource.DEFAULT_PAGE_SIZE));
                 // 返回true表示事件已处理
                 return true;
             }
@@ -108,24 +90,21 @@ public class ManageManOrderFinishActivity extends AppCompatActivity {
              */
             @Override
             public boolean onQueryTextChange(String newText) {
-                // 重新获取当前账号对应的所有已完成订单列表
-                List<OrderBean> list = OrderDao.getAllOrdersFinish(account);
-                // 通过工具类实时过滤订单列表，匹配当前输入的文本
-                List<OrderBean> list1 = Tools.filterOrder(list, newText);
-                // 创建新的订单适配器，关联实时筛选后的订单数据
-                OrderFinishIstAdapter orderNoFinishIstAdapter=new OrderFinishIstAdapter(ManageManOrderFinishActivity.this,list1);
-                // 判断筛选后的订单列表是否为空或无数据
-                if(list==null||list.size()==0){
-                    // 若无匹配数据，设置ListView适配器为null
-                    listView.setAdapter(null);
-                }else{
-                    // 若有匹配数据，设置ListView适配器为实时筛选后的订单适配器（展示实时搜索结果）
-                    listView.setAdapter(orderNoFinishIstAdapter);
-                }
+                // 切换为匹配当前输入文本的数据源（订单全文索引匹配），重新从第一页开始加载
+                pager.setSource(OrderDao.pageOrdersFinish(account, newText, OrderPagingSource.DEFAULT_PAGE_SIZE));
                 // 返回true表示事件已处理
                 return true;
             }
         });
 
     }
-}
\ No newline at end of file
+
+    /**
+     * 页面销毁时取消进行中的分页加载
+     */
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        pager.release();
+    }
+}
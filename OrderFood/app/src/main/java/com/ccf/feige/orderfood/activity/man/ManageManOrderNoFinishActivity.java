@@ -3,18 +3,20 @@ package com.ccf.feige.orderfood.activity.man;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.widget.SearchView;
 import androidx.appcompat.widget.Toolbar;
+import androidx.recyclerview.widget.RecyclerView;
 
 import android.content.Intent;
 import android.os.Bundle;
 import android.view.View;
 import android.widget.Button;
-import android.widget.ListView;
 
 import com.ccf.feige.orderfood.R;
 import com.ccf.feige.orderfood.activity.man.adapter.OrderNoFinishIstAdapter;
 import com.ccf.feige.orderfood.bean.OrderBean;
 import com.ccf.feige.orderfood.bean.OrderDetailBean;
 import com.ccf.feige.orderfood.dao.OrderDao;
+import com.ccf.feige.orderfood.dao.OrderPagingSource;
+import com.ccf.feige.orderfood.until.OrderPager;
 import com.ccf.feige.orderfood.until.Tools;
 
 import java.util.ArrayList;
@@ -27,6 +29,9 @@ import java.util.stream.Stream;
  */
 public class ManageManOrderNoFinishActivity extends AppCompatActivity {
 
+    // 订单列表分页加载器：首屏只加载一页，滚动到末尾附近时在后台预取下一页
+    private OrderPager pager;
+
     /**
      * 页面创建时执行的初始化方法，完成视图绑定、数据加载、事件监听设置
      * @param savedInstanceState 保存的页面状态数据，用于页面重建时恢复状态
@@ -37,25 +42,16 @@ public class ManageManOrderNoFinishActivity extends AppCompatActivity {
         // 绑定当前页面对应的布局文件
         setContentView(R.layout.activity_manage_man_order_no_finish);
 
-        // 初始化ListView控件，用于展示未完成订单列表
-        ListView listView= findViewById(R.id.man_my_order_no_finish_listView);
+        // 初始化RecyclerView控件，用于展示未完成订单列表
+        RecyclerView listView= findViewById(R.id.man_my_order_no_finish_listView);
         // 获取当前登录用户的账号信息
         String account=Tools.getOnAccount(this);
         // 定义订单状态标识，"1"代表未完成状态
         String sta="1";
-        // 从数据库中查询当前用户的所有未完成订单
-        List<OrderBean> list = OrderDao.getAllOrdersBySta(account,sta);
+        // 创建订单列表分页加载器，加载当前用户未完成订单的第一页
         //List<OrderBean> list = OrderDao.getAllOrders(); // 注释：查询所有订单的备用方法
-        // 初始化订单列表适配器，将上下文和订单数据传入
-        OrderNoFinishIstAdapter orderNoFinishIstAdapter=new OrderNoFinishIstAdapter(this,list);
-
-        // 判断订单列表是否为空，为空则设置ListView无适配器（不展示数据），否则设置适配器展示订单
-        if(list==null||list.size()==0){
-            listView.setAdapter(null);
-        }else{
-            listView.setAdapter(orderNoFinishIstAdapter);
-
-        }
+        pager = new OrderPager(listView, new OrderNoFinishIstAdapter());
+        pager.setSource(OrderDao.pageOrdersBySta(account, sta, null, OrderPagingSource.DEFAULT_PAGE_SIZE));
 
         // 初始化搜索框控件，用于订单搜索筛选
         SearchView searchView=findViewById(R.id.man_my_order_no_finish_search);
@@ -68,19 +64,8 @@ public class ManageManOrderNoFinishActivity extends AppCompatActivity {
              */
             @Override
             public boolean onQueryTextSubmit(String query) {
-                // 重新从数据库获取当前用户的所有未完成订单
-                List<OrderBean> list = OrderDao.getAllOrdersBySta(account,sta);
-                // 根据搜索关键词筛选订单列表
-                List<OrderBean> list1 = Tools.filterOrder(list, query);
-                // 用筛选后的订单数据初始化新的适配器
-                OrderNoFinishIstAdapter orderNoFinishIstAdapter=new OrderNoFinishIstAdapter(ManageManOrderNoFinishActivity.this,list1);
-                // 根据筛选后的列表是否为空，设置ListView的适配器展示对应数据
-                if(list==null||list.size()==0){
-                    listView.setAdapter(null);
-                }else{
-                    listView.setAdapter(orderNoFinishIstAdapter);
-
-                }
+                // 切换为按关键词搜索的数据源（订单全文索引匹配），重新从第一页开始加载
+                pager.setSource(OrderDao.pageOrdersBySta(account, sta, query, OrderPagingSource.DEFAULT_PAGE_SIZE));
                 return true;
             }
 
@@ -91,19 +76,8 @@ public class ManageManOrderNoFinishActivity extends AppCompatActivity {
              */
             @Override
             public boolean onQueryTextChange(String newText) {
-                // 重新从数据库获取当前用户的所有未完成订单
-                List<OrderBean> list = OrderDao.getAllOrdersBySta(account,sta);
-                // 根据实时变化的文本筛选订单列表
-                List<OrderBean> list1 = Tools.filterOrder(list, newText);
-                // 用筛选后的订单数据初始化新的适配器
-                OrderNoFinishIstAdapter orderNoFinishIstAdapter=new OrderNoFinishIstAdapter(ManageManOrderNoFinishActivity.this,list1);
-                // 根据筛选后的列表是否为空，设置ListView的适配器展示对应数据
-                if(list==null||list.size()==0){
-                    listView.setAdapter(null);
-                }else{
-                    listView.setAdapter(orderNoFinishIstAdapter);
-
-                }
+                // 切换为匹配当前输入文本的数据源（订单全文索引匹配），重新从第一页开始加载
+                pager.setSource(OrderDao.pageOrdersBySta(account, sta, newText, OrderPagingSource.DEFAULT_PAGE_SIZE));
                 return true;
             }
         });
@@ -127,4 +101,13 @@ public class ManageManOrderNoFinishActivity extends AppCompatActivity {
             }
         });
     }
-}
\ No newline at end of file
+
+    /**
+     * 页面销毁时取消进行中的分页加载
+     */
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        pager.release();
+    }
+}
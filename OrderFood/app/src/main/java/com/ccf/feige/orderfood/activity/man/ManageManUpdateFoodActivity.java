@@ -5,7 +5,6 @@ import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 
 import android.content.DialogInterface;
-import android.graphics.BitmapFactory;
 import android.os.Bundle;
 
 import com.ccf.feige.orderfood.R;
@@ -20,9 +19,6 @@ import androidx.core.content.ContextCompat;
 import android.content.Context;
 import android.content.Intent;
 import android.content.SharedPreferences;
-import android.graphics.Bitmap;
-import android.graphics.drawable.BitmapDrawable;
-import android.graphics.drawable.Drawable;
 import android.net.Uri;
 import android.os.Bundle;
 import android.view.Menu;
@@ -38,7 +34,9 @@ import com.ccf.feige.orderfood.MainActivity;
 import com.ccf.feige.orderfood.R;
 import com.ccf.feige.orderfood.bean.FoodBean;
 import com.ccf.feige.orderfood.dao.FoodDao;
+import com.ccf.feige.orderfood.db.DBManager;
 import com.ccf.feige.orderfood.until.FileImgUntil;
+import com.ccf.feige.orderfood.until.ImageLoader;
 
 /**
  * 管理员商品修改页面Activity
@@ -71,10 +69,12 @@ public class ManageManUpdateFoodActivity extends AppCompatActivity {
 
         // 绑定页面中的商品图片ImageView控件
         ImageView img = findViewById(R.id.man_manage_updateFood_img);
-        // 根据商品对象中存储的图片路径，解码生成Bitmap位图对象
-        Bitmap bitmap = BitmapFactory.decodeFile(food.getFoodImg());
-        // 将解码后的位图设置到ImageView中，展示商品原有图片
-        img.setImageBitmap(bitmap);
+        // 在后台线程中按图片保存尺寸解码商品原有图片，完成后设置到ImageView中展示（解码期间已从相册选择了新图片时不再覆盖）
+        ImageLoader.decodeAsync(food.getFoodImg(), FileImgUntil.MAX_IMAGE_SIZE, FileImgUntil.MAX_IMAGE_SIZE, bitmap -> {
+            if (uri == null) {
+                img.setImageBitmap(bitmap);
+            }
+        });
 
         // 注册相册选择结果回调，获取选择的图片Uri
         getContentLauncher = registerForActivityResult(new ActivityResultContracts.GetContent(), new ActivityResultCallback<Uri>() {
@@ -105,10 +105,6 @@ public class ManageManUpdateFoodActivity extends AppCompatActivity {
             }
         });
 
-        // 将商品原有的图片设置成默认图片（用于后续判断是否修改了图片）
-        Drawable drawable = img.getDrawable();//获取当前ImageView的图片Drawable对象
-        Bitmap defaultDrawable = ((BitmapDrawable) drawable).getBitmap();//将Drawable转换为Bitmap位图，作为默认图片参考
-
         // 绑定页面中的Toolbar控件
         Toolbar toolbar = this.findViewById(R.id.man_manage_updateFood_bar);
         // 将Toolbar设置为当前页面的ActionBar
@@ -157,15 +153,10 @@ public class ManageManUpdateFoodActivity extends AppCompatActivity {
                 } else {
                     // 所有输入项均合法，开始处理图片和修改逻辑
 
-                    // 获取当前ImageView中的图片Drawable对象
-                    Drawable drawable = img.getDrawable();//获取当前标签的图片
-                    // 将Drawable转换为Bitmap位图对象
-                    Bitmap bitmap = ((BitmapDrawable) drawable).getBitmap();//获取这个图片的二进制文件
-
                     // 获取一个新的图片存储路径名称（用于保存新选择的图片）
                     String path = FileImgUntil.getImgName();//获取一个存储图片的路径名字
-                    // 判断当前图片是否与默认图片（商品原有图片）一致
-                    if (bitmap.sameAs(defaultDrawable)) {//判断是不是默认的图片
+                    // 判断是否从相册选择了新图片（未选择时仍为商品原有图片，原图可能还在解码，不能依赖ImageView中的图片）
+                    if (uri == null) {//判断是不是默认的图片
                         // 若未修改图片，直接使用商品原有图片路径
                         path=food.getFoodImg();
                     }else{
@@ -173,14 +164,16 @@ public class ManageManUpdateFoodActivity extends AppCompatActivity {
                         FileImgUntil.saveImageBitmapToFileImg(uri, ManageManUpdateFoodActivity.this, path);//保存图片
                     }
 
-                    // 准备就绪，调用FoodDao的修改方法更新商品信息
-                    int a = FoodDao.updateFood(food.getFoodId(), name, des, price, path);
-                    // 根据修改结果弹出对应提示
-                    if (a == 1) {
-                        Toast.makeText(ManageManUpdateFoodActivity.this, "修改商品成功", Toast.LENGTH_SHORT).show();
-                    } else {
-                        Toast.makeText(ManageManUpdateFoodActivity.this, "修改商品失败", Toast.LENGTH_SHORT).show();
-                    }
+                    // 准备就绪，在后台写线程中调用FoodDao的修改方法更新商品信息
+                    String imgPath = path;
+                    DBManager.write(() -> FoodDao.updateFood(food.getFoodId(), name, des, price, imgPath), a -> {
+                        // 根据修改结果弹出对应提示
+                        if (a == 1) {
+                            Toast.makeText(ManageManUpdateFoodActivity.this, "修改商品成功", Toast.LENGTH_SHORT).show();
+                        } else {
+                            Toast.makeText(ManageManUpdateFoodActivity.this, "修改商品失败", Toast.LENGTH_SHORT).show();
+                        }
+                    });
                 }
             }
         });
@@ -238,17 +231,18 @@ public class ManageManUpdateFoodActivity extends AppCompatActivity {
             builder.setPositiveButton("确认", new DialogInterface.OnClickListener() {
                 @Override
                 public void onClick(DialogInterface dialog, int which) {
-                    // 调用FoodDao的删除方法，根据商品ID删除商品
-                    int a=FoodDao.delFoodById(foodId);
-                    // 根据删除结果弹出对应提示并跳转页面
-                    if(a==1){
-                        Toast.makeText(ManageManUpdateFoodActivity.this, "删除成功", Toast.LENGTH_SHORT).show();
-                        // 删除成功，跳转到管理员主页面
-                        Intent intent = new Intent(ManageManUpdateFoodActivity.this, ManageManActivity.class);
-                        startActivity(intent);
-                    }else{
-                        Toast.makeText(ManageManUpdateFoodActivity.this, "删除失败", Toast.LENGTH_SHORT).show();
-                    }
+                    // 在后台写线程中调用FoodDao的删除方法，根据商品ID删除商品
+                    DBManager.write(() -> FoodDao.delFoodById(foodId), result -> {
+                        // 根据删除结果弹出对应提示并跳转页面
+                        if(result==1){
+                            Toast.makeText(ManageManUpdateFoodActivity.this, "删除成功", Toast.LENGTH_SHORT).show();
+                            // 删除成功，跳转到管理员主页面
+                            Intent intent = new Intent(ManageManUpdateFoodActivity.this, ManageManActivity.class);
+                            startActivity(intent);
+                        }else{
+                            Toast.makeText(ManageManUpdateFoodActivity.this, "删除失败", Toast.LENGTH_SHORT).show();
+                        }
+                    });
                     // 关闭对话框
                     dialog.dismiss();
                 }
@@ -8,7 +8,6 @@ import androidx.appcompat.widget.Toolbar;
 
 import android.content.Intent;
 import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.graphics.drawable.BitmapDrawable;
 import android.graphics.drawable.Drawable;
 import android.net.Uri;
@@ -22,7 +21,9 @@ import android.widget.Toast;
 import com.ccf.feige.orderfood.R;
 import com.ccf.feige.orderfood.bean.UserBean;
 import com.ccf.feige.orderfood.dao.AdminDao;
+import com.ccf.feige.orderfood.db.DBManager;
 import com.ccf.feige.orderfood.until.FileImgUntil;
+import com.ccf.feige.orderfood.until.ImageLoader;
 import com.ccf.feige.orderfood.until.Tools;
 
 /**
@@ -45,6 +46,10 @@ public class ManageManUpdateMesActivity extends AppCompatActivity {
     private Uri url;
     // 图片选择器的ActivityResultLauncher，用于替代传统的startActivityForResult
     private ActivityResultLauncher<String> getContentLauncher;
+    // 当前登录商家的信息（后台加载完成前为null）
+    private UserBean mUser;
+    // 商家原有头像（用于判断头像是否被修改）
+    private Bitmap mDefaultBitmap;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -64,26 +69,31 @@ public class ManageManUpdateMesActivity extends AppCompatActivity {
             }
         });
 
-        // 加载当前登录商家的个人信息（通过当前账号获取商家信息）
-        UserBean user = AdminDao.getBusinessUser(Tools.getOnAccount(this));
-
-        // 初始化店铺名称输入框，并填充原有商家名称
+        // 初始化店铺名称、描述、类型输入框
         mBusinessName = findViewById(R.id.man_manage_updateBusiness_name);
-        mBusinessName.setText(user.getsName());
-
-        // 初始化店铺描述输入框，并填充原有商家描述
         mBusinessDes = findViewById(R.id.man_manage_updateBusiness_des);
-        mBusinessDes.setText(user.getsDescribe());//描述
-
-        // 初始化店铺类型输入框，并填充原有商家类型
         mBusinessType = findViewById(R.id.man_manage_updateBusiness_type);
-        mBusinessType.setText(user.getsType());//类型
-
         // 初始化商家头像控件
         mBusinessTx = findViewById(R.id.register_man_tx);
-        // 根据商家信息中的图片路径解码生成Bitmap，并设置到头像控件上
-        Bitmap bitmap = BitmapFactory.decodeFile(user.getsImg());
-        mBusinessTx.setImageBitmap(bitmap);//加载头像
+
+        // 在后台线程中加载当前登录商家的个人信息（通过当前账号获取商家信息），完成后填充原有信息
+        DBManager.read(() -> AdminDao.getBusinessUser(Tools.getOnAccount(this)), user -> {
+            if (user == null) {
+                return;
+            }
+            mUser = user;
+            mBusinessName.setText(user.getsName());
+            mBusinessDes.setText(user.getsDescribe());//描述
+            mBusinessType.setText(user.getsType());//类型
+            // 在后台线程中解码商家头像，完成后设置到头像控件上（解码期间已从相册选择了新头像时不再覆盖）
+            ImageLoader.decodeAsync(user.getsImg(), FileImgUntil.MAX_IMAGE_SIZE, FileImgUntil.MAX_IMAGE_SIZE, bitmap -> {
+                // 将原有头像设置成默认图片（保存初始头像作为默认对比基准）
+                mDefaultBitmap = bitmap;
+                if (url == null) {
+                    mBusinessTx.setImageBitmap(bitmap);//加载头像
+                }
+            });
+        });
         // 给头像控件设置点击事件，用于触发图片选择
         mBusinessTx.setOnClickListener(new View.OnClickListener() {//加载图片
             @Override
@@ -113,14 +123,15 @@ public class ManageManUpdateMesActivity extends AppCompatActivity {
         // 初始化确认修改按钮
         mUpdateButton = findViewById(R.id.man_manage_updateBusiness_update);
 
-        // 将商品原有的图片设置成默认图片（保存初始头像作为默认对比基准）
-        Drawable drawable = mBusinessTx.getDrawable();//获取当前标签的图片
-        Bitmap defaultDrawable = ((BitmapDrawable) drawable).getBitmap();//获取这个图片的二进制文件
-
         // 给确认修改按钮设置点击事件，处理商家信息修改逻辑
         mUpdateButton.setOnClickListener(new View.OnClickListener() {
             @Override
             public void onClick(View v) {
+                // 商家信息尚未加载完成时不处理
+                UserBean user = mUser;
+                if (user == null) {
+                    return;
+                }
                 // 获取输入框中的店铺名称，去除首尾空格
                 String name = mBusinessName.getText().toString().trim();
                 // 获取输入框中的店铺描述，去除首尾空格
@@ -148,7 +159,7 @@ public class ManageManUpdateMesActivity extends AppCompatActivity {
                     // 获取一个新的图片存储路径/文件名
                     String path = FileImgUntil.getImgName();//获取一个存储图片的路径名字
                     // 判断当前头像是否与默认头像（原有头像）一致
-                    if (bitmap.sameAs(defaultDrawable)) {//判断是不是默认的图片
+                    if (mDefaultBitmap == null || bitmap.sameAs(mDefaultBitmap)) {//判断是不是默认的图片
                         // 头像未更改，沿用原有图片路径
                         path=user.getsImg();
                     }else{
@@ -156,14 +167,16 @@ public class ManageManUpdateMesActivity extends AppCompatActivity {
                         FileImgUntil.saveImageBitmapToFileImg(url, ManageManUpdateMesActivity.this, path);//保存图片
                     }
 
-                    // 调用Dao层方法更新商家信息，传入商家ID和新的信息参数
-                    int a=AdminDao.updateBusinessUser(user.getsId(),name,description,type,path);
-                    // 根据更新结果给出对应提示
-                    if(a==1){
-                        Toast.makeText(ManageManUpdateMesActivity.this, "更改成功", Toast.LENGTH_SHORT).show();
-                    }else{
-                        Toast.makeText(ManageManUpdateMesActivity.this, "更改失败", Toast.LENGTH_SHORT).show();
-                    }
+                    // 在后台写线程中调用Dao层方法更新商家信息，传入商家ID和新的信息参数
+                    String imgPath = path;
+                    DBManager.write(() -> AdminDao.updateBusinessUser(user.getsId(),name,description,type,imgPath), a -> {
+                        // 根据更新结果给出对应提示
+                        if(a==1){
+                            Toast.makeText(ManageManUpdateMesActivity.this, "更改成功", Toast.LENGTH_SHORT).show();
+                        }else{
+                            Toast.makeText(ManageManUpdateMesActivity.this, "更改失败", Toast.LENGTH_SHORT).show();
+                        }
+                    });
                 }
             }
         });
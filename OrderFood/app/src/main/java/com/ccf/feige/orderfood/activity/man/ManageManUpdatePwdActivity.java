@@ -12,6 +12,7 @@ import android.widget.Toast;
 
 import com.ccf.feige.orderfood.R;
 import com.ccf.feige.orderfood.dao.AdminDao;
+import com.ccf.feige.orderfood.db.DBManager;
 import com.ccf.feige.orderfood.until.Tools;
 
 /**
@@ -96,13 +97,16 @@ public class ManageManUpdatePwdActivity extends AppCompatActivity {
                 String newPwdInput = etNewPwd.getText().toString().trim();
                 String confirmNewPwdInput = etConfirmNewPwd.getText().toString().trim();
 
-                // 2. 分步校验输入合法性（按「原密码→新密码→确认密码」顺序，符合用户操作习惯，校验失败则直接返回）
-                if (!validateOldPwd(oldPwdInput)) return;
-                if (!validateNewPwd(newPwdInput)) return;
-                if (!validateConfirmPwd(newPwdInput, confirmNewPwdInput)) return;
+                // 在后台线程中查询当前账号在数据库中存储的原密码，查询完成后在主线程校验
+                DBManager.read(() -> AdminDao.getBusinessUserPwd(currentAccount), dbOldPwd -> {
+                    // 2. 分步校验输入合法性（按「原密码→新密码→确认密码」顺序，符合用户操作习惯，校验失败则直接返回）
+                    if (!validateOldPwd(oldPwdInput, dbOldPwd)) return;
+                    if (!validateNewPwd(newPwdInput)) return;
+                    if (!validateConfirmPwd(newPwdInput, confirmNewPwdInput)) return;
 
-                // 3. 所有校验通过，执行密码更新操作（传入合规的新密码）
-                executePwdUpdate(newPwdInput);
+                    // 3. 所有校验通过，执行密码更新操作（传入合规的新密码）
+                    executePwdUpdate(newPwdInput);
+                });
             }
         });
     }
@@ -111,9 +115,10 @@ public class ManageManUpdatePwdActivity extends AppCompatActivity {
      * 校验原密码：非空 + 与数据库中存储的原密码一致
      * 分步校验，给出精准错误提示，并聚焦到对应输入框，提升用户体验
      * @param oldPwdInput 用户输入的原密码
+     * @param dbOldPwd 数据库中存储的原密码（后台线程查询得到，账号不存在时为null）
      * @return 校验通过返回true，否则返回false
      */
-    private boolean validateOldPwd(String oldPwdInput) {
+    private boolean validateOldPwd(String oldPwdInput, String dbOldPwd) {
         // 步骤1：校验原密码非空，避免空输入提交
         if (oldPwdInput.isEmpty()) {
             etOldPwd.setError("请输入原密码");
@@ -121,10 +126,7 @@ public class ManageManUpdatePwdActivity extends AppCompatActivity {
             return false;
         }
 
-        // 步骤2：调用AdminDao已有的getBusinessUserPwd方法，从数据库中查询当前账号对应的原密码
-        String dbOldPwd = AdminDao.getBusinessUserPwd(currentAccount);
-
-        // 步骤3：校验原密码是否正确（处理数据库查询返回null的情况，避免空指针异常）
+        // 步骤2：校验原密码是否正确（处理数据库查询返回null的情况，避免空指针异常）
         if (dbOldPwd == null) {
             etOldPwd.setError("账号不存在或已注销");
             etOldPwd.requestFocus();
@@ -198,20 +200,20 @@ public class ManageManUpdatePwdActivity extends AppCompatActivity {
      * @param newPwd 校验通过的新密码（已确保合规、无空格）
      */
     private void executePwdUpdate(String newPwd) {
-        // 调用AdminDao已有的updateBusinessUserPwd方法，更新数据库中当前账号对应的密码
+        // 在后台写线程中调用AdminDao已有的updateBusinessUserPwd方法，更新数据库中当前账号对应的密码
         // 返回值int类型：1表示更新成功，其他值表示更新失败
-        int updateResult = AdminDao.updateBusinessUserPwd(currentAccount, newPwd);
-
-        if (updateResult == 1) {
-            // 密码更新成功，给出友好提示
-            Toast.makeText(ManageManUpdatePwdActivity.this, "更改密码成功", Toast.LENGTH_SHORT).show();
-
-            // 核心：关闭当前Activity，返回承载ManageMyFragment的上一级Activity
-            // 此时上一级Activity会自动显示之前的ManageMyFragment，实现无缝“返回”效果，无需额外跳转
-            finish();
-        } else {
-            // 密码更新失败（如数据库异常、账号不存在等），给出错误提示
-            Toast.makeText(ManageManUpdatePwdActivity.this, "更改密码失败", Toast.LENGTH_SHORT).show();
-        }
+        DBManager.write(() -> AdminDao.updateBusinessUserPwd(currentAccount, newPwd), updateResult -> {
+            if (updateResult == 1) {
+                // 密码更新成功，给出友好提示
+                Toast.makeText(ManageManUpdatePwdActivity.this, "更改密码成功", Toast.LENGTH_SHORT).show();
+
+                // 核心：关闭当前Activity，返回承载ManageMyFragment的上一级Activity
+                // 此时上一级Activity会自动显示之前的ManageMyFragment，实现无缝“返回”效果，无需额外跳转
+                finish();
+            } else {
+                // 密码更新失败（如数据库异常、账号不存在等），给出错误提示
+                Toast.makeText(ManageManUpdatePwdActivity.this, "更改密码失败", Toast.LENGTH_SHORT).show();
+            }
+        });
     }
 }
\ No newline at end of file
@@ -1,141 +1,157 @@
 package com.ccf.feige.orderfood.activity.man.adapter;
 
-import android.content.Context;
-import android.graphics.BitmapFactory;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
-import android.widget.ArrayAdapter;
 import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.ListAdapter;
+import androidx.recyclerview.widget.RecyclerView;
 
 import com.ccf.feige.orderfood.R;
 import com.ccf.feige.orderfood.bean.CommentBean;
-import com.ccf.feige.orderfood.bean.UserCommonBean;
 import com.ccf.feige.orderfood.dao.AdminDao;
-
-import java.util.List;
+import com.ccf.feige.orderfood.db.DBManager;
+import com.ccf.feige.orderfood.until.ImageLoader;
+import com.ccf.feige.orderfood.until.ListDiff;
 
 /**
- * 商家端评论列表适配器
- * 继承自ArrayAdapter，用于将评论数据（CommentBean）与评论列表项布局进行绑定，
- * 实现商家端评论列表的展示，包括用户信息、评分、评论内容、评论图片等信息的渲染
+ * 商家端评论列表适配器（RecyclerView，商家评论页面和用户购买页面的商家评论共用）
+ * 继承自ListAdapter，用于将评论数据（CommentBean）与评论列表项布局进行绑定，
+ * 实现评论列表的展示，包括用户信息、评分、评论内容、评论图片等信息的渲染
+ * 说明：控件（包括5颗评分星星）在ViewHolder创建时查找一次，绑定数据时不再重复findViewById
  */
-public class CommentLIstAdapter extends ArrayAdapter<CommentBean> {
+public class CommentLIstAdapter extends ListAdapter<CommentBean, CommentLIstAdapter.CommentViewHolder> {
+
+    /** 评分对应的等级描述文本，与评分1-5一一对应 */
+    private static final String[] SCORE_TEXT = {"非常差", "差", "一般", "满意", "非常满意"};
 
-    /** 存储评论数据的集合，保存所有需要展示的评论信息 */
-    private List<CommentBean> list;
+    /** 5颗评分星星ImageView的控件ID，对应五星评分的五个星星 */
+    private static final int[] STAR_IDS = {R.id.man_comment_one,
+            R.id.man_comment_two,
+            R.id.man_comment_three,
+            R.id.man_comment_four,
+            R.id.man_comment_five};
 
-    /** 上下文对象，用于加载布局、获取资源等操作 */
-    private Context context;
+    /** 评论ID → 稳定ID */
+    private final ListDiff.StableIds stableIds = new ListDiff.StableIds();
 
     /**
-     * 适配器构造方法，用于初始化适配器实例
-     * @param context 上下文对象，通常为对应的Activity或Fragment
-     * @param list 评论数据集合，包含所有需要展示的CommentBean实体
+     * 适配器构造方法：使用评论比较规则并开启稳定ID
+     * 评论数据通过submitList()提交
      */
-    public CommentLIstAdapter(@NonNull Context context, List<CommentBean> list) {
-        // 调用父类构造方法，指定列表项布局文件和数据集合
-        super(context, R.layout.list_man_comment_list,list);
-        this.context=context;
-        this.list=list;
+    public CommentLIstAdapter() {
+        super(ListDiff.COMMENT);
+        setHasStableIds(true);
     }
 
     /**
-     * 获取指定位置的列表项视图，完成数据绑定和视图初始化，支持视图复用优化性能
-     * @param position 当前列表项的位置索引
-     * @param convertView 可复用的旧视图，用于减少视图创建开销，提升列表滑动性能
-     * @param viewGroup 列表项视图的父容器（ListView/GridView等）
-     * @return 绑定好数据的当前列表项视图
+     * 获取指定位置评论的稳定ID
+     * @param position 列表位置
+     * @return 稳定ID（同一评论始终相同）
      */
     @Override
-    public View getView(int position, View convertView, ViewGroup viewGroup){
-        // 视图复用判断：若没有可复用的旧视图，创建新视图
-        if(convertView==null){
-            // 获取布局加载器，用于加载列表项布局文件
-            LayoutInflater inflater=LayoutInflater.from(getContext());
-            // 加载列表项布局，生成视图实例，不自动附加到父容器
-            convertView=inflater.inflate(R.layout.list_man_comment_list,viewGroup,false);
-        }
+    public long getItemId(int position) {
+        return stableIds.idOf(getItem(position).getCommentId());
+    }
 
-        //TextView a=convertView.findViewById(R.id.xz);
-        //a.setText("AAA");
+    /**
+     * 创建列表项的ViewHolder：加载评论列表项布局并查找控件
+     * @param parent 父容器（评论列表RecyclerView）
+     * @param viewType 视图类型（当前适配器仅一种视图类型）
+     * @return 持有列表项所有控件的CommentViewHolder
+     */
+    @NonNull
+    @Override
+    public CommentViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        // 加载列表项布局，生成视图实例，不自动附加到父容器
+        View itemView = LayoutInflater.from(parent.getContext())
+                .inflate(R.layout.list_man_comment_list, parent, false);
+        return new CommentViewHolder(itemView);
+    }
 
+    /**
+     * 绑定评论数据到列表项控件
+     * @param holder 持有列表项控件的ViewHolder
+     * @param position 当前列表项的位置索引
+     */
+    @Override
+    public void onBindViewHolder(@NonNull CommentViewHolder holder, int position) {
         // 获取当前位置对应的评论数据实体
-        CommentBean tem = list.get(position);
+        CommentBean tem = getItem(position);
 
         // 从评论实体中获取评论用户的ID
-        String userId=tem.getCommentUserId();
-        // 根据用户ID查询对应的普通用户信息
-        UserCommonBean commonUser = AdminDao.getCommonUser(userId);
+        String userId = tem.getCommentUserId();
+
+        // 取消该控件上未完成的图片加载并清空头像，记录该行对应的用户ID，头像在后台查询到用户信息后再加载
+        ImageLoader.cancel(holder.img);
+        holder.img.setTag(userId);
+        holder.name.setText("");
+        // 在后台线程中查询用户信息，回调时若该行视图已被复用给其他用户则丢弃结果（避免串行显示）
+        DBManager.read(() -> AdminDao.getCommonUser(userId), commonUser -> {
+            if (commonUser == null || !userId.equals(holder.img.getTag())) {
+                return;
+            }
+            ImageLoader.loadThumbnail(holder.img, commonUser.getsImg());
+            holder.name.setText(commonUser.getsName());
+        });
 
-        // 获取用户头像ImageView控件
-        ImageView img=convertView.findViewById(R.id.man_comment_tx);
-        // 从本地文件路径解码位图，设置用户头像
-        img.setImageBitmap(BitmapFactory.decodeFile(commonUser.getsImg()));
-
-        // 获取用户名TextView控件
-        TextView name=convertView.findViewById(R.id.man_comment_name);
-        // 设置用户名文本
-        name.setText(commonUser.getsName());
-
-        // 获取评论等级描述TextView控件（对应评分的文字说明）
-        TextView c=convertView.findViewById(R.id.man_comment_con);
-
-        // 获取评论时间TextView控件
-        TextView time=convertView.findViewById(R.id.man_comment_time);
         // 设置评论时间文本
-        time.setText(tem.getCommentTime());
-
-        // 清空列表项的点击事件（若无需点击交互，避免遗留旧事件）
-        convertView.setOnClickListener(null);
-
-        // 定义5个评分星星ImageView的控件ID数组，对应五星评分的五个星星
-        int icoIdZ[]={R.id.man_comment_one,
-                R.id.man_comment_two,
-                R.id.man_comment_three,
-                R.id.man_comment_four,
-                R.id.man_comment_five};
-
-        // 将评论评分字符串转换为整数类型
-        int scoreZ=Integer.valueOf(tem.getCommentScore());
-        // 定义评分对应的等级描述文本数组，与评分1-5一一对应
-        String conA[]={"非常差","差","一般","满意","非常满意"};//代笔5个内容
+        holder.time.setText(tem.getCommentTime());
 
+        // 评论评分（整数，1-5）
+        int scoreZ = tem.getCommentScoreValue();
         // 设置评分对应的等级描述文本
-        c.setText(conA[scoreZ-1]);
-
-        // 循环处理未达到评分的星星，设置为空心星（未选中状态）
-        for(int i=scoreZ;i<5;i++){
-            ImageView temp = convertView.findViewById(icoIdZ[i]);
-            temp.setImageResource(R.drawable.wxx);
-        }
-
-        // 循环处理达到评分的星星，设置为实心星（选中状态）
-        for(int i=0;i<scoreZ;i++){
-            ImageView temp = convertView.findViewById(icoIdZ[i]);
-            temp.setImageResource(R.drawable.xx);
+        holder.con.setText(SCORE_TEXT[scoreZ - 1]);
+        // 达到评分的星星设置为实心星（选中状态），其余设置为空心星（未选中状态）
+        for (int i = 0; i < holder.stars.length; i++) {
+            holder.stars[i].setImageResource(i < scoreZ ? R.drawable.xx : R.drawable.wxx);
         }
         //上面内容是显示评分的内容
 
-        // 获取用户具体评论内容TextView控件
-        TextView userCon=convertView.findViewById(R.id.man_comment_userCon);
         // 设置用户评论内容文本
-        userCon.setText(tem.getCommentContent());
+        holder.userCon.setText(tem.getCommentContent());
 
-        // 获取评论附带图片ImageView控件
-        ImageView imgZ=convertView.findViewById(R.id.man_comment_userImg  );
         // 判断评论是否附带图片：若图片路径为空，隐藏图片控件
-        if(tem.getCommentImg().equals("")){
-            imgZ.setVisibility(View.GONE);
-        }else{
-            // 若有图片，从本地文件路径解码位图并设置显示
-            imgZ.setImageBitmap(BitmapFactory.decodeFile(tem.getCommentImg()));
+        if (tem.getCommentImg().equals("")) {
+            ImageLoader.cancel(holder.userImg);
+            holder.userImg.setVisibility(View.GONE);
+        } else {
+            // 若有图片，在后台读取缩略图后显示（视图复用时需重新设置为可见）
+            holder.userImg.setVisibility(View.VISIBLE);
+            ImageLoader.loadThumbnail(holder.userImg, tem.getCommentImg());
         }
+    }
 
-        // 返回绑定好所有数据的当前列表项视图
-        return convertView;
+    /**
+     * 评论列表项的ViewHolder：创建时查找并缓存所有控件，绑定数据时不再重复findViewById
+     */
+    static class CommentViewHolder extends RecyclerView.ViewHolder {
+        ImageView img;                                  // 用户头像
+        TextView name;                                  // 用户名
+        TextView con;                                   // 评论等级描述（对应评分的文字说明）
+        TextView time;                                  // 评论时间
+        ImageView[] stars = new ImageView[STAR_IDS.length]; // 5颗评分星星
+        TextView userCon;                               // 用户具体评论内容
+        ImageView userImg;                              // 评论附带图片
+
+        /**
+         * ViewHolder构造方法：绑定列表项的所有控件
+         * @param itemView 列表项的根视图
+         */
+        CommentViewHolder(@NonNull View itemView) {
+            super(itemView);
+            img = itemView.findViewById(R.id.man_comment_tx);
+            name = itemView.findViewById(R.id.man_comment_name);
+            con = itemView.findViewById(R.id.man_comment_con);
+            time = itemView.findViewById(R.id.man_comment_time);
+            for (int i = 0; i < STAR_IDS.length; i++) {
+                stars[i] = itemView.findViewById(STAR_IDS[i]);
+            }
+            userCon = itemView.findViewById(R.id.man_comment_userCon);
+            userImg = itemView.findViewById(R.id.man_comment_userImg);
+        }
     }
-}
\ No newline at end of file
+}
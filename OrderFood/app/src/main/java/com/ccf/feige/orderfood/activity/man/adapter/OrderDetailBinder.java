@@ -0,0 +1,117 @@
+package com.ccf.feige.orderfood.activity.man.adapter;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.widget.LinearLayout;
+
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.ccf.feige.orderfood.R;
+import com.ccf.feige.orderfood.bean.OrderDetailBean;
+
+import java.util.List;
+
+/**
+ * 订单列表中嵌套的商品明细列表的绑定工具（商家端/用户端的已处理、未处理订单适配器共用）
+ * 核心功能：
+ * 1. 同一个订单列表中所有行的嵌套明细列表共用一个RecycledViewPool，某一行回收的明细行视图可以被其他行直接复用
+ * 2. 每个嵌套明细列表在外层ViewHolder创建时设置一次布局管理器和明细适配器，外层行复用时只通过submitList()切换数据
+ * 3. 商品数量不超过FLAT_MAX_ITEMS的短订单不走嵌套RecyclerView，直接平铺到一个纵向LinearLayout中，
+ *    平铺行随外层行一起复用，只重新绑定数据
+ * 说明：每个订单适配器持有一个实例（即每个订单列表一个视图池），页面销毁时随适配器一起释放
+ */
+public class OrderDetailBinder {
+
+    /** 不超过该商品数量的订单直接平铺展示，不使用嵌套列表 */
+    public static final int FLAT_MAX_ITEMS = 3;
+    /** 共享视图池中明细行视图的最大缓存数量（约为一屏订单的明细行数） */
+    private static final int POOL_SIZE = 30;
+    /** 嵌套列表每次进入屏幕时预先创建的明细行数量 */
+    private static final int INITIAL_PREFETCH = 4;
+
+    // 同一订单列表中所有嵌套明细列表共用的视图池
+    private final RecyclerView.RecycledViewPool pool = new RecyclerView.RecycledViewPool();
+
+    public OrderDetailBinder() {
+        pool.setMaxRecycledViews(0, POOL_SIZE);
+    }
+
+    /**
+     * 初始化外层订单行中的明细控件（在外层ViewHolder创建时调用一次）
+     * @param foodList 嵌套的商品明细列表
+     * @param flatList 短订单平铺展示用的纵向LinearLayout
+     */
+    public void init(RecyclerView foodList, LinearLayout flatList) {
+        LinearLayoutManager layoutManager = new LinearLayoutManager(foodList.getContext());
+        // 嵌套列表从窗口分离（外层行被回收）时把明细行视图放回共享视图池
+        layoutManager.setRecycleChildrenOnDetach(true);
+        layoutManager.setInitialPrefetchItemCount(INITIAL_PREFETCH);
+        foodList.setLayoutManager(layoutManager);
+        foodList.setRecycledViewPool(pool);
+        // 嵌套列表不单独滚动，也不需要切换数据时的动画
+        foodList.setNestedScrollingEnabled(false);
+        foodList.setItemAnimator(null);
+        // 每个嵌套列表只创建一个明细适配器，记录在标签中，之后只切换数据
+        OrderNoFinishIstDetailAdapter adapter = new OrderNoFinishIstDetailAdapter();
+        foodList.setTag(adapter);
+        foodList.setAdapter(adapter);
+        flatList.setVisibility(View.GONE);
+    }
+
+    /**
+     * 绑定一个订单的商品明细（在外层onBindViewHolder中调用）
+     * @param foodList 嵌套的商品明细列表（已通过init()初始化）
+     * @param flatList 短订单平铺展示用的纵向LinearLayout
+     * @param details 订单商品明细，可以为null
+     */
+    public void bind(RecyclerView foodList, LinearLayout flatList, List<OrderDetailBean> details) {
+        OrderNoFinishIstDetailAdapter adapter = (OrderNoFinishIstDetailAdapter) foodList.getTag();
+        int size = details == null ? 0 : details.size();
+        if (size <= FLAT_MAX_ITEMS) {
+            // 短订单：隐藏嵌套列表并卸下其适配器（明细行视图回到共享视图池），明细直接平铺
+            foodList.setVisibility(View.GONE);
+            if (foodList.getAdapter() != null) {
+                adapter.submitList(null);
+                foodList.swapAdapter(null, true);
+            }
+            bindFlat(flatList, details, size);
+            return;
+        }
+        // 长订单：隐藏平铺区域，重新挂上明细适配器并切换数据
+        flatList.setVisibility(View.GONE);
+        foodList.setVisibility(View.VISIBLE);
+        adapter.submitList(details);
+        if (foodList.getAdapter() == null) {
+            foodList.swapAdapter(adapter, true);
+        }
+    }
+
+    /**
+     * 将短订单的明细平铺到LinearLayout中：已有的平铺行直接重新绑定，不足时才创建新行，多余的行隐藏
+     * @param flatList 平铺展示用的纵向LinearLayout
+     * @param details 订单商品明细
+     * @param size 明细条数（不超过FLAT_MAX_ITEMS）
+     */
+    private static void bindFlat(LinearLayout flatList, List<OrderDetailBean> details, int size) {
+        flatList.setVisibility(size == 0 ? View.GONE : View.VISIBLE);
+        for (int i = 0; i < size; i++) {
+            View row;
+            if (i < flatList.getChildCount()) {
+                row = flatList.getChildAt(i);
+            } else {
+                row = LayoutInflater.from(flatList.getContext())
+                        .inflate(R.layout.list_man_order_no_finish_detail_food_list, flatList, false);
+                // 平铺行的控件同样只查找一次，记录在行视图的标签中
+                row.setTag(new OrderNoFinishIstDetailAdapter.OrderViewHolder(row));
+                flatList.addView(row);
+            }
+            row.setVisibility(View.VISIBLE);
+            OrderNoFinishIstDetailAdapter.bindDetail(
+                    (OrderNoFinishIstDetailAdapter.OrderViewHolder) row.getTag(), details.get(i));
+        }
+        for (int i = size; i < flatList.getChildCount(); i++) {
+            flatList.getChildAt(i).setVisibility(View.GONE);
+        }
+    }
+}
@@ -1,141 +1,140 @@
 package com.ccf.feige.orderfood.activity.man.adapter;
 
-import android.content.Context;
-import android.graphics.BitmapFactory;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
-import android.widget.ArrayAdapter;
-import android.widget.Button;
 import android.widget.ImageView;
+import android.widget.LinearLayout;
 import android.widget.TextView;
-import android.widget.Toast;
 
 import androidx.annotation.NonNull;
-import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.ccf.feige.orderfood.R;
 import com.ccf.feige.orderfood.bean.OrderBean;
 import com.ccf.feige.orderfood.bean.OrderDetailBean;
-import com.ccf.feige.orderfood.bean.UserCommonBean;
 import com.ccf.feige.orderfood.dao.AdminDao;
-import com.ccf.feige.orderfood.dao.OrderDao;
+import com.ccf.feige.orderfood.db.DBManager;
+import com.ccf.feige.orderfood.until.ImageLoader;
+import com.ccf.feige.orderfood.until.OrderListAdapter;
 
 import java.util.List;
 
 /**
- * 商家端已完成/已取消订单列表适配器
- * 继承自ArrayAdapter，用于将订单数据（OrderBean）与订单列表项视图进行绑定
+ * 商家端已完成/已取消订单列表适配器（RecyclerView）
+ * 继承自OrderListAdapter（ListAdapter），用于将订单数据（OrderBean）与订单列表项视图进行绑定
  * 适配的列表项布局为：R.layout.list_man_order_finish_list
+ * 说明：控件在ViewHolder创建时查找一次；数据通过submitList()提交，差异在后台计算，只刷新变化的行
  */
-public class OrderFinishIstAdapter extends ArrayAdapter<OrderBean> {
+public class OrderFinishIstAdapter extends OrderListAdapter<OrderFinishIstAdapter.OrderViewHolder> {
 
-    /** 订单数据列表，存储所有需要展示的已完成/已取消订单信息 */
-    private List<OrderBean> list;
+    // 嵌套商品明细列表的绑定工具（同一订单列表的所有行共用一个明细视图池）
+    private final OrderDetailBinder detailBinder = new OrderDetailBinder();
 
-    /** 上下文对象，用于加载布局、获取资源等操作 */
-    private Context context;
+    /**
+     * 构造方法
+     * 订单数据通过submitList()提交（由OrderPager分页加载后提交）
+     */
+    public OrderFinishIstAdapter() {
+        super();
+    }
 
     /**
-     * 构造方法，初始化适配器并传递必要参数
-     * @param context 上下文对象，通常为当前Activity/Fragment
-     * @param list 待展示的订单数据列表
+     * 创建订单列表项的ViewHolder：加载布局并查找所有控件
+     * @param parent 父容器（订单列表RecyclerView）
+     * @param viewType 视图类型（当前适配器仅一种视图类型）
+     * @return 持有列表项所有控件的OrderViewHolder
      */
-    public OrderFinishIstAdapter(@NonNull Context context, List<OrderBean> list) {
-        // 调用父类ArrayAdapter的构造方法，指定适配的布局和数据列表
-        super(context, R.layout.list_man_order_finish_list,list);
-        this.context=context;
-        this.list=list;
+    @NonNull
+    @Override
+    public OrderViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View itemView = LayoutInflater.from(parent.getContext())
+                .inflate(R.layout.list_man_order_finish_list, parent, false);
+        OrderViewHolder holder = new OrderViewHolder(itemView);
+        // 商品明细列表只初始化一次：共享视图池、布局管理器和明细适配器
+        detailBinder.init(holder.foodList, holder.foodFlat);
+        return holder;
     }
 
     /**
-     * 重写ArrayAdapter的getView方法，用于创建并绑定每个列表项的视图
-     * 实现数据与视图的映射，复用convertView优化列表性能
+     * 绑定订单数据到列表项控件，实现数据与视图的映射
+     * @param holder 持有列表项控件的ViewHolder
      * @param position 当前列表项的位置索引
-     * @param convertView 可复用的视图对象，用于减少View的创建开销
-     * @param viewGroup 列表项视图的父容器（即ListView/GridView）
-     * @return 绑定好数据的当前列表项视图
      */
     @Override
-    public View getView(int position, View convertView, ViewGroup viewGroup){
-        // 判断是否有可复用的视图，若无则加载新的布局文件
-        if(convertView==null){
-            LayoutInflater inflater=LayoutInflater.from(getContext());
-            convertView=inflater.inflate(R.layout.list_man_order_finish_list,viewGroup,false);
-        }
-
-        //TextView a=convertView.findViewById(R.id.xz);
-        //a.setText("AAA");
+    public void onBindViewHolder(@NonNull OrderViewHolder holder, int position) {
         // 获取当前位置对应的订单对象
-        OrderBean tem = list.get(position);
+        OrderBean tem = getItem(position);
         // 从订单对象中获取下单用户的ID
-        String userId=tem.getUserId();
-        // 通过AdminDao查询该用户的普通用户信息
-        UserCommonBean commonUser = AdminDao.getCommonUser(userId);//普通用户
-
-        // 找到用户头像ImageView，绑定用户头像（从本地文件解码Bitmap）
-        ImageView imageView=convertView.findViewById(R.id.list_man_order_finish_list_img);
-        imageView.setImageBitmap(BitmapFactory.decodeFile(commonUser.getsImg()));
-
-        // 找到用户名TextView，绑定用户姓名
-        TextView name=convertView.findViewById(R.id.list_man_order_finish_list_name);
-        name.setText(commonUser.getsName());
-        // 找到订单时间TextView，绑定订单创建时间
-        TextView time=convertView.findViewById(R.id.list_man_order_finish_list_time);
-        time.setText(tem.getOrderTime());
-
-        // 将订单地址按"-"分割，拆分出收件人、电话、详细地址等信息
-        String address[]=tem.getOrderAddress().split("-");
-
-        // 找到收件人TextView，绑定拆分后的收件人信息（数组第0位）
-        TextView receivePeo=convertView.findViewById(R.id.list_man_order_finish_list_receivePeo);
-        receivePeo.setText(address[0]);
-
-        // 找到收件地址TextView，绑定拆分后的详细地址（数组第2位）
-        TextView receiveAdderss=convertView.findViewById(R.id.list_man_order_finish_list_receiveAddress);
-        receiveAdderss.setText(address[2]);
-
-        // 找到联系电话TextView，绑定拆分后的手机号（数组第1位）
-        TextView phone=convertView.findViewById(R.id.list_man_order_finish_list_receivePhone);
-        phone.setText(address[1]);
-
-        // 找到订单详情RecyclerView，用于展示该订单下的商品明细
-        RecyclerView listDe=convertView.findViewById(R.id.list_man_order_finish_list_foodList);
-
-        // 从当前订单对象中获取订单详情（商品列表）数据
+        String userId = tem.getUserId();
+
+        // 用户头像：取消未完成的加载并记录该行对应的用户ID
+        ImageLoader.cancel(holder.img);
+        holder.img.setTag(userId);
+        holder.name.setText("");
+        // 在后台线程中查询用户信息，回调时若该行视图已被复用给其他用户则丢弃结果（避免串行显示）
+        DBManager.read(() -> AdminDao.getCommonUser(userId), commonUser -> {
+            if (commonUser == null || !userId.equals(holder.img.getTag())) {
+                return;
+            }
+            ImageLoader.loadThumbnail(holder.img, commonUser.getsImg());
+            holder.name.setText(commonUser.getsName());
+        });
+        // 绑定订单创建时间
+        holder.time.setText(tem.getOrderTime());
+
+        // 将订单地址按"-"分割，拆分出收件人（第0位）、电话（第1位）、详细地址（第2位）
+        String address[] = tem.getOrderAddress().split("-");
+        holder.receivePeo.setText(address[0]);
+        holder.receiveAddress.setText(address[2]);
+        holder.phone.setText(address[1]);
+
+        // 绑定订单商品明细：复用该行已有的明细适配器（或平铺行），只切换数据，不再为每次绑定创建适配器
         List<OrderDetailBean> detailList = tem.getOrderDetailBeanList();
+        detailBinder.bind(holder.foodList, holder.foodFlat, detailList);
 
-        //再加载一个listview
-        // 创建订单详情适配器，传入商品明细数据
-        OrderNoFinishIstDetailAdapter de=new OrderNoFinishIstDetailAdapter(detailList);
-
-        // 为RecyclerView设置线性布局管理器（纵向排列）
-        listDe.setLayoutManager(new LinearLayoutManager(getContext()));
-        // 判断订单详情列表是否为空，为空则设置Adapter为null，否则设置并刷新
-        if(detailList==null||detailList.size()==0){
-            listDe.setAdapter(null);
-        }else{
-            listDe.setAdapter(de);
-            // 通知详情适配器数据已变更，更新RecyclerView视图
-            de.notifyDataSetChanged();
-        }
+        // 计算并绑定订单商品总金额
+        holder.sumPrice.setText(OrderNoFinishIstDetailAdapter.getSumPrice(detailList));
 
-        // 找到订单总金额TextView，绑定详情适配器计算的总金额
-        TextView sumPrice=convertView.findViewById(R.id.list_man_order_finish_list_sumPrice);
-        sumPrice.setText(de.getSumPrice());
-
-        // 找到订单状态TextView，根据订单状态值设置对应文字描述
-        TextView sta=convertView.findViewById(R.id.list_man_order_finish_list_sta);
-        if(tem.getOrderStatus().equals("2")){
-            // 状态值"2"对应"订单已取消"
-            sta.setText("订单已取消");
-        }else{
-            // 其他状态值对应"订单已完成"
-            sta.setText("订单已完成");
+        // 根据订单状态值设置对应文字描述：状态值"2"对应"订单已取消"，其他状态值对应"订单已完成"
+        if (tem.getOrderStatus().equals("2")) {
+            holder.sta.setText("订单已取消");
+        } else {
+            holder.sta.setText("订单已完成");
         }
+    }
 
-        // 返回绑定好所有数据的当前列表项视图
-        return convertView;
+    /**
+     * 订单列表项的ViewHolder：创建时查找并缓存所有控件，绑定数据时不再重复findViewById
+     */
+    static class OrderViewHolder extends RecyclerView.ViewHolder {
+        ImageView img;              // 下单用户头像
+        TextView name;              // 下单用户昵称
+        TextView time;              // 下单时间
+        TextView receivePeo;        // 收件人
+        TextView receiveAddress;    // 收件地址
+        TextView phone;             // 联系电话
+        RecyclerView foodList;      // 订单商品明细列表
+        LinearLayout foodFlat;      // 短订单的平铺商品明细
+        TextView sumPrice;          // 订单总金额
+        TextView sta;               // 订单状态
+
+        /**
+         * ViewHolder构造方法：绑定列表项的所有控件
+         * @param itemView 列表项的根视图
+         */
+        OrderViewHolder(@NonNull View itemView) {
+            super(itemView);
+            img = itemView.findViewById(R.id.list_man_order_finish_list_img);
+            name = itemView.findViewById(R.id.list_man_order_finish_list_name);
+            time = itemView.findViewById(R.id.list_man_order_finish_list_time);
+            receivePeo = itemView.findViewById(R.id.list_man_order_finish_list_receivePeo);
+            receiveAddress = itemView.findViewById(R.id.list_man_order_finish_list_receiveAddress);
+            phone = itemView.findViewById(R.id.list_man_order_finish_list_receivePhone);
+            foodList = itemView.findViewById(R.id.list_man_order_finish_list_foodList);
+            foodFlat = itemView.findViewById(R.id.list_man_order_finish_list_foodFlat);
+            sumPrice = itemView.findViewById(R.id.list_man_order_finish_list_sumPrice);
+            sta = itemView.findViewById(R.id.list_man_order_finish_list_sta);
+        }
     }
-}
\ No newline at end of file
+}
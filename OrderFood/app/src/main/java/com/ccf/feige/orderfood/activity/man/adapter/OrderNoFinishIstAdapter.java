@@ -3,194 +3,173 @@ package com.ccf.feige.orderfood.activity.man.adapter;
 
 // 导入Android系统相关控件、上下文、布局等核心类，为适配器提供基础支持
 import android.content.Context;
-import android.graphics.BitmapFactory;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
-import android.widget.ArrayAdapter;
 import android.widget.Button;
 import android.widget.ImageView;
+import android.widget.LinearLayout;
 import android.widget.TextView;
 import android.widget.Toast;
 
-// 导入AndroidX相关的RecyclerView组件，用于实现订单详情的列表展示
+// 导入AndroidX相关的RecyclerView组件，用于实现订单列表及订单详情的列表展示
 import androidx.annotation.NonNull;
-import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 // 导入项目自定义的资源类、实体类、数据访问类（DAO），提供业务相关的依赖支持
 import com.ccf.feige.orderfood.R;
 import com.ccf.feige.orderfood.bean.OrderBean;
 import com.ccf.feige.orderfood.bean.OrderDetailBean;
-import com.ccf.feige.orderfood.bean.UserCommonBean;
 import com.ccf.feige.orderfood.dao.AdminDao;
 import com.ccf.feige.orderfood.dao.OrderDao;
+import com.ccf.feige.orderfood.db.DBManager;
+import com.ccf.feige.orderfood.until.ImageLoader;
+import com.ccf.feige.orderfood.until.OrderListAdapter;
 
 import java.util.List;
 
 /**
- * 这个是用来显示商家商品的一个adapter
- * 补充注释：该适配器本质为【商家端未完成订单列表适配器】，继承自ArrayAdapter<OrderBean>，
- * 专门用于展示商家端处于未完成状态的订单数据，实现订单信息绑定、订单状态修改等功能
+ * 商家端未完成订单列表适配器（RecyclerView）
+ * 继承自OrderListAdapter（ListAdapter），专门用于展示商家端处于未完成状态的订单数据，实现订单信息绑定、订单状态修改等功能
+ * 说明：控件在ViewHolder创建时查找一次、按钮点击事件只设置一次（点击时按当前绑定位置取订单）；
+ * 取消/完成订单成功后只移除该订单所在的行（差异在后台计算），其余行不会重新绑定
  */
-public class OrderNoFinishIstAdapter extends ArrayAdapter<OrderBean> {
+public class OrderNoFinishIstAdapter extends OrderListAdapter<OrderNoFinishIstAdapter.OrderViewHolder> {
 
-    // 成员变量：存储商家端未完成订单数据的集合，承载所有需要展示的订单实体
-    private List<OrderBean> list;
-
-    // 成员变量：上下文对象，用于获取布局资源、弹出提示框、初始化控件等操作
-    private Context context;
+    // 嵌套商品明细列表的绑定工具（同一订单列表的所有行共用一个明细视图池）
+    private final OrderDetailBinder detailBinder = new OrderDetailBinder();
 
     /**
-     * 适配器的构造方法，用于初始化适配器的核心参数
-     * @param context 上下文对象，传递自调用该适配器的页面/组件
-     * @param list 未完成订单数据集合，包含所有需要展示的OrderBean实体
+     * 适配器的构造方法
+     * 订单数据通过submitList()提交（由OrderPager分页加载后提交）
      */
-    public OrderNoFinishIstAdapter(@NonNull Context context, List<OrderBean> list) {
-        // 调用父类ArrayAdapter的构造方法，指定列表项的布局文件和订单数据集合
-        super(context, R.layout.list_man_order_no_finish_list,list);
-        // 初始化当前适配器的上下文对象
-        this.context=context;
-        // 初始化当前适配器的订单数据集合
-        this.list=list;
+    public OrderNoFinishIstAdapter() {
+        super();
     }
 
     /**
-     * 重写ArrayAdapter的getView方法，用于创建并返回每个订单列表项的视图
-     * 核心功能：绑定订单数据到控件、初始化订单详情列表、设置按钮点击事件
-     * @param position  当前列表项在订单集合中的索引位置
-     * @param convertView  可复用的视图对象，用于提升列表渲染性能（避免重复创建视图）
-     * @param viewGroup  当前列表项视图的父容器（即订单列表的ListView）
-     * @return  绑定好所有数据的当前订单列表项视图
+     * 创建订单列表项的ViewHolder：加载布局并查找所有控件，设置按钮点击事件
+     * @param parent 父容器（订单列表RecyclerView）
+     * @param viewType 视图类型（当前适配器仅一种视图类型）
+     * @return 持有列表项所有控件的OrderViewHolder
      */
+    @NonNull
     @Override
-    public View getView(int position, View convertView, ViewGroup viewGroup){
-        // 视图复用判断：如果没有可复用的视图，就从布局文件加载新视图
-        if(convertView==null){
-            // 获取布局填充器，用于从xml布局文件加载视图对象
-            LayoutInflater inflater=LayoutInflater.from(getContext());
-            // 加载订单列表项的布局文件，生成视图对象并赋值给convertView
-            convertView=inflater.inflate(R.layout.list_man_order_no_finish_list,viewGroup,false);
-        }
-
-        // 注释：该行代码为注释预留，未实际执行功能（原代码注释掉的TextView赋值）
-        //TextView a=convertView.findViewById(R.id.xz);
-        //a.setText("AAA");
+    public OrderViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        // 获取布局填充器，加载订单列表项的布局文件（不立即添加到父容器，由RecyclerView统一管理）
+        View itemView = LayoutInflater.from(parent.getContext())
+                .inflate(R.layout.list_man_order_no_finish_list, parent, false);
+        OrderViewHolder holder = new OrderViewHolder(itemView);
+        // 商品明细列表只初始化一次：共享视图池、布局管理器和明细适配器
+        detailBinder.init(holder.foodList, holder.foodFlat);
+        // 取消订单按钮：将订单状态更新为"2"（取消状态）
+        holder.cancel.setOnClickListener(v -> updateStatus(holder, "2", "取消订单"));
+        // 完成订单按钮：将订单状态更新为"3"（完成状态）
+        holder.ok.setOnClickListener(v -> updateStatus(holder, "3", "完成订单"));
+        return holder;
+    }
 
-        // 根据当前列表项的索引，从订单集合中获取对应的订单实体对象
-        OrderBean tem = list.get(position);
+    /**
+     * 绑定订单数据到列表项控件：用户信息、下单时间、收货信息、商品明细和总价
+     * @param holder 持有列表项控件的ViewHolder
+     * @param position 当前列表项的位置
+     */
+    @Override
+    public void onBindViewHolder(@NonNull OrderViewHolder holder, int position) {
+        // 根据当前列表项的位置获取对应的订单实体对象
+        OrderBean tem = getItem(position);
         // 从订单实体中获取下单用户的ID
-        String userId=tem.getUserId();
-        // 调用AdminDao的静态方法，通过用户ID获取普通用户的详细信息实体
-        UserCommonBean commonUser = AdminDao.getCommonUser(userId);//普通用户
-
-        // 初始化用户头像ImageView控件：从当前列表项视图中获取头像控件
-        ImageView imageView=convertView.findViewById(R.id.list_man_order_no_finish_list_img);
-        // 为头像控件设置图片：通过BitmapFactory解析用户头像文件路径，生成Bitmap并设置
-        imageView.setImageBitmap(BitmapFactory.decodeFile(commonUser.getsImg()));
-        // 注释：开发备注，当前数据中可能缺少用户头像信息，导致头像展示异常
-
-        // 初始化用户名TextView控件：获取用户名展示控件并绑定用户姓名数据
-        TextView name=convertView.findViewById(R.id.list_man_order_no_finish_list_name);
-        name.setText(commonUser.getsName());
+        String userId = tem.getUserId();
+
+        // 取消该控件上未完成的图片加载并清空头像，记录该行对应的用户ID，头像在后台查询到用户信息后再加载
+        ImageLoader.cancel(holder.img);
+        holder.img.setTag(userId);
+        holder.name.setText("");
+        // 在后台线程中查询用户信息，回调时若该行视图已被复用给其他用户则丢弃结果（避免串行显示）
+        DBManager.read(() -> AdminDao.getCommonUser(userId), commonUser -> {
+            if (commonUser == null || !userId.equals(holder.img.getTag())) {
+                return;
+            }
+            ImageLoader.loadThumbnail(holder.img, commonUser.getsImg());
+            holder.name.setText(commonUser.getsName());
+        });
 
-        // 初始化订单时间TextView控件：获取订单时间展示控件并绑定订单创建时间数据
-        TextView time=convertView.findViewById(R.id.list_man_order_no_finish_list_time);
-        time.setText(tem.getOrderTime());
+        // 绑定订单创建时间
+        holder.time.setText(tem.getOrderTime());
 
         // 订单地址处理：将订单地址字符串按"-"分割为字符串数组，拆分收件人、电话、详细地址
-        String address[]=tem.getOrderAddress().split("-");
-
-        // 初始化收件人TextView控件：获取收件人展示控件并绑定地址数组中的收件人信息
-        TextView receivePeo=convertView.findViewById(R.id.list_man_order_no_finish_list_receivePeo);
-        receivePeo.setText(address[0]);
-
-        // 初始化收件地址TextView控件：获取收件地址展示控件并绑定地址数组中的详细地址信息
-        TextView receiveAdderss=convertView.findViewById(R.id.list_man_order_no_finish_list_receiveAdderss);
-        receiveAdderss.setText(address[2]);
-
-        // 初始化联系电话TextView控件：获取联系电话展示控件并绑定地址数组中的电话信息
-        TextView phone=convertView.findViewById(R.id.list_man_order_no_finish_list_receivePhone);
-        phone.setText(address[1]);
+        String address[] = tem.getOrderAddress().split("-");
+        holder.receivePeo.setText(address[0]);
+        holder.receiveAddress.setText(address[2]);
+        holder.phone.setText(address[1]);
 
-        // 初始化订单详情RecyclerView控件：获取用于展示订单商品明细的列表控件
-        RecyclerView listDe=convertView.findViewById(R.id.list_man_order_no_finish_list_foodList);
-        // 注释：原代码重复给联系电话TextView赋值，保持原有代码逻辑，无额外业务意义
-        phone.setText(address[1]);
-
-        // 从当前订单实体中获取订单明细数据集合（包含该订单下的所有商品信息）
+        // 绑定订单商品明细：复用该行已有的明细适配器（或平铺行），只切换数据，不再为每次绑定创建适配器
         List<OrderDetailBean> detailList = tem.getOrderDetailBeanList();
+        detailBinder.bind(holder.foodList, holder.foodFlat, detailList);
 
-        // 注释：订单详情列表初始化，复用内部适配器展示商品明细
-        //再加载一个listview
-        // 创建订单详情适配器实例，传入订单明细数据集合
-        OrderNoFinishIstDetailAdapter de=new OrderNoFinishIstDetailAdapter(detailList);
-
-        // 为订单详情RecyclerView设置布局管理器：使用线性布局管理器，适配上下文环境
-        listDe.setLayoutManager(new LinearLayoutManager(getContext()));
-
-        // 订单详情数据判空处理：如果明细集合为空或长度为0，设置适配器为null
-        if(detailList==null||detailList.size()==0){
-            listDe.setAdapter(null);
-        }else{
-            // 明细数据非空时，为RecyclerView设置详情适配器
-            listDe.setAdapter(de);
-            // 通知详情适配器数据已变更，刷新详情列表展示
-            de.notifyDataSetChanged();
-        }
-
-        // 初始化订单总价TextView控件：获取总价展示控件并绑定详情适配器计算的总价数据
-        TextView sumPrice=convertView.findViewById(R.id.list_man_order_no_finish_list_sumPrice);
-        sumPrice.setText(de.getSumPrice());
-
-        // 初始化取消订单按钮：从当前列表项视图中获取取消订单按钮控件
-        Button cancel =convertView.findViewById(R.id.list_man_order_no_finish_list_cancelOrder);
-        // 为取消订单按钮设置点击事件监听器
-        cancel.setOnClickListener(new View.OnClickListener() {
-            @Override
-            public void onClick(View v) {
-                // 点击事件逻辑：调用OrderDao的静态方法，将订单状态更新为"2"（取消状态）
-                int a=OrderDao.updateOrderStatus(tem.getOrderId(),"2");
-                // 判断订单状态更新是否成功（返回1表示成功）
-                if(a==1){
-                    // 从订单集合中移除当前位置的订单
-                    list.remove(position);
-                    // 通知适配器数据已变更，刷新整个订单列表
-                    notifyDataSetChanged();
-                    // 弹出提示框，告知用户取消订单成功
-                    Toast.makeText(getContext(), "取消订单成功", Toast.LENGTH_SHORT).show();
-                }else{
-                    // 弹出提示框，告知用户取消订单失败
-                    Toast.makeText(getContext(), "取消订单失败", Toast.LENGTH_SHORT).show();
-                }
-            }
-        });
+        // 计算并绑定订单商品总金额
+        holder.sumPrice.setText(OrderNoFinishIstDetailAdapter.getSumPrice(detailList));
+    }
 
-        // 初始化完成订单按钮：从当前列表项视图中获取完成订单按钮控件
-        Button ok =convertView.findViewById(R.id.list_man_order_no_finish_list_okOrder);
-        // 为完成订单按钮设置点击事件监听器
-        ok.setOnClickListener(new View.OnClickListener() {
-            @Override
-            public void onClick(View v) {
-                // 点击事件逻辑：调用OrderDao的静态方法，将订单状态更新为"3"（完成状态）
-                int a= OrderDao.updateOrderStatus(tem.getOrderId(),"3");
-                // 判断订单状态更新是否成功（返回1表示成功）
-                if(a==1){
-                    // 从订单集合中移除当前位置的订单
-                    list.remove(position);
-                    // 通知适配器数据已变更，刷新整个订单列表
-                    notifyDataSetChanged();
-                    // 弹出提示框，告知用户完成订单成功
-                    Toast.makeText(getContext(), "完成订单成功", Toast.LENGTH_SHORT).show();
-                }else{
-                    // 弹出提示框，告知用户完成订单失败
-                    Toast.makeText(getContext(), "完成订单失败", Toast.LENGTH_SHORT).show();
-                }
+    /**
+     * 修改订单状态：在后台写线程中更新状态，成功后只移除该订单所在的行
+     * @param holder 被点击的列表项
+     * @param status 新的订单状态（"2"取消、"3"完成）
+     * @param action 操作名称（用于提示）
+     */
+    private void updateStatus(OrderViewHolder holder, String status, String action) {
+        // 按当前绑定位置获取订单（行正在移除时位置无效，直接忽略点击）
+        int position = holder.getBindingAdapterPosition();
+        if (position == RecyclerView.NO_POSITION) {
+            return;
+        }
+        OrderBean tem = getItem(position);
+        Context context = holder.itemView.getContext();
+        DBManager.write(() -> OrderDao.updateOrderStatus(tem.getOrderId(), status), a -> {
+            // 判断订单状态更新是否成功（返回1表示成功）
+            if (a == 1) {
+                // 从列表中移除该订单（回调时位置可能已变化，按订单移除）
+                removeOrder(tem);
+                Toast.makeText(context, action + "成功", Toast.LENGTH_SHORT).show();
+            } else {
+                Toast.makeText(context, action + "失败", Toast.LENGTH_SHORT).show();
             }
         });
-
-        // 返回绑定好所有数据和事件的当前订单列表项视图
-        return convertView;
     }
 
-}
\ No newline at end of file
+    /**
+     * 订单列表项的ViewHolder：创建时查找并缓存所有控件，绑定数据时不再重复findViewById
+     */
+    static class OrderViewHolder extends RecyclerView.ViewHolder {
+        ImageView img;              // 下单用户头像
+        TextView name;              // 下单用户昵称
+        TextView time;              // 下单时间
+        TextView receivePeo;        // 收件人
+        TextView receiveAddress;    // 收件地址
+        TextView phone;             // 联系电话
+        RecyclerView foodList;      // 订单商品明细列表
+        LinearLayout foodFlat;      // 短订单的平铺商品明细
+        TextView sumPrice;          // 订单总价
+        Button cancel;              // 取消订单按钮
+        Button ok;                  // 完成订单按钮
+
+        /**
+         * ViewHolder构造方法：绑定列表项的所有控件
+         * @param itemView 列表项的根视图
+         */
+        OrderViewHolder(@NonNull View itemView) {
+            super(itemView);
+            img = itemView.findViewById(R.id.list_man_order_no_finish_list_img);
+            name = itemView.findViewById(R.id.list_man_order_no_finish_list_name);
+            time = itemView.findViewById(R.id.list_man_order_no_finish_list_time);
+            receivePeo = itemView.findViewById(R.id.list_man_order_no_finish_list_receivePeo);
+            receiveAddress = itemView.findViewById(R.id.list_man_order_no_finish_list_receiveAdderss);
+            phone = itemView.findViewById(R.id.list_man_order_no_finish_list_receivePhone);
+            foodList = itemView.findViewById(R.id.list_man_order_no_finish_list_foodList);
+            foodFlat = itemView.findViewById(R.id.list_man_order_no_finish_list_foodFlat);
+            sumPrice = itemView.findViewById(R.id.list_man_order_no_finish_list_sumPrice);
+            cancel = itemView.findViewById(R.id.list_man_order_no_finish_list_cancelOrder);
+            ok = itemView.findViewById(R.id.list_man_order_no_finish_list_okOrder);
+        }
+    }
+}
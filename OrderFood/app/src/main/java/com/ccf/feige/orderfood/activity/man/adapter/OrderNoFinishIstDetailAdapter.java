@@ -12,13 +12,17 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.ccf.feige.orderfood.R;
 import com.ccf.feige.orderfood.bean.OrderDetailBean;
+import com.ccf.feige.orderfood.until.ImageLoader;
+import com.ccf.feige.orderfood.until.Tools;
 
-import java.math.BigDecimal;
+import java.util.Collections;
 import java.util.List;
 
 /**
  * 这是RecyclerView的适配器类，用于展示商家未完成订单的商品详情列表
  * 适配RecyclerView，负责将订单商品详情数据（OrderDetailBean）与列表项布局进行绑定，实现数据的可视化展示
+ * 订单列表中每个嵌套列表只创建一个该适配器（见OrderDetailBinder），外层行复用时通过submitList()切换为新订单的明细，
+ * 已创建的明细行视图原地重新绑定，不再为每次绑定新建适配器
  */
 public class OrderNoFinishIstDetailAdapter extends RecyclerView.Adapter<OrderNoFinishIstDetailAdapter.OrderViewHolder> {
 
@@ -34,6 +38,37 @@ public class OrderNoFinishIstDetailAdapter extends RecyclerView.Adapter<OrderNoF
         this.list=list;
     }
 
+    /**
+     * 无参构造方法：创建空的明细适配器，之后通过submitList()设置明细数据
+     */
+    public OrderNoFinishIstDetailAdapter() {
+        this(Collections.emptyList());
+    }
+
+    /**
+     * 切换为另一个订单的商品明细（外层订单行复用时调用）
+     * 前min(新旧条数)行原地重新绑定，多出的行插入、不足的行移除，已创建的明细行视图全部复用
+     * @param newList 新的订单商品明细列表，为null时按空列表处理
+     */
+    public void submitList(List<OrderDetailBean> newList) {
+        List<OrderDetailBean> next = newList == null ? Collections.emptyList() : newList;
+        if (next == list) {
+            return;
+        }
+        int oldSize = list.size();
+        int newSize = next.size();
+        list = next;
+        int common = Math.min(oldSize, newSize);
+        if (common > 0) {
+            notifyItemRangeChanged(0, common);
+        }
+        if (newSize > oldSize) {
+            notifyItemRangeInserted(oldSize, newSize - oldSize);
+        } else if (oldSize > newSize) {
+            notifyItemRangeRemoved(newSize, oldSize - newSize);
+        }
+    }
+
     /**
      * 创建RecyclerView的视图持有者（ViewHolder），负责加载列表项布局并初始化ViewHolder
      * @param parent 父容器（RecyclerView）
@@ -59,24 +94,25 @@ public class OrderNoFinishIstDetailAdapter extends RecyclerView.Adapter<OrderNoF
      */
     @Override
     public void onBindViewHolder(@NonNull OrderNoFinishIstDetailAdapter.OrderViewHolder holder, int position) {
-        // 获取当前位置对应的订单商品详情实体
-        OrderDetailBean tem = list.get(position);
+        // 获取当前位置对应的订单商品详情实体并绑定
+        bindDetail(holder, list.get(position));
+    }
 
-        // 从本地文件路径解码Bitmap，设置到商品图片ImageView
-        holder.imageView.setImageBitmap(BitmapFactory.decodeFile(tem.getFoodImage()));
+    /**
+     * 将一条商品明细绑定到明细行控件（嵌套列表和短订单的平铺明细行共用）
+     * @param holder 明细行的视图持有者
+     * @param tem 商品明细
+     */
+    static void bindDetail(OrderViewHolder holder, OrderDetailBean tem) {
+        // 在后台读取商品图片的缩略图，设置到商品图片ImageView
+        ImageLoader.loadThumbnail(holder.imageView, tem.getFoodImage());
         // 设置商品名称到对应的TextView
         holder.name.setText(tem.getFoodName());
         // 设置商品购买数量到对应的TextView
         holder.num.setText(tem.getFoodQuantity());
 
-        // 初始化BigDecimal对象，用于精确计算（避免浮点型运算精度丢失）
-        BigDecimal priceZ=new BigDecimal(tem.getFoodPrice());// 商品单价
-        BigDecimal numZ=new BigDecimal(tem.getFoodQuantity());// 商品购买数量
-
-        // 计算商品总价（单价 * 数量），转换为字符串格式
-        String jg = priceZ.multiply(numZ).toString();//价格使用的是总价
-        // 设置商品总价到对应的TextView
-        holder.price.setText(jg);
+        // 计算商品总价（单价分 * 数量，整数运算无精度丢失），转换为元字符串展示
+        holder.price.setText(Tools.centsToYuan(tem.getSubtotalCents()));
     }
 
     /**
@@ -93,18 +129,26 @@ public class OrderNoFinishIstDetailAdapter extends RecyclerView.Adapter<OrderNoF
      * @return 所有商品（单价*数量）之和的字符串格式，即订单商品总金额
      */
     public String getSumPrice(){
-        // 所有商品数量*价格的总行
-        BigDecimal total=new BigDecimal(0);// 初始化总金额为0
-        // 遍历所有订单商品详情，累加单个商品总价
+        return getSumPrice(list);
+    }
+
+    /**
+     * 计算订单商品明细的总金额（外层订单行直接调用，无需为此创建适配器）
+     * @param list 订单商品明细列表，为null时返回0元
+     * @return 所有商品（单价*数量）之和的字符串格式，即订单商品总金额
+     */
+    public static String getSumPrice(List<OrderDetailBean> list){
+        // 总金额（单位：分），整数累加避免浮点误差
+        long totalCents = 0;
+        if (list == null) {
+            return Tools.centsToYuan(totalCents);
+        }
+        // 遍历所有订单商品详情，累加单个商品总价（单价分 * 数量）
         for(OrderDetailBean orderDetailBean:list){
-            BigDecimal priceZ=new BigDecimal(orderDetailBean.getFoodPrice());// 单个商品单价
-            BigDecimal numZ=new BigDecimal(orderDetailBean.getFoodQuantity());// 单个商品购买数量
-            BigDecimal dj = priceZ.multiply(numZ);//价格使用的是总价  DJ=priceZ*numZ（计算单个商品总价）
-            total=total.add(dj);// 累加单个商品总价到总金额
-            //toal=total+d"
+            totalCents += orderDetailBean.getSubtotalCents();
         }
-        // 返回总金额的字符串格式
-        return  total.toString();
+        // 转换为元字符串返回
+        return Tools.centsToYuan(totalCents);
     }
 
     /**
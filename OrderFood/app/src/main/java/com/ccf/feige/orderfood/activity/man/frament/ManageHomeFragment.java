@@ -8,22 +8,26 @@ import android.view.View;
 import androidx.appcompat.widget.SearchView;
 import androidx.core.content.ContextCompat;
 import androidx.fragment.app.Fragment;
+import androidx.recyclerview.widget.RecyclerView;
 
 
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 
 import android.view.LayoutInflater;
 
 import android.view.ViewGroup;
-import android.widget.ListView;
 
 import com.ccf.feige.orderfood.R;
 import com.ccf.feige.orderfood.activity.man.adapter.FoodLIstAdapter;
 import com.ccf.feige.orderfood.bean.FoodBean;
 import com.ccf.feige.orderfood.dao.FoodDao;
+import com.ccf.feige.orderfood.db.DBManager;
 import com.ccf.feige.orderfood.until.Tools;
 
 import java.util.List;
+import java.util.concurrent.Future;
 
 /**
  * 商家端首页Fragment
@@ -34,6 +38,20 @@ public class ManageHomeFragment extends Fragment {
     // Fragment的根视图
     View rootview;
 
+    /**
+     * 搜索防抖间隔（毫秒）：输入停止超过该时间才发起查询，连续输入时只查询最后一次的关键词
+     */
+    private static final long SEARCH_DEBOUNCE_MS = 300;
+
+    // 主线程Handler：用于延迟发起搜索（防抖）
+    private final Handler searchHandler = new Handler(Looper.getMainLooper());
+    // 等待执行的搜索任务（新的输入到来时取消）
+    private Runnable pendingSearch;
+    // 正在执行的搜索查询（新的查询发起时取消尚未开始的旧查询）
+    private Future<List<FoodBean>> searchFuture;
+    // 搜索序号：每次发起查询加1，回调时序号不一致说明已有更新的查询，丢弃过期结果
+    private int searchSeq;
+
     /**
      * Fragment生命周期方法：创建并返回Fragment的视图
      * @param inflater 布局填充器，用于加载布局文件
@@ -48,23 +66,20 @@ public class ManageHomeFragment extends Fragment {
         rootview=inflater.inflate(R.layout.fragment_manage_home, container, false);
 
         // 接下来要写的是适配器
-        // 获取布局中的ListView控件，用于展示食品列表
-        ListView listView = rootview.findViewById(R.id.man_home_food_listView);
-
-        // 1. 通过工具类获取当前登录商家账号，再从数据库查询该商家的所有食品列表
-        List<FoodBean> list = FoodDao.getAllFoodListByBusinessId(Tools.getOnAccount(getContext()));
-        // 2. 创建食品列表适配器，绑定上下文和食品数据
-        FoodLIstAdapter adapter = new FoodLIstAdapter(getContext(), list);
-        // 3. 判空处理：如果列表为空或为null，设置适配器为null，否则设置创建好的适配器
-        if(list==null||list.size()==0){
-            listView.setAdapter(null);
-        }else{
-            listView.setAdapter(adapter);
-        }
+        // 获取布局中的RecyclerView控件，用于展示食品列表
+        RecyclerView listView = rootview.findViewById(R.id.man_home_food_listView);
+        // 初始化纵向列表并设置适配器（只创建一次，之后每次搜索只提交新的结果列表）
+        FoodLIstAdapter adapter = new FoodLIstAdapter();
+        Tools.initVerticalList(listView);
+        listView.setAdapter(adapter);
 
         // 实现数据账号共享：通过工具类获取当前登录的商家账号
         String account=Tools.getOnAccount(getContext());
 
+        // 1. 在后台线程中查询该商家的所有食品列表（关键词为空即该商家全部菜品）
+        // 2. 查询完成后在主线程向适配器提交食品列表并展示（列表为空则清空列表）
+        searchFoods(adapter, account, "", 0);
+
         // 获取布局中的SearchView控件，用于食品搜索
         SearchView searchView = rootview.findViewById(R.id.man_home_food_search);
         // 设置SearchView的查询文本监听，处理搜索相关事件
@@ -76,16 +91,8 @@ public class ManageHomeFragment extends Fragment {
              */
             @Override
             public boolean onQueryTextSubmit(String query) {
-                // 根据商家账号和搜索关键词，从数据库查询匹配的食品列表
-                List<FoodBean> list = FoodDao.getAllFoodList(account,query);
-                // 创建新的适配器，绑定查询到的匹配数据
-                FoodLIstAdapter adapter = new FoodLIstAdapter(getContext(), list);
-                // 判空处理：更新ListView的适配器，展示搜索结果（无结果则清空列表）
-                if(list==null||list.size()==0){
-                    listView.setAdapter(null);
-                }else{
-                    listView.setAdapter(adapter);
-                }
+                // 提交时立即搜索（取消尚未执行的防抖任务），根据商家账号和搜索关键词在后台线程中查询并展示搜索结果
+                searchFoods(adapter, account, query, 0);
 
                 return false;
             }
@@ -97,16 +104,8 @@ public class ManageHomeFragment extends Fragment {
              */
             @Override
             public boolean onQueryTextChange(String newText) {
-                // 实时根据商家账号和当前输入文本，查询匹配的食品列表
-                List<FoodBean> list = FoodDao.getAllFoodList(account,newText);
-                // 创建新的适配器，绑定实时查询到的数据
-                FoodLIstAdapter adapter = new FoodLIstAdapter(getContext(), list);
-                // 判空处理：实时更新ListView，展示动态搜索结果
-                if(list==null||list.size()==0){
-                    listView.setAdapter(null);
-                }else{
-                    listView.setAdapter(adapter);
-                }
+                // 根据商家账号和当前输入文本，防抖后在后台线程中查询匹配的食品列表并展示
+                searchFoods(adapter, account, newText, SEARCH_DEBOUNCE_MS);
                 return false;
             }
         });
@@ -114,4 +113,56 @@ public class ManageHomeFragment extends Fragment {
         // 返回Fragment的根视图，完成视图创建
         return rootview;
     }
+
+    /**
+     * 发起菜品搜索（主线程调用）：取消尚未执行的搜索任务，延迟delayMs后在后台线程查询，只展示最新一次查询的结果
+     * @param adapter 食品列表适配器
+     * @param account 当前商家账号
+     * @param keyword 搜索关键词（为空时查询该商家全部菜品）
+     * @param delayMs 延迟时间（毫秒），0表示立即查询
+     */
+    private void searchFoods(FoodLIstAdapter adapter, String account, String keyword, long delayMs) {
+        if (pendingSearch != null) {
+            searchHandler.removeCallbacks(pendingSearch);
+        }
+        pendingSearch = () -> {
+            // 取消尚未开始执行的旧查询
+            if (searchFuture != null) {
+                searchFuture.cancel(false);
+            }
+            int seq = ++searchSeq;
+            searchFuture = DBManager.read(() -> FoodDao.getAllFoodList(account, keyword), list -> {
+                // 已有更新的查询，丢弃过期结果
+                if (seq != searchSeq) {
+                    return;
+                }
+                showFoods(adapter, list);
+            });
+        };
+        searchHandler.postDelayed(pendingSearch, delayMs);
+    }
+
+    /**
+     * 视图销毁时取消尚未执行的搜索任务
+     */
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        if (pendingSearch != null) {
+            searchHandler.removeCallbacks(pendingSearch);
+        }
+    }
+
+    /**
+     * 展示食品列表（主线程调用）：提交新的结果列表，差异在后台计算，搜索前后都存在的菜品不会重新绑定
+     * @param adapter 食品列表适配器
+     * @param list 食品数据，为空时清空列表
+     */
+    private void showFoods(FoodLIstAdapter adapter, List<FoodBean> list) {
+        // 查询返回前Fragment可能已被移除，此时不再更新界面
+        if (!isAdded()) {
+            return;
+        }
+        adapter.submitList(list);
+    }
 }
\ No newline at end of file
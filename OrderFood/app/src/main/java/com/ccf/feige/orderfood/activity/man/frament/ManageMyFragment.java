@@ -26,6 +26,8 @@ import com.ccf.feige.orderfood.activity.man.ManageManUpdateMesActivity;
 import com.ccf.feige.orderfood.activity.man.ManageManUpdatePwdActivity;
 import com.ccf.feige.orderfood.bean.UserBean;
 import com.ccf.feige.orderfood.dao.AdminDao;
+import com.ccf.feige.orderfood.db.DBManager;
+import com.ccf.feige.orderfood.until.ImageLoader;
 import com.ccf.feige.orderfood.until.Tools;
 
 import java.io.File;
@@ -136,22 +138,29 @@ public class ManageMyFragment extends Fragment {
             return;
         }
 
-        // 2. 查询商家信息（判空，避免查询结果为null导致崩溃）：从AdminDao查询该账号对应的商家完整信息
-        currentMerchant = AdminDao.getBusinessUser(currentMerchantAccount);
-        if (currentMerchant == null) {
-            showToast("商家信息查询失败，请重新登录");
-            return;
-        }
+        // 2. 查询商家信息（判空，避免查询结果为null导致崩溃）：在后台线程中从AdminDao查询该账号对应的商家完整信息
+        String account = currentMerchantAccount;
+        DBManager.read(() -> AdminDao.getBusinessUser(account), merchant -> {
+            // 查询返回前Fragment可能已被移除，此时不再更新界面
+            if (!isAdded()) {
+                return;
+            }
+            currentMerchant = merchant;
+            if (currentMerchant == null) {
+                showToast("商家信息查询失败，请重新登录");
+                return;
+            }
 
-        // 3. 展示商家账号与基本信息（含字段判空，避免空字符串展示）：将查询到的信息设置到对应控件
-        tvMerchantAccount.setText(currentMerchantAccount); // 展示商家账号（无需判空，已提前校验）
-        // 展示店铺名称：若UserBean中的店铺名称不为null则展示，否则展示"未知商家"
-        tvMerchantName.setText(currentMerchant.getsName() != null ? currentMerchant.getsName() : "未知商家");
-        // 展示店铺简介：拼接前缀+店铺简介，若简介为null则展示"未填写店铺简介"
-        tvMerchantDesc.setText("店铺简介:" + (currentMerchant.getsDescribe() != null ? currentMerchant.getsDescribe() : "未填写店铺简介"));
+            // 3. 展示商家账号与基本信息（含字段判空，避免空字符串展示）：将查询到的信息设置到对应控件
+            tvMerchantAccount.setText(account); // 展示商家账号（无需判空，已提前校验）
+            // 展示店铺名称：若UserBean中的店铺名称不为null则展示，否则展示"未知商家"
+            tvMerchantName.setText(currentMerchant.getsName() != null ? currentMerchant.getsName() : "未知商家");
+            // 展示店铺简介：拼接前缀+店铺简介，若简介为null则展示"未填写店铺简介"
+            tvMerchantDesc.setText("店铺简介:" + (currentMerchant.getsDescribe() != null ? currentMerchant.getsDescribe() : "未填写店铺简介"));
 
-        // 4. 加载并展示商家头像（含容错与压缩，避免OOM和崩溃）：传入头像路径，调用专用方法加载
-        loadMerchantAvatar(currentMerchant.getsImg());
+            // 4. 加载并展示商家头像（含容错与压缩，避免OOM和崩溃）：传入头像路径，调用专用方法加载
+            loadMerchantAvatar(currentMerchant.getsImg());
+        });
     }
 
     /**
@@ -163,40 +172,9 @@ public class ManageMyFragment extends Fragment {
      * @param imgPath 头像文件路径（从UserBean中获取，对应本地存储的头像文件路径）
      */
     private void loadMerchantAvatar(String imgPath) {
-        // 判空：路径为null/空或文件不存在，设置默认头像
-        if (imgPath == null || imgPath.trim().isEmpty() || !new File(imgPath).exists()) {
-            ivMerchantAvatar.setImageResource(R.drawable.upimg);
-            return;
-        }
-
-        // 图片压缩：避免大图片导致OOM，提升加载性能
-        // 第一步：创建BitmapFactory.Options，设置inJustDecodeBounds=true，仅获取图片尺寸不加载到内存
-        BitmapFactory.Options options = new BitmapFactory.Options();
-        options.inJustDecodeBounds = true; // 不加载图片到内存，仅获取图片宽高信息
-        BitmapFactory.decodeFile(imgPath, options); // 解析图片文件，获取宽高信息存入options
-
-        // 计算压缩比例（宽高均不超过500px，可根据需求调整）：采用2的幂次倍压缩，保证图片不失真
-        int reqWidth = 500; // 目标图片宽度（px）
-        int reqHeight = 500; // 目标图片高度（px）
-        int inSampleSize = 1; // 初始压缩比例（1=不压缩）
-        if (options.outHeight > reqHeight || options.outWidth > reqWidth) {
-            final int halfHeight = options.outHeight / 2;
-            final int halfWidth = options.outWidth / 2;
-            // 循环计算最大压缩比例，保证压缩后的图片宽高均不小于目标宽高
-            while ((halfHeight / inSampleSize) >= reqHeight && (halfWidth / inSampleSize) >= reqWidth) {
-                inSampleSize *= 2;
-            }
-        }
-
-        // 第二步：加载压缩后的图片（指定配置，减少内存占用）
-        options.inJustDecodeBounds = false; // 关闭仅获取尺寸模式，开始加载图片到内存
-        options.inSampleSize = inSampleSize; // 设置计算得到的压缩比例
-        options.inPreferredConfig = Bitmap.Config.ARGB_8888; // 设置图片像素格式，平衡画质与内存占用
-
-        // 解析压缩后的图片文件，得到Bitmap对象
-        Bitmap avatarBitmap = BitmapFactory.decodeFile(imgPath, options);
-        // 判空：图片加载失败则设置默认头像，否则设置压缩后的头像
-        ivMerchantAvatar.setImageBitmap(avatarBitmap != null ? avatarBitmap : BitmapFactory.decodeResource(getResources(), R.drawable.upimg));
+        // 交给ImageLoader在后台按控件尺寸计算采样率（inSampleSize）解码，解码结果进入LRU缓存，再次进入页面时直接命中
+        // 路径为空、文件不存在或解码失败时展示默认头像（R.drawable.upimg）
+        ImageLoader.load(ivMerchantAvatar, imgPath, R.drawable.upimg);
     }
 
     /**
@@ -306,40 +284,42 @@ public class ManageMyFragment extends Fragment {
                 return;
             }
 
-            // 5.2 从数据库查询商家密码：从AdminDao获取该账号对应的正确密码
-            String merchantPwd = AdminDao.getBusinessUserPwd(currentMerchantAccount);
-            if (merchantPwd == null) {
-                showToast("商家密码查询失败，无法注销");
-                logoutDialog.dismiss();
-                return;
-            }
-
-            // 5.3 验证密码是否一致：对比输入密码与数据库中的正确密码
-            if (!inputPwd.equals(merchantPwd)) {
-                showToast("密码输入错误，请重新输入");
-                etLogoutPwd.setText(""); // 清空输入框，便于重新输入
-                return;
-            }
-
-            // 5.4 密码验证通过，删除数据库中的商家数据：调用AdminDao删除该商家账号的所有数据
-            boolean isDeleteSuccess = AdminDao.deleteBusinessUser(currentMerchantAccount);
-            if (isDeleteSuccess) {
-                showToast("商家账号注销成功");
-
-                // 5.5 跳转到商家登录界面，清除返回栈
-                Intent loginIntent = new Intent(getContext(), MainActivity.class);
-                loginIntent.setFlags(Intent.FLAG_ACTIVITY_CLEAR_TOP | Intent.FLAG_ACTIVITY_NEW_TASK);
-                startActivity(loginIntent);
+            // 5.2 从数据库查询商家密码：在后台线程中从AdminDao获取该账号对应的正确密码
+            DBManager.read(() -> AdminDao.getBusinessUserPwd(currentMerchantAccount), merchantPwd -> {
+                if (merchantPwd == null) {
+                    showToast("商家密码查询失败，无法注销");
+                    logoutDialog.dismiss();
+                    return;
+                }
 
-                // 5.6 关闭弹窗和当前商家中心
-                logoutDialog.dismiss();
-                if (hostActivity != null && !hostActivity.isFinishing() && !hostActivity.isDestroyed()) {
-                    hostActivity.finish();
+                // 5.3 验证密码是否一致：对比输入密码与数据库中的正确密码
+                if (!inputPwd.equals(merchantPwd)) {
+                    showToast("密码输入错误，请重新输入");
+                    etLogoutPwd.setText(""); // 清空输入框，便于重新输入
+                    return;
                 }
-            } else {
-                showToast("商家账号注销失败，请重试");
-                logoutDialog.dismiss();
-            }
+
+                // 5.4 密码验证通过，删除数据库中的商家数据：在后台写线程中调用AdminDao删除该商家账号的所有数据
+                DBManager.write(() -> AdminDao.deleteBusinessUser(currentMerchantAccount), isDeleteSuccess -> {
+                    if (isDeleteSuccess) {
+                        showToast("商家账号注销成功");
+
+                        // 5.5 跳转到商家登录界面，清除返回栈
+                        Intent loginIntent = new Intent(getContext(), MainActivity.class);
+                        loginIntent.setFlags(Intent.FLAG_ACTIVITY_CLEAR_TOP | Intent.FLAG_ACTIVITY_NEW_TASK);
+                        startActivity(loginIntent);
+
+                        // 5.6 关闭弹窗和当前商家中心
+                        logoutDialog.dismiss();
+                        if (hostActivity != null && !hostActivity.isFinishing() && !hostActivity.isDestroyed()) {
+                            hostActivity.finish();
+                        }
+                    } else {
+                        showToast("商家账号注销失败，请重试");
+                        logoutDialog.dismiss();
+                    }
+                });
+            });
         });
 
         // 6. 显示弹窗：将构建好的弹窗展示给用户
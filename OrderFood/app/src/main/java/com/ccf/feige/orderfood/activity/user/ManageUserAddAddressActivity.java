@@ -18,6 +18,7 @@ import android.widget.Toast;
 import com.ccf.feige.orderfood.R;
 import com.ccf.feige.orderfood.bean.AddressBean;
 import com.ccf.feige.orderfood.dao.AddressDao;
+import com.ccf.feige.orderfood.db.DBManager;
 import com.ccf.feige.orderfood.until.Tools;
 
 /**
@@ -86,20 +87,21 @@ public class ManageUserAddAddressActivity extends AppCompatActivity {
                     // 电话为空时，弹出提示吐司
                     Toast.makeText(ManageUserAddAddressActivity.this, "请输入收货联系方式", Toast.LENGTH_SHORT).show();
                 }else{
-                    // 表单验证通过，调用地址数据库访问层方法，执行添加地址操作
+                    // 表单验证通过，在后台写线程中调用地址数据库访问层方法，执行添加地址操作
                     // 参数：当前登录用户ID、收货人姓名、收货地址、联系电话
-                    int a= AddressDao.addAddress(id,name,address,phone);
-                    // 判断添加操作结果（1代表添加成功，其他值代表添加失败）
-                    if(a==1){
-                        // 添加成功，弹出提示吐司
-                        Toast.makeText(ManageUserAddAddressActivity.this, "添加成功", Toast.LENGTH_SHORT).show();
+                    DBManager.write(() -> AddressDao.addAddress(id,name,address,phone), a -> {
+                        // 判断添加操作结果（1代表添加成功，其他值代表添加失败）
+                        if(a==1){
+                            // 添加成功，弹出提示吐司
+                            Toast.makeText(ManageUserAddAddressActivity.this, "添加成功", Toast.LENGTH_SHORT).show();
 
-                        // 关键修改：添加成功后，关闭当前Activity，返回上一个ManageUserAddressActivity
-                        finish();
-                    }else{
-                        // 添加失败，弹出提示吐司
-                        Toast.makeText(ManageUserAddAddressActivity.this, "添加失败", Toast.LENGTH_SHORT).show();
-                    }
+                            // 关键修改：添加成功后，关闭当前Activity，返回上一个ManageUserAddressActivity
+                            finish();
+                        }else{
+                            // 添加失败，弹出提示吐司
+                            Toast.makeText(ManageUserAddAddressActivity.this, "添加失败", Toast.LENGTH_SHORT).show();
+                        }
+                    });
                 }
             }
         });
@@ -20,6 +20,7 @@ import com.ccf.feige.orderfood.activity.user.adapter.AddressListUserAdapter;
 import com.ccf.feige.orderfood.bean.AddressBean;
 import com.ccf.feige.orderfood.bean.CommentBean;
 import com.ccf.feige.orderfood.dao.AddressDao;
+import com.ccf.feige.orderfood.db.DBManager;
 import com.ccf.feige.orderfood.dao.CommentDao;
 import com.ccf.feige.orderfood.until.Tools;
 
@@ -77,20 +78,20 @@ public class ManageUserAddressActivity extends AppCompatActivity {
      */
     private void loadAddressList() {
         // 重新查询最新的地址数据（从数据库获取，保证数据最新）
-        // 通过AddressDao数据访问层，根据当前用户账号查询该用户的所有收货地址
-        List<AddressBean> list = AddressDao.getAllAddressByUserId(mAccount);
-
-        // 初始化或更新Adapter：创建地址列表适配器，传入查询到的地址数据列表
-        mAddressListUserAdapter = new AddressListUserAdapter(list);
-
-        // 为空判断，设置Adapter（保持你的原有逻辑）：处理地址列表为空的情况
-        if(list==null||list.size()==0){
-            // 若数据为空或为null，设置RecyclerView的适配器为null（不展示任何内容）
-            mAddressRecyclerView.setAdapter(null);
-        }else{
-            // 若数据不为空，将适配器绑定到RecyclerView，展示地址列表
-            mAddressRecyclerView.setAdapter(mAddressListUserAdapter);
-        }
+        // 在后台线程中通过AddressDao数据访问层，根据当前用户账号查询该用户的所有收货地址，查询完成后在主线程展示
+        DBManager.read(() -> AddressDao.getAllAddressByUserId(mAccount), list -> {
+            // 初始化或更新Adapter：创建地址列表适配器，传入查询到的地址数据列表
+            mAddressListUserAdapter = new AddressListUserAdapter(list);
+
+            // 为空判断，设置Adapter（保持你的原有逻辑）：处理地址列表为空的情况
+            if(list==null||list.size()==0){
+                // 若数据为空或为null，设置RecyclerView的适配器为null（不展示任何内容）
+                mAddressRecyclerView.setAdapter(null);
+            }else{
+                // 若数据不为空，将适配器绑定到RecyclerView，展示地址列表
+                mAddressRecyclerView.setAdapter(mAddressListUserAdapter);
+            }
+        });
     }
 
     // 关键修改5：重写onResume()方法，页面回到前台时刷新列表
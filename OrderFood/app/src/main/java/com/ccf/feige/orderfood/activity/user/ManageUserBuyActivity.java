@@ -18,8 +18,6 @@ import android.widget.TableLayout;
 import android.widget.TextView;
 import android.widget.Toast;
 
-import com.alibaba.fastjson2.JSONArray;
-import com.alibaba.fastjson2.JSONObject;
 import com.ccf.feige.orderfood.MainActivity;
 import com.ccf.feige.orderfood.R;
 import com.ccf.feige.orderfood.activity.man.frament.ManageHomeFragment;
@@ -28,7 +26,9 @@ import com.ccf.feige.orderfood.activity.user.dialog.UserBottomDialog;
 import com.ccf.feige.orderfood.activity.user.frament.UserBuyFoodBusinessCommentFragment;
 import com.ccf.feige.orderfood.activity.user.frament.UserBuyFoodFBusinessFragment;
 import com.ccf.feige.orderfood.activity.user.frament.UserHomeFragment;
+import com.ccf.feige.orderfood.bean.CartBean;
 import com.ccf.feige.orderfood.bean.UserBean;
+import com.ccf.feige.orderfood.until.ImageLoader;
 import com.google.android.material.tabs.TabLayout;
 import com.google.android.material.tabs.TabLayoutMediator;
 
@@ -44,6 +44,17 @@ import java.util.Map;
  */
 public class ManageUserBuyActivity extends AppCompatActivity {
 
+    // 购物车：当前商家的已选商品数量和总金额，商品列表适配器和下单弹窗共享该实例
+    private final CartBean cart = new CartBean();
+
+    /**
+     * 获取当前页面的购物车
+     * @return 购物车实例
+     */
+    public CartBean getCart() {
+        return cart;
+    }
+
     /**
      * 页面创建时的初始化方法，完成视图绑定、数据初始化、事件绑定等核心操作
      * @param savedInstanceState 保存的页面状态信息，用于页面重建时恢复数据
@@ -78,8 +89,8 @@ public class ManageUserBuyActivity extends AppCompatActivity {
         //绑定商家头像ImageView并设置图片
         // 绑定商家头像展示的ImageView控件
         ImageView businessImg = findViewById(R.id.user_buy_businessTx);
-        // 根据商家对象中的图片路径，解码本地图片文件并设置为ImageView的显示内容
-        businessImg.setImageBitmap(BitmapFactory.decodeFile(business.getsImg()));
+        // 根据商家对象中的图片路径，在后台按控件尺寸解码本地图片文件并设置为ImageView的显示内容
+        ImageLoader.load(businessImg, business.getsImg());
 
         // 绑定商家名称展示的TextView控件
         TextView businessName = findViewById(R.id.user_buy_businessName);
@@ -97,42 +108,17 @@ public class ManageUserBuyActivity extends AppCompatActivity {
         // 初始化订单总价为0.00
         price.setText("0.00");
 
-        // 绑定用于存储已选商品JSON数据的TextView控件（该控件通常为不可见，仅用于数据缓存）
-        TextView foodJson =this.findViewById(R.id.user_buy_businessFood);
-
         // 绑定结算按钮控件，并设置点击事件监听器
         Button buy =this.findViewById(R.id.user_buy_businessBuy_con);
         buy.setOnClickListener(new View.OnClickListener() {
             @Override
             public void onClick(View v) {
-                // 1. 获取缓存的已选商品JSON字符串
-                String foodJsonT = foodJson.getText().toString();
-                // 2. 使用fastjson2将JSON字符串解析为JSONArray数组
-                JSONArray jsonArray=JSONArray.parseArray(foodJsonT);
-
-                // 3. 创建一个列表，用于存放实际选中（数量>0）的商品信息
-                List<JSONObject> buyFoodList=new ArrayList<>();//存放所有购买商品的列表
-                // 4. 遍历JSONArray中的所有商品对象
-                for (Object o : jsonArray) {
-                    // 将遍历到的对象转换为JSONObject，方便获取属性值
-                    JSONObject temp = JSONObject.parseObject(o.toString());
-                    // 5. 判断商品数量是否不等于"0"，筛选出真正被选中的商品
-                    if(!temp.get("num").equals("0")){
-                        // 6. 将选中的商品添加到购买列表中
-                        buyFoodList.add(temp);
-                    }
-                }
-
-                // 7. 校验是否可以进行结算
-                // 第一种情况：商品JSON字符串为空（未选择任何商品）
-                if(foodJsonT.isEmpty()){
+                // 校验是否可以进行结算：购物车中所有商品数量均为0（未选择商品）时不能结算
+                if(cart.isEmpty()){
                     // 弹出Toast提示，告知用户无法结算
                     Toast.makeText(ManageUserBuyActivity.this, "未选择商品无法结算", Toast.LENGTH_SHORT).show();
-                }else if(buyFoodList.size()==0){
-                    // 第二种情况：商品JSON字符串非空，但所有商品数量均为0（未真正选中商品）
-                    Toast.makeText(ManageUserBuyActivity.this, "未选择商品无法结算", Toast.LENGTH_SHORT).show();
                 }else{
-                    // 8. 校验通过，创建并显示底部结算弹窗，传入当前商家ID
+                    // 校验通过，创建并显示底部结算弹窗，传入当前商家ID
                     UserBottomDialog userBottomDialog=new UserBottomDialog(ManageUserBuyActivity.this,business.getsId());
                 }
             }
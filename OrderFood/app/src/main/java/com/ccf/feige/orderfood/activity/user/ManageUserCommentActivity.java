@@ -24,6 +24,7 @@ import com.ccf.feige.orderfood.R;
 import com.ccf.feige.orderfood.activity.user.listen.StartListen;
 import com.ccf.feige.orderfood.dao.CommentDao;
 import com.ccf.feige.orderfood.dao.OrderDao;
+import com.ccf.feige.orderfood.db.DBManager;
 import com.ccf.feige.orderfood.until.FileImgUntil;
 import com.ccf.feige.orderfood.until.Tools;
 
@@ -253,24 +254,26 @@ public class ManageUserCommentActivity extends AppCompatActivity {
             FileImgUntil.saveSystemImgToPath(bitmap, imgPath);
         }
 
-        // 5. 插入评论到数据库：调用CommentDao的插入方法，将评论数据存入数据库，获取插入结果
-        // 插入参数：用户账号、商家ID、评论内容、数字评分（转字符串）、图片路径
-        int insertResult = CommentDao.insertComment(account, businessId, commentContent, String.valueOf(score), imgPath);
-
-        // 6. 评论成功后，更新订单状态为4（完成且被评论）：判断评论插入成功，再执行订单状态更新
-        boolean updateOrderSuccess = false;
-        if (insertResult == 1) { // 插入结果为1表示数据库插入成功（DAO层约定的成功标识）
-            // 调用OrderDao的更新方法，将指定订单的状态更新为4（已评论）
-            updateOrderSuccess = OrderDao.updateOrderStatusToCommented(orderId) == 1;
-        }
-
-        // 7. 结果提示与页面关闭：根据评论插入和订单更新的结果，给出对应的用户提示并处理页面
-        if (insertResult == 1 && updateOrderSuccess) {
-            Toast.makeText(this, "评论成功", Toast.LENGTH_SHORT).show();
-            finish(); // 关闭当前评论页面，返回上一个订单列表页面
-        } else {
-            Toast.makeText(this, "评论失败，请重试", Toast.LENGTH_SHORT).show();
-        }
+        // 5~6. 在后台写线程中插入评论并更新订单状态，完成后在主线程提示
+        int commentScore = score;
+        String commentImg = imgPath;
+        DBManager.write(() -> {
+            // 5. 插入评论到数据库：调用CommentDao的插入方法，将评论数据存入数据库，获取插入结果
+            // 插入参数：用户账号、商家ID、评论内容、数字评分（转字符串）、图片路径
+            int insertResult = CommentDao.insertComment(account, businessId, commentContent, String.valueOf(commentScore), commentImg);
+
+            // 6. 评论成功后，更新订单状态为4（完成且被评论）：判断评论插入成功，再执行订单状态更新
+            // 插入结果为1表示数据库插入成功（DAO层约定的成功标识），再调用OrderDao的更新方法，将指定订单的状态更新为4（已评论）
+            return insertResult == 1 && OrderDao.updateOrderStatusToCommented(orderId) == 1;
+        }, success -> {
+            // 7. 结果提示与页面关闭：根据评论插入和订单更新的结果，给出对应的用户提示并处理页面
+            if (success) {
+                Toast.makeText(this, "评论成功", Toast.LENGTH_SHORT).show();
+                finish(); // 关闭当前评论页面，返回上一个订单列表页面
+            } else {
+                Toast.makeText(this, "评论失败，请重试", Toast.LENGTH_SHORT).show();
+            }
+        });
     }
 
     /**
@@ -21,6 +21,7 @@ import com.ccf.feige.orderfood.activity.man.ManageManUpdateFoodActivity;
 import com.ccf.feige.orderfood.bean.AddressBean;
 import com.ccf.feige.orderfood.dao.AddressDao;
 import com.ccf.feige.orderfood.dao.FoodDao;
+import com.ccf.feige.orderfood.db.DBManager;
 
 import java.io.Serializable;
 
@@ -101,20 +102,21 @@ public class ManageUserUpdateAddressActivity extends AppCompatActivity {
                     // 联系电话为空，弹出提示吐司
                     Toast.makeText(ManageUserUpdateAddressActivity.this, "请输入收货联系方式", Toast.LENGTH_SHORT).show();
                 }else{
-                    // 5.3 输入数据合法，调用AddressDao的更新方法执行地址更新操作
+                    // 5.3 输入数据合法，在后台写线程中调用AddressDao的更新方法执行地址更新操作
                     // 参数：地址ID（更新条件）、新的收货人姓名、新的收货地址、新的联系电话
                     // 返回值：影响的数据库行数（1表示更新成功，0表示更新失败）
-                    int a= AddressDao.updateAddress(id,name,address,phone);
-                    if(a==1){
-                        // 更新成功，弹出提示吐司
-                        Toast.makeText(ManageUserUpdateAddressActivity.this, "更改成功", Toast.LENGTH_SHORT).show();
-
-                        // 关键修改2：更新成功后，调用finish()返回上一级页面
-                        finish();
-                    }else{
-                        // 更新失败，弹出提示吐司
-                        Toast.makeText(ManageUserUpdateAddressActivity.this, "更改失败", Toast.LENGTH_SHORT).show();
-                    }
+                    DBManager.write(() -> AddressDao.updateAddress(id,name,address,phone), a -> {
+                        if(a==1){
+                            // 更新成功，弹出提示吐司
+                            Toast.makeText(ManageUserUpdateAddressActivity.this, "更改成功", Toast.LENGTH_SHORT).show();
+
+                            // 关键修改2：更新成功后，调用finish()返回上一级页面
+                            finish();
+                        }else{
+                            // 更新失败，弹出提示吐司
+                            Toast.makeText(ManageUserUpdateAddressActivity.this, "更改失败", Toast.LENGTH_SHORT).show();
+                        }
+                    });
                 }
             }
         });
@@ -167,21 +169,22 @@ public class ManageUserUpdateAddressActivity extends AppCompatActivity {
             builder.setPositiveButton("确认", new DialogInterface.OnClickListener() {
                 @Override
                 public void onClick(DialogInterface dialog, int which) {
-                    // 3.1 调用AddressDao的删除方法，根据地址ID执行删除操作
+                    // 3.1 在后台写线程中调用AddressDao的删除方法，根据地址ID执行删除操作
                     // 返回值：影响的数据库行数（1表示删除成功，0表示删除失败）
-                    int a = AddressDao.deleteAddressById(id);
-                    if (a == 1) {
-                        // 删除成功，弹出提示吐司
-                        Toast.makeText(ManageUserUpdateAddressActivity.this, "删除成功", Toast.LENGTH_SHORT).show();
+                    DBManager.write(() -> AddressDao.deleteAddressById(id), result -> {
+                        if (result == 1) {
+                            // 删除成功，弹出提示吐司
+                            Toast.makeText(ManageUserUpdateAddressActivity.this, "删除成功", Toast.LENGTH_SHORT).show();
 
-                        // 关键优化3：删除成功后也改为finish()，统一返回逻辑
-                        finish();
+                            // 关键优化3：删除成功后也改为finish()，统一返回逻辑
+                            finish();
 //                        原逻辑：Intent intent=new Intent(ManageUserUpdateAddressActivity.this, ManageUserAddressActivity.class);
 //                        startActivity(intent);
-                    } else {
-                        // 删除失败，弹出提示吐司
-                        Toast.makeText(ManageUserUpdateAddressActivity.this, "删除失败", Toast.LENGTH_SHORT).show();
-                    }
+                        } else {
+                            // 删除失败，弹出提示吐司
+                            Toast.makeText(ManageUserUpdateAddressActivity.this, "删除失败", Toast.LENGTH_SHORT).show();
+                        }
+                    });
                     // 关闭对话框
                     dialog.dismiss();
                 }
@@ -9,7 +9,6 @@ import androidx.core.content.ContextCompat;
 
 import android.content.Intent;
 import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.graphics.drawable.BitmapDrawable;
 import android.graphics.drawable.Drawable;
 import android.net.Uri;
@@ -27,7 +26,9 @@ import com.ccf.feige.orderfood.activity.man.ManageManUpdateMesActivity;
 import com.ccf.feige.orderfood.activity.man.ManageManUpdatePwdActivity;
 import com.ccf.feige.orderfood.bean.UserCommonBean;
 import com.ccf.feige.orderfood.dao.AdminDao;
+import com.ccf.feige.orderfood.db.DBManager;
 import com.ccf.feige.orderfood.until.FileImgUntil;
+import com.ccf.feige.orderfood.until.ImageLoader;
 import com.ccf.feige.orderfood.until.Tools;
 
 /**
@@ -42,6 +43,10 @@ public class ManageUserUpdateMesActivity extends AppCompatActivity {
     private Uri url;
     // 用户性别标识
     String sex;
+    // 当前登录用户的信息（后台加载完成前为null）
+    private UserCommonBean mUser;
+    // 用户原有头像（用于判断是否更换了头像）
+    private Bitmap mDefaultBitmap;
 
     /**
      * 页面创建生命周期方法，完成页面初始化、控件绑定、数据填充、事件监听设置
@@ -68,13 +73,8 @@ public class ManageUserUpdateMesActivity extends AppCompatActivity {
             }
         });
 
-        // 2. 获取当前登录用户的信息（通过工具类获取当前账号，再从数据库查询用户详情）
-        UserCommonBean user = AdminDao.getCommonUser(Tools.getOnAccount(this));
-
-        // 3. 初始化头像控件，填充用户原有头像
+        // 2~3. 初始化头像控件（用户原有头像在后台加载用户信息后填充，见第9步之后）
         ImageView imgText=findViewById(R.id.user_manage_updateMes_tx);
-        // 通过图片文件路径解码为Bitmap，设置到头像ImageView中
-        imgText.setImageBitmap(BitmapFactory.decodeFile(user.getsImg()));
 
         // 3.1 先为头像设置一次点击事件（后续被重复覆盖，仅保留代码结构）
         imgText.setOnClickListener(new View.OnClickListener() {
@@ -106,38 +106,41 @@ public class ManageUserUpdateMesActivity extends AppCompatActivity {
                     }
                 });
 
-        // 5. 获取用户原有头像作为默认头像（用于后续判断是否更换了头像）
-        // 获取当前头像控件的Drawable对象
-        Drawable drawable =  imgText.getDrawable();
-        // 将Drawable转换为Bitmap，保存为默认头像（未更换头像时的基准图）
-        Bitmap defaultDrawable = ((BitmapDrawable) drawable).getBitmap();
-
-        // 6. 初始化昵称输入框，填充用户原有昵称
+        // 5~9. 初始化昵称、性别、地址、手机号控件
         EditText nameText=findViewById(R.id.user_manage_updateMes_name);
-        nameText.setText(user.getsName());
-
-        // 7. 初始化性别单选按钮，填充用户原有性别
         // 默认性别设为女
         sex="女";
         // 获取男、女单选按钮控件
         RadioButton man=findViewById(R.id.user_manage_updateMes_nan);
         RadioButton nv=findViewById(R.id.user_manage_updateMes_nv);
-
-        // 从用户信息中获取真实性别，设置对应单选按钮为选中状态
-        sex=user.getsSex();
-        if(user.getsSex().equals("男")){
-            man.setChecked(true);
-        }else{
-            nv.setChecked(true);
-        }
-
-        // 8. 初始化地址输入框，填充用户原有地址
         EditText addressText=findViewById(R.id.user_manage_updateMes_address);
-        addressText.setText(user.getsAddress());
-
-        // 9. 初始化手机号输入框，填充用户原有手机号
         EditText phoneText=findViewById(R.id.user_manage_updateMes_phone);
-        phoneText.setText(user.getsPhone());
+
+        // 在后台线程中获取当前登录用户的信息（通过工具类获取当前账号，再从数据库查询用户详情），完成后填充原有信息
+        DBManager.read(() -> AdminDao.getCommonUser(Tools.getOnAccount(this)), user -> {
+            if (user == null) {
+                return;
+            }
+            mUser = user;
+            // 在后台线程中解码头像图片，完成后设置到头像ImageView中，并保存为默认头像（未更换头像时的基准图）
+            // （解码期间已从相册选择了新头像时不再覆盖）
+            ImageLoader.decodeAsync(user.getsImg(), FileImgUntil.MAX_IMAGE_SIZE, FileImgUntil.MAX_IMAGE_SIZE, bitmap -> {
+                mDefaultBitmap = bitmap;
+                if (url == null) {
+                    imgText.setImageBitmap(bitmap);
+                }
+            });
+            nameText.setText(user.getsName());
+            // 从用户信息中获取真实性别，设置对应单选按钮为选中状态
+            sex=user.getsSex();
+            if("男".equals(user.getsSex())){
+                man.setChecked(true);
+            }else{
+                nv.setChecked(true);
+            }
+            addressText.setText(user.getsAddress());
+            phoneText.setText(user.getsPhone());
+        });
 
         // 10. 获取当前登录用户的账号（作为修改用户信息的唯一标识）
         String id= Tools.getOnAccount(this);
@@ -147,6 +150,11 @@ public class ManageUserUpdateMesActivity extends AppCompatActivity {
         reg.setOnClickListener(new View.OnClickListener() {
             @Override
             public void onClick(View v) {
+                // 用户信息尚未加载完成时不处理
+                UserCommonBean user = mUser;
+                if (user == null) {
+                    return;
+                }
                 // 11.1 获取输入框中的最新数据（用户修改后的数据）
                 String name=nameText.getText().toString();// 昵称
                 String address=addressText.getText().toString();// 地址
@@ -155,7 +163,7 @@ public class ManageUserUpdateMesActivity extends AppCompatActivity {
                 // 11.2 获取当前头像和默认头像的Bitmap对象，用于判断是否更换了头像
                 Drawable drawable=imgText.getDrawable();// 当前头像控件的Drawable
                 Bitmap bitmap = ((BitmapDrawable) drawable).getBitmap();// 当前头像的Bitmap
-                Bitmap bitmapDef = defaultDrawable;// 原始默认头像的Bitmap
+                Bitmap bitmapDef = mDefaultBitmap;// 原始默认头像的Bitmap
 
                 // 11.3 输入合法性校验（非空判断）
                 if(name.isEmpty()){
@@ -170,7 +178,7 @@ public class ManageUserUpdateMesActivity extends AppCompatActivity {
                     String path= FileImgUntil.getImgName();
 
                     // 判断当前头像是否与默认头像一致（未更换头像）
-                    if (bitmap.sameAs(defaultDrawable)) {
+                    if (bitmapDef == null || bitmap.sameAs(bitmapDef)) {
                         // 未更换头像，沿用用户原有头像路径
                         path=user.getsImg();
                     }else{
@@ -185,15 +193,17 @@ public class ManageUserUpdateMesActivity extends AppCompatActivity {
                         sex="女";
                     }
 
-                    // 11.6 调用数据库DAO方法，更新用户信息
-                    int a= AdminDao.updateCommonUser(id,name,sex,address,phone,path);
-
-                    // 11.7 根据更新结果，弹出对应的提示吐司
-                    if(a==1){
-                        Toast.makeText(ManageUserUpdateMesActivity.this, "更改个人信息成功", Toast.LENGTH_SHORT).show();
-                    }else{
-                        Toast.makeText(ManageUserUpdateMesActivity.this, "更改个人信息失败", Toast.LENGTH_SHORT).show();
-                    }
+                    // 11.6 在后台写线程中调用数据库DAO方法，更新用户信息
+                    String imgPath = path;
+                    String userSex = sex;
+                    DBManager.write(() -> AdminDao.updateCommonUser(id,name,userSex,address,phone,imgPath), a -> {
+                        // 11.7 根据更新结果，弹出对应的提示吐司
+                        if(a==1){
+                            Toast.makeText(ManageUserUpdateMesActivity.this, "更改个人信息成功", Toast.LENGTH_SHORT).show();
+                        }else{
+                            Toast.makeText(ManageUserUpdateMesActivity.this, "更改个人信息失败", Toast.LENGTH_SHORT).show();
+                        }
+                    });
                 }
             }
         });
@@ -12,6 +12,7 @@ import android.widget.Toast;
 
 import com.ccf.feige.orderfood.R;
 import com.ccf.feige.orderfood.dao.AdminDao;
+import com.ccf.feige.orderfood.db.DBManager;
 import com.ccf.feige.orderfood.until.Tools;
 
 /**
@@ -106,16 +107,19 @@ public class ManageUserUpdatePwdActivity extends AppCompatActivity {
                 String newPwdInput = etNewPwd.getText().toString().trim();
                 String confirmNewPwdInput = etConfirmNewPwd.getText().toString().trim();
 
-                // 2. 分步校验输入合法性（按「原密码→新密码→确认密码」顺序，校验不通过则直接返回，终止后续流程）
-                // 原密码校验：非空 + 与数据库存储一致
-                if (!validateOldPwd(oldPwdInput)) return;
-                // 新密码校验：非空（可扩展复杂度）
-                if (!validateNewPwd(newPwdInput)) return;
-                // 确认密码校验：非空 + 与新密码一致
-                if (!validateConfirmPwd(newPwdInput, confirmNewPwdInput)) return;
-
-                // 3. 所有校验通过，执行普通用户密码更新操作（传入校验通过的新密码）
-                executeUserPwdUpdate(newPwdInput);
+                // 在后台线程中查询当前账号在数据库中存储的原密码，查询完成后在主线程校验
+                DBManager.read(() -> AdminDao.getCommonUserPwd(currentAccount), dbOldPwd -> {
+                    // 2. 分步校验输入合法性（按「原密码→新密码→确认密码」顺序，校验不通过则直接返回，终止后续流程）
+                    // 原密码校验：非空 + 与数据库存储一致
+                    if (!validateOldPwd(oldPwdInput, dbOldPwd)) return;
+                    // 新密码校验：非空（可扩展复杂度）
+                    if (!validateNewPwd(newPwdInput)) return;
+                    // 确认密码校验：非空 + 与新密码一致
+                    if (!validateConfirmPwd(newPwdInput, confirmNewPwdInput)) return;
+
+                    // 3. 所有校验通过，执行普通用户密码更新操作（传入校验通过的新密码）
+                    executeUserPwdUpdate(newPwdInput);
+                });
             }
         });
     }
@@ -124,9 +128,10 @@ public class ManageUserUpdatePwdActivity extends AppCompatActivity {
      * 校验普通用户原密码：非空校验 + 与数据库中存储的原密码一致性校验
      * 校验不通过时，为对应输入框设置错误提示并获取焦点，提升用户体验
      * @param oldPwdInput 用户输入的原密码（已去除前后空格）
+     * @param dbOldPwd 数据库中存储的原密码（后台线程查询得到，账号不存在时为null）
      * @return 校验通过返回true，否则返回false
      */
-    private boolean validateOldPwd(String oldPwdInput) {
+    private boolean validateOldPwd(String oldPwdInput, String dbOldPwd) {
         // 步骤1：校验原密码非空，若为空则提示错误并获取焦点
         if (oldPwdInput.isEmpty()) {
             etOldPwd.setError("请输入原密码"); // 为输入框设置错误提示文本
@@ -134,11 +139,7 @@ public class ManageUserUpdatePwdActivity extends AppCompatActivity {
             return false; // 返回false，终止校验流程
         }
 
-        // 步骤2：调用AdminDao已有的getCommonUserPwd方法，根据当前账号从数据库中查询原密码
-        // AdminDao：项目数据访问层，负责与数据库进行交互，封装了用户相关的查询和更新方法
-        String dbOldPwd = AdminDao.getCommonUserPwd(currentAccount);
-
-        // 步骤3：校验原密码是否正确（先处理查询返回null的情况，避免空指针异常）
+        // 步骤2：校验原密码是否正确（先处理查询返回null的情况，避免空指针异常）
         if (dbOldPwd == null) {
             // 数据库中查询不到该账号对应的密码，提示账号异常
             etOldPwd.setError("账号不存在或已注销");
@@ -214,20 +215,20 @@ public class ManageUserUpdatePwdActivity extends AppCompatActivity {
      * @param newPwd 已通过所有校验的新密码
      */
     private void executeUserPwdUpdate(String newPwd) {
-        // 调用AdminDao已有的updateCommentUserPwd方法（注意方法名拼写，与项目原有逻辑保持一致）
+        // 在后台写线程中调用AdminDao已有的updateCommentUserPwd方法（注意方法名拼写，与项目原有逻辑保持一致）
         // 传入当前用户账号和新密码，执行数据库密码更新操作，返回更新结果（1=成功，其他=失败）
-        int updateResult = AdminDao.updateCommentUserPwd(currentAccount, newPwd);
-
-        // 根据更新结果给用户展示对应的提示信息
-        if (updateResult == 1) {
-            // 密码更新成功，提示用户并关闭当前Activity，返回上一级页面
-            Toast.makeText(ManageUserUpdatePwdActivity.this, "更改密码成功", Toast.LENGTH_SHORT).show();
-            // 核心：关闭当前Activity，返回承载用户对应Fragment（如ManageMyFragment）的ManageUserActivity
-            // 保留上一级页面的原有状态，提升用户体验
-            finish();
-        } else {
-            // 密码更新失败，提示用户（可根据返回码扩展具体失败原因提示）
-            Toast.makeText(ManageUserUpdatePwdActivity.this, "更改密码失败", Toast.LENGTH_SHORT).show();
-        }
+        DBManager.write(() -> AdminDao.updateCommentUserPwd(currentAccount, newPwd), updateResult -> {
+            // 根据更新结果给用户展示对应的提示信息
+            if (updateResult == 1) {
+                // 密码更新成功，提示用户并关闭当前Activity，返回上一级页面
+                Toast.makeText(ManageUserUpdatePwdActivity.this, "更改密码成功", Toast.LENGTH_SHORT).show();
+                // 核心：关闭当前Activity，返回承载用户对应Fragment（如ManageMyFragment）的ManageUserActivity
+                // 保留上一级页面的原有状态，提升用户体验
+                finish();
+            } else {
+                // 密码更新失败，提示用户（可根据返回码扩展具体失败原因提示）
+                Toast.makeText(ManageUserUpdatePwdActivity.this, "更改密码失败", Toast.LENGTH_SHORT).show();
+            }
+        });
     }
 }
\ No newline at end of file
@@ -12,8 +12,9 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.ccf.feige.orderfood.R;
 import com.ccf.feige.orderfood.bean.OrderDetailBean;
+import com.ccf.feige.orderfood.until.ImageLoader;
+import com.ccf.feige.orderfood.until.Tools;
 
-import java.math.BigDecimal;
 import java.util.List;
 
 /**
@@ -65,22 +66,15 @@ public class UserBuyFoodOrderDetailAdapter extends RecyclerView.Adapter<UserBuyF
         // 根据位置索引从数据列表中获取对应的订单详情实体类
         OrderDetailBean tem = list.get(position);
 
-        // 从订单详情中获取商品图片路径，通过BitmapFactory解码为Bitmap并设置到ImageView中展示
-        holder.imageView.setImageBitmap(BitmapFactory.decodeFile(tem.getFoodImage()));
+        // 从订单详情中获取商品图片路径，在后台读取缩略图后设置到ImageView中展示
+        ImageLoader.loadThumbnail(holder.imageView, tem.getFoodImage());
         // 给商品名称TextView设置当前订单的商品名称
         holder.name.setText(tem.getFoodName());
         // 给商品数量TextView设置当前订单的商品购买数量
         holder.num.setText(tem.getFoodQuantity());
 
-        // 初始化商品单价BigDecimal对象，用于高精度数值计算，避免浮点型误差
-        BigDecimal priceZ=new BigDecimal(tem.getFoodPrice());
-        // 初始化商品数量BigDecimal对象，用于高精度数值计算
-        BigDecimal numZ=new BigDecimal(tem.getFoodQuantity());
-
-        // 计算商品总价（单价 * 数量），并转换为字符串格式
-        String jg = priceZ.multiply(numZ).toString();//价格使用的是总价
-        // 给商品总价TextView设置计算得到的商品总价
-        holder.price.setText(jg);
+        // 计算商品总价（单价分 * 数量，整数运算无精度丢失），转换为元字符串展示
+        holder.price.setText(Tools.centsToYuan(tem.getSubtotalCents()));
     }
 
     /**
@@ -95,25 +89,17 @@ public class UserBuyFoodOrderDetailAdapter extends RecyclerView.Adapter<UserBuyF
     /**
      * 计算并获取所有商品的总价总和
      * 功能说明：遍历所有订单详情数据，累加每个商品的（单价*数量），得到订单总金额
-     * @return 所有商品的总价总和（String格式），基于BigDecimal计算，保证金额精度
+     * @return 所有商品的总价总和（String格式），基于整数分计算，保证金额精度
      */
     public String getSumPrice(){
-        // 初始化订单总价为0，使用BigDecimal保证金额计算精度
-        BigDecimal total=new BigDecimal(0);
-        // 遍历订单详情数据列表，逐个计算商品总价并累加
+        // 总金额（单位：分），整数累加避免浮点误差
+        long totalCents = 0;
+        // 遍历所有订单商品详情，累加单个商品总价（单价分 * 数量）
         for(OrderDetailBean orderDetailBean:list){
-            // 获取当前商品单价并转换为BigDecimal
-            BigDecimal priceZ=new BigDecimal(orderDetailBean.getFoodPrice());
-            // 获取当前商品数量并转换为BigDecimal
-            BigDecimal numZ=new BigDecimal(orderDetailBean.getFoodQuantity());
-            // 计算当前商品的总价（单价 * 数量）
-            BigDecimal dj = priceZ.multiply(numZ);//价格使用的是总价  DJ=priceZ*numZ
-            // 将当前商品总价累加到订单总价格中
-            total=total.add(dj);
-            //toal=total+d"
+            totalCents += orderDetailBean.getSubtotalCents();
         }
-        // 将订单总价转换为字符串并返回
-        return  total.toString();
+        // 转换为元字符串返回
+        return Tools.centsToYuan(totalCents);
     }
 
     /**
@@ -12,8 +12,6 @@ import android.widget.Toast;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
-import com.alibaba.fastjson2.JSONArray;
-import com.alibaba.fastjson2.JSONObject;
 import com.ccf.feige.orderfood.MainActivity;
 import com.ccf.feige.orderfood.R;
 import com.ccf.feige.orderfood.activity.man.adapter.OrderNoFinishIstDetailAdapter;
@@ -21,18 +19,20 @@ import com.ccf.feige.orderfood.activity.user.ManageUserBuyActivity;
 import com.ccf.feige.orderfood.activity.user.adapter.AddressListAdapter;
 import com.ccf.feige.orderfood.activity.user.adapter.UserBuyFoodOrderDetailAdapter;
 import com.ccf.feige.orderfood.bean.AddressBean;
-import com.ccf.feige.orderfood.bean.FoodBean;
+import com.ccf.feige.orderfood.bean.CartBean;
+import com.ccf.feige.orderfood.bean.OrderBean;
 import com.ccf.feige.orderfood.bean.OrderDetailBean;
 import com.ccf.feige.orderfood.bean.UserCommonBean;
 import com.ccf.feige.orderfood.dao.AddressDao;
 import com.ccf.feige.orderfood.dao.AdminDao;
 import com.ccf.feige.orderfood.dao.FoodDao;
 import com.ccf.feige.orderfood.dao.OrderDao;
+import com.ccf.feige.orderfood.db.DBManager;
+import com.ccf.feige.orderfood.until.ImageLoader;
 import com.ccf.feige.orderfood.until.Tools;
 import com.google.android.material.bottomsheet.BottomSheetDialog;
 
 import java.text.SimpleDateFormat;
-import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.UUID;
@@ -46,12 +46,18 @@ public class UserBottomDialog  {
     // 上下文对象，用于页面相关操作（如加载布局、弹出提示）
     private Context context;
 
-    // 用户购买页面实例，用于获取页面中的商品信息、价格信息等控件数据
+    // 用户购买页面实例，用于获取页面中的购物车（已选商品和总金额）
     private ManageUserBuyActivity man;
 
     // 商家ID，用于关联订单对应的商家
     private String businessId;
 
+    // 当前登录用户信息（后台加载完成前为null）
+    private UserCommonBean user;
+
+    // 订单商品清单（后台查询商品信息完成前为null）
+    private List<OrderDetailBean> orderDetails;
+
     /**
      * 构造方法
      * @param context 上下文对象（实际为ManageUserBuyActivity实例）
@@ -83,15 +89,20 @@ public class UserBottomDialog  {
         bottomSheetDialog.show();
 
         // 5. 填充用户信息（头像、用户名）
-        // 5.1 通过当前登录账号获取用户通用信息（从AdminDao中查询）
-        UserCommonBean user = AdminDao.getCommonUser(Tools.getOnAccount(context));
-        // 5.2 加载用户头像：找到头像ImageView控件，通过本地文件路径解码为Bitmap并设置
+        String account = Tools.getOnAccount(context);
         ImageView userTx= bottomSheetLayout.findViewById(R.id.user_buy_food_bottom_meu_dialog_img);
-        userTx.setImageBitmap(BitmapFactory.decodeFile(user.getsImg()));
-
-        // 5.3 加载用户名：找到用户名TextView控件，设置用户昵称
         TextView userName=bottomSheetLayout.findViewById(R.id.user_buy_food_bottom_meu_dialog_name);
-        userName.setText(user.getsName());
+        // 5.1 在后台线程中通过当前登录账号获取用户通用信息（从AdminDao中查询）
+        DBManager.read(() -> AdminDao.getCommonUser(account), u -> {
+            user = u;
+            if (u == null) {
+                return;
+            }
+            // 5.2 加载用户头像：在后台读取保存时生成的缩略图后设置
+            ImageLoader.loadThumbnail(userTx, u.getsImg());
+            // 5.3 加载用户名：设置用户昵称
+            userName.setText(u.getsName());
+        });
 
         // 6. 填充下单时间
         // 6.1 找到时间展示TextView控件
@@ -118,79 +129,49 @@ public class UserBottomDialog  {
         // 8. 加载用户收货地址列表（通过RecyclerView展示）
         // 8.1 找到地址列表RecyclerView控件
         RecyclerView addressRecycle = bottomSheetLayout.findViewById(R.id.user_buy_food_bottom_meu_dialog_address_list);
-        // 8.2 从AddressDao中查询当前登录用户的所有收货地址
-        List<AddressBean> addressList = AddressDao.getAllAddressByUserId(Tools.getOnAccount(context));
-        // 8.3 创建地址列表适配器，绑定布局视图和地址数据
-        AddressListAdapter addressListAdapter=new AddressListAdapter(bottomSheetLayout,addressList);
-        // 8.4 设置RecyclerView为线性布局（垂直排列）
+        // 8.2 设置RecyclerView为线性布局（垂直排列）
         addressRecycle.setLayoutManager(new LinearLayoutManager(context));
-        // 8.5 根据地址列表是否为空，设置适配器（为空则设为null，否则设置创建好的适配器）
-        if(addressList==null||addressList.size()==0){
-            addressRecycle.setAdapter(null);
-        }else{
-            addressRecycle.setAdapter(addressListAdapter);
-        }
+        // 8.3 在后台线程中从AddressDao查询当前登录用户的所有收货地址
+        DBManager.read(() -> AddressDao.getAllAddressByUserId(account), addressList -> {
+            // 8.4 根据地址列表是否为空，设置适配器（为空则设为null，否则创建地址列表适配器并设置）
+            if(addressList==null||addressList.size()==0){
+                addressRecycle.setAdapter(null);
+            }else{
+                addressRecycle.setAdapter(new AddressListAdapter(bottomSheetLayout,addressList));
+            }
+        });
 
         // 9. 加载订单商品清单（通过RecyclerView展示）
         // 9.1 找到商品列表RecyclerView控件
         RecyclerView listView = bottomSheetLayout.findViewById(R.id.user_buy_food_bottom_meu_dialog_food_list);
-        // 9.2 从ManageUserBuyActivity页面中获取存储商品信息的TextView（存储的是JSON格式字符串）
-        TextView  buyFoodListT= man.findViewById(R.id.user_buy_businessFood);
-        String buyFoodListJSON=buyFoodListT.getText().toString();
-        // 9.3 解析JSON字符串为JSONArray数组（存储了多个商品的信息）
-        JSONArray jsonArray=JSONArray.parseArray(buyFoodListJSON);
-
-        // 9.4 初始化订单详情列表，用于存储商品的订单详情数据（图片、价格、名称、数量等）
-        List<OrderDetailBean> list=new ArrayList<>();// 图片，价格，名称
-        // 9.5 遍历JSONArray，解析每个商品的信息并封装为OrderDetailBean
-        for (Object o : jsonArray) {
-            // 将当前对象转为JSONObject，便于获取对应字段值
-            JSONObject temp = JSONObject.parseObject(o.toString());
-            // 创建订单详情实体类实例
-            OrderDetailBean orderDetailBean=new OrderDetailBean();
-            // 设置商品ID
-            orderDetailBean.setFoodId(temp.getString("foodId"));
-            // 设置商品购买数量
-            orderDetailBean.setFoodQuantity(temp.getString("num"));
-            // 若购买数量为0，跳过当前商品（不加入订单清单）
-            if(temp.getString("num").equals("0")){
-                continue;
-            }
-            // 从FoodDao中根据商品ID查询商品完整信息
-            FoodBean food = FoodDao.getAllFoodById(temp.getString("foodId"));
-            // 封装商品价格到订单详情
-            orderDetailBean.setFoodPrice(food.getFoodPrice());
-            // 封装商品图片路径到订单详情
-            orderDetailBean.setFoodImage(food.getFoodImg());
-            // 封装商品名称到订单详情
-            orderDetailBean.setFoodName(food.getFoodName());
-            // 封装商品描述到订单详情
-            orderDetailBean.setFoodDescription(food.getFoodDes());
-            // 将封装好的订单详情加入列表
-            list.add(orderDetailBean);
-        }
-
-        // 9.6 创建商品订单详情适配器，绑定商品订单列表数据
-        UserBuyFoodOrderDetailAdapter de=new UserBuyFoodOrderDetailAdapter(list);
-        // 9.7 设置RecyclerView为线性布局（垂直排列）
+        // 9.2 从ManageUserBuyActivity页面的购物车中取出已选商品（商品ID、单价和购买数量，数量为0的商品已跳过）
+        CartBean cart = man.getCart();
+        List<OrderDetailBean> items = cart.toOrderDetails();
+
+        // 9.3 设置RecyclerView为线性布局（垂直排列）
         listView.setLayoutManager(new LinearLayoutManager(context));
-        // 9.8 根据商品订单列表是否为空，设置适配器（为空则设为null，否则设置创建好的适配器并刷新数据）
-        if(list==null||list.size()==0){
-            listView.setAdapter(null);
-        }else{
-            listView.setAdapter(de);
-            de.notifyDataSetChanged();
-        }
-
-        // 10. 填充订单总价
-        // 10.1 从ManageUserBuyActivity页面中获取总价控件的文本
-        TextView businessPrice = man.findViewById(R.id.user_buy_businessPrice);
-        // 10.2 找到弹窗中的总价展示控件
+        // 9.4 找到弹窗中的总价展示控件（商品清单补全后再填充）
         TextView sumPrice = bottomSheetLayout.findViewById(R.id.user_buy_food_bottom_meu_dialog_sumPrice);
-        // 10.3 将页面中的总价设置到弹窗控件上
-        sumPrice.setText(businessPrice.getText().toString());
+        // 9.5 在后台线程中从FoodDao查询商品完整信息，补全订单详情（单价按菜品当前价格）后在主线程展示
+        DBManager.read(() -> FoodDao.fillOrderDetails(items), list -> {
+            orderDetails = list;
+            // 9.6 按补全后的单价更新购物车，购买页面的总金额与弹窗保持一致
+            cart.updatePrices(list);
+            TextView priceZ = man.findViewById(R.id.user_buy_businessPrice);
+            priceZ.setText(Tools.centsToYuan(cart.getTotalCents()));
+            // 9.7 根据商品订单列表是否为空，设置适配器（为空则设为null，否则创建商品订单详情适配器并设置），
+            //     总价按弹窗中展示的明细计算（与下单时写入的菜品快照单价一致）
+            if(list==null||list.size()==0){
+                listView.setAdapter(null);
+                sumPrice.setText(Tools.centsToYuan(0));
+            }else{
+                UserBuyFoodOrderDetailAdapter adapter = new UserBuyFoodOrderDetailAdapter(list);
+                listView.setAdapter(adapter);
+                sumPrice.setText(adapter.getSumPrice());
+            }
+        });
 
-        // 11. 设置取消按钮点击事件
+        // 10. 设置取消按钮点击事件
         Button cancelButton = bottomSheetLayout.findViewById(R.id.user_buy_food_bottom_meu_dialog_cancel);
         cancelButton.setOnClickListener(new View.OnClickListener() {
             @Override
@@ -200,14 +181,19 @@ public class UserBottomDialog  {
             }
         });
 
-        // 12. 设置确认下单按钮点击事件
+        // 11. 设置确认下单按钮点击事件
         Button okButton = bottomSheetLayout.findViewById(R.id.user_buy_food_bottom_meu_dialog_okOrder);
         okButton.setOnClickListener(new View.OnClickListener() {
             @Override
             public void onClick(View v) {
                 // 创建订单，向订单表和订单详情表插入数据
+                // 用户信息或商品清单尚未加载完成时不处理
+                List<OrderDetailBean> list = orderDetails;
+                if (user == null || list == null) {
+                    return;
+                }
 
-                // 12.1 校验收货信息是否完整（收货人、地址、电话均不能为空）
+                // 11.1 校验收货信息是否完整（收货人、地址、电话均不能为空）
                 if(receivePeo==null||receivePeo.getText().toString().equals("")){
                     Toast.makeText(bottomSheetLayout.getContext(), "请选择收货地址", Toast.LENGTH_SHORT).show();
                 }else
@@ -217,33 +203,33 @@ public class UserBottomDialog  {
                 if(receivePhone==null||receivePhone.getText().toString().equals("")){
                     Toast.makeText(bottomSheetLayout.getContext(), "请选择收货地址", Toast.LENGTH_SHORT).show();
                 }else{
-                    // 12.2 拼接完整的收货信息（收货人-地址-电话）
+                    // 11.2 拼接完整的收货信息（收货人-地址-电话）
                     String address=receivePeo.getText().toString()+"-"+receiveAddress.getText().toString()+"-"+receivePhone.getText().toString();
 
-                    // 12.3 生成唯一的订单ID（去除UUID中的横杠）
+                    // 11.3 生成唯一的订单ID（去除UUID中的横杠）
                     String orderId= UUID.randomUUID().toString().replace("-","");//订单ID
-                    // 12.4 生成唯一的订单详情ID（去除UUID中的横杠）
+                    // 11.4 生成唯一的订单详情ID（去除UUID中的横杠）
                     String orderDetailId= UUID.randomUUID().toString().replace("-","");//订单详情ID
-                    // 12.5 调用OrderDao的方法插入订单主表数据，返回1表示插入成功
-                    int a=OrderDao.installOrder(orderId,time,businessId,user.getsId(),orderDetailId,"1",address);
-                    if(a==1){
-                        // 12.6 若订单主表插入成功，遍历商品订单详情列表，插入订单详情表数据
-                        for (OrderDetailBean orderDetailBean : list) {//所有的订单详细信息
-                            // 为每个订单详情设置对应的订单详情ID
-                            orderDetailBean.setDetailsId(orderDetailId);
-                            // 调用OrderDao的方法保存订单详情数据
-                            OrderDao.saveOrderDetail(orderDetailBean);
+                    // 11.5 封装订单主表信息（状态1：未处理）
+                    OrderBean order=new OrderBean(orderId,Tools.parseTime(time),businessId,user.getsId(),
+                            orderDetailId,Integer.parseInt(OrderBean.ORDER_STA_UNHANDLED),address);
+                    // 11.6 禁用确认按钮，防止下单过程中重复点击生成重复订单
+                    okButton.setEnabled(false);
+                    // 11.7 在后台线程中一次事务写入订单主表和全部订单详情，结果回调到主线程
+                    OrderDao.placeOrderAsync(order, list, result -> {
+                        if(result==1){
+                            // 11.8 关闭底部弹窗
+                            bottomSheetDialog.cancel();
+                            // 11.9 弹出支付成功提示
+                            Toast.makeText(bottomSheetLayout.getContext(), "支付成功", Toast.LENGTH_SHORT).show();
+                        }else{
+                            // 11.10 若下单失败（事务已整体回滚），恢复按钮并弹出购买失败提示
+                            okButton.setEnabled(true);
+                            Toast.makeText(bottomSheetLayout.getContext(), "购买失败", Toast.LENGTH_SHORT).show();
                         }
-                        // 12.7 关闭底部弹窗
-                        bottomSheetDialog.cancel();
-                        // 12.8 弹出支付成功提示
-                        Toast.makeText(bottomSheetLayout.getContext(), "支付成功", Toast.LENGTH_SHORT).show();
-                    }else{
-                        // 12.9 若订单插入失败，弹出购买失败提示
-                        Toast.makeText(bottomSheetLayout.getContext(), "购买失败", Toast.LENGTH_SHORT).show();
-                    }
+                    });
                 }
             }
         });
     }
-}
\ No newline at end of file
+}
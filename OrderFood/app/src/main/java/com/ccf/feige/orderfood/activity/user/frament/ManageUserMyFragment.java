@@ -24,6 +24,8 @@ import com.ccf.feige.orderfood.activity.user.ManageUserUpdateMesActivity;
 import com.ccf.feige.orderfood.activity.user.ManageUserUpdatePwdActivity;
 import com.ccf.feige.orderfood.bean.UserCommonBean;
 import com.ccf.feige.orderfood.dao.AdminDao;
+import com.ccf.feige.orderfood.db.DBManager;
+import com.ccf.feige.orderfood.until.ImageLoader;
 import com.ccf.feige.orderfood.until.Tools;
 
 import java.io.File;
@@ -112,20 +114,27 @@ public class ManageUserMyFragment extends Fragment {
             return;
         }
 
-        // 2. 查询用户信息（判空，避免查询结果为null导致崩溃）：通过AdminDao数据库工具类查询用户完整信息
-        currentUser = AdminDao.getCommonUser(currentAccount);
-        if (currentUser == null) {
-            showToast("用户信息查询失败，请重新登录");
-            return;
-        }
+        // 2. 查询用户信息（判空，避免查询结果为null导致崩溃）：在后台线程中通过AdminDao数据库工具类查询用户完整信息
+        String account = currentAccount;
+        DBManager.read(() -> AdminDao.getCommonUser(account), user -> {
+            // 查询返回前Fragment可能已被移除，此时不再更新界面
+            if (!isAdded()) {
+                return;
+            }
+            currentUser = user;
+            if (currentUser == null) {
+                showToast("用户信息查询失败，请重新登录");
+                return;
+            }
 
-        // 3. 展示用户账号与基本信息：为控件设置对应数据，含空值兜底，避免展示null
-        tvUserAccount.setText(currentAccount); // 展示用户账号（无需兜底，已做判空）
-        tvUserName.setText(currentUser.getsName() != null ? currentUser.getsName() : "未知用户"); // 姓名兜底：未知用户
-        tvUserAddress.setText("住址:" + (currentUser.getsAddress() != null ? currentUser.getsAddress() : "未填写")); // 住址兜底：未填写
+            // 3. 展示用户账号与基本信息：为控件设置对应数据，含空值兜底，避免展示null
+            tvUserAccount.setText(account); // 展示用户账号（无需兜底，已做判空）
+            tvUserName.setText(currentUser.getsName() != null ? currentUser.getsName() : "未知用户"); // 姓名兜底：未知用户
+            tvUserAddress.setText("住址:" + (currentUser.getsAddress() != null ? currentUser.getsAddress() : "未填写")); // 住址兜底：未填写
 
-        // 4. 加载并展示用户头像（含容错）：调用专门的头像加载方法，处理图片加载的各类异常
-        loadUserAvatar(currentUser.getsImg());
+            // 4. 加载并展示用户头像（含容错）：调用专门的头像加载方法，处理图片加载的各类异常
+            loadUserAvatar(currentUser.getsImg());
+        });
     }
 
     /**
@@ -134,39 +143,9 @@ public class ManageUserMyFragment extends Fragment {
      * @param imgPath 头像文件路径：从用户信息中获取的头像本地存储路径
      */
     private void loadUserAvatar(String imgPath) {
-        // 判空：路径为null/空或文件不存在 → 说明用户未设置头像或头像文件损坏
-        if (imgPath == null || imgPath.trim().isEmpty() || !new File(imgPath).exists()) {
-            // 设置默认头像，避免ImageView为空：使用应用内置的默认头像资源填充
-            ivUserAvatar.setImageResource(R.drawable.upimg);
-            return;
-        }
-
-        // 图片压缩：避免大图片导致OOM（内存溢出）→ 分两步进行图片压缩
-        BitmapFactory.Options options = new BitmapFactory.Options();
-        options.inJustDecodeBounds = true; // 第一步：仅获取图片尺寸，不加载到内存，避免占用大量内存
-        BitmapFactory.decodeFile(imgPath, options); // 解析图片文件，获取图片宽高信息存入options
-
-        // 计算压缩比例（宽高均不超过500px，可根据需求调整）：按2的幂次缩放，保证图片不失真
-        int reqWidth = 500; // 目标宽度：500px
-        int reqHeight = 500; // 目标高度：500px
-        int inSampleSize = 1; // 压缩比例初始值：1（不压缩）
-        if (options.outHeight > reqHeight || options.outWidth > reqWidth) {
-            final int halfHeight = options.outHeight / 2;
-            final int halfWidth = options.outWidth / 2;
-            // 循环计算最优压缩比例：保证压缩后的图片宽高均不小于目标宽高
-            while ((halfHeight / inSampleSize) >= reqHeight && (halfWidth / inSampleSize) >= reqWidth) {
-                inSampleSize *= 2;
-            }
-        }
-
-        // 加载压缩后的图片：第二步，根据计算出的压缩比例加载图片到内存
-        options.inJustDecodeBounds = false; // 关闭仅获取尺寸模式，开始加载图片
-        options.inSampleSize = inSampleSize; // 设置压缩比例
-        options.inPreferredConfig = Bitmap.Config.ARGB_8888; // 指定图片配置，减少内存占用（每个像素占4字节，兼顾清晰度和内存）
-
-        Bitmap avatarBitmap = BitmapFactory.decodeFile(imgPath, options); // 解析并加载压缩后的图片
-        // 判空：图片加载失败则设置默认头像 → 避免因图片损坏导致ImageView无内容
-        ivUserAvatar.setImageBitmap(avatarBitmap != null ? avatarBitmap : BitmapFactory.decodeResource(getResources(), R.drawable.upimg));
+        // 交给ImageLoader在后台按控件尺寸计算采样率（inSampleSize）解码，解码结果进入LRU缓存，再次进入页面时直接命中
+        // 路径为空、文件不存在或解码失败时展示默认头像（R.drawable.upimg）
+        ImageLoader.load(ivUserAvatar, imgPath, R.drawable.upimg);
     }
 
     /**
@@ -259,39 +238,41 @@ public class ManageUserMyFragment extends Fragment {
                 return;
             }
 
-            // 5.2 获取数据库中保存的用户密码：从数据库查询该账号的原始密码，用于验证
-            String userPwd = AdminDao.getCommonUserPwd(currentAccount);
-            if (userPwd == null) {
-                showToast("用户密码查询失败");
-                logoutDialog.dismiss(); // 关闭弹窗，终止注销流程
-                return;
-            }
-
-            // 5.3 验证密码是否一致：输入密码与数据库原始密码比对，不一致则提示错误
-            if (!inputPwd.equals(userPwd)) {
-                showToast("密码输入错误，请重新输入");
-                etLogoutPwd.setText(""); // 清空输入框，方便用户重新输入
-                return;
-            }
+            // 5.2 获取数据库中保存的用户密码：在后台线程中从数据库查询该账号的原始密码，用于验证
+            DBManager.read(() -> AdminDao.getCommonUserPwd(currentAccount), userPwd -> {
+                if (userPwd == null) {
+                    showToast("用户密码查询失败");
+                    logoutDialog.dismiss(); // 关闭弹窗，终止注销流程
+                    return;
+                }
 
-            // 5.4 密码验证通过，删除数据库用户数据：调用AdminDao删除该账号的所有相关数据
-            boolean isDeleteSuccess = AdminDao.deleteCommonUser(currentAccount);
-            if (isDeleteSuccess) {
-                showToast("账号注销成功");
-                // 5.5 跳转到登录界面，清除返回栈：与退出账号逻辑一致，保证无法返回已注销的账号页面
-                Intent loginIntent = new Intent(getContext(), MainActivity.class);
-                loginIntent.setFlags(Intent.FLAG_ACTIVITY_CLEAR_TOP | Intent.FLAG_ACTIVITY_NEW_TASK);
-                startActivity(loginIntent);
-
-                // 5.6 关闭当前弹窗和宿主Activity：释放资源，完成注销流程
-                logoutDialog.dismiss();
-                if (getActivity() != null) {
-                    getActivity().finish();
+                // 5.3 验证密码是否一致：输入密码与数据库原始密码比对，不一致则提示错误
+                if (!inputPwd.equals(userPwd)) {
+                    showToast("密码输入错误，请重新输入");
+                    etLogoutPwd.setText(""); // 清空输入框，方便用户重新输入
+                    return;
                 }
-            } else {
-                showToast("账号注销失败，请重试");
-                logoutDialog.dismiss(); // 关闭弹窗，终止注销流程
-            }
+
+                // 5.4 密码验证通过，删除数据库用户数据：在后台写线程中调用AdminDao删除该账号的所有相关数据
+                DBManager.write(() -> AdminDao.deleteCommonUser(currentAccount), isDeleteSuccess -> {
+                    if (isDeleteSuccess) {
+                        showToast("账号注销成功");
+                        // 5.5 跳转到登录界面，清除返回栈：与退出账号逻辑一致，保证无法返回已注销的账号页面
+                        Intent loginIntent = new Intent(getContext(), MainActivity.class);
+                        loginIntent.setFlags(Intent.FLAG_ACTIVITY_CLEAR_TOP | Intent.FLAG_ACTIVITY_NEW_TASK);
+                        startActivity(loginIntent);
+
+                        // 5.6 关闭当前弹窗和宿主Activity：释放资源，完成注销流程
+                        logoutDialog.dismiss();
+                        if (getActivity() != null) {
+                            getActivity().finish();
+                        }
+                    } else {
+                        showToast("账号注销失败，请重试");
+                        logoutDialog.dismiss(); // 关闭弹窗，终止注销流程
+                    }
+                });
+            });
         });
 
         // 6. 显示弹窗：将构建完成的弹窗展示给用户
@@ -4,10 +4,10 @@ import android.os.Bundle;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
-import android.widget.ListView;
 
 import androidx.appcompat.widget.SearchView;
 import androidx.fragment.app.Fragment;
+import androidx.recyclerview.widget.RecyclerView;
 
 import com.ccf.feige.orderfood.R;
 import com.ccf.feige.orderfood.activity.man.adapter.CommentLIstAdapter;
@@ -15,7 +15,9 @@ import com.ccf.feige.orderfood.activity.user.adapter.UserFoodLIstAdapter;
 import com.ccf.feige.orderfood.bean.CommentBean;
 import com.ccf.feige.orderfood.bean.FoodBean;
 import com.ccf.feige.orderfood.dao.CommentDao;
+import com.ccf.feige.orderfood.db.DBManager;
 import com.ccf.feige.orderfood.dao.FoodDao;
+import com.ccf.feige.orderfood.until.Tools;
 
 import java.util.List;
 
@@ -55,24 +57,21 @@ public class UserBuyFoodBusinessCommentFragment extends Fragment {
         rootview = inflater.inflate(R.layout.fragment_use_buy_food_comment, container, false);
 
         // 接下来要写的是适配器
-        // 从根视图中查找ListView控件（用于展示评论列表），并获取其实例
-        ListView listView = rootview.findViewById(R.id.user_buy_food_comment_listView);
+        // 从根视图中查找RecyclerView控件（用于展示评论列表），初始化纵向列表并设置评论列表适配器
+        RecyclerView listView = rootview.findViewById(R.id.user_buy_food_comment_listView);
+        CommentLIstAdapter adapter = new CommentLIstAdapter();
+        Tools.initVerticalList(listView);
+        listView.setAdapter(adapter);
 
-        // 调用CommentDao的数据访问方法，根据商家ID查询该商家对应的所有评论数据，返回评论列表
-        List<CommentBean> list = CommentDao.getCommetByBusinessId(businessId);
-
-        // 适配器
-        // 初始化评论列表适配器，传入当前上下文（Fragment依附的Activity）和查询到的评论列表数据
-        CommentLIstAdapter commentLIstAdapter=new CommentLIstAdapter(getContext(),list);
-
-        // 判空处理：如果评论列表为null或列表中没有数据
-        if(list==null||list.size()==0){
-            // 给ListView设置空适配器，清空列表展示，避免出现空指针或无效视图
-            listView.setAdapter(null);
-        }else{
-            // 评论列表有有效数据时，给ListView设置初始化好的评论适配器，展示评论数据
-            listView.setAdapter(commentLIstAdapter);
-        }
+        // 在后台线程中调用CommentDao，根据商家ID查询该商家对应的所有评论数据，查询完成后在主线程展示
+        DBManager.read(() -> CommentDao.getCommetByBusinessId(businessId), list -> {
+            // 查询返回前碎片可能已被移除，此时不再更新界面
+            if (!isAdded()) {
+                return;
+            }
+            // 向适配器提交评论列表（为null或没有数据时清空列表展示）
+            adapter.submitList(list);
+        });
 
         // 返回碎片的根视图，完成视图创建与数据绑定
         return rootview;
@@ -16,6 +16,7 @@ import com.ccf.feige.orderfood.R;
 import com.ccf.feige.orderfood.activity.user.adapter.UserBuyFoodLIstAdapter;
 import com.ccf.feige.orderfood.bean.FoodBean;
 import com.ccf.feige.orderfood.dao.FoodDao;
+import com.ccf.feige.orderfood.db.DBManager;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -23,7 +24,7 @@ import java.util.List;
  * 商家商品列表Fragment
  * 修复点：
  * 1. 解决RecyclerView滑动失效（LayoutManager+布局高度+嵌套滑动）
- * 2. 移除月销残留，避免闪退
+ * 2. 月销数量改由汇总表按主键读取，避免逐订单统计导致卡顿
  * 3. 优化滑动性能（RecycledViewPool）
  * 4. 强化空指针防护，规避生命周期异常
  */
@@ -140,19 +141,21 @@ public class UserBuyFoodFBusinessFragment extends Fragment {
         recyclerView.setRecycledViewPool(viewPool);
 
         // 数据查询+日志（验证商品数量）
-        // 调用FoodDao的数据访问方法，根据商家ID查询该商家对应的所有商品列表
-        List<FoodBean> foodList = FoodDao.getAllFoodListByBusinessId(businessId);
-        // 空指针防护：如果查询结果为null（数据库查询失败或无数据），初始化一个空的ArrayList，避免后续适配器初始化崩溃
-        if (foodList == null) {
-            foodList = new ArrayList<>();
-        }
-        // 新增日志：打印商家ID和对应的商品数量，用于调试排查（在Logcat中搜索标签"FOOD_SCROLL"即可查看）
-        Log.d("FOOD_SCROLL", "商家ID：" + businessId + "，商品数量：" + foodList.size());
+        // 在后台线程中根据商家ID查询该商家对应的所有商品列表，查询完成后在主线程绑定适配器
+        DBManager.read(() -> FoodDao.getAllFoodListByBusinessId(businessId), foodList -> {
+            // 查询返回前Fragment可能已被移除，此时不再更新界面
+            if (!isAdded()) {
+                return;
+            }
+            // 空指针防护：如果查询结果为null（数据库查询失败或无数据），使用空的ArrayList，避免后续适配器初始化崩溃
+            List<FoodBean> list = foodList == null ? new ArrayList<>() : foodList;
+            // 新增日志：打印商家ID和对应的商品数量，用于调试排查（在Logcat中搜索标签"FOOD_SCROLL"即可查看）
+            Log.d("FOOD_SCROLL", "商家ID：" + businessId + "，商品数量：" + list.size());
 
-        // 绑定适配器：创建商品列表适配器实例，传入商品数据列表和上下文对象
-        UserBuyFoodLIstAdapter adapter = new UserBuyFoodLIstAdapter(foodList, mContext);
-        // 将适配器设置给RecyclerView，完成数据与视图的绑定，RecyclerView将通过适配器展示商品数据
-        recyclerView.setAdapter(adapter);
+            // 绑定适配器：创建商品列表适配器实例，传入商品数据列表和上下文对象
+            // 将适配器设置给RecyclerView，完成数据与视图的绑定，RecyclerView将通过适配器展示商品数据
+            recyclerView.setAdapter(new UserBuyFoodLIstAdapter(list, mContext));
+        });
 
         // 返回Fragment的根布局视图，完成视图创建
         return rootview;
@@ -173,15 +176,14 @@ public class UserBuyFoodFBusinessFragment extends Fragment {
         if (recyclerView == null) {
             return;
         }
-        // 重新查询最新的商品列表数据，保证展示的数据为最新状态
-        List<FoodBean> newFoodList = FoodDao.getAllFoodListByBusinessId(businessId);
-        // 空指针防护：查询结果为null时，初始化空的ArrayList，避免适配器初始化崩溃
-        if (newFoodList == null) {
-            newFoodList = new ArrayList<>();
-        }
-        // 创建新的适配器实例，传入最新的商品数据
-        UserBuyFoodLIstAdapter adapter = new UserBuyFoodLIstAdapter(newFoodList, mContext);
-        // 重新设置适配器，刷新RecyclerView的展示内容
-        recyclerView.setAdapter(adapter);
+        // 在后台线程中重新查询最新的商品列表数据，保证展示的数据为最新状态
+        DBManager.read(() -> FoodDao.getAllFoodListByBusinessId(businessId), newFoodList -> {
+            if (!isAdded()) {
+                return;
+            }
+            // 空指针防护：查询结果为null时，使用空的ArrayList，避免适配器初始化崩溃
+            // 创建新的适配器实例并重新设置，刷新RecyclerView的展示内容
+            recyclerView.setAdapter(new UserBuyFoodLIstAdapter(newFoodList == null ? new ArrayList<>() : newFoodList, mContext));
+        });
     }
 }
\ No newline at end of file
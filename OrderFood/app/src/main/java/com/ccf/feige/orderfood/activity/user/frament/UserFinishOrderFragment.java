@@ -5,29 +5,33 @@ import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.ImageView;
-import android.widget.ListView;
 
 import androidx.appcompat.widget.SearchView;
 import androidx.fragment.app.Fragment;
+import androidx.recyclerview.widget.RecyclerView;
 
 import com.ccf.feige.orderfood.R;
 import com.ccf.feige.orderfood.activity.user.ManageUserActivity;
 import com.ccf.feige.orderfood.activity.user.adapter.OrderFinishUserAdapter;
 import com.ccf.feige.orderfood.bean.OrderBean;
 import com.ccf.feige.orderfood.dao.OrderDao;
+import com.ccf.feige.orderfood.dao.OrderPagingSource;
+import com.ccf.feige.orderfood.until.OrderPager;
 import com.ccf.feige.orderfood.until.Tools;
 
 import java.util.List;
 
 /**
  * 用户已完成订单列表Fragment（评论后刷新列表，更新按钮状态）
- * 功能说明：展示当前登录用户的所有已完成订单，支持搜索筛选，评论操作后返回该页面自动刷新订单状态
+ * 功能说明：展示当前登录用户的所有已完成订单，支持搜索筛选；评论后订单状态变为已评论时，
+ * 分页加载器收到订单表的变化通知（InvalidationTracker），在后台重新加载当前窗口，只有该订单所在的行重新绑定
  */
 public class UserFinishOrderFragment extends Fragment {
     // 成员变量
     private View rootview; // Fragment的根视图，承载整个布局的所有控件
-    private ListView listView; // 订单列表展示控件，用于加载已完成订单数据
+    private RecyclerView listView; // 订单列表展示控件，用于加载已完成订单数据
     private OrderFinishUserAdapter mAdapter; // 已完成订单列表的适配器，用于绑定数据和视图
+    private OrderPager pager; // 订单列表分页加载器：首屏只加载一页，滚动到末尾附近时在后台预取下一页
     private String account; // 当前登录用户账号，用于查询该用户的专属订单数据
     private SearchView searchView; // 搜索框控件，用于输入关键词筛选订单
     private ImageView imgBack; // 返回按钮控件，用于跳转回上一个页面（我的页面）
@@ -71,12 +75,15 @@ public class UserFinishOrderFragment extends Fragment {
      * 注意：必须在布局填充完成后（rootview赋值后）调用，否则会出现空指针异常
      */
     private void initView() {
-        // 绑定订单列表ListView控件
+        // 绑定订单列表RecyclerView控件
         listView = rootview.findViewById(R.id.user_my_order_finish_listView);
         // 绑定订单搜索框SearchView控件
         searchView = rootview.findViewById(R.id.user_my_order_finish_search);
         // 绑定返回按钮ImageView控件
         imgBack = rootview.findViewById(R.id.user_my_order_finish_back);
+        // 创建适配器和分页加载器
+        mAdapter = new OrderFinishUserAdapter();
+        pager = new OrderPager(listView, mAdapter);
     }
 
     /**
@@ -136,45 +143,21 @@ public class UserFinishOrderFragment extends Fragment {
 
     /**
      * 刷新订单列表（支持搜索筛选）
-     * 核心功能方法：负责查询订单数据、筛选数据、更新列表展示，是整个Fragment数据流转的核心
-     * @param keyword 搜索关键词（null表示不筛选，加载全部已完成订单）
+     * 核心功能方法：切换分页数据源并从第一页重新加载，是整个Fragment数据流转的核心
+     * 说明：关键词通过订单全文索引匹配，不再先加载该用户全部订单再逐个比对用户名/菜品名
+     * @param keyword 搜索关键词（null或空白表示不筛选，加载该用户全部订单）
      */
     private void refreshOrderList(String keyword) {
-        // 1. 查询用户所有已完成订单：通过OrderDao查询当前用户（account）状态为"1"（已完成）的所有订单
-        // 返回订单数据列表，用于后续筛选和展示
-        List<OrderBean> originalList = OrderDao.getAllOrdersByStaAndUserFinish(account, "1");
-
-        // 2. 搜索筛选：初始化筛选后列表为原始列表，后续根据关键词判断是否需要筛选
-        List<OrderBean> filteredList = originalList;
-        // 筛选条件判断：关键词非空且非空白、原始列表非空且非空列表，满足条件才进行筛选
-        if (keyword != null && !keyword.trim().isEmpty() && originalList != null && !originalList.isEmpty()) {
-            // 调用工具类的filterOrder方法，根据关键词筛选订单列表
-            filteredList = Tools.filterOrder(originalList, keyword);
-        }
-
-        // 3. 更新适配器：绑定筛选后的数据到列表，更新UI展示
-        // 初始化适配器，传入当前上下文和筛选后的订单列表
-        mAdapter = new OrderFinishUserAdapter(getContext(), filteredList);
-        // 判断筛选后列表是否为空，为空则清空ListView的适配器（展示空页面），否则设置适配器（展示订单数据）
-        if (filteredList == null || filteredList.isEmpty()) {
-            // 列表为空时，设置适配器为null，清空ListView展示
-            listView.setAdapter(null);
-        } else {
-            // 列表非空时，为ListView设置适配器，展示筛选后的订单数据
-            listView.setAdapter(mAdapter);
-        }
+        // 在后台线程中按(时间, 订单ID)键集加载第一页，滚动到末尾附近时继续预取
+        pager.setSource(OrderDao.pageOrdersByUser(account, keyword, OrderPagingSource.DEFAULT_PAGE_SIZE));
     }
 
     /**
-     * 核心：Fragment恢复可见时刷新列表（评论后返回立即更新按钮状态）
-     * Fragment生命周期方法：当Fragment从不可见变为可见（如从评论页面返回）时触发
-     * 重写该方法实现自动刷新，保证评论操作后订单的按钮状态（如"评论"→"已评论"）能实时更新
+     * 视图销毁时取消进行中的分页加载（碎片已移除后不再更新列表）
      */
     @Override
-    public void onResume() {
-        // 调用父类的onResume方法，保证Fragment生命周期的正常流转
-        super.onResume();
-        // 刷新订单列表，传入null表示加载全部已完成订单，更新最新的订单状态
-        refreshOrderList(null);
+    public void onDestroyView() {
+        super.onDestroyView();
+        pager.release();
     }
-}
\ No newline at end of file
+}
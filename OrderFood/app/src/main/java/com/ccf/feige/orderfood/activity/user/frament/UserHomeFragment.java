@@ -1,22 +1,25 @@
 package com.ccf.feige.orderfood.activity.user.frament;
 
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
-import android.widget.ListView;
 
 import androidx.appcompat.widget.SearchView;
 import androidx.fragment.app.Fragment;
+import androidx.recyclerview.widget.RecyclerView;
 
 import com.ccf.feige.orderfood.R;
-import com.ccf.feige.orderfood.activity.man.adapter.FoodLIstAdapter;
 import com.ccf.feige.orderfood.activity.user.adapter.UserFoodLIstAdapter;
 import com.ccf.feige.orderfood.bean.FoodBean;
 import com.ccf.feige.orderfood.dao.FoodDao;
+import com.ccf.feige.orderfood.db.DBManager;
 import com.ccf.feige.orderfood.until.Tools;
 
 import java.util.List;
+import java.util.concurrent.Future;
 
 /**
  * 用户首页碎片（Fragment）
@@ -27,6 +30,20 @@ public class UserHomeFragment extends Fragment {
     // 声明Fragment的根视图对象，用于缓存加载后的布局视图，避免重复查找
     View rootview;
 
+    /**
+     * 搜索防抖间隔（毫秒）：输入停止超过该时间才发起查询，连续输入时只查询最后一次的关键词
+     */
+    private static final long SEARCH_DEBOUNCE_MS = 300;
+
+    // 主线程Handler：用于延迟发起搜索（防抖）
+    private final Handler searchHandler = new Handler(Looper.getMainLooper());
+    // 等待执行的搜索任务（新的输入到来时取消）
+    private Runnable pendingSearch;
+    // 正在执行的搜索查询（新的查询发起时取消尚未开始的旧查询）
+    private Future<List<FoodBean>> searchFuture;
+    // 搜索序号：每次发起查询加1，回调时序号不一致说明已有更新的查询，丢弃过期结果
+    private int searchSeq;
+
     /**
      * 重写Fragment的视图创建方法
      * 负责加载Fragment布局、初始化控件、绑定数据适配器和设置搜索监听
@@ -40,21 +57,15 @@ public class UserHomeFragment extends Fragment {
         // 将fragment_user_home.xml布局文件填充为View对象，并赋值给根视图，第三个参数false表示不自动将布局添加到父容器
         rootview=inflater.inflate(R.layout.fragment_user_home, container, false);
 
-        // 从根视图中查找食品列表展示的ListView控件，通过控件ID匹配
-        ListView listView = rootview.findViewById(R.id.user_home_food_listView);
-
-        // 调用FoodDao的数据访问方法，获取所有的食品数据列表，返回封装好的FoodBean集合
-        List<FoodBean> list = FoodDao.getAllFoodList();
-        // 初始化用户端食品列表适配器，传入当前Fragment的上下文（getActivity()获取关联的Activity上下文）和食品数据列表
-        UserFoodLIstAdapter adapter = new UserFoodLIstAdapter(getContext(), list);
-        // 判空处理：如果食品列表为null或者列表长度为0（无数据）
-        if(list==null||list.size()==0){
-            // 给ListView设置空适配器，清空列表展示，避免出现空指针异常或无效展示
-            listView.setAdapter(null);
-        }else{
-            // 食品列表有数据时，给ListView设置初始化好的适配器，展示食品数据
-            listView.setAdapter(adapter);
-        }
+        // 从根视图中查找食品列表展示的RecyclerView控件，通过控件ID匹配
+        RecyclerView listView = rootview.findViewById(R.id.user_home_food_listView);
+        // 初始化纵向列表并设置适配器（只创建一次，之后每次搜索只提交新的结果列表）
+        UserFoodLIstAdapter adapter = new UserFoodLIstAdapter();
+        Tools.initVerticalList(listView);
+        listView.setAdapter(adapter);
+
+        // 在后台线程中调用FoodDao获取所有的食品数据列表（关键词为空即全部菜品），查询完成后在主线程展示
+        searchFoods(adapter, "", 0);
 
         // 从根视图中查找搜索框控件，通过控件ID匹配
         SearchView searchView = rootview.findViewById(R.id.user_home_food_search);
@@ -67,18 +78,8 @@ public class UserHomeFragment extends Fragment {
              */
             @Override
             public boolean onQueryTextSubmit(String query) {
-                // 根据提交的搜索关键词（食品标题），调用FoodDao的查询方法，获取匹配的食品列表
-                List<FoodBean> list = FoodDao.getAllFoodListUser(query);
-                // 初始化新的适配器，传入上下文和查询到的匹配食品列表
-                UserFoodLIstAdapter adapter = new UserFoodLIstAdapter(getContext(), list);
-                // 判空处理：如果匹配结果列表为null或者无数据
-                if(list==null||list.size()==0){
-                    // 给ListView设置空适配器，清空原有列表，展示无匹配数据的状态
-                    listView.setAdapter(null);
-                }else{
-                    // 有匹配数据时，给ListView设置新适配器，展示搜索结果
-                    listView.setAdapter(adapter);
-                }
+                // 提交时立即搜索（取消尚未执行的防抖任务），在后台线程中获取匹配的食品列表并展示
+                searchFoods(adapter, query, 0);
 
                 // 返回false，不消耗该提交事件
                 return false;
@@ -91,18 +92,8 @@ public class UserHomeFragment extends Fragment {
              */
             @Override
             public boolean onQueryTextChange(String newText) {
-                // 根据实时变化的搜索文本，调用FoodDao的查询方法，实时获取匹配的食品列表
-                List<FoodBean> list = FoodDao.getAllFoodListUser(newText);
-                // 初始化新的适配器，传入上下文和实时匹配的食品列表
-                UserFoodLIstAdapter adapter = new UserFoodLIstAdapter(getContext(), list);
-                // 判空处理：如果实时匹配结果列表为null或者无数据
-                if(list==null||list.size()==0){
-                    // 给ListView设置空适配器，清空原有列表
-                    listView.setAdapter(null);
-                }else{
-                    // 有实时匹配数据时，给ListView设置新适配器，实时更新搜索结果展示
-                    listView.setAdapter(adapter);
-                }
+                // 根据实时变化的搜索文本，防抖后在后台线程中获取匹配的食品列表并更新展示
+                searchFoods(adapter, newText, SEARCH_DEBOUNCE_MS);
                 // 返回false，不消耗该文本变化事件
                 return false;
             }
@@ -111,4 +102,55 @@ public class UserHomeFragment extends Fragment {
         // 返回Fragment的根视图，完成视图创建和初始化
         return rootview;
     }
+
+    /**
+     * 发起菜品搜索（主线程调用）：取消尚未执行的搜索任务，延迟delayMs后在后台线程查询，只展示最新一次查询的结果
+     * @param adapter 食品列表适配器
+     * @param keyword 搜索关键词（为空时查询全部菜品）
+     * @param delayMs 延迟时间（毫秒），0表示立即查询
+     */
+    private void searchFoods(UserFoodLIstAdapter adapter, String keyword, long delayMs) {
+        if (pendingSearch != null) {
+            searchHandler.removeCallbacks(pendingSearch);
+        }
+        pendingSearch = () -> {
+            // 取消尚未开始执行的旧查询
+            if (searchFuture != null) {
+                searchFuture.cancel(false);
+            }
+            int seq = ++searchSeq;
+            searchFuture = DBManager.read(() -> FoodDao.getAllFoodListUser(keyword), list -> {
+                // 已有更新的查询，丢弃过期结果
+                if (seq != searchSeq) {
+                    return;
+                }
+                showFoods(adapter, list);
+            });
+        };
+        searchHandler.postDelayed(pendingSearch, delayMs);
+    }
+
+    /**
+     * 视图销毁时取消尚未执行的搜索任务
+     */
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        if (pendingSearch != null) {
+            searchHandler.removeCallbacks(pendingSearch);
+        }
+    }
+
+    /**
+     * 展示食品列表（主线程调用）：提交新的结果列表，差异在后台计算，搜索前后都存在的菜品不会重新绑定
+     * @param adapter 食品列表适配器
+     * @param list 食品数据，为空时清空列表展示
+     */
+    private void showFoods(UserFoodLIstAdapter adapter, List<FoodBean> list) {
+        // 查询返回前碎片可能已被移除，此时不再更新界面
+        if (!isAdded()) {
+            return;
+        }
+        adapter.submitList(list);
+    }
 }
\ No newline at end of file
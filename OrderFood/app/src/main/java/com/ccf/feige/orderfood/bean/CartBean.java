@@ -0,0 +1,164 @@
+package com.ccf.feige.orderfood.bean;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 购物车的bean（用户购买页面使用，仅保存在内存中）
+ * 按商品ID保存购买数量（int）和单价（分，long），并同步维护总金额（分）与总件数
+ * 由ManageUserBuyActivity持有，商品列表适配器和下单弹窗共享同一实例，不再通过隐藏TextView中的JSON字符串传递
+ * 说明：商品在列表中首次出现时登记一条记录，之后每次加减只修改该记录中的数值，不再创建对象
+ */
+public class CartBean {
+
+    /**
+     * 购物车中的一条商品记录
+     */
+    private static class Item {
+        // 商品唯一标识ID
+        final String foodId;
+        // 商品单价（单位：分）
+        long priceCents;
+        // 购买数量
+        int quantity;
+
+        Item(String foodId, long priceCents) {
+            this.foodId = foodId;
+            this.priceCents = priceCents;
+        }
+    }
+
+    /**
+     * 商品记录（key：商品ID），按登记顺序保存，下单时按商品在列表中的顺序生成订单详情
+     */
+    private final Map<String, Item> items = new LinkedHashMap<>();
+
+    /**
+     * 总金额（单位：分）
+     */
+    private long totalCents;
+
+    /**
+     * 已选商品总件数（用于判断是否可以结算）
+     */
+    private int totalCount;
+
+    /**
+     * 登记商品：商品已登记时只更新单价，不会清空已选数量（搜索后重新创建适配器时数量保持不变）
+     * @param food 商品信息
+     */
+    public void register(FoodBean food) {
+        if (!items.containsKey(food.getFoodId())) {
+            items.put(food.getFoodId(), new Item(food.getFoodId(), food.getFoodPriceCents()));
+        } else {
+            updatePrice(food.getFoodId(), food.getFoodPriceCents());
+        }
+    }
+
+    /**
+     * 更新商品单价，并按已选数量同步调整总金额
+     * 说明：单价在商品登记时取自商品列表，商家之后改价不会通知购物车，结算时由updatePrices按最新单价更新
+     * @param foodId 商品ID（未登记时忽略）
+     * @param priceCents 新单价（单位：分）
+     */
+    public void updatePrice(String foodId, long priceCents) {
+        Item item = items.get(foodId);
+        if (item == null || item.priceCents == priceCents) {
+            return;
+        }
+        totalCents += (priceCents - item.priceCents) * item.quantity;
+        item.priceCents = priceCents;
+    }
+
+    /**
+     * 按结算时补全的订单详情（FoodDao.fillOrderDetails）更新单价，使购物车总金额与结算弹窗中的明细、
+     * 下单时写入的菜品快照一致
+     * @param details 补全后的订单详情列表
+     */
+    public void updatePrices(List<OrderDetailBean> details) {
+        for (OrderDetailBean detail : details) {
+            updatePrice(detail.getFoodId(), detail.getFoodPriceCents());
+        }
+    }
+
+    /**
+     * 商品数量+1
+     * @param foodId 商品ID（需已登记）
+     * @return 修改后的购买数量，商品未登记时返回0
+     */
+    public int add(String foodId) {
+        Item item = items.get(foodId);
+        if (item == null) {
+            return 0;
+        }
+        item.quantity++;
+        totalCount++;
+        totalCents += item.priceCents;
+        return item.quantity;
+    }
+
+    /**
+     * 商品数量-1（不低于0）
+     * @param foodId 商品ID（需已登记）
+     * @return 修改后的购买数量，商品未登记时返回0
+     */
+    public int sub(String foodId) {
+        Item item = items.get(foodId);
+        if (item == null) {
+            return 0;
+        }
+        if (item.quantity > 0) {
+            item.quantity--;
+            totalCount--;
+            totalCents -= item.priceCents;
+        }
+        return item.quantity;
+    }
+
+    /**
+     * 获取商品的购买数量
+     * @param foodId 商品ID
+     * @return 购买数量，未登记时返回0
+     */
+    public int getQuantity(String foodId) {
+        Item item = items.get(foodId);
+        return item == null ? 0 : item.quantity;
+    }
+
+    /**
+     * 获取总金额
+     * @return 总金额（单位：分）
+     */
+    public long getTotalCents() {
+        return totalCents;
+    }
+
+    /**
+     * 是否未选择任何商品
+     * @return 所有商品数量均为0时返回true
+     */
+    public boolean isEmpty() {
+        return totalCount == 0;
+    }
+
+    /**
+     * 生成待下单的订单详情（只包含商品ID、单价和购买数量，数量为0的商品跳过）
+     * @return 订单详情列表
+     */
+    public List<OrderDetailBean> toOrderDetails() {
+        List<OrderDetailBean> list = new ArrayList<>();
+        for (Item item : items.values()) {
+            if (item.quantity == 0) {
+                continue;
+            }
+            OrderDetailBean orderDetailBean = new OrderDetailBean();
+            orderDetailBean.setFoodId(item.foodId);
+            orderDetailBean.setFoodPriceCents(item.priceCents);
+            orderDetailBean.setFoodCount(item.quantity);
+            list.add(orderDetailBean);
+        }
+        return list;
+    }
+}
@@ -1,5 +1,7 @@
 package com.ccf.feige.orderfood.bean;
 
+import com.ccf.feige.orderfood.until.Tools;
+
 /**
  * 订单评论实体类
  * 用于封装用户对商家/订单的评论相关数据，对应评论相关的业务模型和数据存储结构
@@ -30,16 +32,16 @@ public class CommentBean {
     private String commentContent;
 
     /**
-     * 评论时间
-     * 用户发表评论的时间，通常为格式化的字符串（如yyyy-MM-dd HH:mm:ss）
+     * 评论时间（时间戳毫秒）
+     * 与数据库s_comment_time字段（INTEGER毫秒）一致，展示时通过getCommentTime()格式化为yyyy-MM-dd HH:mm
      */
-    private String commentTime;
+    private long commentTimeMillis;
 
     /**
-     * 评论评分
-     * 用户对商家/订单的评分，以字符串形式存储（可转换为数字类型进行计算）
+     * 评论评分（1-5）
+     * 与数据库s_comment_score字段（INTEGER）一致，可直接参与平均分计算
      */
-    private String commentScore;
+    private int commentScoreValue;
 
     /**
      * 评论图片
@@ -70,8 +72,8 @@ public class CommentBean {
         this.commentUserId = commentUserId;
         this.commentBusinessId = commentBusinessId;
         this.commentContent = commentContent;
-        this.commentTime = commentTime;
-        this.commentScore = commentScore;
+        setCommentTime(commentTime);
+        setCommentScore(commentScore);
         this.commentImg = commentImg;
     }
 
@@ -142,35 +144,71 @@ public class CommentBean {
     }
 
     /**
-     * 获取评论时间
-     * @return 评论时间
+     * 获取评论时间（格式化后的字符串，用于界面展示）
+     * @return 评论时间（yyyy-MM-dd HH:mm）
      */
     public String getCommentTime() {
-        return commentTime;
+        return Tools.formatTime(commentTimeMillis);
     }
 
     /**
-     * 设置评论时间
-     * @param commentTime 评论时间
+     * 设置评论时间（字符串形式，内部转换为时间戳毫秒保存）
+     * @param commentTime 评论时间（yyyy-MM-dd HH:mm）
      */
     public void setCommentTime(String commentTime) {
-        this.commentTime = commentTime;
+        this.commentTimeMillis = Tools.parseTime(commentTime);
     }
 
     /**
-     * 获取评论评分
+     * 获取评论时间（时间戳毫秒）
+     * @return 评论时间毫秒值
+     */
+    public long getCommentTimeMillis() {
+        return commentTimeMillis;
+    }
+
+    /**
+     * 设置评论时间（时间戳毫秒）
+     * @param commentTimeMillis 评论时间毫秒值
+     */
+    public void setCommentTimeMillis(long commentTimeMillis) {
+        this.commentTimeMillis = commentTimeMillis;
+    }
+
+    /**
+     * 获取评论评分（字符串形式，兼容原有界面代码）
      * @return 评论评分
      */
     public String getCommentScore() {
-        return commentScore;
+        return String.valueOf(commentScoreValue);
     }
 
     /**
-     * 设置评论评分
+     * 设置评论评分（字符串形式，格式错误时按0处理）
      * @param commentScore 评论评分
      */
     public void setCommentScore(String commentScore) {
-        this.commentScore = commentScore;
+        try {
+            this.commentScoreValue = commentScore == null ? 0 : Integer.parseInt(commentScore.trim());
+        } catch (NumberFormatException e) {
+            this.commentScoreValue = 0;
+        }
+    }
+
+    /**
+     * 获取评论评分
+     * @return 评论评分（int类型，1-5）
+     */
+    public int getCommentScoreValue() {
+        return commentScoreValue;
+    }
+
+    /**
+     * 设置评论评分
+     * @param commentScoreValue 评论评分（int类型，1-5）
+     */
+    public void setCommentScoreValue(int commentScoreValue) {
+        this.commentScoreValue = commentScoreValue;
     }
 
     /**
@@ -1,5 +1,7 @@
 package com.ccf.feige.orderfood.bean;
 
+import com.ccf.feige.orderfood.until.Tools;
+
 import java.io.Serializable;
 
 /**
@@ -51,10 +53,11 @@ public class FoodBean implements Serializable {
     private String foodDes;
 
     /**
-     * 菜品价格
-     * 对应数据库表d_food的food_price字段，使用String类型适配不同价格格式展示需求
+     * 菜品价格（单位：分）
+     * 对应数据库表d_food的s_food_price字段（INTEGER分），避免浮点误差，便于SQL直接求和/排序
+     * 界面展示仍通过getFoodPrice()获取以元为单位的字符串
      */
-    private String foodPrice;
+    private long foodPriceCents;
 
     /**
      * 菜品图片路径/图片名称
@@ -90,7 +93,7 @@ public class FoodBean implements Serializable {
      * @param businessId 所属商家唯一标识ID
      * @param foodName 菜品名称
      * @param foodDes 菜品描述/简介
-     * @param foodPrice 菜品价格
+     * @param foodPrice 菜品价格（单位：元）
      * @param foodImg 菜品图片路径/图片名称
      */
     public FoodBean(String foodId, String businessId, String foodName, String foodDes, String foodPrice, String foodImg) {
@@ -98,7 +101,7 @@ public class FoodBean implements Serializable {
         this.businessId = businessId;
         this.foodName = foodName;
         this.foodDes = foodDes;
-        this.foodPrice = foodPrice;
+        this.foodPriceCents = Tools.yuanToCents(foodPrice);
         this.foodImg = foodImg;
         // 默认未删除，与数据库默认值一致
         this.sIsDelete = NOT_DELETED;
@@ -112,7 +115,7 @@ public class FoodBean implements Serializable {
      * @param businessId 所属商家唯一标识ID
      * @param foodName 菜品名称
      * @param foodDes 菜品描述/简介
-     * @param foodPrice 菜品价格
+     * @param foodPrice 菜品价格（单位：元）
      * @param foodImg 菜品图片路径/图片名称
      * @param sIsDelete 逻辑删除状态（0=未删除，1=已逻辑删除）
      */
@@ -121,7 +124,7 @@ public class FoodBean implements Serializable {
         this.businessId = businessId;
         this.foodName = foodName;
         this.foodDes = foodDes;
-        this.foodPrice = foodPrice;
+        this.foodPriceCents = Tools.yuanToCents(foodPrice);
         this.foodImg = foodImg;
         this.sIsDelete = sIsDelete;
     }
@@ -192,19 +195,35 @@ public class FoodBean implements Serializable {
     }
 
     /**
-     * 获取菜品价格
-     * @return 菜品价格（String类型）
+     * 获取菜品价格（单位：元，用于界面展示）
+     * @return 菜品价格（String类型，如"19"、"19.5"）
      */
     public String getFoodPrice() {
-        return foodPrice;
+        return Tools.centsToYuan(foodPriceCents);
     }
 
     /**
-     * 设置菜品价格
-     * @param foodPrice 菜品价格（String类型）
+     * 设置菜品价格（单位：元，内部转换为分保存）
+     * @param foodPrice 菜品价格（String类型，如输入框中的"19.5"）
      */
     public void setFoodPrice(String foodPrice) {
-        this.foodPrice = foodPrice;
+        this.foodPriceCents = Tools.yuanToCents(foodPrice);
+    }
+
+    /**
+     * 获取菜品价格（单位：分）
+     * @return 菜品价格（long类型，如1950表示19.5元）
+     */
+    public long getFoodPriceCents() {
+        return foodPriceCents;
+    }
+
+    /**
+     * 设置菜品价格（单位：分）
+     * @param foodPriceCents 菜品价格（long类型，与数据库s_food_price字段一致）
+     */
+    public void setFoodPriceCents(long foodPriceCents) {
+        this.foodPriceCents = foodPriceCents;
     }
 
     /**
@@ -260,7 +279,7 @@ public class FoodBean implements Serializable {
                 ", businessId='" + businessId + '\'' +
                 ", foodName='" + foodName + '\'' +
                 ", foodDes='" + foodDes + '\'' +
-                ", foodPrice='" + foodPrice + '\'' +
+                ", foodPriceCents=" + foodPriceCents +
                 ", foodImg='" + foodImg + '\'' +
                 ", sIsDelete=" + (sIsDelete == NOT_DELETED ? "未删除" : "已逻辑删除") +
                 '}';
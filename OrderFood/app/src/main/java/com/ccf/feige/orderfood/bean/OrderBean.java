@@ -1,8 +1,8 @@
 package com.ccf.feige.orderfood.bean;
 
-import com.ccf.feige.orderfood.dao.AdminDao;
-import com.ccf.feige.orderfood.dao.OrderDao;
+import com.ccf.feige.orderfood.until.Tools;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -49,10 +49,10 @@ public class OrderBean {
     private String orderId;
 
     /**
-     * 订单创建时间
-     * 格式：一般为字符串格式的时间戳或格式化日期（如yyyy-MM-dd HH:mm:ss），记录用户提交订单的时间
+     * 订单创建时间（时间戳毫秒）
+     * 与数据库s_order_time字段（INTEGER毫秒）一致，排序/筛选直接比较数值；展示时通过getOrderTime()格式化为yyyy-MM-dd HH:mm
      */
-    private String orderTime;
+    private long orderTimeMillis;
 
     /**
      * 商家唯一标识ID
@@ -73,11 +73,11 @@ public class OrderBean {
     private String orderDetailsId;
 
     /**
-     * 订单当前状态
-     * 取值范围：对应本类中定义的订单状态常量（ORDER_STA_*系列）
-     * 说明：记录订单当前所处的生命周期节点，用于控制订单业务流转
+     * 订单当前状态码
+     * 取值范围：1-4，对应本类中定义的订单状态常量（ORDER_STA_*系列）
+     * 说明：与数据库s_order_sta字段（INTEGER）一致，记录订单当前所处的生命周期节点，用于控制订单业务流转
      */
-    private String orderStatus;
+    private int orderStatusCode;
 
     /**
      * 订单收货/服务地址
@@ -94,7 +94,7 @@ public class OrderBean {
     /**
      * 订单明细列表
      * 封装该订单对应的所有商品/服务明细数据，每个元素为一个OrderDetailBean对象
-     * 说明：一对多关联（一个订单对应多条明细），通过orderDetailsId关联查询获取
+     * 说明：一对多关联（一个订单对应多条明细），由OrderRepository按orderDetailsId批量查询后回填
      */
     private List<OrderDetailBean> orderDetailBeanList;
 
@@ -102,24 +102,21 @@ public class OrderBean {
     /**
      * 判断当前订单是否是“完成且被评论”状态（状态4）
      * <p>
-     * 核心逻辑：使用常量ORDER_STA_FINISH_COMMENTED作为调用方，调用String.equals()方法
-     * 优势：避免orderStatus为null时抛出空指针异常（NullPointerException）
+     * 核心逻辑：使用常量ORDER_STA_FINISH_COMMENTED作为调用方，与状态码转换后的字符串比对
      * @return 布尔值：true表示当前订单是“完成且被评论”状态，false表示不是该状态
      */
     public boolean isFinishAndCommented() {
-        // 避免空指针：先判断orderStatus不为null，再比对状态值
-        return ORDER_STA_FINISH_COMMENTED.equals(this.orderStatus);
+        return ORDER_STA_FINISH_COMMENTED.equals(getOrderStatus());
     }
 
     /**
      * 可选新增：判断订单是否为“已完成（未评论）”状态（状态3）
      * <p>
-     * 核心逻辑：使用常量ORDER_STA_FINISH作为调用方，调用String.equals()方法
-     * 优势：避免orderStatus为null时抛出空指针异常（NullPointerException）
+     * 核心逻辑：使用常量ORDER_STA_FINISH作为调用方，与状态码转换后的字符串比对
      * @return 布尔值：true表示当前订单是“已完成（未评论）”状态，false表示不是该状态
      */
     public boolean isFinishUnCommented() {
-        return ORDER_STA_FINISH.equals(this.orderStatus);
+        return ORDER_STA_FINISH.equals(getOrderStatus());
     }
 
     /**
@@ -132,11 +129,11 @@ public class OrderBean {
     public String toString() {
         return "OrderBean{" +
                 "orderId='" + orderId + '\'' +
-                ", orderTime='" + orderTime + '\'' +
+                ", orderTimeMillis=" + orderTimeMillis +
                 ", businessId='" + businessId + '\'' +
                 ", userId='" + userId + '\'' +
                 ", orderDetailsId='" + orderDetailsId + '\'' +
-                ", orderStatus='" + orderStatus + '\'' +
+                ", orderStatusCode=" + orderStatusCode +
                 ", orderAddress='" + orderAddress + '\'' +
                 '}';
     }
@@ -158,19 +155,35 @@ public class OrderBean {
     }
 
     /**
-     * 获取订单创建时间
-     * @return 订单创建时间字符串（orderTime）
+     * 获取订单创建时间（格式化后的字符串，用于界面展示）
+     * @return 订单创建时间字符串（yyyy-MM-dd HH:mm）
      */
     public String getOrderTime() {
-        return orderTime;
+        return Tools.formatTime(orderTimeMillis);
     }
 
     /**
-     * 设置订单创建时间
-     * @param orderTime 订单创建时间字符串
+     * 设置订单创建时间（字符串形式，内部转换为时间戳毫秒保存）
+     * @param orderTime 订单创建时间字符串（yyyy-MM-dd HH:mm）
      */
     public void setOrderTime(String orderTime) {
-        this.orderTime = orderTime;
+        this.orderTimeMillis = Tools.parseTime(orderTime);
+    }
+
+    /**
+     * 获取订单创建时间（时间戳毫秒）
+     * @return 订单创建时间毫秒值
+     */
+    public long getOrderTimeMillis() {
+        return orderTimeMillis;
+    }
+
+    /**
+     * 设置订单创建时间（时间戳毫秒）
+     * @param orderTimeMillis 订单创建时间毫秒值
+     */
+    public void setOrderTimeMillis(long orderTimeMillis) {
+        this.orderTimeMillis = orderTimeMillis;
     }
 
     /**
@@ -223,18 +236,38 @@ public class OrderBean {
 
     /**
      * 获取订单当前状态
-     * @return 订单状态字符串（orderStatus，对应本类订单状态常量）
+     * @return 订单状态字符串（对应本类订单状态常量，如"1"）
      */
     public String getOrderStatus() {
-        return orderStatus;
+        return String.valueOf(orderStatusCode);
     }
 
     /**
      * 设置订单当前状态
-     * @param orderStatus 订单状态字符串（需匹配本类订单状态常量）
+     * @param orderStatus 订单状态字符串（需匹配本类订单状态常量，格式错误时按0处理）
      */
     public void setOrderStatus(String orderStatus) {
-        this.orderStatus = orderStatus;
+        try {
+            this.orderStatusCode = orderStatus == null ? 0 : Integer.parseInt(orderStatus.trim());
+        } catch (NumberFormatException e) {
+            this.orderStatusCode = 0;
+        }
+    }
+
+    /**
+     * 获取订单当前状态码
+     * @return 订单状态码（int类型，1-4）
+     */
+    public int getOrderStatusCode() {
+        return orderStatusCode;
+    }
+
+    /**
+     * 设置订单当前状态码
+     * @param orderStatusCode 订单状态码（int类型，1-4）
+     */
+    public void setOrderStatusCode(int orderStatusCode) {
+        this.orderStatusCode = orderStatusCode;
     }
 
     /**
@@ -286,34 +319,27 @@ public class OrderBean {
     }
 
     /**
-     * 有参构造方法（兼容原有业务逻辑，无破坏性修改）
-     * 作用：通过订单核心字段初始化OrderBean对象，同时自动关联查询订单明细和用户昵称
-     * 初始化流程：
-     * 1. 给订单基础字段赋值
-     * 2. 通过orderDetailsId调用OrderDao查询订单明细列表并赋值
-     * 3. 通过userId调用AdminDao查询用户信息，非空时提取用户昵称并赋值
+     * 有参构造方法（兼容原有业务逻辑）
+     * 作用：通过订单核心字段初始化OrderBean对象，不访问数据库
+     * 说明：订单明细和用户昵称改由OrderRepository批量查询后回填（避免每行订单额外查询数据库），
+     * 此处明细列表初始化为空列表，用户昵称为null
      * @param orderId 订单唯一标识ID
-     * @param orderTime 订单创建时间
+     * @param orderTimeMillis 订单创建时间（时间戳毫秒）
      * @param businessId 商家唯一标识ID
      * @param userId 用户唯一标识ID
      * @param orderDetailsId 订单详情关联ID
-     * @param orderStatus 订单当前状态
+     * @param orderStatusCode 订单当前状态码（1-4）
      * @param orderAddress 订单收货/服务地址
      */
-    public OrderBean(String orderId, String orderTime, String businessId, String userId, String orderDetailsId, String orderStatus, String orderAddress) {
+    public OrderBean(String orderId, long orderTimeMillis, String businessId, String userId, String orderDetailsId, int orderStatusCode, String orderAddress) {
         this.orderId = orderId;
-        this.orderTime = orderTime;
+        this.orderTimeMillis = orderTimeMillis;
         this.businessId = businessId;
         this.userId = userId;
         this.orderDetailsId = orderDetailsId;
-        this.orderStatus = orderStatus;
+        this.orderStatusCode = orderStatusCode;
         this.orderAddress = orderAddress;
-        this.orderDetailBeanList = OrderDao.getAllOrderDetail(orderDetailsId);
-        // 避免空指针：先判断AdminDao返回结果不为null
-        if (AdminDao.getCommonUser(userId) != null) {
-            String uname = AdminDao.getCommonUser(userId).getsName();//用户账号昵称
-            this.userName = uname;
-        }
+        this.orderDetailBeanList = new ArrayList<>();
     }
 
     /**
@@ -1,5 +1,7 @@
 package com.ccf.feige.orderfood.bean;
 
+import com.ccf.feige.orderfood.until.Tools;
+
 /**
  * 订单详情的bean
  * 该类用于封装单个订单中某一款食品的详细信息，记录订单与食品的关联及食品自身的核心属性
@@ -31,10 +33,10 @@ public class OrderDetailBean {
     private String foodDescription;
 
     /**
-     * 食品单价
-     * 记录该食品在当前订单中的售卖单价，以字符串格式存储
+     * 食品单价（单位：分）
+     * 记录该食品在当前订单中的售卖单价，与数据库s_food_price字段（INTEGER分）一致
      */
-    private String  foodPrice;
+    private long foodPriceCents;
 
     /**
      * 重写toString方法
@@ -48,8 +50,8 @@ public class OrderDetailBean {
                 ", foodId='" + foodId + '\'' +
                 ", foodName='" + foodName + '\'' +
                 ", foodDescription='" + foodDescription + '\'' +
-                ", foodPrice='" + foodPrice + '\'' +
-                ", foodQuantity='" + foodQuantity + '\'' +
+                ", foodPriceCents=" + foodPriceCents +
+                ", foodCount=" + foodCount +
                 ", foodImage='" + foodImage + '\'' +
                 '}';
     }
@@ -119,35 +121,79 @@ public class OrderDetailBean {
     }
 
     /**
-     * 获取食品单价
+     * 获取食品单价（单位：元，用于界面展示）
      * @return 食品单价字符串
      */
     public String getFoodPrice() {
-        return foodPrice;
+        return Tools.centsToYuan(foodPriceCents);
     }
 
     /**
-     * 设置食品单价
+     * 设置食品单价（单位：元，内部转换为分保存）
      * @param foodPrice 食品单价字符串
      */
     public void setFoodPrice(String foodPrice) {
-        this.foodPrice = foodPrice;
+        this.foodPriceCents = Tools.yuanToCents(foodPrice);
     }
 
     /**
-     * 获取食品购买数量
+     * 获取食品单价（单位：分）
+     * @return 食品单价（long类型）
+     */
+    public long getFoodPriceCents() {
+        return foodPriceCents;
+    }
+
+    /**
+     * 设置食品单价（单位：分）
+     * @param foodPriceCents 食品单价（long类型）
+     */
+    public void setFoodPriceCents(long foodPriceCents) {
+        this.foodPriceCents = foodPriceCents;
+    }
+
+    /**
+     * 获取食品购买数量（字符串形式，用于界面展示）
      * @return 食品数量字符串
      */
     public String getFoodQuantity() {
-        return foodQuantity;
+        return String.valueOf(foodCount);
     }
 
     /**
-     * 设置食品购买数量
+     * 设置食品购买数量（字符串形式，格式错误时按0处理）
      * @param foodQuantity 食品数量字符串
      */
     public void setFoodQuantity(String foodQuantity) {
-        this.foodQuantity = foodQuantity;
+        try {
+            this.foodCount = foodQuantity == null ? 0 : Integer.parseInt(foodQuantity.trim());
+        } catch (NumberFormatException e) {
+            this.foodCount = 0;
+        }
+    }
+
+    /**
+     * 获取食品购买数量
+     * @return 食品数量（int类型）
+     */
+    public int getFoodCount() {
+        return foodCount;
+    }
+
+    /**
+     * 设置食品购买数量
+     * @param foodCount 食品数量（int类型）
+     */
+    public void setFoodCount(int foodCount) {
+        this.foodCount = foodCount;
+    }
+
+    /**
+     * 计算该明细的小计金额（单价×数量）
+     * @return 小计金额（单位：分）
+     */
+    public long getSubtotalCents() {
+        return foodPriceCents * foodCount;
     }
 
     /**
@@ -180,25 +226,25 @@ public class OrderDetailBean {
      * @param foodId 食品唯一标识ID
      * @param foodName 食品名称
      * @param foodDescription 食品描述信息
-     * @param foodPrice 食品单价
-     * @param foodQuantity 食品购买数量
+     * @param foodPriceCents 食品单价（单位：分）
+     * @param foodCount 食品购买数量
      * @param foodImage 食品图片关联路径/标识
      */
-    public OrderDetailBean(String detailsId, String foodId, String foodName, String foodDescription, String foodPrice, String foodQuantity, String foodImage) {
+    public OrderDetailBean(String detailsId, String foodId, String foodName, String foodDescription, long foodPriceCents, int foodCount, String foodImage) {
         this.detailsId = detailsId;
         this.foodId = foodId;
         this.foodName = foodName;
         this.foodDescription = foodDescription;
-        this.foodPrice = foodPrice;
-        this.foodQuantity = foodQuantity;
+        this.foodPriceCents = foodPriceCents;
+        this.foodCount = foodCount;
         this.foodImage = foodImage;
     }
 
     /**
      * 食品购买数量
-     * 记录当前订单详情中该食品的购买份数/数量
+     * 记录当前订单详情中该食品的购买份数/数量，与数据库s_food_num字段（INTEGER）一致
      */
-    private String foodQuantity;
+    private int foodCount;
 
     /**
      * 食品图片关联路径/标识
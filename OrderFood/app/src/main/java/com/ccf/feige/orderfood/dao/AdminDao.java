@@ -6,19 +6,30 @@ import android.database.sqlite.SQLiteDatabase;
 
 import com.ccf.feige.orderfood.bean.UserBean;
 import com.ccf.feige.orderfood.bean.UserCommonBean;
-import com.ccf.feige.orderfood.db.DBUntil;
+import com.ccf.feige.orderfood.db.DBManager;
+import com.ccf.feige.orderfood.db.QueryStats;
+import com.ccf.feige.orderfood.until.Tools;
 
 /**
  * 管理员/用户数据访问对象（DAO）
  * 负责处理商家用户和普通用户的数据库操作，包括新增、修改、查询、登录验证、逻辑删除等功能
  * 所有操作均基于SQLite数据库，采用逻辑删除（标记删除状态）而非物理删除，保障数据可追溯性
+ * 所有方法均为同步方法，通过DBManager获取数据库连接和执行写操作；界面中请通过DBManager.read()/write()调用
+ * 商家/普通用户资料按账号缓存在内存中（ProfileCache，LRU），资料、密码修改和注销时使对应账号失效
  */
 public class AdminDao {
 
+    /** 资料缓存最多保存的账号数量（商家、普通用户各一份） */
+    private static final int PROFILE_CACHE_SIZE = 128;
+
     /**
-     * 全局SQLite数据库实例，从DBUntil工具类中获取已初始化的数据库连接
+     * 商家资料缓存（key：商家账号）
+     * 说明：商品列表、订单列表每一行都会读取商家/用户资料，而一屏中通常只涉及少数几个账号，缓存后每个账号只查询一次
      */
-    public static SQLiteDatabase  db=DBUntil.con;
+    private static final ProfileCache<UserBean> BUSINESS_CACHE = new ProfileCache<>(PROFILE_CACHE_SIZE);
+
+    /** 普通用户资料缓存（key：用户账号） */
+    private static final ProfileCache<UserCommonBean> COMMON_CACHE = new ProfileCache<>(PROFILE_CACHE_SIZE);
 
     // 逻辑删除状态常量（便于维护，避免魔法值，提升代码可读性）
     /** 未注销/未删除状态标识，对应数据库表中s_is_delete字段值为0 */
@@ -44,9 +55,10 @@ public class AdminDao {
         String data[]={id,pwd, name, des,type,tx};
         try {
             // 执行SQL插入语句，新增商家记录，默认设置s_is_delete为NOT_DELETED（0），表示未注销
-            db.execSQL("INSERT INTO d_business (s_id, s_pwd, s_name, s_describe, s_type, s_img, s_is_delete) " +
+            QueryStats.execute("AdminDao.saveBusinessUser", "INSERT INTO d_business (s_id, s_pwd, s_name, s_describe, s_type, s_img, s_is_delete) " +
                             "VALUES (?, ?, ?, ?, ?, ?, ?)", // 新增s_is_delete字段，记录商家注销状态
-                    new String[]{id,pwd, name, des,type,tx, String.valueOf(NOT_DELETED)}); // 默认未删除
+                    new Object[]{id,pwd, name, des,type,tx, String.valueOf(NOT_DELETED)}); // 默认未删除
+            BUSINESS_CACHE.invalidate(id);
             return 1;
         }catch (Exception e){
             // 捕获异常并打印堆栈信息，便于排查新增失败问题
@@ -68,8 +80,10 @@ public class AdminDao {
         String data[]={name, des,type,tx,id};
         try {
             // 执行SQL更新语句，仅更新s_is_delete为NOT_DELETED（0）的未注销商家记录
-            db.execSQL("update d_business  set s_name=? ,s_describe=? ,s_type=?, s_img=? where  s_id=? and s_is_delete=?",
-                    new String[]{name, des,type,tx,id, String.valueOf(NOT_DELETED)}); // 仅更新未注销的商家
+            QueryStats.execute("AdminDao.updateBusinessUser", "update d_business  set s_name=? ,s_describe=? ,s_type=?, s_img=? where  s_id=? and s_is_delete=?",
+                    new Object[]{name, des,type,tx,id, String.valueOf(NOT_DELETED)}); // 仅更新未注销的商家
+            // 使该商家的资料缓存失效，下次读取时重新查询
+            BUSINESS_CACHE.invalidate(id);
             return 1;
         }catch (Exception e){
             // 捕获异常并打印堆栈信息，便于排查更新失败问题
@@ -88,8 +102,10 @@ public class AdminDao {
         String data[]={pwd,id};
         try {
             // 执行SQL更新语句，仅更新s_is_delete为NOT_DELETED（0）的未注销商家的密码
-            db.execSQL("update d_business  set s_pwd=?  where  s_id=? and s_is_delete=?",
-                    new String[]{pwd,id, String.valueOf(NOT_DELETED)}); // 仅更新未注销的商家
+            QueryStats.execute("AdminDao.updateBusinessUserPwd", "update d_business  set s_pwd=?  where  s_id=? and s_is_delete=?",
+                    new Object[]{pwd,id, String.valueOf(NOT_DELETED)}); // 仅更新未注销的商家
+            // 缓存的商家资料中包含密码，同样需要失效
+            BUSINESS_CACHE.invalidate(id);
             return 1;
         }catch (Exception e){
             // 捕获异常并打印堆栈信息，便于排查密码更新失败问题
@@ -108,8 +124,10 @@ public class AdminDao {
         String data[]={pwd,id};
         try {
             // 执行SQL更新语句，仅更新s_is_delete为NOT_DELETED（0）的未注销普通用户的密码
-            db.execSQL("update d_user   set s_pwd=?  where  s_id=? and s_is_delete=?",
-                    new String[]{pwd,id, String.valueOf(NOT_DELETED)}); // 仅更新未注销的用户
+            QueryStats.execute("AdminDao.updateCommentUserPwd", "update d_user   set s_pwd=?  where  s_id=? and s_is_delete=?",
+                    new Object[]{pwd,id, String.valueOf(NOT_DELETED)}); // 仅更新未注销的用户
+            // 缓存的用户资料中包含密码，同样需要失效
+            COMMON_CACHE.invalidate(id);
             return 1;
         }catch (Exception e){
             // 捕获异常并打印堆栈信息，便于排查密码更新失败问题
@@ -133,9 +151,10 @@ public class AdminDao {
         String data[]={id,pwd, name, sex,address,phone,tx};
         try {
             // 执行SQL插入语句，新增普通用户记录，默认设置s_is_delete为NOT_DELETED（0），表示未注销
-            db.execSQL("INSERT INTO d_user (s_id, s_pwd, s_name,s_sex, s_address, s_phone, s_img, s_is_delete) " +
+            QueryStats.execute("AdminDao.saveCommonUser", "INSERT INTO d_user (s_id, s_pwd, s_name,s_sex, s_address, s_phone, s_img, s_is_delete) " +
                             "VALUES (?, ?, ?, ?, ?, ?, ?, ?)", // 新增s_is_delete字段，记录用户注销状态
-                    new String[]{id,pwd, name, sex,address,phone,tx, String.valueOf(NOT_DELETED)}); // 默认未删除
+                    new Object[]{id,pwd, name, sex,address,phone,tx, String.valueOf(NOT_DELETED)}); // 默认未删除
+            COMMON_CACHE.invalidate(id);
             return 1;
         }catch (Exception e){
             // 捕获异常并打印堆栈信息，便于排查新增失败问题
@@ -156,18 +175,48 @@ public class AdminDao {
      */
     public static int updateCommonUser(String id,String name,String sex,String address,String phone,String tx){
         String data[]={name, sex,address,phone,tx,id};
+        // 获取数据库连接，未初始化时返回默认值
+        SQLiteDatabase db = DBManager.getDatabase();
+        if (db == null) {
+            return 0;
+        }
+        // 开启事务：用户信息与订单全文索引中的昵称同时更新
+        db.beginTransaction();
         try {
             // 执行SQL更新语句，仅更新s_is_delete为NOT_DELETED（0）的未注销普通用户记录
-            db.execSQL("update  d_user set s_name=?,s_sex=?, s_address=?, s_phone=?, s_img=? where s_id=? and s_is_delete=?",
-                    new String[]{name, sex,address,phone,tx,id, String.valueOf(NOT_DELETED)}); // 仅更新未注销的用户
+            int rows = QueryStats.execute("AdminDao.updateCommonUser", "update  d_user set s_name=?,s_sex=?, s_address=?, s_phone=?, s_img=? where s_id=? and s_is_delete=?",
+                    new Object[]{name, sex,address,phone,tx,id, String.valueOf(NOT_DELETED)}); // 仅更新未注销的用户
+            if (rows > 0) {
+                // 同步更新该用户所有订单的搜索索引昵称（按新昵称可以搜到历史订单）
+                updateOrderSearchUserName(id, name);
+            }
+            db.setTransactionSuccessful();
             return 1;
         }catch (Exception e){
             // 捕获异常并打印堆栈信息，便于排查更新失败问题
             e.printStackTrace();
             return 0;
+        }finally {
+            // 结束事务（未标记成功时自动回滚）
+            DBManager.endTransaction(db);
+            // 事务结束后再使该用户的资料缓存失效（避免其他线程在提交前读到旧资料并重新缓存）
+            COMMON_CACHE.invalidate(id);
         }
     }
 
+    /**
+     * 更新订单全文索引d_orders_fts（及已归档订单的d_orders_archive_fts）中该用户所有订单的昵称列（需在同一事务中调用）
+     * @param userId 普通用户账号（s_id）
+     * @param name 新昵称，注销时传null（已注销用户的订单不再能按昵称搜到）
+     */
+    private static void updateOrderSearchUserName(String userId, String name) {
+        String tokens = Tools.toSearchTokens(name);
+        QueryStats.execute("AdminDao.updateOrderSearchUserName", "UPDATE d_orders_fts SET s_user_name=? WHERE docid IN (SELECT rowid FROM d_orders WHERE s_user_id=?)",
+                tokens, userId);
+        QueryStats.execute("AdminDao.updateOrderSearchUserName.archive", "UPDATE d_orders_archive_fts SET s_user_name=? WHERE docid IN (SELECT rowid FROM d_orders_archive WHERE s_user_id=?)",
+                tokens, userId);
+    }
+
     /**
      * 商家账号登录验证（过滤已注销商家）
      * @param account 商家登录账号（对应s_id字段）
@@ -177,7 +226,12 @@ public class AdminDao {
     public static int loginBusiness(String account,String pwd){
         String data[]={account,pwd, String.valueOf(NOT_DELETED)};
         String sql="select * from d_business where s_id=? and s_pwd=? and s_is_delete=?"; // 新增s_is_delete=0条件，过滤已注销商家
-        Cursor result = db.rawQuery(sql,data);
+        // 获取数据库连接，未初始化时返回默认值
+        SQLiteDatabase db = DBManager.getDatabase();
+        if (db == null) {
+            return 0;
+        }
+        Cursor result = QueryStats.query(db, "AdminDao.loginBusiness", sql,data);
         try {
             // 遍历游标结果集，若存在匹配记录则表示登录成功
             while(result.moveToNext()){
@@ -201,7 +255,12 @@ public class AdminDao {
     public static int loginUser(String account,String pwd){
         String data[]={account,pwd, String.valueOf(NOT_DELETED)};
         String sql="select * from d_user where s_id=? and s_pwd=? and s_is_delete=?"; // 新增s_is_delete=0条件，过滤已注销用户
-        Cursor result = db.rawQuery(sql,data);
+        // 获取数据库连接，未初始化时返回默认值
+        SQLiteDatabase db = DBManager.getDatabase();
+        if (db == null) {
+            return 0;
+        }
+        Cursor result = QueryStats.query(db, "AdminDao.loginUser", sql,data);
         try {
             // 遍历游标结果集，若存在匹配记录则表示登录成功
             while(result.moveToNext()){
@@ -218,14 +277,29 @@ public class AdminDao {
 
     /**
      * 根据商家账号获取商家完整信息（过滤已注销商家）
+     * 说明：优先读取资料缓存，未命中时查询数据库并写入缓存
      * @param account 商家账号（对应s_id字段）
      * @return 封装了商家完整信息的UserBean对象，null表示商家不存在/已注销/查询失败
      */
-    @SuppressLint("Range")
     public static UserBean getBusinessUser(String account){
+        return BUSINESS_CACHE.get(account, AdminDao::queryBusinessUser);
+    }
+
+    /**
+     * 从数据库查询商家完整信息（资料缓存未命中时调用）
+     * @param account 商家账号（对应s_id字段）
+     * @return 封装了商家完整信息的UserBean对象，null表示商家不存在/已注销/查询失败
+     */
+    @SuppressLint("Range")
+    private static UserBean queryBusinessUser(String account){
         String data[]={account, String.valueOf(NOT_DELETED)};
         String sql="select * from d_business where s_id=? and s_is_delete=?"; // 新增s_is_delete=0条件，过滤已注销商家
-        Cursor result = db.rawQuery(sql,data);
+        // 获取数据库连接，未初始化时返回默认值
+        SQLiteDatabase db = DBManager.getDatabase();
+        if (db == null) {
+            return null;
+        }
+        Cursor result = QueryStats.query(db, "AdminDao.queryBusinessUser", sql,data);
         try {
             // 遍历游标结果集，将查询到的商家记录封装为UserBean对象
             while(result.moveToNext()){
@@ -249,14 +323,29 @@ public class AdminDao {
 
     /**
      * 根据普通用户账号获取用户完整信息（过滤已注销用户）
+     * 说明：优先读取资料缓存，未命中时查询数据库并写入缓存
      * @param account 普通用户账号（对应s_id字段）
      * @return 封装了普通用户完整信息的UserCommonBean对象，null表示用户不存在/已注销/查询失败
      */
-    @SuppressLint("Range")
     public static UserCommonBean getCommonUser(String account){
+        return COMMON_CACHE.get(account, AdminDao::queryCommonUser);
+    }
+
+    /**
+     * 从数据库查询普通用户完整信息（资料缓存未命中时调用）
+     * @param account 普通用户账号（对应s_id字段）
+     * @return 封装了普通用户完整信息的UserCommonBean对象，null表示用户不存在/已注销/查询失败
+     */
+    @SuppressLint("Range")
+    private static UserCommonBean queryCommonUser(String account){
         String data[]={account, String.valueOf(NOT_DELETED)};
         String sql="select * from d_user where s_id=? and s_is_delete=?"; // 新增s_is_delete=0条件，过滤已注销用户
-        Cursor result = db.rawQuery(sql,data);
+        // 获取数据库连接，未初始化时返回默认值
+        SQLiteDatabase db = DBManager.getDatabase();
+        if (db == null) {
+            return null;
+        }
+        Cursor result = QueryStats.query(db, "AdminDao.queryCommonUser", sql,data);
         try {
             // 遍历游标结果集，将查询到的普通用户记录封装为UserCommonBean对象
             while(result.moveToNext()){
@@ -279,6 +368,22 @@ public class AdminDao {
         return null;
     }
 
+    /**
+     * 获取商家资料缓存（可读取命中/未命中次数）
+     * @return 商家资料缓存
+     */
+    public static ProfileCache<UserBean> getBusinessProfileCache() {
+        return BUSINESS_CACHE;
+    }
+
+    /**
+     * 获取普通用户资料缓存（可读取命中/未命中次数）
+     * @return 普通用户资料缓存
+     */
+    public static ProfileCache<UserCommonBean> getCommonProfileCache() {
+        return COMMON_CACHE;
+    }
+
     /**
      * 根据商家账号获取商家登录密码（过滤已注销商家）
      * @param account 商家账号（s_id）
@@ -292,7 +397,12 @@ public class AdminDao {
         }
         String[] data = {account, String.valueOf(NOT_DELETED)};
         String sql = "select s_pwd from d_business where s_id=? and s_is_delete=?"; // 新增s_is_delete=0条件，过滤已注销商家
-        Cursor result = db.rawQuery(sql, data);
+        // 获取数据库连接，未初始化时返回默认值
+        SQLiteDatabase db = DBManager.getDatabase();
+        if (db == null) {
+            return null;
+        }
+        Cursor result = QueryStats.query(db, "AdminDao.getBusinessUserPwd", sql, data);
         try {
             // 遍历游标结果集，获取商家密码
             while (result.moveToNext()) {
@@ -321,7 +431,12 @@ public class AdminDao {
         }
         String[] data = {account, String.valueOf(NOT_DELETED)};
         String sql = "select s_pwd from d_user where s_id=? and s_is_delete=?"; // 新增s_is_delete=0条件，过滤已注销用户
-        Cursor result = db.rawQuery(sql, data);
+        // 获取数据库连接，未初始化时返回默认值
+        SQLiteDatabase db = DBManager.getDatabase();
+        if (db == null) {
+            return null;
+        }
+        Cursor result = QueryStats.query(db, "AdminDao.getCommonUserPwd", sql, data);
         try {
             // 遍历游标结果集，获取普通用户密码
             while (result.moveToNext()) {
@@ -353,7 +468,9 @@ public class AdminDao {
         String[] data = {DELETED_USER_NAME, String.valueOf(IS_DELETED), account};
         try {
             // 同步更新s_name和s_is_delete字段，保证原子操作（要么都更新成功，要么都失败）
-            db.execSQL("UPDATE d_business SET s_name=?, s_is_delete=? WHERE s_id=?", data);
+            QueryStats.execute("AdminDao.deleteBusinessUser", "UPDATE d_business SET s_name=?, s_is_delete=? WHERE s_id=?", (Object[]) data);
+            // 已注销的商家不再能查到资料，移除缓存
+            BUSINESS_CACHE.invalidate(account);
             return true;
         } catch (Exception e) {
             // 捕获异常并打印堆栈信息，便于排查注销失败问题
@@ -376,14 +493,29 @@ public class AdminDao {
         }
         // 调整参数：1. 注销后昵称 2. 逻辑删除标记 3. 普通用户账号
         String[] data = {DELETED_USER_NAME, String.valueOf(IS_DELETED), account};
+        // 获取数据库连接，未初始化时返回默认值
+        SQLiteDatabase db = DBManager.getDatabase();
+        if (db == null) {
+            return false;
+        }
+        // 开启事务：注销标记与订单全文索引中的昵称同时更新
+        db.beginTransaction();
         try {
             // 同步更新s_name和s_is_delete字段，保证原子操作（要么都更新成功，要么都失败）
-            db.execSQL("UPDATE d_user SET s_name=?, s_is_delete=? WHERE s_id=?", data);
+            QueryStats.execute("AdminDao.deleteCommonUser", "UPDATE d_user SET s_name=?, s_is_delete=? WHERE s_id=?", (Object[]) data);
+            // 清空该用户订单的搜索索引昵称（订单列表中已注销用户不显示昵称，搜索结果保持一致）
+            updateOrderSearchUserName(account, null);
+            db.setTransactionSuccessful();
             return true;
         } catch (Exception e) {
             // 捕获异常并打印堆栈信息，便于排查注销失败问题
             e.printStackTrace();
             return false;
+        } finally {
+            // 结束事务（未标记成功时自动回滚）
+            DBManager.endTransaction(db);
+            // 已注销的用户不再能查到资料，事务结束后移除缓存
+            COMMON_CACHE.invalidate(account);
         }
     }
 
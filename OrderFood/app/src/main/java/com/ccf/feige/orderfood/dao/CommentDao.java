@@ -2,28 +2,36 @@ package com.ccf.feige.orderfood.dao;
 
 import android.annotation.SuppressLint;
 import android.database.Cursor;
+import android.database.SQLException;
 import android.database.sqlite.SQLiteDatabase;
 
 import com.ccf.feige.orderfood.bean.CommentBean;
 import com.ccf.feige.orderfood.bean.FoodBean;
-import com.ccf.feige.orderfood.db.DBUntil;
+import com.ccf.feige.orderfood.db.DBManager;
+import com.ccf.feige.orderfood.db.DBQueries;
+import com.ccf.feige.orderfood.db.QueryStats;
 import com.ccf.feige.orderfood.until.Tools;
 
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.List;
 import java.util.UUID;
 
 /**
  * 评论数据访问对象（DAO）
  * 负责处理与评论相关的数据库操作，包括查询评论、获取商家平均评分、插入新评论
+ * 商家平均评分读取评分汇总表d_business_rating并缓存在内存中，新增评论时同步累加汇总表
+ * 通过DBManager获取数据库连接和执行写操作；界面中请通过DBManager.read()/write()调用
  */
 public class CommentDao {
+    /** 平均评分缓存最多保存的商家数量 */
+    private static final int AVG_SCORE_CACHE_SIZE = 128;
+
     /**
-     * 全局SQLite数据库连接对象，从DBUntil工具类中获取已初始化的数据库连接
+     * 商家平均评分内存缓存（key：商家ID，value：平均评分字符串）
+     * 说明：评分列表滚动时会反复读取同一商家的评分，缓存后只在首次读取时查询数据库；新增评论时失效对应商家。
+     * 与资料缓存一样使用ProfileCache：查询期间有评论写入时不把旧的平均分放回缓存，切换数据库连接后自动清空
      */
-    public static SQLiteDatabase db= DBUntil.con;
+    private static final ProfileCache<String> AVG_SCORE_CACHE = new ProfileCache<>(AVG_SCORE_CACHE_SIZE);
 
     /**
      * 根据商家ID查询该商家下的所有评论列表
@@ -35,8 +43,13 @@ public class CommentDao {
         List<CommentBean> list=new ArrayList<>();
         // 封装SQL查询的参数，避免SQL注入风险
         String data[]={id};
+        // 获取数据库连接，未初始化时返回空列表
+        SQLiteDatabase db = DBManager.getDatabase();
+        if (db == null) {
+            return list;
+        }
         // 执行原生SQL查询，查询d_comments表中指定商家ID的所有评论记录
-        Cursor cursor=db.rawQuery("select * from d_comments where s_comment_business_id=?",data);
+        Cursor cursor=QueryStats.query(db, "CommentDao.getCommetByBusinessId", "select * from d_comments where s_comment_business_id=?",data);
         // 遍历查询结果游标，逐个解析每条评论记录
         while (cursor.moveToNext()){
             // 初始化单个评论对象
@@ -58,12 +71,12 @@ public class CommentDao {
             commentBean.setCommentContent(con);
 
             // 从游标中获取评论时间，并设置到CommentBean对象中
-            String tim=Tools.getResultString(cursor,"s_comment_time");
-            commentBean.setCommentTime( tim);
+            long tim=Tools.getResultLong(cursor,"s_comment_time");
+            commentBean.setCommentTimeMillis(tim);
 
             // 从游标中获取评论评分，并设置到CommentBean对象中
-            String score=Tools.getResultString(cursor,"s_comment_score");
-            commentBean.setCommentScore(score);
+            int score=Tools.getResultInt(cursor,"s_comment_score");
+            commentBean.setCommentScoreValue(score);
 
             // 从游标中获取评论图片路径，并设置到CommentBean对象中
             String img=Tools.getResultString(cursor,"s_comment_img");
@@ -72,6 +85,8 @@ public class CommentDao {
             // 将解析完成的单个评论对象添加到评论列表中
             list.add(commentBean);
         }
+        // 关闭游标，释放数据库资源
+        cursor.close();
 
         // 返回查询到的评论列表
         return list;
@@ -80,41 +95,66 @@ public class CommentDao {
 
     /**
      * 获取指定商家的平均评分
+     * 说明：优先读取内存缓存；未命中时按主键查询商家评分汇总表d_business_rating（评分总和/评论条数），
+     * 不再对评论表执行avg()，列表滚动时同一商家只查询一次
      * @param account 商家唯一标识（对应数据库表中的s_comment_business_id字段，此处参数名account与商家ID对应）
      * @return 商家的平均评分字符串，若无评论则返回"0"
      */
     public static String getAvgScoreBusiness(String account){
-        // 封装SQL查询的参数，指定要查询的商家
-        String data[]={account};
-
-        // 构建SQL查询语句，使用avg()函数计算s_comment_score字段的平均值，并给结果起别名score
-        String sql="SELECT avg(s_comment_score) as score FROM d_comments where  s_comment_business_id=?";
-        // 执行原生SQL查询，获取平均评分结果
-        Cursor rs = db.rawQuery(sql, data);
-        // 判断游标是否有查询结果（即是否存在该商家的评论）
-        if(rs.moveToNext()){
-            // 从游标中获取平均评分结果
-            String jg = Tools.getResultString(rs, "score");
-            // 若平均评分结果为null（无评论时avg()函数返回null），返回"0"
-            if(jg==null){
-                return "0";
-            }else{
-                // 若有评分结果，返回该平均评分字符串
-                return jg;
-            }
+        if (account == null) {
+            return "0";
         }
-        // 若游标无结果（无评论），返回"0"
-        return "0";
+        // 命中内存缓存直接返回，未命中时查询评分汇总表（查询失败时不缓存）
+        String avg = AVG_SCORE_CACHE.get(account, CommentDao::queryAvgScoreBusiness);
+        return avg != null ? avg : "0";
+    }
 
+    /**
+     * 从评分汇总表查询商家平均评分（平均分缓存未命中时调用）
+     * @param account 商家ID
+     * @return 平均评分字符串（无评论时为"0"），数据库未初始化或查询失败时返回null
+     */
+    private static String queryAvgScoreBusiness(String account){
+        // 获取数据库连接，未初始化时返回null（不缓存）
+        SQLiteDatabase db = DBManager.getDatabase();
+        if (db == null) {
+            return null;
+        }
+        // 按主键查询评分汇总，计算平均分
+        String avg = "0";
+        Cursor rs = null;
+        try {
+            rs = QueryStats.query(db, "CommentDao.getAvgScoreBusiness", DBQueries.SELECT_BUSINESS_RATING,
+                    new String[]{account});
+            if (rs.moveToFirst()) {
+                long sum = Tools.getResultLong(rs, "s_score_sum");
+                int count = Tools.getResultInt(rs, "s_score_count");
+                // 无评论时返回"0"，与原avg()结果为null时的处理保持一致
+                if (count > 0) {
+                    avg = String.valueOf((double) sum / count);
+                }
+            }
+        } catch (SQLException e) {
+            // 捕获数据库查询异常，打印异常堆栈便于调试（不缓存失败结果）
+            e.printStackTrace();
+            return null;
+        } finally {
+            // 关闭游标释放资源
+            if (rs != null) {
+                rs.close();
+            }
+        }
+        return avg;
     }
 
 
     /**
      * 插入一条新的用户评论到数据库中
+     * 说明：评论插入与商家评分汇总表（d_business_rating）的累加在同一事务中完成，成功后使该商家的平均分缓存失效
      * @param account 评论用户的账号/唯一标识（对应s_comment_user_id字段）
      * @param businessId 被评论商家的唯一标识（对应s_comment_business_id字段）
      * @param con 评论的具体内容（对应s_comment_con字段）
-     * @param score 评论的评分（对应s_comment_score字段）
+     * @param score 评论的评分（对应s_comment_score字段，1-5的整数字符串）
      * @param img 评论附带图片的路径（对应s_comment_img字段，若无图片则传入空字符串）
      * @return 插入操作结果：1表示插入成功，0表示插入失败（捕获到异常）
      */
@@ -122,24 +162,41 @@ public class CommentDao {
         // 生成唯一的评论ID（去除UUID中的横杠），作为评论的主键
         String id= UUID.randomUUID().toString().replace("-","");
 
-        // 获取当前系统时间，并格式化为"yyyy-MM-dd HH:mm"格式的字符串，作为评论时间
-        Date date1=new Date();
-        SimpleDateFormat sdf1=new SimpleDateFormat("yyyy-MM-dd HH:mm");
-        String time=sdf1.format(date1);
+        // 获取当前系统时间戳（毫秒）作为评论时间，与s_comment_time字段（INTEGER）一致
+        long time=System.currentTimeMillis();
 
+        // 获取数据库连接，未初始化时返回默认值
+        SQLiteDatabase db = DBManager.getDatabase();
+        if (db == null) {
+            return 0;
+        }
+        // 开启事务：评论与评分汇总同时成功或同时回滚
+        db.beginTransaction();
         try{
+            int scoreValue = Integer.parseInt(score.trim());
             // 执行原生SQL插入语句，将评论数据插入到d_comments表中
-            db.execSQL("INSERT INTO d_comments (s_comment_id,s_comment_user_id, s_comment_business_id" +
+            QueryStats.execute("CommentDao.insertComment", "INSERT INTO d_comments (s_comment_id,s_comment_user_id, s_comment_business_id" +
                             ",s_comment_con, s_comment_time,s_comment_score,s_comment_img) " +
                             "VALUES (?, ?, ?,?, ?, ?, ?)",
-                    new Object[]{id, account, businessId, con, time,score,img});
-            // 插入成功，返回1
-            return 1;
+                    id, account, businessId, con, time, scoreValue, img);
+            // 累加商家评分汇总（不存在则新建一行）
+            QueryStats.execute("CommentDao.insertComment.rating", "INSERT INTO d_business_rating (s_business_id, s_score_sum, s_score_count) VALUES (?, ?, 1) " +
+                            "ON CONFLICT(s_business_id) DO UPDATE SET s_score_sum = s_score_sum + excluded.s_score_sum, " +
+                            "s_score_count = s_score_count + 1",
+                    businessId, scoreValue);
+            db.setTransactionSuccessful();
         }catch (Exception e){
             // 捕获插入过程中的异常（如数据库连接异常、字段不匹配等），返回0
             return 0;
+        }finally {
+            // 结束事务（未标记成功时自动回滚）
+            DBManager.endTransaction(db);
         }
+        // 插入成功后使该商家的平均分缓存失效，下次读取时重新查询汇总表
+        AVG_SCORE_CACHE.invalidate(businessId);
+        // 插入成功，返回1
+        return 1;
 
     }
 
-}
\ No newline at end of file
+}
@@ -5,7 +5,11 @@ import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
 
 import com.ccf.feige.orderfood.bean.FoodBean;
-import com.ccf.feige.orderfood.db.DBUntil;
+import com.ccf.feige.orderfood.bean.OrderDetailBean;
+import com.ccf.feige.orderfood.db.DBManager;
+import com.ccf.feige.orderfood.db.DBQueries;
+import com.ccf.feige.orderfood.db.QueryStats;
+import com.ccf.feige.orderfood.until.Tools;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -16,11 +20,12 @@ import java.util.UUID;
  * 说明：该类所有数据库操作均采用「逻辑删除」方案，不物理删除数据库中的记录，
  * 而是通过标记字段`s_is_delete`区分数据有效性；同时查询操作会联动商家表（d_business），
  * 过滤掉「菜品已删除」或「商家已注销」的无效数据，保证返回结果的有效性。
+ * 数据库连接通过DBManager获取，写操作通过QueryStats.execute()（内部调用DBManager.execute()）复用预编译语句并统计耗时；界面中请通过DBManager.read()/write()调用。
+ * 菜品搜索走全文索引d_food_fts（见DBUntil.createFoodSearchTable），新增/修改菜品时在同一事务中同步更新索引。
+ * 菜品的每个版本（名称/描述/单价/图片）在快照表d_food_snapshot中保存一行（见DBUntil.migrateToFoodSnapshots），
+ * 新增/修改菜品时在同一事务中写入新版本，订单明细通过getOrCreateSnapshot()引用下单时的版本。
  */
 public class FoodDao {
-    // 全局SQLite数据库实例，从DBUntil工具类中获取已初始化的数据库连接
-    public static SQLiteDatabase db= DBUntil.con;
-
     // 逻辑删除状态常量（与AdminDao保持一致，保证全局状态定义统一）
     private static final int NOT_DELETED = 0; // 未删除/商家未注销：表示数据有效，可参与正常业务查询
     private static final int IS_DELETED = 1; // 已删除/商家已注销：表示数据无效，不参与正常业务查询
@@ -44,8 +49,13 @@ public class FoodDao {
         // 绑定查询参数，与SQL中的占位符?一一对应（顺序不可颠倒）
         String[] data = {String.valueOf(NOT_DELETED), String.valueOf(NOT_DELETED)};
 
+        // 获取数据库连接，未初始化时返回默认值
+        SQLiteDatabase db = DBManager.getDatabase();
+        if (db == null) {
+            return list;
+        }
         // 执行原生SQL查询，返回游标（Cursor）用于遍历查询结果
-        Cursor cursor=db.rawQuery(sql, data);
+        Cursor cursor=QueryStats.query(db, "FoodDao.getAllFoodList", sql, data);
 
         try {
             // 循环遍历游标，将每一条有效记录解析为FoodBean对象并加入列表
@@ -83,8 +93,13 @@ public class FoodDao {
         // 初始化菜品列表
         List<FoodBean> list=new ArrayList<>();
 
+        // 获取数据库连接，未初始化时返回默认值
+        SQLiteDatabase db = DBManager.getDatabase();
+        if (db == null) {
+            return list;
+        }
         // 执行查询并获取游标
-        Cursor cursor=db.rawQuery(sql,data);
+        Cursor cursor=QueryStats.query(db, "FoodDao.getAllFoodListByFoodId", sql,data);
 
         try {
             // 遍历游标解析数据
@@ -120,8 +135,13 @@ public class FoodDao {
         // 初始化菜品列表
         List<FoodBean> list=new ArrayList<>();
 
+        // 获取数据库连接，未初始化时返回默认值
+        SQLiteDatabase db = DBManager.getDatabase();
+        if (db == null) {
+            return list;
+        }
         // 执行查询并获取游标
-        Cursor cursor=db.rawQuery(sql,data);
+        Cursor cursor=QueryStats.query(db, "FoodDao.getAllFoodListByBusinessId", sql,data);
 
         try {
             // 遍历游标解析数据
@@ -140,29 +160,40 @@ public class FoodDao {
     }
 
     /**
-     * 根据商家ID和菜品名称模糊查询有效菜品（菜品未删除 + 商家未注销）
-     * 业务说明：商家端专属查询，支持按菜品名称关键词模糊搜索，精准定位本商家下的目标菜品
+     * 根据商家ID和关键词搜索有效菜品（菜品未删除 + 商家未注销）
+     * 业务说明：商家端专属查询，按关键词搜索本商家下名称或描述中包含该关键词的菜品
+     * 实现说明：通过全文索引d_food_fts匹配（中文按短语匹配，字母/数字按前缀匹配），
+     * 不再对菜品表做LIKE '%关键词%'全表扫描，菜品数量增长时搜索耗时基本不变
      * @param businessIdZ 商家ID（入参命名businessIdZ为历史兼容，实际为s_business_id的值）
-     * @param title 菜品名称关键词（支持任意字符，查询时自动拼接%实现模糊匹配）
+     * @param title 搜索关键词（为空或不含文字/字母/数字时返回该商家全部菜品）
      * @return 匹配条件的有效菜品列表，无匹配数据时返回空列表
      */
     public static List<FoodBean> getAllFoodList(String businessIdZ,String title){
-        // 拼接模糊查询关键词：% + 输入关键词 + %，实现包含匹配（前后任意字符）
-        String titleL="%"+title+"%";
+        // 把关键词转换为全文索引的MATCH表达式，没有可检索的字符时返回该商家全部菜品（与原LIKE '%%'行为一致）
+        String match = Tools.toFtsMatchQuery(title);
+        if (match == null) {
+            return getAllFoodListByBusinessId(businessIdZ);
+        }
 
-        // 绑定查询参数：商家ID + 模糊匹配关键词 + 菜品未删除 + 商家未注销
-        String data[]= {businessIdZ, titleL, String.valueOf(NOT_DELETED), String.valueOf(NOT_DELETED)};
+        // 绑定查询参数：MATCH表达式 + 商家ID + 菜品未删除 + 商家未注销
+        String data[]= {match, businessIdZ, String.valueOf(NOT_DELETED), String.valueOf(NOT_DELETED)};
 
-        // 联表查询SQL：匹配商家ID + 菜品名称模糊查询，同时过滤有效数据
-        String sql = "SELECT f.* FROM d_food f " +
+        // 联表查询SQL：全文索引匹配关键词（索引docid即菜品表rowid） + 匹配商家ID，同时过滤有效数据
+        String sql = "SELECT f.* FROM d_food_fts t " +
+                "JOIN d_food f ON f.rowid = t.docid " +
                 "LEFT JOIN d_business b ON f.s_business_id = b.s_id " +
-                "WHERE f.s_business_id=? AND f.s_food_name like ? AND f.s_is_delete=? AND b.s_is_delete=?";
+                "WHERE d_food_fts MATCH ? AND f.s_business_id=? AND f.s_is_delete=? AND b.s_is_delete=?";
 
         // 初始化菜品列表
         List<FoodBean> list=new ArrayList<>();
 
+        // 获取数据库连接，未初始化时返回默认值
+        SQLiteDatabase db = DBManager.getDatabase();
+        if (db == null) {
+            return list;
+        }
         // 执行查询并获取游标
-        Cursor cursor=db.rawQuery(sql,data);
+        Cursor cursor=QueryStats.query(db, "FoodDao.getAllFoodList.search", sql,data);
 
         try {
             // 遍历游标解析数据
@@ -181,28 +212,38 @@ public class FoodDao {
     }
 
     /**
-     * 根据菜品名称模糊查询有效菜品（菜品未删除 + 商家未注销）
-     * 业务说明：用户端专属查询，不限制商家，全网搜索包含关键词的有效菜品，适用于用户菜品搜索
-     * @param title 菜品名称关键词（支持任意字符，查询时自动拼接%实现模糊匹配）
+     * 根据关键词搜索有效菜品（菜品未删除 + 商家未注销）
+     * 业务说明：用户端专属查询，不限制商家，全网搜索名称或描述中包含关键词的有效菜品，适用于用户菜品搜索
+     * 实现说明：通过全文索引d_food_fts匹配，规则同getAllFoodList(String, String)
+     * @param title 搜索关键词（为空或不含文字/字母/数字时返回全部有效菜品）
      * @return 匹配条件的有效菜品列表，无匹配数据时返回空列表
      */
     public static List<FoodBean> getAllFoodListUser(String title){
-        // 拼接模糊查询关键词：% + 输入关键词 + %，实现包含匹配
-        String titleL="%"+title+"%";
+        // 把关键词转换为全文索引的MATCH表达式，没有可检索的字符时返回全部有效菜品
+        String match = Tools.toFtsMatchQuery(title);
+        if (match == null) {
+            return getAllFoodList();
+        }
 
-        // 绑定查询参数：模糊匹配关键词 + 菜品未删除 + 商家未注销
-        String data[]= {titleL, String.valueOf(NOT_DELETED), String.valueOf(NOT_DELETED)};
+        // 绑定查询参数：MATCH表达式 + 菜品未删除 + 商家未注销
+        String data[]= {match, String.valueOf(NOT_DELETED), String.valueOf(NOT_DELETED)};
 
-        // 联表查询SQL：菜品名称模糊查询，同时过滤有效数据（不限制商家）
-        String sql = "SELECT f.* FROM d_food f " +
+        // 联表查询SQL：全文索引匹配关键词，同时过滤有效数据（不限制商家）
+        String sql = "SELECT f.* FROM d_food_fts t " +
+                "JOIN d_food f ON f.rowid = t.docid " +
                 "LEFT JOIN d_business b ON f.s_business_id = b.s_id " +
-                "WHERE f.s_food_name like ? AND f.s_is_delete=? AND b.s_is_delete=?";
+                "WHERE d_food_fts MATCH ? AND f.s_is_delete=? AND b.s_is_delete=?";
 
         // 初始化菜品列表
         List<FoodBean> list=new ArrayList<>();
 
+        // 获取数据库连接，未初始化时返回默认值
+        SQLiteDatabase db = DBManager.getDatabase();
+        if (db == null) {
+            return list;
+        }
         // 执行查询并获取游标
-        Cursor cursor=db.rawQuery(sql,data);
+        Cursor cursor=QueryStats.query(db, "FoodDao.getAllFoodListUser", sql,data);
 
         try {
             // 遍历游标解析数据
@@ -235,8 +276,13 @@ public class FoodDao {
                 "LEFT JOIN d_business b ON f.s_business_id = b.s_id " +
                 "WHERE f.s_food_id=? AND f.s_is_delete=? AND b.s_is_delete=?";
 
+        // 获取数据库连接，未初始化时返回默认值
+        SQLiteDatabase db = DBManager.getDatabase();
+        if (db == null) {
+            return null;
+        }
         // 执行查询并获取游标
-        Cursor cursor=db.rawQuery(sql, data);
+        Cursor cursor=QueryStats.query(db, "FoodDao.getAllFoodById", sql, data);
 
         try {
             // 游标移动到第一条记录（因菜品ID为主键，最多只有一条匹配记录）
@@ -255,51 +301,66 @@ public class FoodDao {
         return null;
     }
 
+    /**
+     * 补全待下单订单详情中的菜品信息（名称、描述、单价、图片），在DBManager读线程中执行（结算弹窗使用）
+     * 说明：单价同样按菜品当前价格覆盖购物车中的单价，弹窗展示的明细、总金额和下单时写入的菜品快照都以此为准；
+     * 调用方需用返回的列表更新购物车（CartBean.updatePrices），使购买页面的总金额与弹窗一致
+     * @param items 购物车生成的订单详情（商品ID、单价和购买数量）
+     * @return 补全后的订单详情列表（菜品已删除或所属商家已注销时跳过该菜品）
+     */
+    public static List<OrderDetailBean> fillOrderDetails(List<OrderDetailBean> items) {
+        List<OrderDetailBean> list = new ArrayList<>();
+        for (OrderDetailBean orderDetailBean : items) {
+            FoodBean food = getAllFoodById(orderDetailBean.getFoodId());
+            if (food == null) {
+                continue;
+            }
+            orderDetailBean.setFoodPriceCents(food.getFoodPriceCents());
+            orderDetailBean.setFoodImage(food.getFoodImg());
+            orderDetailBean.setFoodName(food.getFoodName());
+            orderDetailBean.setFoodDescription(food.getFoodDes());
+            list.add(orderDetailBean);
+        }
+        return list;
+    }
+
     /**
      * 获取当前月的销售数量（仅统计有效菜品）
-     * 业务说明：统计指定菜品在当前自然月的总销量，仅统计已完成订单（订单状态s_order_sta='3'）中的销量
+     * 业务说明：统计指定菜品在当前自然月的总销量，仅统计已完成订单（订单状态3、4）中的销量
+     * 实现说明：直接读取由OrderDao.updateOrderStatus增量维护的月销量汇总表d_food_sales_monthly，
+     * 按主键(s_food_id, s_yyyymm)查询一次，并关联菜品表、商家表过滤已删除菜品/已注销商家
      * @param foodId 菜品ID（s_food_id的值）
      * @return 当月销售数量（int），无效菜品/无销售记录时返回0
      */
-    @SuppressLint("Range")
     public static int getMouSalesNum(String foodId){
-        // 前置校验：先判断菜品是否有效（未删除 + 商家未注销），无效则直接返回0
-        FoodBean validFood = getAllFoodById(foodId);
-        if (validFood == null) {
-            return 0; // 无效菜品，销售数量为0
+        // 参数校验：菜品ID为空直接返回0
+        if (foodId == null || foodId.trim().isEmpty()) {
+            return 0;
         }
-
-        // 查询SQL：获取当前月所有已完成（s_order_sta='3'）的订单ID（s_order_details_id）
-        // 日期筛选：使用strftime函数格式化订单时间，匹配当前年月（%Y-%m：年-月，如2025-12）
-        Cursor rs = db.rawQuery("SELECT *   FROM d_orders   " +
-                "WHERE s_order_sta='3' and   strftime('%Y-%m', s_order_time) = strftime('%Y-%m', 'now');",null);
-
-        // 初始化订单ID列表，用于存储当前月已完成订单的详情ID
-        List<String> list=new ArrayList<>();
-
+        // 获取数据库连接，未初始化时返回默认值
+        SQLiteDatabase db = DBManager.getDatabase();
+        if (db == null) {
+            return 0;
+        }
+        // 绑定查询参数：菜品ID + 当前年月 + 未删除标记（菜品、商家）
+        String[] data = {foodId, String.valueOf(Tools.toYearMonth(System.currentTimeMillis())), String.valueOf(NOT_DELETED), String.valueOf(NOT_DELETED)};
+        Cursor rs = null;
         try {
-            // 遍历游标，提取订单详情ID并加入列表
-            while(rs.moveToNext()){
-                String temp= rs.getString(rs.getColumnIndex("s_order_details_id"));
-                list.add(temp);
+            rs = QueryStats.query(db, "FoodDao.getMouSalesNum", DBQueries.SELECT_MONTHLY_SALES, data);
+            if (rs.moveToFirst()) {
+                return Tools.getResultInt(rs, "s_qty");
             }
+        } catch (Exception e) {
+            // 捕获数据库查询异常，打印异常堆栈便于调试
+            e.printStackTrace();
         } finally {
             // 关闭游标释放资源
             if (rs != null) {
-                rs.close(); // 关闭游标释放资源
+                rs.close();
             }
         }
-
-        // 初始化总销量计数器
-        int salNum=0;
-
-        // 遍历所有当前月已完成订单，累加每个订单中该菜品的销售数量
-        for (String s : list) {
-            salNum=salNum+getOrderDetailsByOrderAndFoodId(s,foodId);
-        }
-
-        // 返回当月总销量
-        return salNum;
+        // 无销售记录，返回0
+        return 0;
     }
 
     /**
@@ -320,8 +381,13 @@ public class FoodDao {
         // 绑定查询参数：订单详情ID + 菜品ID
         String data[]={orderId,foodId};
 
+        // 获取数据库连接，未初始化时返回默认值
+        SQLiteDatabase db = DBManager.getDatabase();
+        if (db == null) {
+            return 0;
+        }
         // 查询SQL：精准匹配订单详情ID和菜品ID，获取该菜品的购买数量
-        Cursor rs = db.rawQuery("select * from d_order_details where s_details_id=? and s_food_id=?",data);
+        Cursor rs = QueryStats.query(db, "FoodDao.getOrderDetailsByOrderAndFoodId", "select * from d_order_details where s_details_id=? and s_food_id=?",data);
 
         try {
             // 遍历游标（最多一条匹配记录），提取购买数量并返回
@@ -346,7 +412,7 @@ public class FoodDao {
      * @param businessId 商家ID（菜品所属商家，s_business_id的值）
      * @param foodName 菜品名称（s_food_name的值）
      * @param des 菜品描述（s_food_des的值）
-     * @param foodPrice 菜品价格（s_food_price的值，建议传入格式化后的字符串）
+     * @param foodPrice 菜品价格（单位：元，如"19.5"，入库时转换为INTEGER分）
      * @param img 菜品图片（s_food_img的值，通常为图片路径或Base64编码字符串）
      * @return 1-添加成功，0-添加失败（如参数非法、数据库异常、商家不存在等）
      */
@@ -355,13 +421,25 @@ public class FoodDao {
         String id= UUID.randomUUID().toString().replace("-","");
 
         // 绑定插入参数：菜品ID + 商家ID + 菜品名称 + 菜品描述 + 菜品价格 + 菜品图片 + 未删除标记
-        String data[]={id,businessId,foodName,des,foodPrice,img, String.valueOf(NOT_DELETED)};
+        String data[]={id,businessId,foodName,des,String.valueOf(Tools.yuanToCents(foodPrice)),img, String.valueOf(NOT_DELETED)};
 
+        // 获取数据库连接，未初始化时返回默认值
+        SQLiteDatabase db = DBManager.getDatabase();
+        if (db == null) {
+            return 0;
+        }
+        // 开启事务：菜品记录与搜索索引同时成功或同时回滚
+        db.beginTransaction();
         try {
             // 执行插入SQL，向d_food表新增一条菜品记录
-            db.execSQL("INSERT INTO d_food (s_food_id, s_business_id, s_food_name,s_food_des, s_food_price, s_food_img, s_is_delete) " +
+            QueryStats.execute("FoodDao.addFood", "INSERT INTO d_food (s_food_id, s_business_id, s_food_name,s_food_des, s_food_price, s_food_img, s_is_delete) " +
                             "VALUES (?, ?, ?,?,  ?, ?, ?)", // 新增s_is_delete字段
-                    data);
+                    (Object[]) data);
+            // 写入搜索索引
+            updateSearchIndex(id, foodName, des);
+            // 写入菜品的第一个版本快照
+            getOrCreateSnapshot(db, id, foodName, des, Tools.yuanToCents(foodPrice), img);
+            db.setTransactionSuccessful();
 
             // 插入成功，返回1
             return 1;
@@ -371,6 +449,9 @@ public class FoodDao {
 
             // 插入失败，返回0
             return 0;
+        }finally {
+            // 结束事务（未标记成功时自动回滚）
+            DBManager.endTransaction(db);
         }
     }
 
@@ -392,7 +473,7 @@ public class FoodDao {
 
         try {
             // 执行更新SQL：将指定菜品的s_is_delete字段更新为1，实现逻辑删除
-            db.execSQL("UPDATE d_food SET s_is_delete=? WHERE s_food_id=?", data);
+            QueryStats.execute("FoodDao.delFoodById", "UPDATE d_food SET s_is_delete=? WHERE s_food_id=?", (Object[]) data);
 
             // 标记成功，返回1
             return 1;
@@ -423,7 +504,7 @@ public class FoodDao {
 
         try {
             // 执行批量更新SQL：将指定商家下所有菜品的s_is_delete字段更新为1
-            db.execSQL("UPDATE d_food SET s_is_delete=? WHERE s_business_id=?", data);
+            QueryStats.execute("FoodDao.deleteFoodByBusinessId", "UPDATE d_food SET s_is_delete=? WHERE s_business_id=?", (Object[]) data);
 
             // 批量标记成功，返回1
             return 1;
@@ -442,18 +523,31 @@ public class FoodDao {
      * @param foodId 菜品ID（s_food_id的值，指定要更新的菜品）
      * @param foodName 新的菜品名称（s_food_name的值）
      * @param des 新的菜品描述（s_food_des的值）
-     * @param foodPrice 新的菜品价格（s_food_price的值）
+     * @param foodPrice 新的菜品价格（单位：元，入库时转换为INTEGER分）
      * @param img 新的菜品图片（s_food_img的值）
      * @return 1-更新成功，0-更新失败（如菜品ID无效、菜品已删除、数据库异常等）
      */
     public static int updateFood(String foodId,String foodName,String des,String foodPrice,String img){
         // 绑定更新参数：新菜品名称 + 新描述 + 新价格 + 新图片 + 菜品ID + 未删除标记
-        String data[]={foodName,des,foodPrice,img, foodId, String.valueOf(NOT_DELETED)};
+        String data[]={foodName,des,String.valueOf(Tools.yuanToCents(foodPrice)),img, foodId, String.valueOf(NOT_DELETED)};
 
+        // 获取数据库连接，未初始化时返回默认值
+        SQLiteDatabase db = DBManager.getDatabase();
+        if (db == null) {
+            return 0;
+        }
+        // 开启事务：菜品记录与搜索索引同时成功或同时回滚
+        db.beginTransaction();
         try {
             // 执行更新SQL：仅更新指定菜品ID且未删除的菜品记录
-            db.execSQL("update  d_food set s_food_name=?, s_food_des=?,s_food_price=?,s_food_img=? where s_food_id=? and s_is_delete=?" ,
-                    data); // 仅更新未删除的菜品
+            int rows = QueryStats.execute("FoodDao.updateFood", "update  d_food set s_food_name=?, s_food_des=?,s_food_price=?,s_food_img=? where s_food_id=? and s_is_delete=?" ,
+                    (Object[]) data); // 仅更新未删除的菜品
+            // 名称/描述变化后重建该菜品的搜索索引，内容变化时新增一个快照版本（未更新到记录时无需处理）
+            if (rows > 0) {
+                updateSearchIndex(foodId, foodName, des);
+                getOrCreateSnapshot(db, foodId, foodName, des, Tools.yuanToCents(foodPrice), img);
+            }
+            db.setTransactionSuccessful();
 
             // 更新成功，返回1
             return 1;
@@ -463,9 +557,67 @@ public class FoodDao {
 
             // 更新失败，返回0
             return 0;
+        }finally {
+            // 结束事务（未标记成功时自动回滚）
+            DBManager.endTransaction(db);
         }
     }
 
+    /**
+     * 获取菜品内容对应的快照ID，该菜品还没有相同内容的版本时新增一个版本（s_version为该菜品已有的最大版本+1）
+     * 说明：每个菜品的版本通常只有几个，按(菜品ID, 版本)索引定位后逐个比较内容即可；null按空字符串保存，
+     * 与迁移41的去重规则一致。新增的快照在调用方的事务中写入，需在事务中调用
+     * @param db 数据库连接（已开启事务）
+     * @param foodId 菜品ID
+     * @param foodName 菜品名称
+     * @param des 菜品描述
+     * @param priceCents 菜品单价（分）
+     * @param img 菜品图片路径
+     * @return 快照ID
+     */
+    static long getOrCreateSnapshot(SQLiteDatabase db, String foodId, String foodName, String des, long priceCents, String img) {
+        String[] content = {nonNull(foodId), nonNull(foodName), nonNull(des), String.valueOf(priceCents), nonNull(img)};
+        long id = findSnapshot(db, content);
+        if (id > 0) {
+            return id;
+        }
+        QueryStats.execute("FoodDao.getOrCreateSnapshot", DBQueries.INSERT_SNAPSHOT_VERSION,
+                content[0], content[1], content[2], priceCents, content[4], content[0]);
+        return findSnapshot(db, content);
+    }
+
+    /**
+     * 按内容查找菜品的快照版本
+     * @param content {菜品ID, 名称, 描述, 单价（分）, 图片}
+     * @return 快照ID，不存在时返回0
+     */
+    private static long findSnapshot(SQLiteDatabase db, String[] content) {
+        Cursor rs = QueryStats.query(db, "FoodDao.findSnapshot", DBQueries.FIND_SNAPSHOT, content);
+        try {
+            return rs.moveToNext() ? rs.getLong(0) : 0;
+        } finally {
+            rs.close();
+        }
+    }
+
+    private static String nonNull(String value) {
+        return value == null ? "" : value;
+    }
+
+    /**
+     * 写入（或覆盖）指定菜品的搜索索引：先删除旧索引行，再按分词后的名称/描述插入新行
+     * 说明：索引行的docid即菜品表的rowid，需在菜品记录写入之后、同一事务中调用
+     * @param foodId 菜品ID
+     * @param foodName 菜品名称
+     * @param des 菜品描述
+     */
+    private static void updateSearchIndex(String foodId, String foodName, String des) {
+        QueryStats.execute("FoodDao.updateSearchIndex.delete", "DELETE FROM d_food_fts WHERE docid = (SELECT rowid FROM d_food WHERE s_food_id=?)", foodId);
+        QueryStats.execute("FoodDao.updateSearchIndex.insert", "INSERT INTO d_food_fts (docid, s_food_name, s_food_des) " +
+                        "SELECT rowid, ?, ? FROM d_food WHERE s_food_id=?",
+                Tools.toSearchTokens(foodName), Tools.toSearchTokens(des), foodId);
+    }
+
     /**
      * 解析Cursor为FoodBean（提取重复逻辑，简化代码）
      * 工具方法说明：封装游标数据解析逻辑，避免在多个查询方法中重复编写解析代码，提高代码可维护性
@@ -482,7 +634,7 @@ public class FoodDao {
         String businessId=cursor.getString(cursor.getColumnIndex("s_business_id"));
         String foodName=cursor.getString(cursor.getColumnIndex("s_food_name"));
         String foodDes=cursor.getString(cursor.getColumnIndex("s_food_des"));
-        String foodPrice=cursor.getString(cursor.getColumnIndex("s_food_price"));
+        long foodPrice=cursor.getLong(cursor.getColumnIndex("s_food_price")); // 单价（分）
         String foodImg=cursor.getString(cursor.getColumnIndex("s_food_img"));
 
         // 将提取的字段值设置到FoodBean对象中
@@ -490,7 +642,7 @@ public class FoodDao {
         foodBean.setFoodDes(foodDes);
         foodBean.setFoodImg(foodImg);
         foodBean.setFoodName(foodName);
-        foodBean.setFoodPrice(foodPrice);
+        foodBean.setFoodPriceCents(foodPrice);
         foodBean.setBusinessId(businessId);
 
         // 返回解析完成的FoodBean对象
@@ -0,0 +1,160 @@
+package com.ccf.feige.orderfood.dao;
+
+import android.database.Cursor;
+import android.database.SQLException;
+import android.database.sqlite.SQLiteDatabase;
+import android.util.Log;
+
+import com.ccf.feige.orderfood.bean.OrderBean;
+import com.ccf.feige.orderfood.db.DBManager;
+import com.ccf.feige.orderfood.db.DBQueries;
+import com.ccf.feige.orderfood.db.QueryStats;
+
+import java.util.concurrent.Callable;
+
+/**
+ * 订单归档（冷热分离）
+ * 核心功能：把已完成（状态3、4）且下单时间早于归档期限的订单，连同订单明细、订单全文索引行，
+ * 从d_orders/d_order_details/d_orders_fts移到归档表d_orders_archive/d_order_details_archive/d_orders_archive_fts（见DBUntil.createArchiveTables）
+ * 设计说明：
+ * 1. 订单主表只保留未完成和近期的订单，待处理订单列表（商家未处理、用户未完成）只查询订单主表，耗时不随历史订单增长；
+ *    历史列表（商家已处理、用户全部订单）和订单搜索由OrderRepository同时查询主表和归档表，按(时间, 订单ID)合并，对界面透明
+ * 2. 按状态 + 时间分批移动（每批约BATCH_SIZE个订单，一个事务），每批作为单独的写任务提交到写线程，
+ *    首次归档大量历史订单时，批次之间的下单、接单等写操作可以插队执行，不会长时间等待
+ * 3. 归档后订单仍可评论（3→4，见OrderDao.updateOrderStatus），订单ID、详情ID、菜品快照均不变
+ * 使用：应用启动时由OrderFoodApplication调用archiveInBackground()（归档期限见res/values/integers.xml中的order_archive_days）
+ */
+public final class OrderArchive {
+
+    private static final String TAG = "OrderArchive";
+
+    /**
+     * 每批移动的订单数（同一下单时间的订单在同一批中移动，实际数量可能略多）
+     */
+    static final int BATCH_SIZE = DBQueries.ARCHIVE_BATCH_SIZE;
+
+    private static final long DAY_MS = 24L * 60 * 60 * 1000;
+
+    /**
+     * 可归档的订单状态：3已完成（未评论）、4已完成且已评论
+     */
+    private static final String[] ARCHIVED_STATES = {OrderBean.ORDER_STA_FINISH, OrderBean.ORDER_STA_FINISH_COMMENTED};
+
+    private OrderArchive() {
+    }
+
+    /**
+     * 判断指定状态的订单是否可能已被归档（按状态查询订单列表时，据此决定是否需要同时查询归档表）
+     * @param sta 订单状态
+     * @return true表示该状态的订单可能在归档表中（状态3、4）
+     */
+    static boolean isArchivable(String sta) {
+        for (String archived : ARCHIVED_STATES) {
+            if (archived.equals(sta == null ? null : sta.trim())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 在写线程中归档下单超过指定天数的已完成订单（每批一个写任务，直到没有可归档的订单）
+     * @param days 归档期限（天），小于等于0时不归档
+     */
+    public static void archiveInBackground(int days) {
+        if (days <= 0) {
+            return;
+        }
+        final long cutoffTime = System.currentTimeMillis() - days * DAY_MS;
+        DBManager.write(new Callable<Integer>() {
+            // 本次累计归档的订单数
+            private int total;
+
+            @Override
+            public Integer call() {
+                int moved = archiveBatch(cutoffTime);
+                total += moved;
+                if (moved > 0) {
+                    // 重新排到写线程队尾，期间提交的其他写操作先执行
+                    DBManager.write(this, null);
+                } else if (total > 0) {
+                    Log.i(TAG, "已归档" + total + "个订单");
+                }
+                return moved;
+            }
+        }, null);
+    }
+
+    /**
+     * 归档下单时间早于cutoffTime的全部已完成订单（同步执行，测试和数据迁移使用；界面中请使用archiveInBackground）
+     * @param cutoffTime 归档时间界限（毫秒），早于该时间的已完成订单被归档
+     * @return 归档的订单数
+     */
+    public static int archiveBefore(long cutoffTime) {
+        int total = 0;
+        int moved;
+        while ((moved = archiveBatch(cutoffTime)) > 0) {
+            total += moved;
+        }
+        return total;
+    }
+
+    /**
+     * 归档一批订单：依次检查状态3、4，移动第一个有可归档订单的状态中最旧的约BATCH_SIZE个订单（一个事务）
+     * @param cutoffTime 归档时间界限（毫秒）
+     * @return 本批归档的订单数，0表示已没有可归档的订单（或数据库异常/连接失效）
+     */
+    static int archiveBatch(long cutoffTime) {
+        SQLiteDatabase db = DBManager.getDatabase();
+        if (db == null) {
+            return 0;
+        }
+        for (String sta : ARCHIVED_STATES) {
+            int moved = archiveBatch(db, sta, cutoffTime);
+            if (moved > 0) {
+                return moved;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * 归档指定状态中最旧的一批订单
+     * @param db 数据库连接
+     * @param sta 订单状态
+     * @param cutoffTime 归档时间界限（毫秒）
+     * @return 归档的订单数
+     */
+    private static int archiveBatch(SQLiteDatabase db, String sta, long cutoffTime) {
+        db.beginTransaction();
+        try {
+            // 第一步：确定本批的时间上界（不足一批时为归档界限本身），按时间而不是按订单ID划分批次，各语句可直接走(状态, 时间)索引
+            long bound = cutoffTime - 1;
+            Cursor rs = QueryStats.query(db, "OrderArchive.batchBound", DBQueries.SELECT_ARCHIVE_BATCH_BOUND,
+                    new String[]{sta, String.valueOf(cutoffTime)});
+            try {
+                if (rs.moveToFirst()) {
+                    bound = Math.min(bound, rs.getLong(0));
+                }
+            } finally {
+                rs.close();
+            }
+            // 第二步：按顺序复制订单、明细、全文索引行到归档表，再从热表中删除（见DBQueries.ARCHIVE_STATEMENTS），
+            // 最后一条语句（删除订单主表）的影响行数即本批归档的订单数
+            Object[] args = {sta, bound};
+            int moved = 0;
+            for (int i = 0; i < DBQueries.ARCHIVE_STATEMENTS.length; i++) {
+                moved = QueryStats.execute("OrderArchive." + DBQueries.ARCHIVE_STATEMENT_NAMES[i],
+                        DBQueries.ARCHIVE_STATEMENTS[i], args);
+            }
+            db.setTransactionSuccessful();
+            return moved;
+        } catch (SQLException e) {
+            // 归档失败时整批回滚，订单仍在热表中，下次启动时重试
+            e.printStackTrace();
+            return 0;
+        } finally {
+            DBManager.endTransaction(db);
+        }
+    }
+}
@@ -6,7 +6,9 @@ import android.database.sqlite.SQLiteDatabase;
 
 import com.ccf.feige.orderfood.bean.OrderBean;
 import com.ccf.feige.orderfood.bean.OrderDetailBean;
-import com.ccf.feige.orderfood.db.DBUntil;
+import com.ccf.feige.orderfood.db.DBManager;
+import com.ccf.feige.orderfood.db.DBQueries;
+import com.ccf.feige.orderfood.db.QueryStats;
 import com.ccf.feige.orderfood.until.Tools;
 
 import java.util.ArrayList;
@@ -16,12 +18,13 @@ import java.util.List;
  * 订单DAO（数据访问对象）类
  * 核心功能：负责订单表（d_orders）和订单详情表（d_order_details）的所有数据库操作
  * 关键要求：确保订单状态4（已完成且已评论）更新成功，支持查询指定用户的所有订单（不筛选状态）
- * 依赖说明：依赖DBUntil获取数据库连接、Tools工具类处理游标结果、OrderBean/OrderDetailBean封装数据
+ * 依赖说明：依赖DBManager获取数据库连接和执行写操作、Tools工具类处理游标结果、OrderBean/OrderDetailBean封装数据，
+ * 订单列表查询统一交由OrderRepository批量装配明细和用户昵称，列表页面通过pageOrders*()返回的OrderPagingSource逐页加载；
+ * 订单搜索走全文索引d_orders_fts（见DBUntil.createOrderSearchTable），下单时在同一事务中写入索引；
+ * 订单详情只保存菜品快照ID和数量，菜品名称/描述/单价/图片保存在菜品快照表中（见FoodDao.getOrCreateSnapshot）；
+ * 已完成的旧订单由OrderArchive移入归档表，历史列表（已完成、全部订单）同时查询归档表，待处理列表只查询订单主表
  */
 public class OrderDao {
-    // 全局数据库连接对象，从DBUntil工具类中获取，供所有静态方法复用
-    public static SQLiteDatabase db = DBUntil.con;
-
     // 复用OrderBean中的订单状态常量，避免硬编码，提高可维护性
     private static final String ORDER_STA_UNHANDLED = OrderBean.ORDER_STA_UNHANDLED; // 状态1：未处理（待接单）
     private static final String ORDER_STA_CANCEL = OrderBean.ORDER_STA_CANCEL; // 状态2：已取消
@@ -30,39 +33,91 @@ public class OrderDao {
 
     /**
      * 通用订单状态更新方法
+     * 说明：在同一事务中更新订单状态并维护菜品月销量汇总表（d_food_sales_monthly）：
+     * 订单从未完成变为已完成（状态3/4）时，按下单月份累加订单内各菜品数量；从已完成变回其他状态时扣减；
+     * 已完成之间的流转（3→4，评论订单）不影响销量；
+     * 订单已归档时（见OrderArchive）只允许在已完成状态之间流转，直接更新归档表，不影响销量
      * @param orderId 订单ID（唯一标识，不能为空）
      * @param newStatus 新订单状态（需使用OrderBean中定义的状态常量，不能为空）
-     * @return 操作结果：1表示更新成功，0表示更新失败（参数非法/数据库异常/连接失效）
+     * @return 操作结果：1表示更新成功，0表示更新失败（参数非法/订单不存在/数据库异常/连接失效）
      */
     public static int updateOrderStatus(String orderId, String newStatus) {
         // 第一步：参数合法性校验，避免空指针和无效更新
         if (orderId == null || orderId.trim().isEmpty() || newStatus == null || newStatus.trim().isEmpty()) {
             return 0;
         }
-        // 第二步：检查并重建数据库连接，确保连接有效
-        if (db == null || !db.isOpen()) {
-            db = DBUntil.con; // 从工具类重新获取数据库连接
-            if (db == null) { // 连接获取失败，直接返回失败
-                return 0;
-            }
+        // 第二步：获取数据库连接，未初始化时返回默认值
+        SQLiteDatabase db = DBManager.getDatabase();
+        if (db == null) {
+            return 0;
         }
-        // 第三步：构建更新SQL语句（参数化查询，防止SQL注入）
-        String sql = "UPDATE d_orders SET s_order_sta = ? WHERE s_order_id = ?";
+        Cursor rs = null;
+        // 第三步：开启事务，状态更新与月销量汇总要么同时成功，要么同时回滚
+        db.beginTransaction();
         try {
-            // 执行SQL更新，传入状态和订单ID参数
-            db.execSQL(sql, new String[]{newStatus, orderId});
+            int newSta = Integer.parseInt(newStatus.trim());
+            // 读取订单原状态、下单时间和详情ID（用于计算销量增减及归属月份）
+            rs = QueryStats.query(db, "OrderDao.updateOrderStatus.read", "select s_order_sta, s_order_time, s_order_details_id from d_orders where s_order_id=?",
+                    new String[]{orderId});
+            if (!rs.moveToFirst()) {
+                rs.close();
+                // 订单主表中不存在时再查归档表（已归档的订单均为已完成，评论后3→4）
+                rs = QueryStats.query(db, "OrderDao.updateOrderStatus.readArchive", "select s_order_sta from d_orders_archive where s_order_id=?",
+                        new String[]{orderId});
+                if (!rs.moveToFirst() || !isFinished(newSta)) {
+                    return 0; // 订单不存在，或要把已归档订单改为未完成状态，视为更新失败
+                }
+                rs.close();
+                QueryStats.execute("OrderDao.updateOrderStatus.archive", "UPDATE d_orders_archive SET s_order_sta = ? WHERE s_order_id = ?", new Object[]{newSta, orderId});
+                db.setTransactionSuccessful();
+                return 1;
+            }
+            int oldSta = Tools.getResultInt(rs, "s_order_sta");
+            long orderTime = Tools.getResultLong(rs, "s_order_time");
+            String detailsId = Tools.getResultString(rs, "s_order_details_id");
+            rs.close();
+
+            // 执行SQL更新，传入状态和订单ID参数（参数化查询，防止SQL注入）
+            QueryStats.execute("OrderDao.updateOrderStatus", "UPDATE d_orders SET s_order_sta = ? WHERE s_order_id = ?", new Object[]{newSta, orderId});
+
+            // 第四步：按状态变化增减月销量（+1：进入已完成，-1：离开已完成，0：不变）
+            int delta = (isFinished(newSta) ? 1 : 0) - (isFinished(oldSta) ? 1 : 0);
+            if (delta != 0 && detailsId != null) {
+                QueryStats.execute("OrderDao.updateOrderStatus.sales", "INSERT INTO d_food_sales_monthly(s_food_id, s_yyyymm, s_qty) " +
+                                "SELECT s_food_id, ?, SUM(s_food_num) * ? FROM d_order_details WHERE s_details_id=? " +
+                                "GROUP BY s_food_id " +
+                                "ON CONFLICT(s_food_id, s_yyyymm) DO UPDATE SET s_qty = s_qty + excluded.s_qty",
+                        new Object[]{Tools.toYearMonth(orderTime), delta, detailsId});
+            }
+            db.setTransactionSuccessful();
             return 1; // 更新成功，返回1
-        } catch (SQLException e) {
-            // 捕获数据库异常（如表不存在、字段错误等），打印异常堆栈便于调试
+        } catch (SQLException | NumberFormatException e) {
+            // 捕获数据库异常（如表不存在、字段错误等）及状态格式错误，打印异常堆栈便于调试
             e.printStackTrace();
             return 0; // 更新失败，返回0
+        } finally {
+            // 关闭游标并结束事务（未标记成功时自动回滚）
+            if (rs != null && !rs.isClosed()) {
+                rs.close();
+            }
+            DBManager.endTransaction(db);
         }
     }
 
+    /**
+     * 判断订单状态是否属于已完成（计入销量）：3已完成（未评论）、4已完成且已评论
+     * @param sta 订单状态码
+     * @return true表示已完成
+     */
+    private static boolean isFinished(int sta) {
+        return sta == Integer.parseInt(ORDER_STA_FINISH) || sta == Integer.parseInt(ORDER_STA_FINISH_COMMENTED);
+    }
+
     /**
      * 新增订单到订单表（d_orders）
+     * 注意：单条自动提交，不包含订单详情；下单请使用placeOrder()，在同一事务中写入订单及全部详情
      * @param orderId 订单ID（唯一标识，必填）
-     * @param time 订单创建时间（可选，为空则存入空字符串）
+     * @param time 订单创建时间（格式yyyy-MM-dd HH:mm，转换为时间戳毫秒存储；为空则使用当前时间）
      * @param businessId 商家ID（必填，关联商家表）
      * @param userId 用户ID（必填，关联用户表）
      * @param orderDetailID 订单详情ID（可选，关联订单详情表，为空则存入空字符串）
@@ -77,27 +132,145 @@ public class OrderDao {
                 || userId == null || userId.trim().isEmpty() || sta == null || sta.trim().isEmpty()) {
             return 0;
         }
-        // 第二步：检查并重建数据库连接，确保连接有效
-        if (db == null || !db.isOpen()) {
-            db = DBUntil.con;
-            if (db == null) {
-                return 0;
-            }
+        // 第二步：获取数据库连接，未初始化时返回默认值
+        SQLiteDatabase db = DBManager.getDatabase();
+        if (db == null) {
+            return 0;
         }
         try {
-            // 第三步：构建插入SQL语句，填充订单表所有字段，可选参数做非空处理
-            db.execSQL("INSERT INTO d_orders (s_order_id, s_order_time, s_business_id,s_user_id, " +
+            // 第三步：时间转换为毫秒、状态转换为整数，与d_orders的INTEGER字段一致
+            long timeMillis = Tools.parseTime(time);
+            if (timeMillis <= 0) {
+                timeMillis = System.currentTimeMillis();
+            }
+            // 第四步：构建插入SQL语句，填充订单表所有字段，可选参数做非空处理
+            QueryStats.execute("OrderDao.installOrder", "INSERT INTO d_orders (s_order_id, s_order_time, s_business_id,s_user_id, " +
                             "s_order_details_id,s_order_sta, s_order_address) VALUES (?, ?, ?, ?, ?, ?, ?)",
-                    new Object[]{orderId, time == null ? "" : time, businessId, userId,
-                            orderDetailID == null ? "" : orderDetailID, sta, address == null ? "" : address});
+                    new Object[]{orderId, timeMillis, businessId, userId,
+                            orderDetailID == null ? "" : orderDetailID, Integer.parseInt(sta.trim()),
+                            address == null ? "" : address});
             return 1; // 新增成功，返回1
-        } catch (SQLException e) {
-            // 捕获数据库异常（如主键冲突、字段类型不匹配等），打印异常堆栈便于调试
+        } catch (SQLException | NumberFormatException e) {
+            // 捕获数据库异常（如主键冲突、字段类型不匹配等）及状态格式错误，打印异常堆栈便于调试
             e.printStackTrace();
             return 0; // 新增失败，返回0
         }
     }
 
+    /**
+     * 下单：在同一事务中写入订单主表（d_orders）和全部订单详情（d_order_details）
+     * 说明：
+     * 1. 主表和详情要么全部写入、要么全部回滚，不会出现只有订单头、缺少部分菜品的半成品订单
+     * 2. 两条INSERT语句通过DBManager.execute()复用缓存的预编译语句，逐行重新绑定参数，事务提交时只落盘一次
+     * 3. 该方法为同步数据库写操作，界面中请通过placeOrderAsync()在后台线程调用
+     * @param order 订单主表信息（订单ID、商家ID、用户ID、详情ID、状态必填；下单时间小于等于0时使用当前时间）
+     * @param details 订单详情列表（每项的详情ID会被设置为order.getOrderDetailsId()）
+     * @return 操作结果：1表示下单成功，0表示下单失败（参数非法/数据库异常/连接失效）
+     */
+    public static int placeOrder(OrderBean order, List<OrderDetailBean> details) {
+        // 第一步：参数合法性校验，订单ID、商家ID、用户ID、详情ID为必填项，且至少包含一道菜品
+        if (order == null || details == null || details.isEmpty()
+                || isBlank(order.getOrderId()) || isBlank(order.getBusinessId())
+                || isBlank(order.getUserId()) || isBlank(order.getOrderDetailsId())) {
+            return 0;
+        }
+        // 第二步：获取数据库连接，未初始化时返回默认值
+        SQLiteDatabase db = DBManager.getDatabase();
+        if (db == null) {
+            return 0;
+        }
+        long timeMillis = order.getOrderTimeMillis() > 0 ? order.getOrderTimeMillis() : System.currentTimeMillis();
+        // 第三步：开启事务，写入订单主表
+        db.beginTransaction();
+        try {
+            QueryStats.execute("OrderDao.placeOrder", DBQueries.INSERT_ORDER,
+                    order.getOrderId(), timeMillis, order.getBusinessId(), order.getUserId(),
+                    order.getOrderDetailsId(), order.getOrderStatusCode(),
+                    order.getOrderAddress() == null ? "" : order.getOrderAddress());
+
+            // 第四步：复用同一条预编译语句逐行写入订单详情（菜品内容只引用快照ID，不再逐行复制名称/描述/图片）
+            for (OrderDetailBean detail : details) {
+                detail.setDetailsId(order.getOrderDetailsId());
+                insertDetail("OrderDao.placeOrder.detail", db, detail);
+            }
+            // 第五步：写入订单全文索引（下单用户昵称 + 全部菜品名称），与订单在同一事务中提交
+            insertSearchIndex(db, order, details);
+            // 第六步：全部写入成功，标记事务成功（endTransaction时统一提交）
+            db.setTransactionSuccessful();
+            order.setOrderTimeMillis(timeMillis);
+            return 1;
+        } catch (SQLException e) {
+            // 捕获数据库异常（如主键冲突等），事务未标记成功，endTransaction时整体回滚
+            e.printStackTrace();
+            return 0;
+        } finally {
+            // 结束事务（未标记成功时整体回滚）
+            DBManager.endTransaction(db);
+        }
+    }
+
+    /**
+     * 写入一条订单详情：按明细中的菜品内容查找（或新建）菜品快照，明细行只保存快照ID和数量
+     * 说明：结算弹窗按菜品当前内容补全明细（FoodDao.fillOrderDetails），通常直接命中菜品的当前版本；弹窗打开后商家又修改过菜品时，
+     * 按弹窗中展示的内容命中旧版本（或新建一个版本），订单中记录的始终是用户确认下单时看到的价格
+     * @param name 语句名称（统计用）
+     * @param db 数据库连接（已开启事务）
+     * @param detail 订单详情（详情ID已设置）
+     */
+    private static void insertDetail(String name, SQLiteDatabase db, OrderDetailBean detail) {
+        long snapshotId = FoodDao.getOrCreateSnapshot(db, detail.getFoodId(), detail.getFoodName(),
+                detail.getFoodDescription(), detail.getFoodPriceCents(), detail.getFoodImage());
+        QueryStats.execute(name, DBQueries.INSERT_ORDER_DETAIL,
+                detail.getDetailsId(), detail.getFoodId(), snapshotId, detail.getFoodCount());
+    }
+
+    /**
+     * 写入订单的全文索引行：docid为订单主表的rowid，需在订单主表写入之后、同一事务中调用
+     * @param db 数据库连接（已开启事务）
+     * @param order 订单主表信息
+     * @param details 订单详情列表
+     */
+    private static void insertSearchIndex(SQLiteDatabase db, OrderBean order, List<OrderDetailBean> details) {
+        // 查询下单用户的昵称（仅未注销用户，与订单列表展示一致）
+        String userName = null;
+        Cursor rs = QueryStats.query(db, "OrderDao.insertSearchIndex.userName", DBQueries.SELECT_ORDER_USER_NAME, new String[]{order.getUserId()});
+        try {
+            if (rs.moveToNext()) {
+                userName = rs.getString(0);
+            }
+        } finally {
+            rs.close();
+        }
+        // 拼接订单内全部菜品名称，分词后写入索引
+        StringBuilder foodNames = new StringBuilder();
+        for (OrderDetailBean detail : details) {
+            if (detail.getFoodName() != null) {
+                foodNames.append(detail.getFoodName()).append(' ');
+            }
+        }
+        QueryStats.execute("OrderDao.insertSearchIndex", DBQueries.INSERT_ORDER_SEARCH_INDEX,
+                Tools.toSearchTokens(userName), Tools.toSearchTokens(foodNames.toString()), order.getOrderId());
+    }
+
+    /**
+     * 异步下单：在DBManager的写线程中执行placeOrder()，结果回调到主线程
+     * @param order 订单主表信息
+     * @param details 订单详情列表
+     * @param callback 下单结果回调（在主线程执行，可直接操作界面；1表示下单成功，0表示下单失败），可为null
+     */
+    public static void placeOrderAsync(OrderBean order, List<OrderDetailBean> details, DBManager.Callback<Integer> callback) {
+        DBManager.write(() -> placeOrder(order, details), callback);
+    }
+
+    /**
+     * 判断字符串是否为空（null或仅包含空白字符）
+     * @param value 待判断的字符串
+     * @return true表示为空
+     */
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+
     /**
      * 根据订单详情ID查询对应的订单详情列表（一个订单详情ID对应多条菜品记录）
      * @param id 订单详情ID（唯一标识，不能为空）
@@ -110,18 +283,20 @@ public class OrderDao {
         if (id == null || id.trim().isEmpty()) {
             return orderDetailBeanList;
         }
-        // 第二步：检查并重建数据库连接，确保连接有效
-        if (db == null || !db.isOpen()) {
-            db = DBUntil.con;
-            if (db == null) {
-                return orderDetailBeanList;
-            }
+        // 第二步：获取数据库连接，未初始化时返回默认值
+        SQLiteDatabase db = DBManager.getDatabase();
+        if (db == null) {
+            return orderDetailBeanList;
         }
         Cursor rs = null; // 声明数据库游标，用于遍历查询结果
-        String sql = "select * from d_order_details where s_details_id=?"; // 构建查询SQL（参数化查询）
         try {
-            // 执行查询，传入订单详情ID参数，获取游标结果集
-            rs = db.rawQuery(sql, new String[]{id});
+            // 执行查询，传入订单详情ID参数，获取游标结果集；主表中没有时（订单已归档）改查归档明细表
+            rs = QueryStats.query(db, "OrderDao.getAllOrderDetail", DBQueries.SELECT_DETAILS, new String[]{id});
+            if (rs.getCount() == 0) {
+                rs.close();
+                rs = QueryStats.query(db, "OrderDao.getAllOrderDetail.archive",
+                        DBQueries.SELECT_ARCHIVE_DETAILS, new String[]{id});
+            }
             // 遍历游标结果集，逐行封装订单详情对象
             while (rs != null && rs.moveToNext()) {
                 // 使用Tools工具类从游标中安全获取字符串字段，避免字段不存在/类型不匹配引发异常
@@ -129,8 +304,8 @@ public class OrderDao {
                 String foodId = Tools.getResultString(rs, "s_food_id");
                 String foodName = Tools.getResultString(rs, "s_food_name");
                 String foodDes = Tools.getResultString(rs, "s_food_des");
-                String foodPrice = Tools.getResultString(rs, "s_food_price");
-                String foodNum = Tools.getResultString(rs, "s_food_num");
+                long foodPrice = Tools.getResultLong(rs, "s_food_price"); // 单价（分）
+                int foodNum = Tools.getResultInt(rs, "s_food_num");
                 String foodImg = Tools.getResultString(rs, "s_food_img");
 
                 // 封装OrderDetailBean对象，添加到结果列表
@@ -152,40 +327,20 @@ public class OrderDao {
     }
 
     /**
-     * 查询订单表中的所有订单（不区分用户/商家/状态）
+     * 查询订单表中的所有订单（不区分用户/商家/状态，包含已归档订单）
      * @return 所有订单列表：按订单创建时间倒序排列，无数据/连接失效时返回空列表
      */
     public static List<OrderBean> getAllOrders() {
         // 初始化返回结果列表，避免返回null引发空指针异常
         List<OrderBean> orderBeanList = new ArrayList<>();
-        // 第一步：检查并重建数据库连接，确保连接有效
-        if (db == null || !db.isOpen()) {
-            db = DBUntil.con;
-            if (db == null) {
-                return orderBeanList;
-            }
-        }
-        Cursor rs = null; // 声明数据库游标，用于遍历查询结果
-        // 构建查询SQL：查询所有订单，按时间字符串解析后倒序排列（最新订单在前）
-        String sql = "select * from d_orders ORDER BY strftime('%Y-%m-%d %H:%M:%S', s_order_time ) desc";
-        try {
-            // 执行查询，无查询参数，获取游标结果集
-            rs = db.rawQuery(sql, null);
-            // 遍历游标结果集，逐行封装订单对象
-            while (rs != null && rs.moveToNext()) {
-                // 调用抽取的公共方法，从游标中封装OrderBean对象，减少代码冗余
-                OrderBean orderBean = createOrderBeanFromCursor(rs);
-                orderBeanList.add(orderBean);
-            }
-        } catch (SQLException e) {
-            // 捕获数据库查询异常，打印异常堆栈便于调试
-            e.printStackTrace();
-        } finally {
-            // 最终步骤：关闭游标，释放数据库资源，避免内存泄漏
-            if (rs != null && !rs.isClosed()) {
-                rs.close();
-            }
+        // 第一步：获取数据库连接，未初始化时返回默认值
+        SQLiteDatabase db = DBManager.getDatabase();
+        if (db == null) {
+            return orderBeanList;
         }
+        // 第二步：交由OrderRepository批量装配（查询所有订单，按时间倒序排列，最新订单在前），
+        // 订单明细和用户昵称通过集合查询一次性取回，不再逐行查询数据库
+        orderBeanList = OrderRepository.loadOrders(null, null, 0, 0, true, true);
         // 返回封装后的所有订单列表
         return orderBeanList;
     }
@@ -203,35 +358,15 @@ public class OrderDao {
         if (account == null || account.trim().isEmpty() || staZ == null || staZ.trim().isEmpty()) {
             return orderBeanList;
         }
-        // 第二步：检查并重建数据库连接，确保连接有效
-        if (db == null || !db.isOpen()) {
-            db = DBUntil.con;
-            if (db == null) {
-                return orderBeanList;
-            }
-        }
-        Cursor rs = null; // 声明数据库游标，用于遍历查询结果
-        // 构建查询SQL：按商家ID和状态筛选，按时间倒序排列
-        String sql = "select * from d_orders where s_business_id=? and s_order_sta=? " +
-                "ORDER BY strftime('%Y-%m-%d %H:%M:%S', s_order_time )  DESC ";
-        String data[] = {account, staZ}; // 封装查询参数
-        try {
-            // 执行参数化查询，获取游标结果集
-            rs = db.rawQuery(sql, data);
-            // 遍历游标结果集，逐行封装订单对象
-            while (rs != null && rs.moveToNext()) {
-                OrderBean orderBean = createOrderBeanFromCursor(rs);
-                orderBeanList.add(orderBean);
-            }
-        } catch (SQLException e) {
-            // 捕获数据库查询异常，打印异常堆栈便于调试
-            e.printStackTrace();
-        } finally {
-            // 最终步骤：关闭游标，释放数据库资源，避免内存泄漏
-            if (rs != null && !rs.isClosed()) {
-                rs.close();
-            }
+        // 第二步：获取数据库连接，未初始化时返回默认值
+        SQLiteDatabase db = DBManager.getDatabase();
+        if (db == null) {
+            return orderBeanList;
         }
+        // 第三步：交由OrderRepository批量装配（按商家ID和状态筛选，按时间倒序排列），
+        // 订单明细和用户昵称通过集合查询一次性取回，不再逐行查询数据库
+        orderBeanList = OrderRepository.loadOrders(DBQueries.WHERE_BUSINESS_STA, new String[]{account, staZ}, 0, 0,
+                true, OrderArchive.isArchivable(staZ));
         // 返回封装后的商家指定状态订单列表
         return orderBeanList;
     }
@@ -249,35 +384,15 @@ public class OrderDao {
         if (account == null || account.trim().isEmpty() || staZ == null || staZ.trim().isEmpty()) {
             return orderBeanList;
         }
-        // 第二步：检查并重建数据库连接，确保连接有效
-        if (db == null || !db.isOpen()) {
-            db = DBUntil.con;
-            if (db == null) {
-                return orderBeanList;
-            }
-        }
-        Cursor rs = null; // 声明数据库游标，用于遍历查询结果
-        // 构建查询SQL：按用户ID和状态筛选，按时间倒序排列
-        String sql = "select * from d_orders where s_user_id=? and s_order_sta=? " +
-                "ORDER BY strftime('%Y-%m-%d %H:%M:%S', s_order_time )  DESC ";
-        String data[] = {account, staZ}; // 封装查询参数
-        try {
-            // 执行参数化查询，获取游标结果集
-            rs = db.rawQuery(sql, data);
-            // 遍历游标结果集，逐行封装订单对象
-            while (rs != null && rs.moveToNext()) {
-                OrderBean orderBean = createOrderBeanFromCursor(rs);
-                orderBeanList.add(orderBean);
-            }
-        } catch (SQLException e) {
-            // 捕获数据库查询异常，打印异常堆栈便于调试
-            e.printStackTrace();
-        } finally {
-            // 最终步骤：关闭游标，释放数据库资源，避免内存泄漏
-            if (rs != null && !rs.isClosed()) {
-                rs.close();
-            }
+        // 第二步：获取数据库连接，未初始化时返回默认值
+        SQLiteDatabase db = DBManager.getDatabase();
+        if (db == null) {
+            return orderBeanList;
         }
+        // 第三步：交由OrderRepository批量装配（按用户ID和状态筛选，按时间倒序排列），
+        // 订单明细和用户昵称通过集合查询一次性取回，不再逐行查询数据库
+        orderBeanList = OrderRepository.loadOrders(DBQueries.WHERE_USER_STA, new String[]{account, staZ}, 0, 0,
+                true, OrderArchive.isArchivable(staZ));
         // 返回封装后的用户指定状态订单列表
         return orderBeanList;
     }
@@ -295,35 +410,14 @@ public class OrderDao {
         if (account == null || account.trim().isEmpty()) {
             return orderBeanList;
         }
-        // 第二步：检查并重建数据库连接，确保连接有效
-        if (db == null || !db.isOpen()) {
-            db = DBUntil.con;
-            if (db == null) {
-                return orderBeanList;
-            }
-        }
-        Cursor rs = null; // 声明数据库游标，用于遍历查询结果
-        // 核心SQL：仅按用户ID筛选，不添加状态条件，返回用户全部订单，按时间倒序排列
-        String sql = "select * from d_orders where s_user_id=? " +
-                "ORDER BY strftime('%Y-%m-%d %H:%M:%S', s_order_time )  DESC ";
-        String data[] = {account}; // 封装查询参数（仅用户ID）
-        try {
-            // 执行参数化查询，获取游标结果集
-            rs = db.rawQuery(sql, data);
-            // 遍历游标结果集，逐行封装订单对象
-            while (rs != null && rs.moveToNext()) {
-                OrderBean orderBean = createOrderBeanFromCursor(rs);
-                orderBeanList.add(orderBean);
-            }
-        } catch (SQLException e) {
-            // 捕获数据库查询异常，打印异常堆栈便于调试
-            e.printStackTrace();
-        } finally {
-            // 最终步骤：关闭游标，释放数据库资源，避免内存泄漏
-            if (rs != null && !rs.isClosed()) {
-                rs.close();
-            }
+        // 第二步：获取数据库连接，未初始化时返回默认值
+        SQLiteDatabase db = DBManager.getDatabase();
+        if (db == null) {
+            return orderBeanList;
         }
+        // 第三步：交由OrderRepository批量装配（仅按用户ID筛选，不添加状态条件，返回用户全部订单，按时间倒序排列），
+        // 订单明细和用户昵称通过集合查询一次性取回，不再逐行查询数据库
+        orderBeanList = OrderRepository.loadOrders(DBQueries.WHERE_USER, new String[]{account}, 0, 0, true, true);
         // 返回封装后的用户全部订单列表
         return orderBeanList;
     }
@@ -340,41 +434,84 @@ public class OrderDao {
         if (account == null || account.trim().isEmpty()) {
             return orderBeanList;
         }
-        // 第二步：检查并重建数据库连接，确保连接有效
-        if (db == null || !db.isOpen()) {
-            db = DBUntil.con;
-            if (db == null) {
-                return orderBeanList;
-            }
-        }
-        Cursor rs = null; // 声明数据库游标，用于遍历查询结果
-        // 构建查询SQL：按商家ID筛选，排除未处理状态（1），按时间倒序排列
-        String sql = "select * from d_orders where s_business_id=? and s_order_sta!=? " +
-                "ORDER BY strftime('%Y-%m-%d %H:%M:%S', s_order_time )  DESC ";
-        String data[] = {account, ORDER_STA_UNHANDLED}; // 封装查询参数
-        try {
-            // 执行参数化查询，获取游标结果集
-            rs = db.rawQuery(sql, data);
-            // 遍历游标结果集，逐行封装订单对象
-            while (rs != null && rs.moveToNext()) {
-                OrderBean orderBean = createOrderBeanFromCursor(rs);
-                orderBeanList.add(orderBean);
-            }
-        } catch (SQLException e) {
-            // 捕获数据库查询异常，打印异常堆栈便于调试
-            e.printStackTrace();
-        } finally {
-            // 最终步骤：关闭游标，释放数据库资源，避免内存泄漏
-            if (rs != null && !rs.isClosed()) {
-                rs.close();
-            }
+        // 第二步：获取数据库连接，未初始化时返回默认值
+        SQLiteDatabase db = DBManager.getDatabase();
+        if (db == null) {
+            return orderBeanList;
         }
+        // 第三步：交由OrderRepository批量装配（按商家ID筛选，排除未处理状态（1），按时间倒序排列），
+        // 订单明细和用户昵称通过集合查询一次性取回，不再逐行查询数据库
+        orderBeanList = OrderRepository.loadOrders(DBQueries.WHERE_BUSINESS_FINISH, new String[]{account, ORDER_STA_UNHANDLED}, 0, 0,
+                true, true);
         // 返回封装后的商家非未处理订单列表
         return orderBeanList;
     }
 
+    /**
+     * 商家按状态分页加载订单（商家未完成订单页面使用，支持关键词搜索）
+     * @param account 商家ID（必填）
+     * @param staZ 订单状态（必填，需使用OrderBean状态常量）
+     * @param query 搜索关键词（匹配下单用户昵称或订单内菜品名称），为空时不筛选
+     * @param pageSize 每页条数（小于等于0时使用OrderPagingSource.DEFAULT_PAGE_SIZE）
+     * @return 订单分页数据源：按创建时间倒序逐页加载，参数非法时所有页均为空
+     */
+    public static OrderPagingSource pageOrdersBySta(String account, String staZ, String query, int pageSize) {
+        if (isBlank(account) || isBlank(staZ)) {
+            return new OrderPagingSource(null, null, null, pageSize, false);
+        }
+        // 待处理状态只查询订单主表（不随历史订单增长），已完成状态同时查询归档表
+        return new OrderPagingSource(DBQueries.WHERE_BUSINESS_STA, new String[]{account, staZ}, query, pageSize,
+                OrderArchive.isArchivable(staZ));
+    }
+
+    /**
+     * 商家分页加载已完成相关订单（商家已完成订单页面使用，排除未处理订单，支持关键词搜索）
+     * @param account 商家ID（必填）
+     * @param query 搜索关键词（匹配下单用户昵称或订单内菜品名称），为空时不筛选
+     * @param pageSize 每页条数（小于等于0时使用OrderPagingSource.DEFAULT_PAGE_SIZE）
+     * @return 订单分页数据源：按创建时间倒序逐页加载（包含已归档订单），参数非法时所有页均为空
+     */
+    public static OrderPagingSource pageOrdersFinish(String account, String query, int pageSize) {
+        if (isBlank(account)) {
+            return new OrderPagingSource(null, null, null, pageSize, false);
+        }
+        return new OrderPagingSource(DBQueries.WHERE_BUSINESS_FINISH, new String[]{account, ORDER_STA_UNHANDLED}, query, pageSize, true);
+    }
+
+    /**
+     * 用户按状态分页加载订单（用户未完成订单页面使用，支持关键词搜索）
+     * @param account 用户ID（必填）
+     * @param staZ 订单状态（必填，需使用OrderBean状态常量）
+     * @param query 搜索关键词（匹配下单用户昵称或订单内菜品名称），为空时不筛选
+     * @param pageSize 每页条数（小于等于0时使用OrderPagingSource.DEFAULT_PAGE_SIZE）
+     * @return 订单分页数据源：按创建时间倒序逐页加载，参数非法时所有页均为空
+     */
+    public static OrderPagingSource pageOrdersByStaAndUser(String account, String staZ, String query, int pageSize) {
+        if (isBlank(account) || isBlank(staZ)) {
+            return new OrderPagingSource(null, null, null, pageSize, false);
+        }
+        // 待处理状态只查询订单主表（不随历史订单增长），已完成状态同时查询归档表
+        return new OrderPagingSource(DBQueries.WHERE_USER_STA, new String[]{account, staZ}, query, pageSize,
+                OrderArchive.isArchivable(staZ));
+    }
+
+    /**
+     * 用户分页加载全部订单（用户全部订单页面使用，不筛选状态，支持关键词搜索）
+     * @param account 用户ID（必填）
+     * @param query 搜索关键词（匹配下单用户昵称或订单内菜品名称），为空时不筛选
+     * @param pageSize 每页条数（小于等于0时使用OrderPagingSource.DEFAULT_PAGE_SIZE）
+     * @return 订单分页数据源：按创建时间倒序逐页加载（包含已归档订单），参数非法时所有页均为空
+     */
+    public static OrderPagingSource pageOrdersByUser(String account, String query, int pageSize) {
+        if (isBlank(account)) {
+            return new OrderPagingSource(null, null, null, pageSize, false);
+        }
+        return new OrderPagingSource(DBQueries.WHERE_USER, new String[]{account}, query, pageSize, true);
+    }
+
     /**
      * 保存单个订单详情（菜品记录）到订单详情表（d_order_details）
+     * 注意：快照与明细在同一个小事务中写入；批量写入订单详情请使用placeOrder()
      * @param orderDetailBean 订单详情对象（封装了单道菜品的信息，不能为空）
      */
     public static void saveOrderDetail(OrderDetailBean orderDetailBean) {
@@ -382,24 +519,20 @@ public class OrderDao {
         if (orderDetailBean == null) {
             return;
         }
-        // 第二步：检查并重建数据库连接，确保连接有效
-        if (db == null || !db.isOpen()) {
-            db = DBUntil.con;
-            if (db == null) {
-                return;
-            }
+        SQLiteDatabase db = DBManager.getDatabase();
+        if (db == null) {
+            return;
         }
+        db.beginTransaction();
         try {
-            // 第三步：构建插入SQL语句，封装菜品所有信息并执行插入
-            db.execSQL("INSERT INTO d_order_details (s_details_id,s_food_id, s_food_name,s_food_des, " +
-                            "s_food_price, s_food_num,s_food_img) VALUES (?, ?,?, ?, ?, ?, ?)",
-                    new Object[]{orderDetailBean.getDetailsId(), orderDetailBean.getFoodId(),
-                            orderDetailBean.getFoodName(), orderDetailBean.getFoodDescription(),
-                            orderDetailBean.getFoodPrice(), orderDetailBean.getFoodQuantity(),
-                            orderDetailBean.getFoodImage()});
+            // 第二步：查找（或新建）菜品快照，插入只引用快照ID和数量的明细行
+            insertDetail("OrderDao.saveOrderDetail", db, orderDetailBean);
+            db.setTransactionSuccessful();
         } catch (SQLException e) {
             // 捕获数据库插入异常（如主键冲突、字段不匹配等），打印异常堆栈便于调试
             e.printStackTrace();
+        } finally {
+            DBManager.endTransaction(db);
         }
     }
 
@@ -413,23 +546,4 @@ public class OrderDao {
         // 复用通用状态更新方法，传入状态4常量，确保逻辑统一、更新可靠
         return updateOrderStatus(orderId, ORDER_STA_FINISH_COMMENTED);
     }
-
-    /**
-     * 私有公共方法：从Cursor游标中提取字段，封装为OrderBean对象
-     * 作用：抽取重复的封装逻辑，减少代码冗余，提高代码可维护性，统一字段提取规则
-     * @param rs 数据库查询游标（已指向有效数据行，非空）
-     * @return 封装完成的OrderBean对象（包含订单的所有字段信息）
-     */
-    private static OrderBean createOrderBeanFromCursor(Cursor rs) {
-        // 使用Tools工具类从游标中安全获取各字段值，避免字段异常引发错误
-        String orderId = Tools.getResultString(rs, "s_order_id");
-        String time = Tools.getResultString(rs, "s_order_time");
-        String businessId = Tools.getResultString(rs, "s_business_id");
-        String userId = Tools.getResultString(rs, "s_user_id");
-        String detailsId = Tools.getResultString(rs, "s_order_details_id");
-        String sta = Tools.getResultString(rs, "s_order_sta");
-        String address = Tools.getResultString(rs, "s_order_address");
-        // 实例化OrderBean并返回，封装所有订单字段
-        return new OrderBean(orderId, time, businessId, userId, detailsId, sta, address);
-    }
-}
\ No newline at end of file
+}
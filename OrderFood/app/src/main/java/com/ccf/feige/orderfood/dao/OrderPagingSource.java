@@ -0,0 +1,161 @@
+package com.ccf.feige.orderfood.dao;
+
+import com.ccf.feige.orderfood.bean.OrderBean;
+import com.ccf.feige.orderfood.db.DBQueries;
+import com.ccf.feige.orderfood.until.Tools;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 订单分页数据源（键集分页）
+ * 核心功能：按(下单时间, 订单ID)倒序逐页加载订单，每页只装配pageSize个订单的明细和用户昵称
+ * 设计说明：不使用LIMIT/OFFSET（偏移量越大，数据库需要跳过的行越多），而是记住已加载页边界订单的(时间, 订单ID)，
+ * 下一页条件为 (o.s_order_time, o.s_order_id) < (边界时间, 边界ID)，直接在(商家/用户, 状态, 时间, 订单ID)索引上定位，
+ * 无论订单总数多少，每页的查询耗时基本不变
+ * 可选关键词：不为空时先通过订单全文索引匹配（见OrderRepository.searchOrderIds），再按同样的键集条件分页
+ * 历史列表（includeArchive为true）同时查询订单主表和归档表，按同样的(时间, 订单ID)键集合并分页；待处理列表只查询订单主表
+ * 实例不可变、不持有界面对象，load方法为同步数据库读操作，界面中由OrderPager通过DBManager.read()调用
+ */
+public class OrderPagingSource {
+
+    /**
+     * 默认每页条数
+     */
+    public static final int DEFAULT_PAGE_SIZE = 20;
+
+    /**
+     * 订单列表依赖的表（订单、明细、下单用户昵称、订单全文索引及对应的归档表），任一表变化时列表需要重新加载（见InvalidationTracker）
+     */
+    public static final String[] TABLES = {"d_orders", "d_order_details", "d_user", "d_orders_fts",
+            "d_orders_archive", "d_order_details_archive", "d_orders_archive_fts"};
+
+    // 订单表筛选条件（使用别名o），参数非法时为null（所有加载均返回空列表）
+    private final String where;
+    // 筛选条件对应的参数
+    private final String[] args;
+    // 全文索引MATCH表达式，关键词为空时为null（不做关键词筛选）
+    private final String match;
+    // 每页条数
+    private final int pageSize;
+    // 是否同时查询归档表（历史列表）
+    private final boolean includeArchive;
+
+    /**
+     * 构造方法
+     * @param where 订单表筛选条件（使用别名o，如"o.s_business_id=? and o.s_order_sta=?"），为null时数据源为空
+     * @param args 筛选条件对应的参数（与where中的占位符一一对应）
+     * @param query 搜索关键词（匹配下单用户昵称或订单内菜品名称），为空时不筛选
+     * @param pageSize 每页条数，小于等于0时使用DEFAULT_PAGE_SIZE
+     * @param includeArchive true同时加载已归档的订单（历史列表），false只加载订单主表中的订单
+     */
+    OrderPagingSource(String where, String[] args, String query, int pageSize, boolean includeArchive) {
+        this.where = where;
+        this.args = args == null ? new String[0] : args;
+        this.match = Tools.toFtsMatchQuery(query);
+        this.pageSize = pageSize > 0 ? pageSize : DEFAULT_PAGE_SIZE;
+        this.includeArchive = includeArchive;
+    }
+
+    /**
+     * 获取每页条数
+     * @return 每页条数
+     */
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * 加载第一页（最新的pageSize个订单）
+     * @return 订单列表（按时间倒序），无数据时返回空列表
+     */
+    public List<OrderBean> loadFirst() {
+        return load(null, new String[0], pageSize, true);
+    }
+
+    /**
+     * 加载比边界订单更旧的一页（向下滚动）
+     * @param time 边界订单的下单时间（毫秒）
+     * @param orderId 边界订单ID
+     * @return 订单列表（按时间倒序），没有更旧的订单时返回空列表
+     */
+    public List<OrderBean> loadOlderThan(long time, String orderId) {
+        return load(DBQueries.OLDER_THAN, keyArgs(time, orderId), pageSize, true);
+    }
+
+    /**
+     * 加载比边界订单更新的一页（窗口裁掉头部后向上滚动）
+     * @param time 边界订单的下单时间（毫秒）
+     * @param orderId 边界订单ID
+     * @return 订单列表（按时间倒序，即紧挨在边界订单之前的pageSize个订单），没有更新的订单时返回空列表
+     */
+    public List<OrderBean> loadNewerThan(long time, String orderId) {
+        List<OrderBean> list = load(DBQueries.NEWER_THAN, keyArgs(time, orderId), pageSize, false);
+        // 按正序查询出紧挨边界的一页，翻转为与列表一致的倒序
+        Collections.reverse(list);
+        return list;
+    }
+
+    /**
+     * 重新加载两个边界订单之间（含边界）的订单（数据变化后刷新当前窗口，见OrderPager.refresh()）
+     * 说明：边界订单已不在列表中（如已接单）时同样适用，键集条件只比较(时间, 订单ID)
+     * @param newest 是否从最新的订单开始（窗口头部未被裁剪过时为true，此时忽略headTime/headId，新增的订单也会加载出来）
+     * @param headTime 窗口头部边界订单的下单时间（毫秒）
+     * @param headId 窗口头部边界订单ID
+     * @param tailTime 窗口尾部边界订单的下单时间（毫秒）
+     * @param tailId 窗口尾部边界订单ID
+     * @param limit 最多加载的条数
+     * @return 订单列表（按时间倒序）
+     */
+    public List<OrderBean> loadRange(boolean newest, long headTime, String headId, long tailTime, String tailId, int limit) {
+        if (newest) {
+            return load(DBQueries.NOT_OLDER_THAN, keyArgs(tailTime, tailId), limit, true);
+        }
+        String[] rangeArgs = new String[4];
+        System.arraycopy(keyArgs(headTime, headId), 0, rangeArgs, 0, 2);
+        System.arraycopy(keyArgs(tailTime, tailId), 0, rangeArgs, 2, 2);
+        return load(DBQueries.NOT_NEWER_THAN + " and " + DBQueries.NOT_OLDER_THAN, rangeArgs, limit, true);
+    }
+
+    /**
+     * 键集条件的参数（时间以字符串绑定，与INTEGER列比较时按数值比较）
+     */
+    private static String[] keyArgs(long time, String orderId) {
+        return new String[]{String.valueOf(time), orderId};
+    }
+
+    /**
+     * 加载一页订单
+     * @param keyCondition 键集条件（DBQueries.OLDER_THAN/DBQueries.NEWER_THAN等），为null表示第一页
+     * @param keyArgs 键集条件的参数
+     * @param limit 最多加载的条数
+     * @param newestFirst true按时间倒序取一页，false按时间正序取一页
+     * @return 装配完成的订单列表（newestFirst为false且走全文索引时同样按正序返回，由调用方统一翻转）
+     */
+    private List<OrderBean> load(String keyCondition, String[] keyArgs, int limit, boolean newestFirst) {
+        if (where == null) {
+            return new ArrayList<>();
+        }
+        // 第一步：拼接键集条件及其参数
+        String pageWhere = where;
+        String[] pageArgs = args;
+        if (keyCondition != null) {
+            pageWhere = where + " and " + keyCondition;
+            pageArgs = new String[args.length + keyArgs.length];
+            System.arraycopy(args, 0, pageArgs, 0, args.length);
+            System.arraycopy(keyArgs, 0, pageArgs, args.length, keyArgs.length);
+        }
+        // 第二步：没有关键词时直接按索引取一页；有关键词时先在全文索引中取出一页订单ID再装配
+        if (match == null) {
+            return OrderRepository.loadOrders(pageWhere, pageArgs, limit, 0, newestFirst, includeArchive);
+        }
+        List<OrderBean> list = OrderRepository.loadOrdersByIds(
+                OrderRepository.searchOrderIds(pageWhere, pageArgs, match, limit, newestFirst, includeArchive), includeArchive);
+        if (!newestFirst) {
+            // loadOrdersByIds固定按倒序返回，这里恢复为正序，与无关键词时的返回顺序保持一致
+            Collections.reverse(list);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,440 @@
+package com.ccf.feige.orderfood.dao;
+
+import android.database.Cursor;
+import android.database.SQLException;
+import android.database.sqlite.SQLiteDatabase;
+
+import com.ccf.feige.orderfood.bean.OrderBean;
+import com.ccf.feige.orderfood.bean.OrderDetailBean;
+import com.ccf.feige.orderfood.db.DBManager;
+import com.ccf.feige.orderfood.db.DBQueries;
+import com.ccf.feige.orderfood.db.QueryStats;
+import com.ccf.feige.orderfood.until.Tools;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 订单仓库类（批量装配订单）
+ * 核心功能：按页加载订单主表数据，并用固定次数的集合查询（JOIN + IN列表）一次性装配订单明细和下单用户昵称
+ * 设计说明：原OrderBean构造方法中每行订单都会再查询订单明细、两次查询用户信息，订单越多查询次数越多（N+1问题）；
+ * 本类改为：1次JOIN查询订单及用户昵称 + 按批次的IN查询订单明细，再在内存中组装OrderBean，构造方法不再访问数据库
+ * 订单搜索先通过searchOrderIds()在全文索引中分页取出匹配的订单ID，再由loadOrdersByIds()装配这一页订单；
+ * 订单列表页面通过OrderPagingSource按(时间, 订单ID)键集逐页加载；
+ * 历史列表（includeArchive为true）同时查询订单主表和归档表（见OrderArchive），两边各自按索引取出有序结果后UNION ALL合并
+ * 数据库连接通过DBManager获取；界面中请通过DBManager.read()调用
+ */
+public class OrderRepository {
+    /**
+     * 订单的内存排序规则：按(时间, 订单ID)倒序，与DBQueries.ORDER_BY_TIME_DESC一致（合并多批查询结果时使用）
+     */
+    private static final Comparator<OrderBean> NEWEST_FIRST = new Comparator<OrderBean>() {
+        @Override
+        public int compare(OrderBean a, OrderBean b) {
+            int byTime = Long.compare(b.getOrderTimeMillis(), a.getOrderTimeMillis());
+            return byTime != 0 ? byTime : b.getOrderId().compareTo(a.getOrderId());
+        }
+    };
+
+    /**
+     * 按条件分页加载订单，并批量装配订单明细和下单用户昵称
+     * @param where 订单表筛选条件（使用别名o，如"o.s_business_id=? and o.s_order_sta=?"），为空则不筛选
+     * @param args 筛选条件对应的参数（与where中的占位符一一对应），无参数时可传null
+     * @param limit 每页条数，小于等于0表示不分页，加载全部匹配订单
+     * @param offset 起始偏移量（limit大于0时生效）
+     * @return 装配完成的订单列表：按创建时间倒序排列，无数据/连接失效时返回空列表
+     */
+    public static List<OrderBean> loadOrders(String where, String[] args, int limit, int offset) {
+        return loadOrders(where, args, limit, offset, true, false);
+    }
+
+    /**
+     * 按条件分页加载订单，并批量装配订单明细和下单用户昵称
+     * @param where 订单表筛选条件（使用别名o），为空则不筛选
+     * @param args 筛选条件对应的参数，无参数时可传null
+     * @param limit 每页条数，小于等于0表示不分页
+     * @param offset 起始偏移量（limit大于0时生效）
+     * @param newestFirst true按创建时间倒序，false按创建时间正序
+     * @param includeArchive true同时查询归档表（历史列表），false只查询订单主表（待处理等活跃订单列表）
+     * @return 装配完成的订单列表，无数据/连接失效时返回空列表
+     */
+    static List<OrderBean> loadOrders(String where, String[] args, int limit, int offset, boolean newestFirst,
+                                      boolean includeArchive) {
+        // 初始化返回结果列表，避免返回null引发空指针异常
+        List<OrderBean> orderBeanList = new ArrayList<>();
+        // 第一步：获取数据库连接，未初始化时返回默认值
+        SQLiteDatabase db = DBManager.getDatabase();
+        if (db == null) {
+            return orderBeanList;
+        }
+        // 第二步：构建订单查询SQL，左联用户表一次性取出下单用户昵称（仅关联未注销用户，与AdminDao.getCommonUser一致）
+        StringBuilder sql = new StringBuilder(DBQueries.SELECT_ORDERS);
+        appendWhere(sql, " where ", where);
+        if (includeArchive) {
+            // 归档表使用相同的别名和筛选条件，参数按两边各一份重复
+            sql.append(" union all ").append(DBQueries.SELECT_ARCHIVE_ORDERS);
+            appendWhere(sql, " where ", where);
+            sql.append(newestFirst ? DBQueries.UNION_ORDER_BY_TIME_DESC : DBQueries.UNION_ORDER_BY_TIME_ASC);
+            args = repeatArgs(args);
+        } else {
+            sql.append(newestFirst ? DBQueries.ORDER_BY_TIME_DESC : DBQueries.ORDER_BY_TIME_ASC);
+        }
+        if (limit > 0) {
+            // 分页参数为内部计算的整数，直接拼接即可（非用户输入，不存在注入风险）
+            sql.append(" LIMIT ").append(limit).append(" OFFSET ").append(Math.max(offset, 0));
+        }
+
+        Cursor rs = null; // 声明数据库游标，用于遍历查询结果
+        try {
+            // 第三步：执行订单查询，逐行封装订单对象（构造方法不访问数据库）
+            rs = QueryStats.query(db, loadOrdersName(where, includeArchive), sql.toString(), args);
+            while (rs != null && rs.moveToNext()) {
+                OrderBean orderBean = createOrderBeanFromCursor(rs);
+                orderBean.setUserName(Tools.getResultString(rs, "u_name"));
+                orderBeanList.add(orderBean);
+            }
+        } catch (SQLException e) {
+            // 捕获数据库查询异常，打印异常堆栈便于调试
+            e.printStackTrace();
+        } finally {
+            // 关闭游标，释放数据库资源，避免内存泄漏
+            if (rs != null && !rs.isClosed()) {
+                rs.close();
+            }
+        }
+
+        // 第四步：批量查询本页所有订单的明细，并按详情ID回填到对应订单
+        attachOrderDetails(orderBeanList);
+        // 返回装配完成的订单列表
+        return orderBeanList;
+    }
+
+    /**
+     * 拼接调用方的筛选条件
+     * @param sql 拼接目标
+     * @param keyword 连接关键字（" where "或" and "）
+     * @param where 订单表筛选条件（使用别名o），为空则不拼接
+     */
+    private static void appendWhere(StringBuilder sql, String keyword, String where) {
+        if (where != null && !where.trim().isEmpty()) {
+            sql.append(keyword).append(where);
+        }
+    }
+
+    /**
+     * 合并查询的参数：订单主表和归档表两部分的筛选条件相同，参数重复一份
+     * @param args 一部分的参数，可为null
+     * @return 两部分的参数，args为null时返回null
+     */
+    private static String[] repeatArgs(String[] args) {
+        if (args == null) {
+            return null;
+        }
+        String[] both = new String[args.length * 2];
+        System.arraycopy(args, 0, both, 0, args.length);
+        System.arraycopy(args, 0, both, args.length, args.length);
+        return both;
+    }
+
+    /**
+     * 订单列表查询在QueryStats中的名称：按筛选条件区分（各列表的where为固定文本），
+     * IN列表的占位符个数随页大小变化，统一归为同一名称；同时查询归档表时加后缀"+archive"
+     * @param where 订单表筛选条件
+     * @param includeArchive 是否同时查询归档表
+     * @return 查询名称，如"OrderRepository.loadOrders[o.s_user_id=?]+archive"
+     */
+    private static String loadOrdersName(String where, boolean includeArchive) {
+        String name;
+        if (where == null || where.trim().isEmpty()) {
+            name = "OrderRepository.loadOrders";
+        } else {
+            int in = where.indexOf(" in (");
+            name = "OrderRepository.loadOrders[" + (in >= 0 ? where.substring(0, in) + " in (...)" : where) + "]";
+        }
+        return includeArchive ? name + "+archive" : name;
+    }
+
+    /**
+     * 通过订单全文索引d_orders_fts分页查询匹配的订单ID
+     * 说明：从索引匹配结果出发，按rowid回表订单主表后再按where筛选，耗时只与匹配的订单数相关，与订单总数无关；
+     * 分页由调用方在where中加入键集条件（见OrderPagingSource），不使用OFFSET
+     * @param where 订单表筛选条件（使用别名o，如"o.s_business_id=? and o.s_order_sta=?"），为空则不筛选
+     * @param args 筛选条件对应的参数（与where中的占位符一一对应），无参数时可传null
+     * @param match 全文索引MATCH表达式（由Tools.toFtsMatchQuery生成，不能为空）
+     * @param limit 每页条数，小于等于0表示不分页，返回全部匹配订单
+     * @param newestFirst true按创建时间倒序，false按创建时间正序
+     * @param includeArchive true同时匹配归档订单的全文索引d_orders_archive_fts，false只匹配订单主表
+     * @return 匹配的订单ID列表，无数据/连接失效时返回空列表
+     */
+    public static List<String> searchOrderIds(String where, String[] args, String match, int limit, boolean newestFirst,
+                                              boolean includeArchive) {
+        // 初始化返回结果列表，避免返回null引发空指针异常
+        List<String> orderIds = new ArrayList<>();
+        // 获取数据库连接，未初始化时返回默认值
+        SQLiteDatabase db = DBManager.getDatabase();
+        if (db == null || match == null) {
+            return orderIds;
+        }
+        // 构建查询SQL：全文索引匹配 + 按rowid回表订单主表 + 调用方筛选条件
+        // 使用CROSS JOIN固定连接顺序：否则优化器可能以(商家, 状态, 时间)索引为外层，对每个订单重复执行一次MATCH
+        StringBuilder sql = new StringBuilder(DBQueries.SELECT_SEARCH);
+        appendWhere(sql, " and ", where);
+        if (includeArchive) {
+            // 归档订单的索引docid对应归档表的rowid，两边分别回表后按(时间, 订单ID)合并
+            sql.append(" union all ").append(DBQueries.SELECT_ARCHIVE_SEARCH);
+            appendWhere(sql, " and ", where);
+            sql.append(newestFirst ? DBQueries.UNION_ORDER_BY_TIME_DESC : DBQueries.UNION_ORDER_BY_TIME_ASC);
+        } else {
+            sql.append(newestFirst ? DBQueries.ORDER_BY_TIME_DESC : DBQueries.ORDER_BY_TIME_ASC);
+        }
+        if (limit > 0) {
+            // 分页参数为内部计算的整数，直接拼接即可（非用户输入，不存在注入风险）
+            sql.append(" LIMIT ").append(limit);
+        }
+        // 参数顺序：MATCH表达式在前，筛选条件参数在后（合并查询时两部分各一份）
+        String[] queryArgs = new String[(args == null ? 0 : args.length) + 1];
+        queryArgs[0] = match;
+        if (args != null) {
+            System.arraycopy(args, 0, queryArgs, 1, args.length);
+        }
+        if (includeArchive) {
+            queryArgs = repeatArgs(queryArgs);
+        }
+
+        Cursor rs = null;
+        try {
+            rs = QueryStats.query(db, includeArchive ? "OrderRepository.searchOrderIds+archive" : "OrderRepository.searchOrderIds",
+                    sql.toString(), queryArgs);
+            while (rs != null && rs.moveToNext()) {
+                orderIds.add(rs.getString(0));
+            }
+        } catch (SQLException e) {
+            // 捕获数据库查询异常，打印异常堆栈便于调试
+            e.printStackTrace();
+        } finally {
+            // 关闭游标，释放数据库资源
+            if (rs != null && !rs.isClosed()) {
+                rs.close();
+            }
+        }
+        return orderIds;
+    }
+
+    /**
+     * 按订单ID列表批量装配订单（一页搜索结果），按创建时间倒序排列
+     * 说明：同时查询归档表时IN列表在主表和归档表两部分各绑定一次，参数个数是订单ID个数的两倍；
+     * 订单ID按每批DBQueries.MAX_IN_ARGS个（同时查询归档表时减半）分批查询，任何数量的订单ID都不会超出绑定变量上限，
+     * 分多批查询时合并后重新按(时间, 订单ID)倒序排列
+     * @param orderIds 订单ID列表（通常为一页的数量，只需一次查询）
+     * @param includeArchive 订单可能已归档时为true（同时按主键查询归档表）
+     * @return 装配完成的订单列表，orderIds为空时返回空列表
+     */
+    public static List<OrderBean> loadOrdersByIds(List<String> orderIds, boolean includeArchive) {
+        List<OrderBean> orderBeanList = new ArrayList<>();
+        if (orderIds == null || orderIds.isEmpty()) {
+            return orderBeanList;
+        }
+        int batchSize = includeArchive ? DBQueries.MAX_IN_ARGS / 2 : DBQueries.MAX_IN_ARGS;
+        for (int start = 0; start < orderIds.size(); start += batchSize) {
+            List<String> batch = orderIds.subList(start, Math.min(start + batchSize, orderIds.size()));
+            orderBeanList.addAll(loadOrders(DBQueries.whereOrderIdIn(batch.size()),
+                    batch.toArray(new String[0]), 0, 0, true, includeArchive));
+        }
+        if (orderIds.size() > batchSize) {
+            Collections.sort(orderBeanList, NEWEST_FIRST);
+        }
+        return orderBeanList;
+    }
+
+    /**
+     * 批量装配订单明细：收集订单列表中的所有详情ID，按批次执行IN查询，再按详情ID分组回填
+     * @param orderBeanList 待装配的订单列表（非空，装配后每个订单的明细列表均不为null）
+     */
+    public static void attachOrderDetails(List<OrderBean> orderBeanList) {
+        // 第一步：收集去重后的详情ID，同时为每个订单预置空明细列表（避免适配器拿到null）
+        Set<String> detailIds = new LinkedHashSet<>();
+        for (OrderBean orderBean : orderBeanList) {
+            orderBean.setOrderDetailBeanList(new ArrayList<>());
+            String detailId = orderBean.getOrderDetailsId();
+            if (detailId != null && !detailId.trim().isEmpty()) {
+                detailIds.add(detailId);
+            }
+        }
+        if (detailIds.isEmpty()) {
+            return;
+        }
+
+        // 第二步：按批次查询明细，结果按详情ID分组
+        Map<String, List<OrderDetailBean>> detailMap = getOrderDetailsByIds(new ArrayList<>(detailIds));
+
+        // 第三步：按详情ID回填到对应订单
+        for (OrderBean orderBean : orderBeanList) {
+            List<OrderDetailBean> details = detailMap.get(orderBean.getOrderDetailsId());
+            if (details != null) {
+                orderBean.setOrderDetailBeanList(details);
+            }
+        }
+    }
+
+    /**
+     * 按详情ID集合批量查询订单明细（IN列表分批查询）
+     * 说明：先查询明细行（详情ID、菜品ID、快照ID、数量），再按去重后的快照ID查询菜品快照；
+     * 同一菜品版本在整页订单中只读取一次，各明细共用同一份名称/描述/图片字符串，游标窗口和内存中都不再重复保存；
+     * 订单主表中查不到的详情ID（已归档订单）再到归档明细表中查询，只查询主表时不会多执行查询
+     * @param detailIds 订单详情ID列表（已去重）
+     * @return 详情ID到明细列表的映射，无数据/连接失效时返回空映射
+     */
+    public static Map<String, List<OrderDetailBean>> getOrderDetailsByIds(List<String> detailIds) {
+        // 初始化返回结果映射，避免返回null引发空指针异常
+        Map<String, List<OrderDetailBean>> detailMap = new HashMap<>();
+        if (detailIds == null || detailIds.isEmpty()) {
+            return detailMap;
+        }
+        // 获取数据库连接，未初始化时返回默认值
+        SQLiteDatabase db = DBManager.getDatabase();
+        if (db == null) {
+            return detailMap;
+        }
+        // 第一步：按MAX_IN_ARGS分批查询明细行，记录每行引用的快照ID（先查订单主表的明细，剩余的详情ID再查归档明细表）
+        List<OrderDetailBean> all = new ArrayList<>();
+        List<Long> snapshotIds = new ArrayList<>();
+        Set<Long> snapshotIdSet = new LinkedHashSet<>();
+        List<String> missing = detailIds;
+        for (String table : DBQueries.DETAIL_TABLES) {
+            if (missing.isEmpty()) {
+                break;
+            }
+            queryDetailRows(db, table, missing, detailMap, all, snapshotIds, snapshotIdSet);
+            List<String> remaining = new ArrayList<>();
+            for (String detailId : missing) {
+                if (!detailMap.containsKey(detailId)) {
+                    remaining.add(detailId);
+                }
+            }
+            missing = remaining;
+        }
+        // 第二步：按快照ID批量查询菜品内容，填入引用该快照的明细
+        Map<Long, OrderDetailBean> snapshots = getSnapshotsByIds(db, new ArrayList<>(snapshotIdSet));
+        for (int i = 0; i < all.size(); i++) {
+            OrderDetailBean snapshot = snapshots.get(snapshotIds.get(i));
+            if (snapshot != null) {
+                OrderDetailBean detail = all.get(i);
+                detail.setFoodName(snapshot.getFoodName());
+                detail.setFoodDescription(snapshot.getFoodDescription());
+                detail.setFoodPriceCents(snapshot.getFoodPriceCents());
+                detail.setFoodImage(snapshot.getFoodImage());
+            }
+        }
+        return detailMap;
+    }
+
+    /**
+     * 在一张明细表中按详情ID分批查询明细行（不含菜品内容），结果追加到调用方的集合中
+     * @param db 数据库连接
+     * @param table 明细表（d_order_details或d_order_details_archive）
+     * @param detailIds 待查询的详情ID列表
+     * @param detailMap 详情ID到明细列表的映射（追加）
+     * @param all 所有明细行（追加，与snapshotIds一一对应）
+     * @param snapshotIds 每行明细引用的快照ID（追加）
+     * @param snapshotIdSet 去重后的快照ID（追加）
+     */
+    private static void queryDetailRows(SQLiteDatabase db, String table, List<String> detailIds,
+                                        Map<String, List<OrderDetailBean>> detailMap, List<OrderDetailBean> all,
+                                        List<Long> snapshotIds, Set<Long> snapshotIdSet) {
+        for (int start = 0; start < detailIds.size(); start += DBQueries.MAX_IN_ARGS) {
+            List<String> batch = detailIds.subList(start, Math.min(start + DBQueries.MAX_IN_ARGS, detailIds.size()));
+            String sql = DBQueries.selectDetailRows(table, batch.size());
+            Cursor rs = null;
+            try {
+                rs = QueryStats.query(db, table.equals(DBQueries.DETAIL_TABLES[0]) ? "OrderRepository.getOrderDetailsByIds"
+                        : "OrderRepository.getOrderDetailsByIds+archive", sql, batch.toArray(new String[0]));
+                while (rs != null && rs.moveToNext()) {
+                    // 使用Tools工具类从游标中安全获取字符串字段
+                    String detailId = Tools.getResultString(rs, "s_details_id");
+                    OrderDetailBean orderDetailBean = new OrderDetailBean(detailId,
+                            Tools.getResultString(rs, "s_food_id"), null, null, 0,
+                            Tools.getResultInt(rs, "s_food_num"), null);
+                    long snapshotId = Tools.getResultLong(rs, "s_snapshot_id");
+                    all.add(orderDetailBean);
+                    snapshotIds.add(snapshotId);
+                    snapshotIdSet.add(snapshotId);
+                    List<OrderDetailBean> list = detailMap.get(detailId);
+                    if (list == null) {
+                        list = new ArrayList<>();
+                        detailMap.put(detailId, list);
+                    }
+                    list.add(orderDetailBean);
+                }
+            } catch (SQLException e) {
+                // 捕获数据库查询异常，打印异常堆栈便于调试
+                e.printStackTrace();
+            } finally {
+                // 关闭游标，释放数据库资源
+                if (rs != null && !rs.isClosed()) {
+                    rs.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * 按快照ID集合批量查询菜品快照（IN列表分批查询）
+     * @param db 数据库连接
+     * @param snapshotIds 快照ID列表（已去重）
+     * @return 快照ID到菜品内容的映射（只填充名称、描述、单价、图片）
+     */
+    private static Map<Long, OrderDetailBean> getSnapshotsByIds(SQLiteDatabase db, List<Long> snapshotIds) {
+        Map<Long, OrderDetailBean> snapshots = new HashMap<>();
+        for (int start = 0; start < snapshotIds.size(); start += DBQueries.MAX_IN_ARGS) {
+            List<Long> batch = snapshotIds.subList(start, Math.min(start + DBQueries.MAX_IN_ARGS, snapshotIds.size()));
+            String[] args = new String[batch.size()];
+            for (int i = 0; i < args.length; i++) {
+                args[i] = String.valueOf(batch.get(i));
+            }
+            String sql = DBQueries.selectSnapshots(batch.size());
+            Cursor rs = null;
+            try {
+                rs = QueryStats.query(db, "OrderRepository.getSnapshotsByIds", sql, args);
+                while (rs != null && rs.moveToNext()) {
+                    snapshots.put(Tools.getResultLong(rs, "s_snapshot_id"), new OrderDetailBean(null, null,
+                            Tools.getResultString(rs, "s_food_name"),
+                            Tools.getResultString(rs, "s_food_des"),
+                            Tools.getResultLong(rs, "s_food_price"),
+                            0,
+                            Tools.getResultString(rs, "s_food_img")));
+                }
+            } catch (SQLException e) {
+                // 捕获数据库查询异常，打印异常堆栈便于调试
+                e.printStackTrace();
+            } finally {
+                // 关闭游标，释放数据库资源
+                if (rs != null && !rs.isClosed()) {
+                    rs.close();
+                }
+            }
+        }
+        return snapshots;
+    }
+
+    /**
+     * 私有公共方法：从Cursor游标中提取订单主表字段，封装为OrderBean对象（不访问数据库）
+     * @param rs 数据库查询游标（已指向有效数据行，非空）
+     * @return 封装完成的OrderBean对象（明细列表和用户昵称由调用方批量回填）
+     */
+    private static OrderBean createOrderBeanFromCursor(Cursor rs) {
+        String orderId = Tools.getResultString(rs, "s_order_id");
+        long time = Tools.getResultLong(rs, "s_order_time");
+        String businessId = Tools.getResultString(rs, "s_business_id");
+        String userId = Tools.getResultString(rs, "s_user_id");
+        String detailsId = Tools.getResultString(rs, "s_order_details_id");
+        int sta = Tools.getResultInt(rs, "s_order_sta");
+        String address = Tools.getResultString(rs, "s_order_address");
+        return new OrderBean(orderId, time, businessId, userId, detailsId, sta, address);
+    }
+}
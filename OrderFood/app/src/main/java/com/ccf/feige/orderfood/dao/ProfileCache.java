@@ -0,0 +1,130 @@
+package com.ccf.feige.orderfood.dao;
+
+import android.database.sqlite.SQLiteDatabase;
+import android.util.LruCache;
+
+import com.ccf.feige.orderfood.db.DBManager;
+
+/**
+ * 按账号缓存的读穿透缓存（AdminDao的商家/普通用户资料、CommentDao的商家平均评分）
+ * 核心功能：
+ * 1. 按账号缓存最近使用的资料（LRU，超过容量时淘汰最久未使用的账号），列表中同一账号的多行只查询一次数据库
+ * 2. 资料修改、注销时由AdminDao调用invalidate()使对应账号失效（新增评论后CommentDao同样使对应商家的平均评分失效）
+ * 3. 记录命中/未命中次数，便于确认列表滚动时实际的查询次数
+ * 说明：不存在或已注销的账号（查询结果为null）不缓存；每次读取时比较DBManager.getDatabase()返回的连接与缓存数据所属的连接，
+ * 不是同一个连接（如测试中attach()了另一个数据库、close()后重新init()打开）时先清空缓存再读取
+ * @param <V> 资料类型（UserBean/UserCommonBean，平均评分为String）
+ */
+public class ProfileCache<V> {
+
+    /**
+     * 缓存未命中时的查询方法
+     * @param <V> 资料类型
+     */
+    interface Loader<V> {
+        /**
+         * 从数据库查询资料
+         * @param account 账号
+         * @return 资料，不存在时返回null
+         */
+        V load(String account);
+    }
+
+    // 账号 → 资料（LruCache内部已加锁，命中/未命中次数由其统计）
+    private final LruCache<String, V> cache;
+    // 失效计数：查询期间发生过失效时不写入查询结果，避免把修改前的资料放回缓存
+    private int generation;
+    // 缓存数据所属的数据库连接
+    private SQLiteDatabase owner;
+
+    /**
+     * 构造方法
+     * @param maxSize 最多缓存的账号数量
+     */
+    ProfileCache(int maxSize) {
+        cache = new LruCache<>(maxSize);
+    }
+
+    /**
+     * 读取资料：命中缓存直接返回，未命中时调用loader查询并写入缓存
+     * @param account 账号，为null时返回null
+     * @param loader 未命中时的查询方法
+     * @return 资料，不存在时返回null
+     */
+    V get(String account, Loader<V> loader) {
+        if (account == null) {
+            return null;
+        }
+        int startGeneration = checkOwner();
+        V value = cache.get(account);
+        if (value != null) {
+            return value;
+        }
+        value = loader.load(account);
+        if (value != null) {
+            synchronized (this) {
+                if (generation == startGeneration) {
+                    cache.put(account, value);
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * 使某个账号的缓存失效（资料修改、注销后调用）
+     * @param account 账号
+     */
+    synchronized void invalidate(String account) {
+        generation++;
+        if (account != null) {
+            cache.remove(account);
+        }
+    }
+
+    /**
+     * 清空全部缓存
+     */
+    public synchronized void clear() {
+        generation++;
+        cache.evictAll();
+    }
+
+    /**
+     * 获取缓存命中次数
+     * @return 自创建以来的命中次数
+     */
+    public int hitCount() {
+        return cache.hitCount();
+    }
+
+    /**
+     * 获取缓存未命中次数（即实际查询数据库的次数）
+     * @return 自创建以来的未命中次数
+     */
+    public int missCount() {
+        return cache.missCount();
+    }
+
+    /**
+     * 当前缓存的账号数量
+     * @return 缓存条数
+     */
+    public int size() {
+        return cache.size();
+    }
+
+    /**
+     * 检查当前数据库连接是否与缓存数据所属的连接一致，不一致时清空缓存
+     * @return 当前失效计数
+     */
+    private synchronized int checkOwner() {
+        SQLiteDatabase db = DBManager.getDatabase();
+        if (db != owner) {
+            owner = db;
+            generation++;
+            cache.evictAll();
+        }
+        return generation;
+    }
+}
@@ -0,0 +1,515 @@
+package com.ccf.feige.orderfood.db;
+
+import android.app.Application;
+import android.content.Context;
+import android.content.pm.ApplicationInfo;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 数据库访问管理类（统一的数据库访问入口）
+ * 核心功能：
+ * 1. 持有全局唯一的数据库连接（开启WAL预写日志，读操作可与写操作并发执行），应用启动时在后台线程中打开
+ * 2. 按SQL文本缓存预编译语句（SQLiteStatement），写操作无需每次重新编译SQL
+ * 3. 写操作统一提交到单线程写线程顺序执行，读操作提交到小型读线程池并发执行，结果通过回调（主线程）或Future返回
+ * 使用说明：DAO中的方法为同步方法，通过getDatabase()获取连接，经QueryStats.query()/execute()执行SQL（同时统计耗时）；
+ * 界面（Activity/Fragment/Adapter）中请通过read()/write()在后台线程调用DAO，避免查询阻塞界面绘制；
+ * DAO中的事务通过endTransaction()结束，写操作修改的表由InvalidationTracker通知给正在显示这些数据的界面
+ */
+public class DBManager {
+
+    /**
+     * 读线程池大小：WAL模式下读操作可并发执行，界面同时发起的查询通常不多，取3个线程即可
+     */
+    private static final int READ_POOL_SIZE = 3;
+
+    /**
+     * 预编译语句缓存的最大条数（DAO中的写SQL均为固定文本，数量有限，超出时淘汰最久未使用的语句）
+     */
+    private static final int MAX_CACHED_STATEMENTS = 64;
+
+    /**
+     * 等待后台打开数据库的最长时间（毫秒）：首次安装时建表和写入初始化数据通常在1秒以内，
+     * 超时后DAO拿到null连接并返回默认值，避免调用线程无限等待
+     */
+    private static final long OPEN_TIMEOUT_MS = 10000;
+
+    private static final String TAG = "DBManager";
+
+    /**
+     * 全局数据库连接（由init()/attach()设置）
+     */
+    private static volatile SQLiteDatabase database;
+
+    /**
+     * 是否正在后台打开数据库（init()已调用、打开任务尚未结束）
+     */
+    private static volatile boolean opening = false;
+
+    /**
+     * 数据库就绪信号：后台打开任务结束（成功或失败）或attach()指定连接时释放
+     */
+    private static volatile CountDownLatch readyLatch = new CountDownLatch(1);
+
+    /**
+     * 预编译语句缓存（key：SQL文本，value：预编译语句），按访问顺序淘汰，访问时需对缓存本身加锁
+     */
+    private static final Map<String, SQLiteStatement> STATEMENT_CACHE =
+            new LinkedHashMap<String, SQLiteStatement>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, SQLiteStatement> eldest) {
+                    if (size() > MAX_CACHED_STATEMENTS) {
+                        // 被淘汰的语句若正在执行，close()只减少引用计数，执行结束后才真正释放
+                        eldest.getValue().close();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+
+    // 写线程：单线程顺序执行所有写操作，避免多个写事务互相等待数据库锁
+    private static final ExecutorService WRITE_EXECUTOR = Executors.newSingleThreadExecutor(new NamedThreadFactory("db-write"));
+    // 读线程池：并发执行查询
+    private static final ExecutorService READ_EXECUTOR = Executors.newFixedThreadPool(READ_POOL_SIZE, new NamedThreadFactory("db-read"));
+    // 主线程Handler：用于把后台操作的结果回调到主线程
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+
+    /**
+     * 已提交到读线程池/写线程、尚未执行完的任务数（测试中通过awaitIdle()等待后台任务完成）
+     */
+    private static final AtomicInteger PENDING_TASKS = new AtomicInteger();
+
+    /**
+     * 任务数归零时通知awaitIdle()的锁对象
+     */
+    private static final Object IDLE_LOCK = new Object();
+
+    /**
+     * 数据库操作结果回调接口
+     * @param <T> 结果类型
+     */
+    public interface Callback<T> {
+        /**
+         * 后台数据库操作完成（主线程回调，可直接操作界面）
+         * @param result 操作结果（即DAO方法的返回值）
+         */
+        void onResult(T result);
+    }
+
+    /**
+     * 在后台线程中打开数据库（已初始化或正在打开时直接返回，不阻塞调用线程）
+     * 说明：通过DBUntil打开数据库（DBUntil构造方法中已开启WAL），首次安装时复制预置数据库（SeedAssetInstaller）、升级时的迁移
+     * 都在该后台线程中执行，登录界面无需等待即可显示；打开期间调用的DAO方法在getDatabase()中等待打开完成。
+     * 打开任务提交到写线程，保证在此之后提交的写任务一定在数据库就绪后执行
+     * @param context 上下文对象（内部使用ApplicationContext，避免持有Activity导致内存泄漏）
+     */
+    public static synchronized void init(Context context) {
+        if (opening || (database != null && database.isOpen())) {
+            return;
+        }
+        final Context app = context.getApplicationContext();
+        // 查询统计只在可调试的包中开启（release包不统计，见QueryStats）
+        QueryStats.setEnabled((app.getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0);
+        if (app instanceof Application) {
+            QueryStats.install((Application) app);
+        }
+        if (readyLatch.getCount() == 0) {
+            // 上一次打开已结束（或曾attach()过），重新打开时使用新的就绪信号
+            readyLatch = new CountDownLatch(1);
+        }
+        opening = true;
+        final CountDownLatch ready = readyLatch;
+        PENDING_TASKS.incrementAndGet();
+        WRITE_EXECUTOR.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    open();
+                } finally {
+                    taskFinished();
+                }
+            }
+
+            private void open() {
+                long start = SystemClock.elapsedRealtime();
+                SQLiteDatabase db = null;
+                try {
+                    // 首次启动时先安装预置数据库（只复制文件），之后DBUntil直接打开，不再逐条建表和写入初始化数据
+                    SeedAssetInstaller.installDatabase(app);
+                    db = new DBUntil(app).getWritableDatabase();
+                } catch (RuntimeException e) {
+                    // 打开失败时DAO拿到null连接并返回默认值，下次调用init()时重试
+                    Log.e(TAG, "打开数据库失败", e);
+                }
+                synchronized (DBManager.class) {
+                    opening = false;
+                    if (db != null) {
+                        if (database == null || !database.isOpen()) {
+                            attach(db);
+                        } else {
+                            // 打开期间已通过attach()指定了其他连接（如测试中的内存数据库），以已指定的为准
+                            db.close();
+                        }
+                    }
+                }
+                ready.countDown();
+                Log.i(TAG, "数据库打开耗时" + (SystemClock.elapsedRealtime() - start) + "ms");
+            }
+        });
+    }
+
+    /**
+     * 指定当前使用的数据库连接（如测试中使用内存数据库），并清空旧连接的预编译语句缓存
+     * 说明：指定后视为打开已结束，释放就绪信号，awaitReady()/getDatabase()不再等待后台打开任务；
+     * 后台打开任务随后结束时，若指定的连接仍可用则以指定的为准（见init()）
+     * @param db 数据库连接，为null时断开当前连接（不关闭）
+     */
+    public static synchronized void attach(SQLiteDatabase db) {
+        clearStatementCache();
+        database = db;
+        DBUntil.con = db;
+        opening = false;
+        readyLatch.countDown();
+    }
+
+    /**
+     * 数据库是否已就绪（已打开，或已通过attach()指定连接）
+     * @return 就绪返回true
+     */
+    public static boolean isReady() {
+        SQLiteDatabase db = database;
+        return db != null && db.isOpen();
+    }
+
+    /**
+     * 等待后台打开数据库完成（未调用init()且未attach()时立即返回）
+     * @param timeoutMs 最长等待时间（毫秒）
+     * @return 等待结束时数据库已就绪返回true
+     */
+    public static boolean awaitReady(long timeoutMs) {
+        if (opening) {
+            try {
+                readyLatch.await(timeoutMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return isReady();
+    }
+
+    /**
+     * 关闭当前数据库连接并清空预编译语句缓存（之后可重新调用init()打开，如冷启动测试中模拟重新启动）
+     */
+    public static void close() {
+        // 先等待正在进行的打开任务结束（打开任务结束时需要获取本类的锁，不能持有锁等待）
+        awaitReady(OPEN_TIMEOUT_MS);
+        synchronized (DBManager.class) {
+            SQLiteDatabase db = database;
+            attach(null);
+            if (db != null && db.isOpen()) {
+                db.close();
+            }
+        }
+    }
+
+    /**
+     * 获取当前数据库连接
+     * 说明：数据库正在后台打开时等待打开完成（最长OPEN_TIMEOUT_MS），DAO应在后台线程中调用，不会阻塞界面
+     * @return 数据库连接，尚未初始化、打开失败或已关闭时返回null（调用方需判空并返回默认值）
+     */
+    public static SQLiteDatabase getDatabase() {
+        SQLiteDatabase db = database;
+        if ((db == null || !db.isOpen()) && opening) {
+            // 数据库正在后台打开（首次安装时还需建表和写入初始化数据），等待打开完成
+            awaitReady(OPEN_TIMEOUT_MS);
+            db = database;
+        }
+        if (db == null || !db.isOpen()) {
+            // 兼容直接给DBUntil.con赋值的旧代码
+            db = DBUntil.con;
+            if (db == null || !db.isOpen()) {
+                return null;
+            }
+            database = db;
+        }
+        return db;
+    }
+
+    /**
+     * 执行一条写SQL（INSERT/UPDATE/DELETE），使用按SQL文本缓存的预编译语句
+     * 说明：同一条预编译语句在绑定参数和执行期间加锁，可被多个线程安全复用；
+     * 在事务中调用时（同一线程已beginTransaction），语句自动加入该事务，事务须通过endTransaction()结束；
+     * 执行成功后通知InvalidationTracker该语句修改的表
+     * @param sql SQL语句（固定文本，参数使用?占位符）
+     * @param args 参数（支持null、数值、字符串、byte[]），与占位符一一对应
+     * @return 受影响的行数
+     * @throws android.database.SQLException 数据库未初始化或执行失败时抛出（与execSQL一致，由DAO捕获）
+     */
+    public static int execute(String sql, Object... args) {
+        SQLiteStatement statement = getStatement(sql);
+        int rows;
+        synchronized (statement) {
+            try {
+                bindArgs(statement, args);
+                rows = statement.executeUpdateDelete();
+            } finally {
+                statement.clearBindings();
+            }
+        }
+        if (rows > 0) {
+            // 记录被修改的表，通知依赖该表的界面（事务中的修改在endTransaction()后通知）
+            InvalidationTracker.onWrite(getDatabase(), sql);
+        }
+        return rows;
+    }
+
+    /**
+     * 结束事务（替代db.endTransaction()）：最外层事务结束后通知事务中修改过的表（见InvalidationTracker）
+     * @param db 开启事务的数据库连接
+     */
+    public static void endTransaction(SQLiteDatabase db) {
+        try {
+            db.endTransaction();
+        } finally {
+            InvalidationTracker.onTransactionEnded(db);
+        }
+    }
+
+    /**
+     * 获取（或编译并缓存）SQL对应的预编译语句
+     * @param sql SQL语句
+     * @return 预编译语句（多线程共享，使用时需对其加锁）
+     */
+    private static SQLiteStatement getStatement(String sql) {
+        // 在加锁前获取连接：数据库正在打开时需要等待，而打开完成时attach()要清空本缓存（需要同一把锁）
+        SQLiteDatabase db = getDatabase();
+        if (db == null) {
+            throw new android.database.SQLException("数据库尚未初始化");
+        }
+        synchronized (STATEMENT_CACHE) {
+            SQLiteStatement statement = STATEMENT_CACHE.get(sql);
+            if (statement == null) {
+                statement = db.compileStatement(sql);
+                STATEMENT_CACHE.put(sql, statement);
+            }
+            return statement;
+        }
+    }
+
+    /**
+     * 清空并释放预编译语句缓存（切换连接时调用）
+     */
+    private static void clearStatementCache() {
+        synchronized (STATEMENT_CACHE) {
+            for (SQLiteStatement statement : STATEMENT_CACHE.values()) {
+                statement.close();
+            }
+            STATEMENT_CACHE.clear();
+        }
+    }
+
+    /**
+     * 按参数类型为预编译语句绑定参数
+     * @param statement 预编译语句
+     * @param args 参数数组
+     */
+    private static void bindArgs(SQLiteStatement statement, Object[] args) {
+        if (args == null) {
+            return;
+        }
+        for (int i = 0; i < args.length; i++) {
+            Object arg = args[i];
+            int index = i + 1; // 绑定位置从1开始
+            if (arg == null) {
+                statement.bindNull(index);
+            } else if (arg instanceof Double || arg instanceof Float) {
+                statement.bindDouble(index, ((Number) arg).doubleValue());
+            } else if (arg instanceof Number) {
+                statement.bindLong(index, ((Number) arg).longValue());
+            } else if (arg instanceof Boolean) {
+                statement.bindLong(index, (Boolean) arg ? 1 : 0);
+            } else if (arg instanceof byte[]) {
+                statement.bindBlob(index, (byte[]) arg);
+            } else {
+                statement.bindString(index, arg.toString());
+            }
+        }
+    }
+
+    /**
+     * 在读线程池中执行查询任务
+     * @param task 查询任务（通常为调用DAO查询方法的lambda）
+     * @param callback 结果回调（主线程执行），可为null
+     * @param <T> 结果类型
+     * @return Future对象，可用于取消任务或在后台线程中等待结果
+     */
+    public static <T> Future<T> read(Callable<T> task, Callback<T> callback) {
+        return submit(READ_EXECUTOR, task, callback);
+    }
+
+    /**
+     * 在写线程中执行写任务（所有写任务按提交顺序串行执行）
+     * @param task 写任务（通常为调用DAO新增/修改/删除方法的lambda）
+     * @param callback 结果回调（主线程执行），可为null
+     * @param <T> 结果类型
+     * @return Future对象，可用于在后台线程中等待写入完成
+     */
+    public static <T> Future<T> write(Callable<T> task, Callback<T> callback) {
+        return submit(WRITE_EXECUTOR, task, callback);
+    }
+
+    /**
+     * 等待读线程池和写线程中已提交的任务全部执行完毕（测试使用，代替按固定时间休眠等待）
+     * 说明：返回时已完成任务的结果回调均已投递到主线程消息队列，但尚未执行；测试在主线程中执行这些回调后，
+     * 回调可能又提交了新任务，需通过isIdle()确认，必要时再次等待
+     * @param timeoutMs 最长等待时间（毫秒）
+     * @return 超时前全部任务已执行完毕返回true
+     */
+    public static boolean awaitIdle(long timeoutMs) throws InterruptedException {
+        // 使用System.nanoTime()计时：Robolectric测试中SystemClock由主线程消息队列驱动，等待期间不会前进
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        synchronized (IDLE_LOCK) {
+            while (PENDING_TASKS.get() > 0) {
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining <= 0) {
+                    return false;
+                }
+                IDLE_LOCK.wait(remaining);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 读线程池和写线程中是否没有已提交、尚未执行完的任务
+     * @return 没有待执行的任务返回true
+     */
+    public static boolean isIdle() {
+        return PENDING_TASKS.get() == 0;
+    }
+
+    /**
+     * 一个后台任务执行完毕（结果回调已投递到主线程之后调用），任务数归零时唤醒awaitIdle()
+     */
+    private static void taskFinished() {
+        if (PENDING_TASKS.decrementAndGet() == 0) {
+            synchronized (IDLE_LOCK) {
+                IDLE_LOCK.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * 提交任务到指定线程池，任务完成后把结果投递到主线程回调
+     * 说明：任务抛出异常时打印堆栈并通过Future向调用方抛出，不触发回调
+     */
+    private static <T> Future<T> submit(ExecutorService executor, final Callable<T> task, final Callback<T> callback) {
+        PendingTask<T> future = new PendingTask<>(new Callable<T>() {
+            @Override
+            public T call() throws Exception {
+                final T result;
+                try {
+                    result = task.call();
+                } catch (Exception e) {
+                    e.printStackTrace();
+                    throw e;
+                }
+                if (callback != null) {
+                    MAIN_HANDLER.post(new Runnable() {
+                        @Override
+                        public void run() {
+                            callback.onResult(result);
+                        }
+                    });
+                }
+                return result;
+            }
+        });
+        PENDING_TASKS.incrementAndGet();
+        try {
+            executor.execute(future);
+        } catch (RuntimeException e) {
+            // 线程池拒绝任务时（不会发生：线程池从不关闭）撤销计数，避免awaitIdle()一直等待
+            future.finish();
+            throw e;
+        }
+        return future;
+    }
+
+    /**
+     * 计入PENDING_TASKS的后台任务：执行完毕，或在开始执行前被取消时减少计数（每个任务只减少一次）
+     * 说明：开始执行前被取消的任务，线程池调用run()时直接返回，不会执行任务本身，因此在done()中减少计数；
+     * 执行中被取消（cancel(false)）时任务仍会执行完，等run()结束再减少，awaitIdle()返回时不会还有任务在执行
+     * @param <T> 结果类型
+     */
+    private static class PendingTask<T> extends FutureTask<T> {
+        // 是否已开始执行（线程池已调用run()）
+        private volatile boolean started;
+        // 是否已减少过计数
+        private final AtomicBoolean finished = new AtomicBoolean();
+
+        PendingTask(Callable<T> callable) {
+            super(callable);
+        }
+
+        @Override
+        public void run() {
+            started = true;
+            try {
+                super.run();
+            } finally {
+                finish();
+            }
+        }
+
+        @Override
+        protected void done() {
+            if (!started) {
+                // 开始执行前被取消
+                finish();
+            }
+        }
+
+        void finish() {
+            if (finished.compareAndSet(false, true)) {
+                taskFinished();
+            }
+        }
+    }
+
+    /**
+     * 带名称前缀的线程工厂，便于在调试/性能分析工具中区分数据库线程
+     */
+    private static class NamedThreadFactory implements ThreadFactory {
+        private final String prefix;
+        private final AtomicInteger count = new AtomicInteger(1);
+
+        NamedThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, prefix + "-" + count.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.ccf.feige.orderfood.db;
+
+/**
+ * 订单、菜品快照、汇总表相关的SQL语句（DAO查询和写入使用的语句文本）
+ * 说明：只包含SQL文本常量和拼接方法，不依赖任何Android类；应用中的DAO（OrderRepository、OrderPagingSource、OrderDao、
+ * OrderArchive、FoodDao、CommentDao）使用这里的语句，benchmark模块也直接编译本类（同DBSchema），
+ * 基准测试（OrderQueries）只负责绑定参数和读取结果，执行的SQL与应用完全一致
+ * 约定：订单表的别名均为o（筛选条件、键集条件、排序规则中使用）；参数与Android的rawQuery一样按字符串绑定
+ */
+public final class DBQueries {
+
+    /**
+     * 单次IN查询允许的最大参数个数
+     * 说明：SQLite默认绑定变量上限为999，这里取500分批查询，避免订单较多时超出限制
+     */
+    public static final int MAX_IN_ARGS = 500;
+
+    private DBQueries() {
+    }
+
+    // ====================== 订单列表 ======================
+
+    /**
+     * 订单列表查询：左联用户表一次性取出下单用户昵称（仅关联未注销用户，与AdminDao.getCommonUser一致），后接where条件使用
+     */
+    public static final String SELECT_ORDERS = selectOrders("d_orders");
+
+    /**
+     * 归档订单列表查询（列同SELECT_ORDERS），与SELECT_ORDERS以union all合并时使用相同的筛选条件
+     */
+    public static final String SELECT_ARCHIVE_ORDERS = selectOrders("d_orders_archive");
+
+    /**
+     * 订单排序规则：按订单创建时间倒序（最新订单在前）
+     * 说明：s_order_time为INTEGER毫秒，直接按数值排序即可利用(商家/用户, 状态, 时间, 订单ID)索引，无需逐行strftime；
+     * 时间相同时按订单ID排序，保证顺序唯一，键集分页（OrderPagingSource）按(时间, 订单ID)定位下一页
+     */
+    public static final String ORDER_BY_TIME_DESC = " ORDER BY o.s_order_time DESC, o.s_order_id DESC ";
+
+    /**
+     * 订单正序排序规则：键集分页向前（更新的订单方向）加载时使用，查询结果由调用方翻转为倒序
+     */
+    public static final String ORDER_BY_TIME_ASC = " ORDER BY o.s_order_time ASC, o.s_order_id ASC ";
+
+    /**
+     * 合并订单主表和归档表时的排序规则（复合查询的ORDER BY只能使用结果列名，不能带表别名）
+     * 说明：两边分别按(商家/用户, 时间, 订单ID)索引有序输出，SQLite按归并方式合并，不需要额外排序
+     */
+    public static final String UNION_ORDER_BY_TIME_DESC = " ORDER BY s_order_time DESC, s_order_id DESC ";
+
+    /**
+     * 合并订单主表和归档表时的正序排序规则
+     */
+    public static final String UNION_ORDER_BY_TIME_ASC = " ORDER BY s_order_time ASC, s_order_id ASC ";
+
+    /** 商家按状态查询订单（OrderDao.pageOrdersBySta等），参数：商家ID、状态 */
+    public static final String WHERE_BUSINESS_STA = "o.s_business_id=? and o.s_order_sta=?";
+
+    /** 商家已处理订单（状态不为未处理，OrderDao.pageOrdersFinish等），参数：商家ID、未处理状态 */
+    public static final String WHERE_BUSINESS_FINISH = "o.s_business_id=? and o.s_order_sta!=?";
+
+    /** 用户按状态查询订单（OrderDao.pageOrdersByStaAndUser等），参数：用户ID、状态 */
+    public static final String WHERE_USER_STA = "o.s_user_id=? and o.s_order_sta=?";
+
+    /** 用户全部订单（OrderDao.pageOrdersByUser等），参数：用户ID */
+    public static final String WHERE_USER = "o.s_user_id=?";
+
+    // 键集分页条件（OrderPagingSource），参数均为(时间, 订单ID)
+    /** 比指定订单更旧的订单 */
+    public static final String OLDER_THAN = "(o.s_order_time, o.s_order_id) < (?, ?)";
+    /** 比指定订单更新的订单 */
+    public static final String NEWER_THAN = "(o.s_order_time, o.s_order_id) > (?, ?)";
+    /** 不比指定订单旧的订单（含该订单） */
+    public static final String NOT_OLDER_THAN = "(o.s_order_time, o.s_order_id) >= (?, ?)";
+    /** 不比指定订单新的订单（含该订单） */
+    public static final String NOT_NEWER_THAN = "(o.s_order_time, o.s_order_id) <= (?, ?)";
+
+    // ====================== 订单搜索 ======================
+
+    /**
+     * 订单全文索引查询：索引匹配 + 按rowid回表订单主表，后接" and " + 筛选条件使用，参数：MATCH表达式在前
+     * 说明：使用CROSS JOIN固定连接顺序，否则优化器可能以(商家, 状态, 时间)索引为外层，对每个订单重复执行一次MATCH
+     */
+    public static final String SELECT_SEARCH = selectSearch("d_orders_fts", "d_orders");
+
+    /**
+     * 归档订单全文索引查询（索引docid对应归档表的rowid），与SELECT_SEARCH以union all合并时使用相同的筛选条件
+     */
+    public static final String SELECT_ARCHIVE_SEARCH = selectSearch("d_orders_archive_fts", "d_orders_archive");
+
+    // ====================== 订单明细 ======================
+
+    /**
+     * 订单明细所在的表：先查订单主表的明细，找不到的详情ID（已归档订单）再查归档明细表
+     */
+    public static final String[] DETAIL_TABLES = {"d_order_details", "d_order_details_archive"};
+
+    /**
+     * 单个订单的明细查询（关联菜品快照取出名称/描述/单价/图片，列名与原明细表一致），参数：详情ID
+     * 说明：明细行只保存快照ID和数量（见DBUntil.migrateToFoodSnapshots）；单个订单（OrderDao.getAllOrderDetail）直接关联查询，
+     * 批量装配订单列表时由selectDetailRows、selectSnapshots分两步查询，相同菜品版本的文本只读取一次
+     */
+    public static final String SELECT_DETAILS = selectDetails("d_order_details");
+
+    /**
+     * 归档订单的明细查询（列同SELECT_DETAILS，明细来自d_order_details_archive），参数：详情ID
+     */
+    public static final String SELECT_ARCHIVE_DETAILS = selectDetails("d_order_details_archive");
+
+    // ====================== 下单 ======================
+
+    /** 写入订单主表，参数：订单ID、时间、商家ID、用户ID、详情ID、状态、收货地址 */
+    public static final String INSERT_ORDER = "INSERT INTO d_orders (s_order_id, s_order_time, s_business_id, s_user_id, " +
+            "s_order_details_id, s_order_sta, s_order_address) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    /** 写入一条订单明细（菜品内容只引用快照ID），参数：详情ID、菜品ID、快照ID、数量 */
+    public static final String INSERT_ORDER_DETAIL = "INSERT INTO d_order_details (s_details_id, s_food_id, s_snapshot_id, s_food_num) " +
+            "VALUES (?, ?, ?, ?)";
+
+    /** 下单用户的昵称（仅未注销用户，与订单列表展示一致），参数：用户ID */
+    public static final String SELECT_ORDER_USER_NAME = "select s_name from d_user where s_id=? and s_is_delete=0";
+
+    /** 写入订单全文索引行（docid为订单主表的rowid），参数：分词后的用户昵称、菜品名称、订单ID */
+    public static final String INSERT_ORDER_SEARCH_INDEX = "INSERT INTO d_orders_fts (docid, s_user_name, s_food_names) " +
+            "SELECT rowid, ?, ? FROM d_orders WHERE s_order_id=?";
+
+    // ====================== 菜品快照 ======================
+
+    /** 按内容查找菜品的快照版本，参数：菜品ID、名称、描述、单价（分）、图片 */
+    public static final String FIND_SNAPSHOT = "SELECT s_snapshot_id FROM d_food_snapshot " +
+            "WHERE s_food_id=? AND s_food_name=? AND s_food_des=? AND s_food_price=? AND s_food_img=? " +
+            "ORDER BY s_version DESC LIMIT 1";
+
+    /** 新增菜品的下一个快照版本（该菜品已有的最大版本+1），参数：菜品ID、名称、描述、单价（分）、图片、菜品ID */
+    public static final String INSERT_SNAPSHOT_VERSION = "INSERT INTO d_food_snapshot (s_food_id, s_version, s_food_name, s_food_des, s_food_price, s_food_img) " +
+            "SELECT ?, IFNULL(MAX(s_version), 0) + 1, ?, ?, ?, ? FROM d_food_snapshot WHERE s_food_id=?";
+
+    // ====================== 汇总表 ======================
+
+    /** 菜品月销量（按主键查询，过滤已删除菜品/已注销商家），参数：菜品ID、年月、菜品未删除、商家未注销 */
+    public static final String SELECT_MONTHLY_SALES = "SELECT s.s_qty FROM d_food_sales_monthly s " +
+            "JOIN d_food f ON f.s_food_id = s.s_food_id " +
+            "JOIN d_business b ON b.s_id = f.s_business_id " +
+            "WHERE s.s_food_id=? AND s.s_yyyymm=? AND f.s_is_delete=? AND b.s_is_delete=?";
+
+    /** 商家评分汇总（评分总和、评论条数），参数：商家ID */
+    public static final String SELECT_BUSINESS_RATING = "SELECT s_score_sum, s_score_count FROM d_business_rating WHERE s_business_id=?";
+
+    // ====================== 订单归档（OrderArchive） ======================
+
+    /**
+     * 每批移动的订单数（同一下单时间的订单在同一批中移动，实际数量可能略多）
+     */
+    public static final int ARCHIVE_BATCH_SIZE = 500;
+
+    /** 本批的时间上界：按(状态, 时间)索引取第ARCHIVE_BATCH_SIZE个订单的下单时间，参数：状态、归档时间界限 */
+    public static final String SELECT_ARCHIVE_BATCH_BOUND = "SELECT s_order_time FROM d_orders WHERE s_order_sta=? AND s_order_time<? " +
+            "ORDER BY s_order_time LIMIT 1 OFFSET " + (ARCHIVE_BATCH_SIZE - 1);
+
+    /**
+     * 归档一批订单的语句，参数均为(状态, 时间上界)，需在同一事务中按顺序执行：
+     * 先复制订单、明细、全文索引行到归档表（复制索引行时需要通过订单主表的rowid定位，必须在删除之前），
+     * 再从热表中删除（订单主表最后删除，前两条删除语句通过它定位要删除的行），最后一条语句的影响行数即本批归档的订单数
+     */
+    public static final String[] ARCHIVE_STATEMENTS = {
+            "INSERT INTO d_orders_archive (s_order_id, s_order_time, s_business_id, s_user_id, " +
+                    "s_order_details_id, s_order_sta, s_order_address) SELECT s_order_id, s_order_time, s_business_id, s_user_id, " +
+                    "s_order_details_id, s_order_sta, s_order_address FROM d_orders WHERE s_order_sta=? AND s_order_time<=?",
+            "INSERT INTO d_order_details_archive (s_details_id, s_food_id, s_snapshot_id, s_food_num) " +
+                    "SELECT s_details_id, s_food_id, s_snapshot_id, s_food_num FROM d_order_details " +
+                    "WHERE s_details_id IN (SELECT s_order_details_id FROM d_orders WHERE s_order_sta=? AND s_order_time<=?)",
+            // 全文索引行的docid改为归档表中的rowid（索引内容直接复制，无需重新分词）
+            "INSERT INTO d_orders_archive_fts (docid, s_user_name, s_food_names) " +
+                    "SELECT a.rowid, t.s_user_name, t.s_food_names FROM d_orders o " +
+                    "CROSS JOIN d_orders_fts t ON t.docid = o.rowid " +
+                    "CROSS JOIN d_orders_archive a ON a.s_order_id = o.s_order_id WHERE o.s_order_sta=? AND o.s_order_time<=?",
+            "DELETE FROM d_orders_fts WHERE docid IN (SELECT rowid FROM d_orders WHERE s_order_sta=? AND s_order_time<=?)",
+            "DELETE FROM d_order_details " +
+                    "WHERE s_details_id IN (SELECT s_order_details_id FROM d_orders WHERE s_order_sta=? AND s_order_time<=?)",
+            "DELETE FROM d_orders WHERE s_order_sta=? AND s_order_time<=?"
+    };
+
+    /**
+     * ARCHIVE_STATEMENTS中各语句的名称（QueryStats统计用，顺序一致）
+     */
+    public static final String[] ARCHIVE_STATEMENT_NAMES = {"copyOrders", "copyDetails", "copySearchIndex",
+            "deleteSearchIndex", "deleteDetails", "deleteOrders"};
+
+    // ====================== 拼接方法 ======================
+
+    /**
+     * 按详情ID查询一张明细表中的明细行（不含菜品内容，菜品内容由selectSnapshots按快照ID查询）
+     * @param table 明细表（DETAIL_TABLES中的一个）
+     * @param count 详情ID个数（不超过MAX_IN_ARGS）
+     * @return 查询语句，参数为详情ID
+     */
+    public static String selectDetailRows(String table, int count) {
+        return "select s_details_id, s_food_id, s_snapshot_id, s_food_num from " + table +
+                " where s_details_id in (" + placeholders(count) + ")";
+    }
+
+    /**
+     * 按快照ID批量查询菜品快照（名称、描述、单价、图片）
+     * @param count 快照ID个数（不超过MAX_IN_ARGS）
+     * @return 查询语句，参数为快照ID
+     */
+    public static String selectSnapshots(int count) {
+        return "select s_snapshot_id, s_food_name, s_food_des, s_food_price, s_food_img from d_food_snapshot " +
+                "where s_snapshot_id in (" + placeholders(count) + ")";
+    }
+
+    /**
+     * 按订单ID查询订单的筛选条件（一页搜索结果装配订单时使用）
+     * @param count 订单ID个数
+     * @return 筛选条件（使用别名o），参数为订单ID
+     */
+    public static String whereOrderIdIn(int count) {
+        return "o.s_order_id in (" + placeholders(count) + ")";
+    }
+
+    /**
+     * 生成IN查询的占位符字符串
+     * @param count 占位符个数（大于0）
+     * @return 形如"?,?,?"的占位符字符串
+     */
+    public static String placeholders(int count) {
+        StringBuilder sb = new StringBuilder(count * 2);
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append('?');
+        }
+        return sb.toString();
+    }
+
+    private static String selectOrders(String table) {
+        return "select o.*, u.s_name as u_name from " + table + " o " +
+                "left join d_user u on u.s_id = o.s_user_id and u.s_is_delete = 0";
+    }
+
+    private static String selectDetails(String table) {
+        return "select d.s_details_id, d.s_food_id, s.s_food_name, s.s_food_des, s.s_food_price, d.s_food_num, s.s_food_img " +
+                "from " + table + " d left join d_food_snapshot s on s.s_snapshot_id = d.s_snapshot_id where d.s_details_id=?";
+    }
+
+    private static String selectSearch(String ftsTable, String orderTable) {
+        return "select o.s_order_id, o.s_order_time from " + ftsTable + " t " +
+                "cross join " + orderTable + " o on o.rowid = t.docid where " + ftsTable + " match ?";
+    }
+}
@@ -0,0 +1,195 @@
+package com.ccf.feige.orderfood.db;
+
+/**
+ * 数据库表结构定义（当前版本的建表、建索引语句）
+ * 说明：只包含SQL文本常量，不依赖任何Android类，DBUntil建表/迁移时使用，
+ * benchmark模块（普通JVM + sqlite-jdbc）也直接编译本类，保证基准测试使用的表结构与应用完全一致
+ * 注意：修改表结构时需同时修改VERSION并在DBUntil中新增迁移；迁移中的历史表结构快照（如migrateToTypedColumns）不要引用这里的常量
+ */
+public final class DBSchema {
+
+    /**
+     * 数据库版本号（DBUntil打开数据库时使用，预置数据库assets/seed/db_takeaway.db的user_version与之一致）
+     * 修改表结构后+1，并重新生成预置数据库（./gradlew :benchmark:buildSeedAsset）
+     */
+    public static final int VERSION = 42;
+
+    /** 逻辑删除字段默认值：未删除/未注销 */
+    private static final int NOT_DELETED = 0;
+    /** 订单状态默认值：1未处理 */
+    private static final int ORDER_STA_UNHANDLED = 1;
+
+    private DBSchema() {
+    }
+
+    /** 商家信息表 */
+    public static final String CREATE_BUSINESS = "create table d_business(s_id varchar(20) primary key," +// 商家ID，主键（唯一标识商家）
+            "s_pwd varchar(20)," +// 商家登录密码
+            "s_name varchar(20)," +// 商家名称（如南京大排档）
+            "s_describe varchar(200)," +// 商家描述信息（详细介绍）
+            "s_type varchar(20)," +// 商家类型（如餐饮店）
+            "s_img varchar(255)," +// 商家头像图片的本地存储路径
+            "s_is_delete INTEGER DEFAULT " + NOT_DELETED + ")";// 逻辑删除字段，默认值为未注销（0）
+
+    /** 用户信息表 */
+    public static final String CREATE_USER = "create table d_user(s_id varchar(20) primary key," +// 用户ID，主键（唯一标识用户）
+            "s_pwd varchar(20)," +// 用户登录密码
+            "s_name varchar(20)," +// 用户姓名
+            "s_sex varchar(200)," +// 用户性别
+            "s_address varchar(200)," +// 用户默认收货地址
+            "s_phone varchar(20)," +// 用户联系电话
+            "s_img varchar(255)," +// 用户头像图片的本地存储路径
+            "s_is_delete INTEGER DEFAULT " + NOT_DELETED + ")";// 逻辑删除字段，默认值为未注销（0）
+
+    /** 菜品信息表 */
+    public static final String CREATE_FOOD = "create table d_food(s_food_id varchar(20) primary key," +// 菜品ID，主键（唯一标识菜品）
+            "s_business_id varchar(20)," +// 所属商家ID（关联d_business表的s_id）
+            "s_food_name varchar(20)," +// 菜品名称
+            "s_food_des varchar(200)," +// 菜品描述信息（详细介绍）
+            "s_food_price INTEGER DEFAULT 0," +// 菜品单价（单位：分，如1900表示19元）
+            "s_food_img varchar(255)," +// 菜品图片的本地存储路径
+            "s_is_delete INTEGER DEFAULT " + NOT_DELETED + ")";// 逻辑删除字段，默认值为未删除（0）
+
+    /** 订单主表 */
+    public static final String CREATE_ORDERS = "create table d_orders(s_order_id varchar(20) primary key," +// 订单ID，主键（唯一标识订单）
+            "s_order_time INTEGER DEFAULT 0," +// 订单创建时间（时间戳毫秒，按数值排序/筛选）
+            "s_business_id varchar(20)," +// 所属商家ID（关联d_business表的s_id）
+            "s_user_id varchar(20)," +// 下单用户ID（关联d_user表的s_id）
+            "s_order_details_id varchar(30)," +// 关联订单详情表的详情ID
+            "s_order_sta INTEGER DEFAULT " + ORDER_STA_UNHANDLED + "," +// 订单状态：1未处理 2取消 3完成（未评论）4完成且被评论
+            "s_order_address varchar(255))";// 订单收货地址（存储详细地址信息）
+
+    /** 菜品快照表（说明见DBUntil.migrateToFoodSnapshots） */
+    public static final String CREATE_FOOD_SNAPSHOT = "create table d_food_snapshot(s_snapshot_id INTEGER primary key," +// 快照ID（rowid，订单明细通过它引用下单时的菜品内容）
+            "s_food_id varchar(20)," +// 菜品ID（关联d_food表的s_food_id）
+            "s_version INTEGER DEFAULT 1," +// 该菜品的第几个版本（从1开始，内容每变化一次+1）
+            "s_food_name varchar(20)," +// 菜品名称
+            "s_food_des varchar(200)," +// 菜品描述
+            "s_food_price INTEGER DEFAULT 0," +// 菜品单价（单位：分）
+            "s_food_img varchar(255))";// 菜品图片的本地存储路径
+
+    /**
+     * 菜品快照表的(菜品ID, 版本)索引：按菜品ID查找与当前内容相同的快照版本（FoodDao.getOrCreateSnapshot）
+     * 说明：与快照表一起创建（不放在INDEXES中），早于快照表的迁移调用DBUntil.createIndexes时不会因表不存在而失败
+     */
+    public static final String CREATE_FOOD_SNAPSHOT_INDEX = "CREATE INDEX IF NOT EXISTS idx_food_snapshot_food_version ON d_food_snapshot(s_food_id, s_version)";
+
+    /** 订单详情表（菜品名称/描述/单价/图片保存在菜品快照表中，每行只引用快照ID） */
+    public static final String CREATE_ORDER_DETAILS = "create table d_order_details(s_details_id varchar(30)," +// 订单详情ID（关联d_orders表的s_order_details_id）
+            "s_food_id varchar(20)," +// 菜品ID（关联d_food表的s_food_id）
+            "s_snapshot_id INTEGER," +// 下单时的菜品快照ID（关联d_food_snapshot表的s_snapshot_id）
+            "s_food_num INTEGER DEFAULT 0)";// 菜品购买数量
+
+    /** 评论表 */
+    public static final String CREATE_COMMENTS = "create table d_comments(s_comment_id varchar(20) primary key," +// 评论ID，主键（唯一标识评论）
+            "s_comment_user_id varchar(20)," +// 评论用户ID（关联d_user表的s_id）
+            "s_comment_business_id varchar(20)," +// 被评论商家ID（关联d_business表的s_id）
+            "s_comment_con varchar(200)," +// 评论内容
+            "s_comment_time INTEGER DEFAULT 0," +// 评论创建时间（时间戳毫秒）
+            "s_comment_score INTEGER DEFAULT 0," +// 评论评分（1-5星）
+            "s_comment_img varchar(255))";// 评论配图的本地存储路径（可选，可为空）
+
+    /** 收货地址表 */
+    public static final String CREATE_ADDRESS = "create table d_address(s_id varchar(20) primary key," +// 地址ID，主键（唯一标识地址）
+            "s_user_id varchar(20)," +// 所属用户ID（关联d_user表的s_id）
+            "s_user_name varchar(20)," +// 收件人姓名
+            "s_user_address varchar(200)," +// 详细收货地址
+            "s_user_phone varchar(255))";// 收件人联系电话
+
+    /** 菜品月销量汇总表（说明见DBUntil.createFoodSalesMonthlyTable） */
+    public static final String CREATE_FOOD_SALES_MONTHLY = "create table if not exists d_food_sales_monthly(s_food_id varchar(20)," +// 菜品ID（关联d_food表的s_food_id）
+            "s_yyyymm INTEGER," +// 年月（按下单时间的本地时区计算，如202403）
+            "s_qty INTEGER DEFAULT 0," +// 该月已完成订单中的销量
+            "primary key(s_food_id, s_yyyymm))";
+
+    /** 商家评分汇总表（说明见DBUntil.createBusinessRatingTable） */
+    public static final String CREATE_BUSINESS_RATING = "create table if not exists d_business_rating(s_business_id varchar(20) primary key," +// 商家ID（关联d_business表的s_id）
+            "s_score_sum INTEGER DEFAULT 0," +// 评分总和
+            "s_score_count INTEGER DEFAULT 0)";// 评论条数
+
+    /** 菜品全文索引表（FTS4，说明见DBUntil.createFoodSearchTable） */
+    public static final String CREATE_FOOD_FTS = "create virtual table if not exists d_food_fts using fts4(" +
+            "s_food_name," +// 分词后的菜品名称
+            "s_food_des," +// 分词后的菜品描述
+            "tokenize=unicode61)";
+
+    /** 订单全文索引表（FTS4，说明见DBUntil.createOrderSearchTable） */
+    public static final String CREATE_ORDERS_FTS = "create virtual table if not exists d_orders_fts using fts4(" +
+            "s_user_name," +// 分词后的下单用户昵称
+            "s_food_names," +// 分词后的订单内全部菜品名称
+            "tokenize=unicode61)";
+
+    /** 归档订单主表（结构同d_orders，只保存已归档的已完成订单，说明见OrderArchive） */
+    public static final String CREATE_ORDERS_ARCHIVE = "create table if not exists d_orders_archive(s_order_id varchar(20) primary key," +// 订单ID，主键
+            "s_order_time INTEGER DEFAULT 0," +// 订单创建时间（时间戳毫秒）
+            "s_business_id varchar(20)," +// 所属商家ID
+            "s_user_id varchar(20)," +// 下单用户ID
+            "s_order_details_id varchar(30)," +// 关联归档订单详情表的详情ID
+            "s_order_sta INTEGER DEFAULT " + ORDER_STA_UNHANDLED + "," +// 订单状态（归档时为3或4，评论后3变为4）
+            "s_order_address varchar(255))";// 订单收货地址
+
+    /** 归档订单详情表（结构同d_order_details） */
+    public static final String CREATE_ORDER_DETAILS_ARCHIVE = "create table if not exists d_order_details_archive(s_details_id varchar(30)," +// 订单详情ID
+            "s_food_id varchar(20)," +// 菜品ID
+            "s_snapshot_id INTEGER," +// 下单时的菜品快照ID
+            "s_food_num INTEGER DEFAULT 0)";// 菜品购买数量
+
+    /** 归档订单全文索引表（FTS4，docid等于d_orders_archive的rowid，内容同d_orders_fts） */
+    public static final String CREATE_ORDERS_ARCHIVE_FTS = "create virtual table if not exists d_orders_archive_fts using fts4(" +
+            "s_user_name," +// 分词后的下单用户昵称
+            "s_food_names," +// 分词后的订单内全部菜品名称
+            "tokenize=unicode61)";
+
+    /**
+     * 业务表建表语句（按onCreate中的建表顺序，快照表的索引紧随快照表创建）
+     */
+    public static final String[] TABLES = {
+            CREATE_BUSINESS,
+            CREATE_USER,
+            CREATE_FOOD,
+            CREATE_FOOD_SNAPSHOT,
+            CREATE_FOOD_SNAPSHOT_INDEX,
+            CREATE_ORDERS,
+            CREATE_ORDER_DETAILS,
+            CREATE_COMMENTS,
+            CREATE_ADDRESS,
+    };
+
+    /**
+     * 汇总表与全文索引表建表语句（均使用IF NOT EXISTS，可重复执行）
+     */
+    public static final String[] DERIVED_TABLES = {
+            CREATE_FOOD_SALES_MONTHLY,
+            CREATE_BUSINESS_RATING,
+            CREATE_FOOD_FTS,
+            CREATE_ORDERS_FTS,
+    };
+
+    /**
+     * 订单归档表及其索引（均使用IF NOT EXISTS，可重复执行；说明见DBUntil.createArchiveTables）
+     * 归档表只有历史列表会查询（按商家/用户 + 时间键集分页、按详情ID装配明细），索引比订单主表少
+     */
+    public static final String[] ARCHIVE_TABLES = {
+            CREATE_ORDERS_ARCHIVE,
+            CREATE_ORDER_DETAILS_ARCHIVE,
+            CREATE_ORDERS_ARCHIVE_FTS,
+            "CREATE INDEX IF NOT EXISTS idx_orders_archive_business_time_id ON d_orders_archive(s_business_id, s_order_time, s_order_id)",
+            "CREATE INDEX IF NOT EXISTS idx_orders_archive_user_time_id ON d_orders_archive(s_user_id, s_order_time, s_order_id)",
+            "CREATE INDEX IF NOT EXISTS idx_order_details_archive_id_food ON d_order_details_archive(s_details_id, s_food_id)",
+    };
+
+    /**
+     * 二级索引（使用IF NOT EXISTS，可重复执行；与DAO查询条件的对应关系见DBUntil.createIndexes）
+     */
+    public static final String[] INDEXES = {
+            "CREATE INDEX IF NOT EXISTS idx_orders_business_sta_time_id ON d_orders(s_business_id, s_order_sta, s_order_time, s_order_id)",
+            "CREATE INDEX IF NOT EXISTS idx_orders_user_sta_time_id ON d_orders(s_user_id, s_order_sta, s_order_time, s_order_id)",
+            "CREATE INDEX IF NOT EXISTS idx_orders_business_time_id ON d_orders(s_business_id, s_order_time, s_order_id)",
+            "CREATE INDEX IF NOT EXISTS idx_orders_user_time_id ON d_orders(s_user_id, s_order_time, s_order_id)",
+            "CREATE INDEX IF NOT EXISTS idx_orders_sta_time ON d_orders(s_order_sta, s_order_time)",
+            "CREATE INDEX IF NOT EXISTS idx_order_details_id_food ON d_order_details(s_details_id, s_food_id)",
+            "CREATE INDEX IF NOT EXISTS idx_food_business_delete ON d_food(s_business_id, s_is_delete)",
+            "CREATE INDEX IF NOT EXISTS idx_comments_business_score ON d_comments(s_comment_business_id, s_comment_score)",
+            "CREATE INDEX IF NOT EXISTS idx_address_user ON d_address(s_user_id)",
+    };
+}
@@ -1,20 +1,19 @@
 package com.ccf.feige.orderfood.db;
 
 import android.content.Context;
+import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteOpenHelper;
-import android.graphics.Bitmap;
-import android.graphics.drawable.BitmapDrawable;
-import android.graphics.drawable.Drawable;
 
-import androidx.core.content.ContextCompat;
+import com.ccf.feige.orderfood.db.seed.SQLiteSeedSink;
+import com.ccf.feige.orderfood.until.Tools;
 
-import com.ccf.feige.orderfood.R;
-import com.ccf.feige.orderfood.until.FileImgUntil;
+import java.io.IOException;
 
 /**
  * 数据库辅助工具类（继承SQLiteOpenHelper）
  * 核心功能：负责外卖系统SQLite数据库的创建、版本升级，定义表结构并插入初始化测试数据
+ * 当前版本的建表、建索引语句定义在DBSchema中（不依赖Android，benchmark模块共用）
  * 注意：继承SQLiteOpenHelper后需实现onCreate()和onUpgrade()方法，可通过ALT+回车快速补全
  */
 public class DBUntil extends SQLiteOpenHelper { //ALT +回车
@@ -22,27 +21,47 @@ public class DBUntil extends SQLiteOpenHelper { //ALT +回车
     // ====================== 数据库核心常量定义 ======================
     /**
      * 数据库版本号
-     * 关键注意点：修改表结构/字段/业务状态后，必须将版本号+1（本次从32升级至33）
-     * 版本号变更后会触发onUpgrade()方法，执行表结构重建，确保新的配置生效
+     * 关键注意点：修改表结构/字段/业务状态后，必须将版本号+1（本次从41升级至42：新增订单归档表，已完成的旧订单移出订单主表）
+     * 版本号变更后会触发onUpgrade()方法，按版本逐级执行迁移（migrateTo），保留已有数据
+     * 版本号定义在DBSchema.VERSION（预置数据库生成时也使用）
      */
-    private static final int version=33;
+    private static final int version=DBSchema.VERSION;
+
+    /**
+     * 可增量迁移的最低版本号
+     * 说明：33及以后的表结构一致，可通过migrateTo()逐级迁移并保留数据；
+     * 低于33的旧库表结构差异较大（如缺少订单状态4、逻辑删除字段），仍沿用重建全部表的方式
+     */
+    private static final int FIRST_MIGRATABLE_VERSION=33;
 
     /**
      * 数据库文件名
      * 命名规范：Android SQLite数据库文件必须以.db结尾，便于系统识别和后续维护
      * 该数据库为外卖系统的核心数据库，存储商家、用户、菜品、订单等全量业务数据
      */
-    private static final  String databaseName="db_takeaway.db";//数据库名称必须以db结尾
+    static final  String databaseName="db_takeaway.db";//数据库名称必须以db结尾
 
     /**
      * 应用上下文对象
-     * 用途：用于获取应用内的资源（如drawable中的图片资源）、访问文件目录等
+     * 用途：用于复制内置图片（assets/seed/images）、访问文件目录等
      */
     private  Context context;
 
+    /**
+     * 内置初始化数据的图片目录
+     * 说明：为null时onCreate通过SeedAssetInstaller把内置图片复制到应用files目录；
+     * 测试传入临时目录，建库时不写应用真实的files目录（见DBUntil(Context, String)）
+     */
+    private final String imageDir;
+
+    /**
+     * 本次打开是否需要在升级完成后执行VACUUM（由迁移设置，onOpen中执行一次）
+     */
+    private boolean vacuumOnOpen = false;
+
     /**
      * 静态SQLiteDatabase数据库连接对象
-     * 核心作用：作为操作数据库的唯一入口，所有表的增、删、改、查操作均通过该对象执行
+     * 说明：由DBManager.init()/attach()统一赋值，DAO通过DBManager.getDatabase()获取连接，不再直接引用该字段
      */
     public static SQLiteDatabase con;//链接数据库的链接，通过他可以操作数据库
 
@@ -54,24 +73,37 @@ public class DBUntil extends SQLiteOpenHelper { //ALT +回车
     private static final int NOT_DELETED = 0;
 
     // ====================== 订单状态常量定义（避免魔法值，提升可维护性） ======================
+    // 说明：s_order_sta字段为INTEGER，存储以下状态值
     /** 订单状态1：未处理（用户提交订单后，商家尚未处理） */
-    private static final String ORDER_STA_UNHANDLED = "1";
+    private static final int ORDER_STA_UNHANDLED = 1;
     /** 订单状态2：已取消（用户主动取消或商家驳回订单） */
-    private static final String ORDER_STA_CANCEL = "2";
+    private static final int ORDER_STA_CANCEL = 2;
     /** 订单状态3：已完成（用户确认收货，尚未进行订单评论） */
-    private static final String ORDER_STA_FINISH = "3";
+    private static final int ORDER_STA_FINISH = 3;
     /** 订单状态4：已完成且已评论（用户确认收货并提交评论，订单生命周期结束） */
-    private static final String ORDER_STA_FINISH_COMMENTED = "4";
+    private static final int ORDER_STA_FINISH_COMMENTED = 4;
 
     /**
      * 构造方法：初始化数据库辅助类
      * @param context 应用上下文对象
      * 说明：调用父类SQLiteOpenHelper的构造方法，传入数据库名、游标工厂（null）、版本号、数据库错误处理器（null）
-     * 同时初始化当前类的上下文对象，用于后续获取图片资源等操作
+     * 同时初始化当前类的上下文对象，用于后续获取图片资源等操作，并开启WAL模式
      */
     public DBUntil(Context context) {
+        this(context, null);
+    }
+
+    /**
+     * 构造方法：指定内置初始化数据的图片目录（测试使用）
+     * @param context 应用上下文对象
+     * @param imageDir 内置图片目录，onCreate写入的图片路径以该目录为前缀，不复制任何图片；为null时与DBUntil(Context)相同
+     */
+    public DBUntil(Context context, String imageDir) {
         super(context, databaseName, null, version,null);
         this.context=context;
+        this.imageDir=imageDir;
+        // 开启WAL预写日志：写操作不阻塞读操作，配合DBManager的读线程池实现并发查询
+        setWriteAheadLoggingEnabled(true);
     }
 
     /**
@@ -89,136 +121,76 @@ public class DBUntil extends SQLiteOpenHelper { //ALT +回车
         // 先删除已存在的表（若表存在则删除，避免表结构冲突导致创建失败）
         db.execSQL("drop table if exists d_business");//如果这表存在则删除
         // 创建商家信息表，修正原代码中varchar的拼写错误（varcahr→varchar），新增逻辑删除字段
-        db.execSQL("create table d_business(s_id varchar(20) primary key," +// 商家ID，主键（唯一标识商家）
-                "s_pwd varchar(20)," +// 商家登录密码（修正：varcahr→varchar）
-                "s_name varchar(20)," +// 商家名称（如南京大排档，修正：varcahr→varchar）
-                "s_describe varchar(200)," +// 商家描述信息（详细介绍，修正：varcahr→varchar）
-                "s_type varchar(20)," +// 商家类型（如餐饮店，修正：varcahr→varchar）
-                "s_img varchar(255)," +// 商家头像图片的本地存储路径
-                "s_is_delete INTEGER DEFAULT " + NOT_DELETED + ")");// 新增：逻辑删除字段，默认值为未注销（0）
-
-        // 生成商家头像的唯一文件名（通过图片工具类获取，确保文件名不重复）
-        String shop= FileImgUntil.getImgName();//获取一个存储图片的路径名字
-        // 将应用内置的商家图片（R.drawable.njdpd）保存到本地路径，用于初始化商家头像
-        FileImgUntil.saveSystemImgToPath(context,R.drawable.njdpd,shop);
-
-        // 插入商家初始化测试数据，补充逻辑删除字段（默认未注销）
-        db.execSQL("INSERT INTO d_business (s_id, s_pwd, s_name, s_describe, s_type, s_img, s_is_delete) " +
-                        "VALUES (?, ?, ?, ?, ?, ?, ?)",
-                new Object[]{"admin", "123456", "南京大排档", "南京大排档始创于1994年，三十年如一日磨出饮食佳境。全国上百家直营门店，地道金陵味。如有问题，请随时联系本店，定会竭力为您解决。", "餐饮店", shop, NOT_DELETED});
+        db.execSQL(DBSchema.CREATE_BUSINESS);
 
         // ====================== 2. 用户信息表（d_user） ======================
         // 先删除已存在的表（若表存在则删除，避免表结构冲突导致创建失败）
         db.execSQL("drop table if exists d_user");//如果这表存在则删除
         // 创建用户信息表，修正原代码中varchar的拼写错误（varcahr→varchar），新增逻辑删除字段
-        db.execSQL("create table d_user(s_id varchar(20) primary key," +// 用户ID，主键（唯一标识用户）
-                "s_pwd varchar(20)," +// 用户登录密码（修正：varcahr→varchar）
-                "s_name varchar(20)," +// 用户姓名（修正：varcahr→varchar）
-                "s_sex varchar(200)," +// 用户性别（修正：varcahr→varchar）
-                "s_address varchar(200)," +// 用户默认收货地址（修正：varcahr→varchar）
-                "s_phone varchar(20)," +// 用户联系电话（修正：varcahr→varchar）
-                "s_img varchar(255)," +// 用户头像图片的本地存储路径
-                "s_is_delete INTEGER DEFAULT " + NOT_DELETED + ")");// 新增：逻辑删除字段，默认值为未注销（0）
-
-        // 生成用户头像的唯一文件名（通过图片工具类获取，确保文件名不重复）
-        String user= FileImgUntil.getImgName();//获取一个存储图片的路径名字
-        // 将应用内置的用户图片（R.drawable.zs）保存到本地路径，用于初始化用户头像
-        FileImgUntil.saveSystemImgToPath(context,R.drawable.zs,user);
-
-        // 插入用户初始化测试数据，补充逻辑删除字段（默认未注销）
-        db.execSQL("INSERT INTO d_user (s_id, s_pwd, s_name,s_sex, s_address, s_phone, s_img, s_is_delete) " +
-                        "VALUES (?, ?, ?,?, ?,?, ?, ?)",
-                new Object[]{"test", "123456", "张硕", "男", "徐州市","12312312312", user, NOT_DELETED});
+        db.execSQL(DBSchema.CREATE_USER);
 
         // ====================== 3. 菜品信息表（d_food） ======================
         // 先删除已存在的表（若表存在则删除，避免表结构冲突导致创建失败）
         db.execSQL("drop table if exists d_food");//如果这表存在则删除
         // 创建菜品信息表，修正原代码中varchar的拼写错误（varcahr→varchar），新增逻辑删除字段
-        db.execSQL("create table d_food(s_food_id varchar(20) primary key," +// 菜品ID，主键（唯一标识菜品）
-                "s_business_id varchar(20)," +// 所属商家ID（关联d_business表的s_id，修正：varcahr→varchar）
-                "s_food_name varchar(20)," +// 菜品名称（修正：varcahr→varchar）
-                "s_food_des varchar(200)," +// 菜品描述信息（详细介绍，修正：varcahr→varchar）
-                "s_food_price varchar(200)," +// 菜品单价（修正：varcahr→varchar）
-                "s_food_img varchar(255)," +// 菜品图片的本地存储路径
-                "s_is_delete INTEGER DEFAULT " + NOT_DELETED + ")");// 新增：逻辑删除字段，默认值为未删除（0）
-
-        // 初始化菜品1：南京烤鸭
-        String foodImg1= FileImgUntil.getImgName();//获取菜品图片的唯一存储路径名字
-        FileImgUntil.saveSystemImgToPath(context,R.drawable.roast_duck,foodImg1);// 保存菜品图片到本地
-        // 插入南京烤鸭的初始化数据，补充逻辑删除字段（默认未删除）
-        db.execSQL("INSERT INTO d_food (s_food_id, s_business_id, s_food_name,s_food_des, s_food_price, s_food_img, s_is_delete) " +
-                        "VALUES (?, ?, ?,?,  ?, ?, ?)",
-                new Object[]{"1", "admin", "南京烤鸭", "南京烤鸭香、脆、瞅、鲜、嫩，旺火细烤去除多余水分，配己以特制卤汁细细品味，肉质紧实，尝之把命不喊。", "19", foodImg1, NOT_DELETED});
-
-        // 初始化菜品2：鸭血粉丝汤
-        String foodImg2= FileImgUntil.getImgName();//获取菜品图片的唯一存储路径名字
-        FileImgUntil.saveSystemImgToPath(context,R.drawable.nanjing_duck_blood_vermicelli_soup,foodImg2);// 保存菜品图片到本地
-        // 插入鸭血粉丝汤的初始化数据，补充逻辑删除字段（默认未删除）
-        db.execSQL("INSERT INTO d_food (s_food_id, s_business_id, s_food_name,s_food_des, s_food_price, s_food_img, s_is_delete) " +
-                        "VALUES (?, ?, ?, ?, ?, ?, ?)",
-                new Object[]{"2", "admin", "鸭血粉丝汤", "南京传统地方风味，鲜嫩的鸭肝、鸭血与劲道的粉丝同煲，鲜美和比。", "24", foodImg2, NOT_DELETED});
-
-        // 初始化菜品3：南京盐水鸭
-        String foodImg3= FileImgUntil.getImgName();//获取菜品图片的唯一存储路径名字
-        FileImgUntil.saveSystemImgToPath(context,R.drawable.salted_duck,foodImg3);// 保存菜品图片到本地
-        // 插入南京盐水鸭的初始化数据，补充逻辑删除字段（默认未删除）
-        db.execSQL("INSERT INTO d_food (s_food_id, s_business_id, s_food_name,s_food_des, s_food_price, s_food_img, s_is_delete) " +
-                        "VALUES (?, ?, ?, ?, ?, ?, ?)",
-                new Object[]{"3", "admin", "南京盐水鸭", "搓盐、复卤、挂晾、炆煮，十$道工序，一招一式绝不走样，招牌菜来之不易。", "17", foodImg3, NOT_DELETED});
-
-        // 初始化菜品4：金陵汤包
-        String foodImg4= FileImgUntil.getImgName();//获取菜品图片的唯一存储路径名字
-        FileImgUntil.saveSystemImgToPath(context,R.drawable.nanjing_xiaolongbao,foodImg4);// 保存菜品图片到本地
-        // 插入金陵汤包的初始化数据，补充逻辑删除字段（默认未删除）
-        db.execSQL("INSERT INTO d_food (s_food_id, s_business_id, s_food_name,s_food_des, s_food_price, s_food_img, s_is_delete) " +
-                        "VALUES (?, ?, ?, ?, ?, ?, ?)",
-                new Object[]{"4", "admin", "金陵汤包", "用烤鸭肉制成的小笼包，你吃过吗？本店创制，不可不尝哦。", "12", foodImg4, NOT_DELETED});
-
-        // ====================== 4. 订单主表（d_orders） ======================
+        db.execSQL(DBSchema.CREATE_FOOD);
+
+        // ====================== 4. 菜品快照表（d_food_snapshot） ======================
+        // 订单明细通过快照ID引用下单时的菜品名称/描述/单价/图片，同一版本的菜品内容只保存一行
+        db.execSQL("drop table if exists d_food_snapshot");//如果这表存在则删除
+        db.execSQL(DBSchema.CREATE_FOOD_SNAPSHOT);
+        db.execSQL(DBSchema.CREATE_FOOD_SNAPSHOT_INDEX);
+
+        // ====================== 5. 订单主表（d_orders） ======================
         // 先删除已存在的表（若表存在则删除，避免表结构冲突导致创建失败）
         db.execSQL("drop table if exists d_orders");//如果这表存在则删除
         // 创建订单主表，修正原代码中varchar的拼写错误（varcahr→varchar），新增订单状态4（已完成且已评论）
-        db.execSQL("create table d_orders(s_order_id varchar(20) primary key," +// 订单ID，主键（唯一标识订单）
-                "s_order_time varchar(30)," +// 订单创建时间（格式：yyyy-MM-dd HH:mm:ss，修正：varcahr→varchar）
-                "s_business_id varchar(20)," +// 所属商家ID（关联d_business表的s_id，修正：varcahr→varchar）
-                "s_user_id varchar(20)," +// 下单用户ID（关联d_user表的s_id，修正：varcahr→varchar）
-                "s_order_details_id varchar(30)," +// 关联订单详情表的详情ID（修正：varcahr→varchar）
-                "s_order_sta varchar(30)," +// 订单状态：1未处理 2取消 3完成（未评论）4完成且被评论
-                "s_order_address varchar(255))");// 订单收货地址（存储详细地址信息）
-
-        // ====================== 5. 订单详情表（d_order_details） ======================
+        db.execSQL(DBSchema.CREATE_ORDERS);
+
+        // ====================== 6. 订单详情表（d_order_details） ======================
         // 先删除已存在的表（若表存在则删除，避免表结构冲突导致创建失败）
         db.execSQL("drop table if exists d_order_details");//如果这表存在则删除
-        // 创建订单详情表，修正原代码中varchar的拼写错误（varcahr→varchar），表结构保持不变
-        db.execSQL("create table d_order_details(s_details_id varchar(30)," +// 订单详情ID（关联d_orders表的s_order_details_id）
-                "s_food_id varchar(20)," +// 菜品ID（关联d_food表的s_food_id，修正：varcahr→varchar）
-                "s_food_name varchar(20)," +// 菜品名称（修正：varcahr→varchar）
-                "s_food_des varchar(200)," +// 菜品描述（修正：varcahr→varchar）
-                "s_food_price varchar(20)," +// 菜品单价（修正：varcahr→varchar）
-                "s_food_num varchar(20)," +// 菜品购买数量（修正：varcahr→varchar）
-                "s_food_img varchar(255))");// 菜品图片的本地存储路径
-
-        // ====================== 6. 评论表（d_comments） ======================
+        // 创建订单详情表，每行只保存菜品ID、快照ID和数量
+        db.execSQL(DBSchema.CREATE_ORDER_DETAILS);
+
+        // ====================== 7. 评论表（d_comments） ======================
         // 先删除已存在的表（若表存在则删除，避免表结构冲突导致创建失败）
         db.execSQL("drop table if exists d_comments");//如果这表存在则删除
         // 创建评论表，修正原代码中varchar的拼写错误（varcahr→varchar），表结构保持不变
-        db.execSQL("create table d_comments(s_comment_id varchar(20) primary key," +// 评论ID，主键（唯一标识评论）
-                "s_comment_user_id varchar(20)," +// 评论用户ID（关联d_user表的s_id，修正：varcahr→varchar）
-                "s_comment_business_id varchar(20)," +// 被评论商家ID（关联d_business表的s_id，修正：varcahr→varchar）
-                "s_comment_con varchar(200)," +// 评论内容（修正：varcahr→varchar）
-                "s_comment_time varchar(20)," +// 评论创建时间（格式：yyyy-MM-dd HH:mm:ss，修正：varcahr→varchar）
-                "s_comment_score varchar(20)," +// 评论评分（如1-5星，修正：varcahr→varchar）
-                "s_comment_img varchar(255))");// 评论配图的本地存储路径（可选，可为空）
-
-        // ====================== 7. 收货地址表（d_address） ======================
+        db.execSQL(DBSchema.CREATE_COMMENTS);
+
+        // ====================== 8. 收货地址表（d_address） ======================
         // 先删除已存在的表（若表存在则删除，避免表结构冲突导致创建失败）
         db.execSQL("drop table if exists d_address");//如果这表存在则删除
         // 创建收货地址表，修正原代码中varchar的拼写错误（varcahr→varchar），表结构保持不变
-        db.execSQL("create table d_address(s_id varchar(20) primary key," +// 地址ID，主键（唯一标识地址）
-                "s_user_id varchar(20)," +// 所属用户ID（关联d_user表的s_id，修正：varcahr→varchar）
-                "s_user_name varchar(20)," +// 收件人姓名（修正：varcahr→varchar）
-                "s_user_address varchar(200)," +// 详细收货地址（修正：varcahr→varchar）
-                "s_user_phone varchar(255))");// 收件人联系电话（修正：varcahr→varchar）
+        db.execSQL(DBSchema.CREATE_ADDRESS);
+
+        // ====================== 9. 二级索引（覆盖各DAO的高频查询条件） ======================
+        createIndexes(db);
+
+        // ====================== 10. 菜品月销量汇总表（由OrderDao.updateOrderStatus增量维护） ======================
+        createFoodSalesMonthlyTable(db);
+
+        // ====================== 11. 商家评分汇总表（由CommentDao.insertComment增量维护） ======================
+        createBusinessRatingTable(db);
+
+        // ====================== 12. 菜品全文索引（由FoodDao.addFood/updateFood同步维护） ======================
+        createFoodSearchTable(db);
+
+        // ====================== 13. 订单全文索引（由OrderDao.placeOrder同步维护） ======================
+        createOrderSearchTable(db);
+
+        // ====================== 14. 订单归档表（由OrderArchive把已完成的旧订单移入） ======================
+        createArchiveTables(db);
+
+        // ====================== 15. 内置初始化数据（商家admin、用户test、4道菜品及其快照、全文索引） ======================
+        // 正常安装时由SeedAssetInstaller直接复制预置数据库，不会执行到这里；没有打包预置数据库时（或测试中的内存数据库）在此写入。
+        // 图片先同步复制到应用私有目录再写入路径，保证数据库中的路径指向已存在的文件（指定了imageDir时直接使用该目录）
+        try {
+            SQLiteSeedSink.seedBuiltin(db, imageDir != null ? imageDir : SeedAssetInstaller.installImages(context));
+        } catch (IOException e) {
+            throw new IllegalStateException("复制内置图片失败", e);
+        }
 
         // 所有表创建完成后，重新开启外键约束，确保表间关联关系生效
         db.execSQL("PRAGMA foreign_keys = true");
@@ -228,15 +200,344 @@ public class DBUntil extends SQLiteOpenHelper { //ALT +回车
     /**
      * 数据库版本升级时调用的方法
      * 触发条件：当数据库版本号（newVersion）大于当前已安装的数据库版本号（oldVersion）时触发
-     * 核心职责：通过调用onCreate()方法重建所有表结构，确保新的表结构（如订单状态4）和业务配置生效
-     * 注意：该方法会清空原有数据，若需保留旧数据，需添加数据迁移逻辑（本次保持原有重建表逻辑不变）
+     * 核心职责：从oldVersion+1开始逐个版本执行migrateTo()，只做增量修改（加索引/加字段等），不清空已有数据
+     * 注意：低于FIRST_MIGRATABLE_VERSION的旧库表结构差异过大，仍调用onCreate()重建所有表
+     * SQLiteOpenHelper会把整个升级过程放在同一个事务中执行，任一步失败都会整体回滚
      * @param db SQLiteDatabase数据库操作对象
      * @param oldVersion 旧的数据库版本号
      * @param newVersion 新的数据库版本号
      */
     @Override
     public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
-        // 版本更新时，重建所有表（保持原有逻辑，确保新状态4生效）
-        onCreate(db);
+        // 过旧的版本无法增量迁移，保持原有的重建逻辑
+        if (oldVersion < FIRST_MIGRATABLE_VERSION) {
+            onCreate(db);
+            return;
+        }
+        // 逐级迁移：例如从33升级到35，会依次执行migrateTo(34)、migrateTo(35)
+        for (int target = oldVersion + 1; target <= newVersion; target++) {
+            migrateTo(db, target);
+        }
+    }
+
+    /**
+     * 执行升级到指定版本所需的增量迁移
+     * 规范：每次修改表结构时，version+1，并在此处新增一个对应版本号的case，只写本次变化的SQL
+     * @param db SQLiteDatabase数据库操作对象
+     * @param targetVersion 本次迁移的目标版本号
+     */
+    private void migrateTo(SQLiteDatabase db, int targetVersion) {
+        switch (targetVersion) {
+            case 34:
+                // 33 → 34：为订单、订单详情、菜品、评论、地址表新增二级索引（不改动任何数据）
+                createIndexes(db);
+                break;
+            case 35:
+                // 34 → 35：金额改为INTEGER分、数量/评分/状态改为INTEGER、时间改为INTEGER毫秒（逐行转换已有数据）
+                migrateToTypedColumns(db);
+                break;
+            case 36:
+                // 35 → 36：新增菜品月销量汇总表，并按已完成订单回填历史月销量
+                createFoodSalesMonthlyTable(db);
+                db.execSQL("insert into d_food_sales_monthly(s_food_id, s_yyyymm, s_qty) " +
+                        "select d.s_food_id, " +
+                        "CAST(strftime('%Y%m', o.s_order_time / 1000, 'unixepoch', 'localtime') AS INTEGER), " +
+                        "SUM(d.s_food_num) from d_orders o " +
+                        "join d_order_details d on d.s_details_id = o.s_order_details_id " +
+                        "where o.s_order_sta in (" + ORDER_STA_FINISH + "," + ORDER_STA_FINISH_COMMENTED + ") " +
+                        "group by 1, 2");
+                break;
+            case 37:
+                // 36 → 37：新增商家评分汇总表，并按已有评论回填评分总和与评论条数
+                createBusinessRatingTable(db);
+                db.execSQL("insert into d_business_rating(s_business_id, s_score_sum, s_score_count) " +
+                        "select s_comment_business_id, SUM(s_comment_score), COUNT(*) from d_comments " +
+                        "where s_comment_business_id is not null group by s_comment_business_id");
+                break;
+            case 38:
+                // 37 → 38：新增菜品全文索引，并为已有菜品建立索引
+                createFoodSearchTable(db);
+                rebuildFoodSearchIndex(db);
+                break;
+            case 39:
+                // 38 → 39：新增订单全文索引，并为已有订单建立索引（此时菜品名称仍保存在订单明细表中）
+                createOrderSearchTable(db);
+                rebuildOrderSearchIndex(db, "left join d_order_details d on d.s_details_id = o.s_order_details_id", "d.s_food_name");
+                break;
+            case 40:
+                // 39 → 40：订单列表索引追加s_order_id列（键集分页按时间+订单ID排序），并新增不含状态列的商家/用户订单索引
+                db.execSQL("DROP INDEX IF EXISTS idx_orders_business_sta_time");
+                db.execSQL("DROP INDEX IF EXISTS idx_orders_user_sta_time");
+                createIndexes(db);
+                break;
+            case 41:
+                // 40 → 41：新增菜品快照表，订单明细改为引用快照ID（相同内容的明细共用一行快照）
+                migrateToFoodSnapshots(db);
+                vacuumOnOpen = true;
+                break;
+            case 42:
+                // 41 → 42：新增订单归档表（空表，已有订单在下次归档时按时间移入）
+                createArchiveTables(db);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * 升级完成、数据库打开后调用（此时升级事务已提交）
+     * 说明：迁移41删除了订单明细中重复的菜品文本，升级后执行一次VACUUM把空出的页面还给文件系统
+     * （VACUUM不能在事务中执行，因此不放在migrateTo中；DBManager在后台线程中打开数据库，不会阻塞界面）
+     * @param db SQLiteDatabase数据库操作对象
+     */
+    @Override
+    public void onOpen(SQLiteDatabase db) {
+        super.onOpen(db);
+        if (vacuumOnOpen && !db.isReadOnly()) {
+            vacuumOnOpen = false;
+            db.execSQL("VACUUM");
+        }
+    }
+
+    /**
+     * 40 → 41：订单明细改为引用菜品快照
+     * 原有的订单明细每行都复制一份菜品名称、描述、单价、图片路径，热门菜品的长描述在成千上万行中重复保存，
+     * 数据库文件和查询明细时的游标窗口都随之变大。迁移后：
+     * 1. d_food_snapshot每个菜品的每个版本（名称/描述/单价/图片的一种组合）只保存一行，s_version从1开始按出现顺序编号，
+     *    当前菜品内容排在该菜品已有版本之后；新增/修改菜品、下单时由FoodDao.getOrCreateSnapshot按内容查找或新建版本
+     * 2. d_order_details只保存详情ID、菜品ID、快照ID、数量，读取明细时关联快照表（DBQueries.SELECT_DETAILS）
+     * 去重规则：菜品ID、名称、描述、单价、图片完全相同的明细共用一个快照（null按空字符串/0处理，快照表中不保存null）
+     * 注意：此处的明细表建表语句是版本41的表结构快照，后续版本修改表结构应新增迁移，不要回头修改这里
+     * @param db SQLiteDatabase数据库操作对象
+     */
+    private static void migrateToFoodSnapshots(SQLiteDatabase db) {
+        // 1. 快照表及其(菜品ID, 版本)索引（后续去重时按菜品ID定位）
+        db.execSQL(DBSchema.CREATE_FOOD_SNAPSHOT);
+        db.execSQL(DBSchema.CREATE_FOOD_SNAPSHOT_INDEX);
+
+        // 2. 订单明细中出现过的每种菜品内容一行，按首次出现的顺序写入（快照ID即版本先后）
+        db.execSQL("insert into d_food_snapshot(s_food_id, s_version, s_food_name, s_food_des, s_food_price, s_food_img) " +
+                "select IFNULL(s_food_id, ''), 0, IFNULL(s_food_name, ''), IFNULL(s_food_des, ''), IFNULL(s_food_price, 0), IFNULL(s_food_img, '') " +
+                "from d_order_details group by 1, 3, 4, 5, 6 order by MIN(rowid)");
+
+        // 3. 菜品当前内容（尚未在订单中出现过时）作为该菜品最新的版本
+        db.execSQL("insert into d_food_snapshot(s_food_id, s_version, s_food_name, s_food_des, s_food_price, s_food_img) " +
+                "select IFNULL(f.s_food_id, ''), 0, IFNULL(f.s_food_name, ''), IFNULL(f.s_food_des, ''), IFNULL(f.s_food_price, 0), IFNULL(f.s_food_img, '') " +
+                "from d_food f where not exists (select 1 from d_food_snapshot s where s.s_food_id = IFNULL(f.s_food_id, '') " +
+                "and s.s_food_name = IFNULL(f.s_food_name, '') and s.s_food_des = IFNULL(f.s_food_des, '') " +
+                "and s.s_food_price = IFNULL(f.s_food_price, 0) and s.s_food_img = IFNULL(f.s_food_img, '')) order by f.rowid");
+
+        // 4. 按快照ID的先后为每个菜品的版本编号
+        db.execSQL("update d_food_snapshot set s_version = (select COUNT(*) from d_food_snapshot p " +
+                "where p.s_food_id = d_food_snapshot.s_food_id and p.s_snapshot_id <= d_food_snapshot.s_snapshot_id)");
+
+        // 5. 订单明细表：按内容关联到唯一的快照，只保留快照ID和数量（保持原有行顺序）
+        db.execSQL("create table d_order_details_new(s_details_id varchar(30), s_food_id varchar(20)," +
+                "s_snapshot_id INTEGER, s_food_num INTEGER DEFAULT 0)");
+        db.execSQL("insert into d_order_details_new(s_details_id, s_food_id, s_snapshot_id, s_food_num) " +
+                "select d.s_details_id, d.s_food_id, s.s_snapshot_id, d.s_food_num from d_order_details d " +
+                "join d_food_snapshot s on s.s_food_id = IFNULL(d.s_food_id, '') and s.s_food_name = IFNULL(d.s_food_name, '') " +
+                "and s.s_food_des = IFNULL(d.s_food_des, '') and s.s_food_price = IFNULL(d.s_food_price, 0) " +
+                "and s.s_food_img = IFNULL(d.s_food_img, '') order by d.rowid");
+        replaceTable(db, "d_order_details");
+
+        // 6. 重建随旧表一起删除的明细索引（快照表的索引已在第1步创建）
+        createIndexes(db);
+    }
+
+    /**
+     * 34 → 35：把varchar存储的金额/数量/评分/状态/时间字段改为INTEGER，并无损转换已有数据
+     * SQLite不支持修改字段类型，因此每张表都按“建新表 → 转换复制数据 → 删除旧表 → 新表改名”的方式迁移
+     * 转换规则：
+     * 1. 金额（元字符串，如"19.86"）→ 分：CAST(ROUND(CAST(x AS REAL)*100) AS INTEGER)
+     * 2. 数量/评分/状态（整数字符串）→ 整数：CAST(x AS INTEGER)
+     * 3. 时间（本地时间yyyy-MM-dd HH:mm[:ss]）→ 毫秒：strftime('%s', x, 'utc')*1000，无法解析时记为0
+     * 注意：此处的建表语句是版本35的表结构快照，后续版本修改表结构应新增迁移，不要回头修改这里
+     * 删除旧表会同时删除其索引，迁移完成后重新创建
+     * @param db SQLiteDatabase数据库操作对象
+     */
+    private static void migrateToTypedColumns(SQLiteDatabase db) {
+        // 1. 菜品表：s_food_price → INTEGER分
+        db.execSQL("create table d_food_new(s_food_id varchar(20) primary key," +
+                "s_business_id varchar(20), s_food_name varchar(20), s_food_des varchar(200)," +
+                "s_food_price INTEGER DEFAULT 0, s_food_img varchar(255)," +
+                "s_is_delete INTEGER DEFAULT " + NOT_DELETED + ")");
+        db.execSQL("insert into d_food_new(s_food_id, s_business_id, s_food_name, s_food_des, s_food_price, s_food_img, s_is_delete) " +
+                "select s_food_id, s_business_id, s_food_name, s_food_des, " +
+                "CAST(ROUND(CAST(s_food_price AS REAL) * 100) AS INTEGER), s_food_img, s_is_delete from d_food");
+        replaceTable(db, "d_food");
+
+        // 2. 订单主表：s_order_time → INTEGER毫秒，s_order_sta → INTEGER
+        db.execSQL("create table d_orders_new(s_order_id varchar(20) primary key," +
+                "s_order_time INTEGER DEFAULT 0, s_business_id varchar(20), s_user_id varchar(20)," +
+                "s_order_details_id varchar(30), s_order_sta INTEGER DEFAULT " + ORDER_STA_UNHANDLED + "," +
+                "s_order_address varchar(255))");
+        db.execSQL("insert into d_orders_new(s_order_id, s_order_time, s_business_id, s_user_id, s_order_details_id, s_order_sta, s_order_address) " +
+                "select s_order_id, COALESCE(CAST(strftime('%s', s_order_time, 'utc') AS INTEGER) * 1000, 0), " +
+                "s_business_id, s_user_id, s_order_details_id, CAST(s_order_sta AS INTEGER), s_order_address from d_orders");
+        replaceTable(db, "d_orders");
+
+        // 3. 订单详情表：s_food_price → INTEGER分，s_food_num → INTEGER
+        db.execSQL("create table d_order_details_new(s_details_id varchar(30), s_food_id varchar(20)," +
+                "s_food_name varchar(20), s_food_des varchar(200), s_food_price INTEGER DEFAULT 0," +
+                "s_food_num INTEGER DEFAULT 0, s_food_img varchar(255))");
+        db.execSQL("insert into d_order_details_new(s_details_id, s_food_id, s_food_name, s_food_des, s_food_price, s_food_num, s_food_img) " +
+                "select s_details_id, s_food_id, s_food_name, s_food_des, " +
+                "CAST(ROUND(CAST(s_food_price AS REAL) * 100) AS INTEGER), CAST(s_food_num AS INTEGER), s_food_img from d_order_details");
+        replaceTable(db, "d_order_details");
+
+        // 4. 评论表：s_comment_time → INTEGER毫秒，s_comment_score → INTEGER
+        db.execSQL("create table d_comments_new(s_comment_id varchar(20) primary key," +
+                "s_comment_user_id varchar(20), s_comment_business_id varchar(20), s_comment_con varchar(200)," +
+                "s_comment_time INTEGER DEFAULT 0, s_comment_score INTEGER DEFAULT 0, s_comment_img varchar(255))");
+        db.execSQL("insert into d_comments_new(s_comment_id, s_comment_user_id, s_comment_business_id, s_comment_con, s_comment_time, s_comment_score, s_comment_img) " +
+                "select s_comment_id, s_comment_user_id, s_comment_business_id, s_comment_con, " +
+                "COALESCE(CAST(strftime('%s', s_comment_time, 'utc') AS INTEGER) * 1000, 0), " +
+                "CAST(s_comment_score AS INTEGER), s_comment_img from d_comments");
+        replaceTable(db, "d_comments");
+
+        // 5. 重建被删除的索引（版本34创建的索引随旧表一起被删除）
+        createIndexes(db);
+    }
+
+    /**
+     * 用“表名_new”替换原表：删除原表后把新表改名为原表名
+     * @param db SQLiteDatabase数据库操作对象
+     * @param table 原表名
+     */
+    private static void replaceTable(SQLiteDatabase db, String table) {
+        db.execSQL("drop table " + table);
+        db.execSQL("alter table " + table + "_new rename to " + table);
+    }
+
+    /**
+     * 创建菜品月销量汇总表d_food_sales_monthly
+     * 说明：每个菜品每个自然月一行，s_qty为该月已完成订单（状态3、4）中该菜品的总销量；
+     * 订单进入/离开已完成状态时由OrderDao.updateOrderStatus在同一事务中增减，
+     * 主键(s_food_id, s_yyyymm)即为查询索引，FoodDao.getMouSalesNum按主键一次查询即可得到月销量
+     * @param db SQLiteDatabase数据库操作对象
+     */
+    public static void createFoodSalesMonthlyTable(SQLiteDatabase db) {
+        db.execSQL(DBSchema.CREATE_FOOD_SALES_MONTHLY);
+    }
+
+    /**
+     * 创建商家评分汇总表d_business_rating
+     * 说明：每个商家一行，记录评分总和与评论条数，平均分=总和/条数；
+     * 新增评论时由CommentDao.insertComment在同一事务中累加，读取平均分只需按主键查询一次，无需对评论表做avg()
+     * @param db SQLiteDatabase数据库操作对象
+     */
+    public static void createBusinessRatingTable(SQLiteDatabase db) {
+        db.execSQL(DBSchema.CREATE_BUSINESS_RATING);
+    }
+
+    /**
+     * 创建菜品全文索引表d_food_fts（FTS4虚拟表）
+     * 说明：索引行的docid等于菜品表d_food的rowid，查询时通过 f.rowid = t.docid 关联回菜品表；
+     * 分词器unicode61只能按空格/标点切词，因此写入前用Tools.toSearchTokens把中文逐字切开，
+     * 查询时用Tools.toFtsMatchQuery把连续中文转换为短语匹配，效果等同于包含匹配
+     * 注意：后续迁移如果通过“建新表→复制→改名”重建d_food，rowid会变化，需在迁移后调用rebuildFoodSearchIndex
+     * （Android系统自带的SQLite未启用FTS5，这里使用各版本均支持的FTS4）
+     * @param db SQLiteDatabase数据库操作对象
+     */
+    public static void createFoodSearchTable(SQLiteDatabase db) {
+        db.execSQL(DBSchema.CREATE_FOOD_FTS);
+    }
+
+    /**
+     * 按菜品表当前数据重建全文索引（清空后逐行写入，已删除菜品也写入，查询时由s_is_delete过滤）
+     * @param db SQLiteDatabase数据库操作对象
+     */
+    public static void rebuildFoodSearchIndex(SQLiteDatabase db) {
+        db.execSQL("delete from d_food_fts");
+        Cursor cursor = db.rawQuery("select rowid, s_food_name, s_food_des from d_food", null);
+        try {
+            while (cursor.moveToNext()) {
+                db.execSQL("insert into d_food_fts(docid, s_food_name, s_food_des) values (?, ?, ?)",
+                        new Object[]{cursor.getLong(0), Tools.toSearchTokens(cursor.getString(1)),
+                                Tools.toSearchTokens(cursor.getString(2))});
+            }
+        } finally {
+            cursor.close();
+        }
+    }
+
+    /**
+     * 创建订单全文索引表d_orders_fts（FTS4虚拟表）
+     * 说明：每个订单一行，docid等于订单表d_orders的rowid，查询时通过 o.rowid = t.docid 关联回订单表；
+     * 索引内容为下单用户昵称和订单内全部菜品名称（均用Tools.toSearchTokens分词），
+     * 下单时由OrderDao.placeOrder在同一事务中写入，用户修改昵称/注销时由AdminDao同步更新昵称列
+     * 注意：后续迁移如果通过“建新表→复制→改名”重建d_orders，rowid会变化，需在迁移后调用rebuildOrderSearchIndex
+     * @param db SQLiteDatabase数据库操作对象
+     */
+    public static void createOrderSearchTable(SQLiteDatabase db) {
+        db.execSQL(DBSchema.CREATE_ORDERS_FTS);
+    }
+
+    /**
+     * 按订单表当前数据重建订单全文索引（清空后逐个订单写入，昵称只取未注销用户，与订单列表展示一致）
+     * @param db SQLiteDatabase数据库操作对象
+     */
+    public static void rebuildOrderSearchIndex(SQLiteDatabase db) {
+        rebuildOrderSearchIndex(db, "left join d_order_details d on d.s_details_id = o.s_order_details_id " +
+                "left join d_food_snapshot s on s.s_snapshot_id = d.s_snapshot_id", "s.s_food_name");
+    }
+
+    /**
+     * 重建订单全文索引
+     * @param db SQLiteDatabase数据库操作对象
+     * @param detailsJoin 关联订单明细（及菜品名称所在表）的JOIN子句（迁移39时菜品名称仍在明细表中）
+     * @param foodNameColumn 菜品名称列
+     */
+    private static void rebuildOrderSearchIndex(SQLiteDatabase db, String detailsJoin, String foodNameColumn) {
+        db.execSQL("delete from d_orders_fts");
+        Cursor cursor = db.rawQuery("select o.rowid, u.s_name, group_concat(" + foodNameColumn + ", ' ') from d_orders o " +
+                "left join d_user u on u.s_id = o.s_user_id and u.s_is_delete = " + NOT_DELETED + " " +
+                detailsJoin + " " +
+                "group by o.rowid", null);
+        try {
+            while (cursor.moveToNext()) {
+                db.execSQL("insert into d_orders_fts(docid, s_user_name, s_food_names) values (?, ?, ?)",
+                        new Object[]{cursor.getLong(0), Tools.toSearchTokens(cursor.getString(1)),
+                                Tools.toSearchTokens(cursor.getString(2))});
+            }
+        } finally {
+            cursor.close();
+        }
+    }
+
+    /**
+     * 创建订单归档表d_orders_archive、d_order_details_archive、d_orders_archive_fts及其索引
+     * 说明：已完成（状态3、4）且下单时间早于归档期限的订单由OrderArchive分批移入，订单主表只保留未完成和近期的订单（热数据），
+     * 待处理订单等只查询订单主表的列表不再随历史订单增长；历史列表/搜索通过OrderRepository同时查询两张表（UNION ALL按时间合并），
+     * 对界面透明。归档表结构与订单主表、明细表、订单全文索引相同，索引只保留历史列表用到的（商家/用户 + 时间、详情ID）
+     * @param db SQLiteDatabase数据库操作对象
+     */
+    public static void createArchiveTables(SQLiteDatabase db) {
+        for (String sql : DBSchema.ARCHIVE_TABLES) {
+            db.execSQL(sql);
+        }
+    }
+
+    /**
+     * 创建所有二级索引（使用IF NOT EXISTS，可重复执行）
+     * 索引与DAO查询条件的对应关系：
+     * 1. d_orders(s_business_id, s_order_sta, s_order_time, s_order_id)：商家按状态分页查询订单（OrderDao.pageOrdersBySta/getAllOrdersBySta）
+     * 2. d_orders(s_user_id, s_order_sta, s_order_time, s_order_id)：用户按状态分页查询订单（OrderDao.pageOrdersByStaAndUser/getAllOrdersByStaAndUser）
+     * 3. d_orders(s_business_id, s_order_time, s_order_id)：商家已处理订单（状态!=1，无法在状态列上定位）按键集分页（OrderDao.pageOrdersFinish）
+     * 4. d_orders(s_user_id, s_order_time, s_order_id)：用户全部订单按键集分页（OrderDao.pageOrdersByUser）
+     * 5. d_orders(s_order_sta, s_order_time)：按状态+时间区间筛选订单（时间为INTEGER毫秒可走区间扫描）
+     * 6. d_order_details(s_details_id, s_food_id)：按详情ID批量装配明细、按详情ID+菜品ID查询数量
+     * 7. d_food(s_business_id, s_is_delete)：商家菜品列表（FoodDao.getAllFoodListByBusinessId等）
+     * 8. d_comments(s_comment_business_id, s_comment_score)：商家评论列表、按商家回填评分汇总（覆盖索引，无需回表）
+     * 9. d_address(s_user_id)：用户收货地址列表（AddressDao.getAllAddressByUserId）
+     * 菜品快照表的索引与快照表一起创建（DBSchema.CREATE_FOOD_SNAPSHOT_INDEX），归档表的索引见createArchiveTables
+     * 说明：1~4的末尾两列与列表的排序(s_order_time DESC, s_order_id DESC)一致，按(时间, 订单ID)键集取下一页时直接在索引上定位，无需额外排序
+     * @param db SQLiteDatabase数据库操作对象
+     */
+    public static void createIndexes(SQLiteDatabase db) {
+        for (String index : DBSchema.INDEXES) {
+            db.execSQL(index);
+        }
     }
-}
\ No newline at end of file
+}
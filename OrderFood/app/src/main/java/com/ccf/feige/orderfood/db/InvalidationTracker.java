@@ -0,0 +1,203 @@
+package com.ccf.feige.orderfood.db;
+
+import android.database.sqlite.SQLiteDatabase;
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 表级失效通知（可观察查询）：记录每次写操作修改了哪些表，通知依赖这些表的界面重新查询
+ * 核心功能：
+ * 1. 所有DAO写操作都经过DBManager.execute()，执行成功（影响行数大于0）后从SQL中解析出目标表（INSERT INTO/UPDATE/DELETE FROM），
+ *    不需要在每个DAO方法中手动声明修改了哪些表
+ * 2. 在事务中的写操作先记在当前线程，事务结束（DBManager.endTransaction()）后再统一通知，观察者重新查询时一定能读到已提交的数据
+ * 3. 观察者按表名注册，只在依赖的表变化时回调（主线程）；短时间内的多次变化合并为一次回调，回调参数为这期间变化的所有表
+ * 使用：界面通过OrderPager等加载器注册观察者，回调中在后台线程重新查询，并把新列表交给ListAdapter计算差异，只刷新变化的行
+ * 说明：无法解析表名的写SQL按"所有表都已变化"处理；事务回滚时同样会通知（观察者多查询一次，结果不变）
+ */
+public final class InvalidationTracker {
+
+    /** 无法解析表名时使用的通配表名：通知所有观察者 */
+    private static final String ALL_TABLES = "*";
+
+    /** 写SQL的目标表：INSERT [OR ...] INTO t、REPLACE INTO t、UPDATE [OR ...] t、DELETE FROM t */
+    private static final Pattern WRITE_TABLE = Pattern.compile(
+            "^\\s*(?:insert(?:\\s+or\\s+\\w+)?\\s+into|replace\\s+into|update(?:\\s+or\\s+\\w+)?|delete\\s+from)\\s+[\"`\\[]?(\\w+)",
+            Pattern.CASE_INSENSITIVE);
+
+    /** SQL文本 -> 目标表名（小写）缓存：DAO中的写SQL均为固定文本，每条只解析一次 */
+    private static final Map<String, String> TABLE_CACHE = new ConcurrentHashMap<>();
+
+    /** 已注册的观察者（注册/注销在主线程，通知在写线程，使用写时复制列表） */
+    private static final List<Observer> OBSERVERS = new CopyOnWriteArrayList<>();
+
+    /** 当前线程事务中已修改、尚未通知的表 */
+    private static final ThreadLocal<Set<String>> PENDING = new ThreadLocal<Set<String>>() {
+        @Override
+        protected Set<String> initialValue() {
+            return new HashSet<>();
+        }
+    };
+
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+
+    private InvalidationTracker() {
+    }
+
+    /**
+     * 表变化观察者（回调在主线程执行）
+     */
+    public abstract static class Observer {
+        // 依赖的表名（小写）
+        private final Set<String> tables;
+        // 已变化、尚未回调的表
+        private final Set<String> changed = new HashSet<>();
+        // 是否已向主线程投递回调（投递后到回调执行前的变化合并到同一次回调）
+        private boolean posted;
+
+        /**
+         * 构造方法
+         * @param tables 依赖的表名（查询中用到的所有表）
+         */
+        protected Observer(String... tables) {
+            Set<String> set = new HashSet<>();
+            for (String table : tables) {
+                set.add(table.toLowerCase(Locale.ROOT));
+            }
+            this.tables = Collections.unmodifiableSet(set);
+        }
+
+        /**
+         * 依赖的表发生变化（主线程回调）
+         * @param tables 自上次回调以来变化的依赖表
+         */
+        public abstract void onInvalidated(Set<String> tables);
+
+        /**
+         * 记录变化的表，尚未投递回调时投递到主线程
+         * @param changedTables 变化的表（可能包含通配表名）
+         */
+        void notifyTables(Set<String> changedTables) {
+            synchronized (this) {
+                boolean matched = false;
+                for (String table : changedTables) {
+                    if (ALL_TABLES.equals(table)) {
+                        changed.addAll(tables);
+                        matched = true;
+                    } else if (tables.contains(table)) {
+                        changed.add(table);
+                        matched = true;
+                    }
+                }
+                if (!matched || posted) {
+                    return;
+                }
+                posted = true;
+            }
+            MAIN_HANDLER.post(this::deliver);
+        }
+
+        private void deliver() {
+            Set<String> delivered;
+            synchronized (this) {
+                posted = false;
+                delivered = new HashSet<>(changed);
+                changed.clear();
+            }
+            // 回调前已注销的观察者不再回调（如页面已销毁）
+            if (!delivered.isEmpty() && OBSERVERS.contains(this)) {
+                onInvalidated(delivered);
+            }
+        }
+    }
+
+    /**
+     * 注册观察者（重复注册无效）
+     * @param observer 观察者
+     */
+    public static void addObserver(Observer observer) {
+        OBSERVERS.addIfAbsent(observer);
+    }
+
+    /**
+     * 注销观察者（已投递、尚未执行的回调也不再执行）
+     * @param observer 观察者
+     */
+    public static void removeObserver(Observer observer) {
+        OBSERVERS.remove(observer);
+    }
+
+    /**
+     * 写SQL执行成功后调用（由DBManager.execute()调用）：事务中先记在当前线程，否则立即通知
+     * @param db 执行写SQL的数据库连接
+     * @param sql 写SQL
+     */
+    static void onWrite(SQLiteDatabase db, String sql) {
+        String table = TABLE_CACHE.get(sql);
+        if (table == null) {
+            table = parseTable(sql);
+            TABLE_CACHE.put(sql, table);
+        }
+        if (db != null && db.inTransaction()) {
+            PENDING.get().add(table);
+        } else {
+            dispatch(Collections.singleton(table));
+        }
+    }
+
+    /**
+     * 事务结束后调用（由DBManager.endTransaction()调用）：最外层事务结束时通知事务中修改过的表
+     * @param db 数据库连接
+     */
+    static void onTransactionEnded(SQLiteDatabase db) {
+        if (db.inTransaction()) {
+            // 嵌套事务：等最外层事务结束后再通知
+            return;
+        }
+        Set<String> pending = PENDING.get();
+        if (pending.isEmpty()) {
+            return;
+        }
+        Set<String> tables = new HashSet<>(pending);
+        pending.clear();
+        dispatch(tables);
+    }
+
+    /**
+     * 手动通知表已变化（不经过DBManager.execute()修改数据时使用，如测试中直接写数据库）
+     * @param tables 变化的表名
+     */
+    public static void notifyChanged(String... tables) {
+        Set<String> set = new HashSet<>();
+        for (String table : tables) {
+            set.add(table.toLowerCase(Locale.ROOT));
+        }
+        dispatch(set);
+    }
+
+    private static void dispatch(Set<String> tables) {
+        for (Observer observer : OBSERVERS) {
+            observer.notifyTables(tables);
+        }
+    }
+
+    /**
+     * 从写SQL中解析目标表名
+     * @param sql 写SQL
+     * @return 表名（小写），无法解析时返回通配表名
+     */
+    static String parseTable(String sql) {
+        Matcher matcher = WRITE_TABLE.matcher(sql);
+        return matcher.find() ? matcher.group(1).toLowerCase(Locale.ROOT) : ALL_TABLES;
+    }
+}
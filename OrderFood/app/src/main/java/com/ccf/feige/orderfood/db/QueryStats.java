@@ -0,0 +1,486 @@
+package com.ccf.feige.orderfood.db;
+
+import android.app.Activity;
+import android.app.Application;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.os.Bundle;
+import android.util.Log;
+
+import com.ccf.feige.orderfood.until.MainThreadGuard;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 数据库访问统计（DAO中的每次查询/写入都通过本类执行）
+ * 核心功能：
+ * 1. 按查询名称（如"OrderDao.placeOrder"）统计调用次数、失败次数、返回/影响行数、耗时直方图
+ * 2. 按界面统计调用次数（当前界面为最近一次onResume的Activity），同一界面调用次数异常多通常是N+1查询
+ * 3. 超过慢查询阈值（默认16ms，即一帧）的调用输出到logcat（TAG：QueryStats），并附带该语句的EXPLAIN QUERY PLAN
+ * 4. snapshot()返回当前统计的快照，便于测试中断言（如某查询没有全表扫描、某界面的查询次数）或调试时dump()
+ * 说明：查询耗时包括rawQuery和getCount()（getCount会执行查询并填充第一个游标窗口，之后DAO遍历游标不再重新执行SQL）；
+ * 统计在DBManager.init()中按应用是否可调试开启，release包中直接调用数据库，不做任何统计
+ */
+public final class QueryStats {
+
+    private static final String TAG = "QueryStats";
+
+    /** 未处于任何界面时（如应用启动前、测试中）使用的界面名称 */
+    private static final String NO_SCREEN = "-";
+
+    /** 直方图各区间的上限（微秒），最后一个区间为超过512ms */
+    private static final long[] BUCKET_BOUNDS_MICROS = {250, 500, 1000, 2000, 4000, 8000, 16000, 32000, 64000, 128000, 256000, 512000};
+
+    /** 各查询的统计数据（key：查询名称） */
+    private static final Map<String, Entry> ENTRIES = new ConcurrentHashMap<>();
+
+    private static final AtomicBoolean INSTALLED = new AtomicBoolean(false);
+
+    private static volatile boolean enabled = true;
+    /** 慢查询阈值（纳秒） */
+    private static volatile long slowQueryNanos = 16_000_000L;
+    /** true表示每个查询第一次执行时都记录查询计划（测试中检查全表扫描时开启），false只在慢查询时记录 */
+    private static volatile boolean explainAlways = false;
+    /** 当前界面（最近一次onResume的Activity类名） */
+    private static volatile String currentScreen = NO_SCREEN;
+
+    private QueryStats() {
+    }
+
+    /**
+     * 执行查询并统计（替代db.rawQuery）
+     * @param db 数据库连接
+     * @param name 查询名称（DAO类名.方法名）
+     * @param sql 查询SQL
+     * @param args 查询参数，可为null
+     * @return 查询结果游标（已执行，调用方遍历后关闭）
+     */
+    public static Cursor query(SQLiteDatabase db, String name, String sql, String[] args) {
+        MainThreadGuard.checkDatabase(name);
+        if (!enabled) {
+            return db.rawQuery(sql, args);
+        }
+        long start = System.nanoTime();
+        Cursor cursor = null;
+        try {
+            cursor = db.rawQuery(sql, args);
+            int rows = cursor.getCount();
+            record(db, name, sql, args, System.nanoTime() - start, rows);
+            return cursor;
+        } catch (RuntimeException e) {
+            if (cursor != null) {
+                cursor.close();
+            }
+            entry(name, sql).errors.incrementAndGet();
+            throw e;
+        }
+    }
+
+    /**
+     * 执行写SQL并统计（替代DBManager.execute）
+     * @param name 语句名称（DAO类名.方法名）
+     * @param sql 写SQL（INSERT/UPDATE/DELETE）
+     * @param args 参数
+     * @return 受影响的行数
+     */
+    public static int execute(String name, String sql, Object... args) {
+        MainThreadGuard.checkDatabase(name);
+        if (!enabled) {
+            return DBManager.execute(sql, args);
+        }
+        long start = System.nanoTime();
+        try {
+            int rows = DBManager.execute(sql, args);
+            record(DBManager.getDatabase(), name, sql, toStringArgs(args), System.nanoTime() - start, rows);
+            return rows;
+        } catch (RuntimeException e) {
+            entry(name, sql).errors.incrementAndGet();
+            throw e;
+        }
+    }
+
+    /**
+     * 记录一次调用，超过慢查询阈值时输出日志和查询计划
+     */
+    private static void record(SQLiteDatabase db, String name, String sql, String[] args, long nanos, int rows) {
+        Entry entry = entry(name, sql);
+        entry.add(nanos, rows, currentScreen);
+        boolean slow = nanos > slowQueryNanos;
+        if ((slow || explainAlways) && db != null && entry.explained.compareAndSet(false, true)) {
+            entry.plan = explain(db, sql, args);
+        }
+        if (slow) {
+            Log.w(TAG, String.format("慢查询 %s %.1fms rows=%d screen=%s\n%s\n查询计划：\n%s",
+                    name, nanos / 1e6, rows, currentScreen, sql, entry.plan));
+        }
+    }
+
+    private static Entry entry(String name, String sql) {
+        Entry entry = ENTRIES.get(name);
+        if (entry == null) {
+            Entry created = new Entry(name, sql);
+            entry = ENTRIES.putIfAbsent(name, created);
+            if (entry == null) {
+                entry = created;
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * 获取SQL的查询计划
+     * @return 查询计划（每行一个步骤），获取失败时返回失败原因
+     */
+    private static String explain(SQLiteDatabase db, String sql, String[] args) {
+        Cursor rs = null;
+        try {
+            rs = db.rawQuery("EXPLAIN QUERY PLAN " + sql, args);
+            int detailIndex = rs.getColumnIndex("detail");
+            StringBuilder plan = new StringBuilder();
+            while (rs.moveToNext()) {
+                if (plan.length() > 0) {
+                    plan.append('\n');
+                }
+                plan.append(rs.getString(detailIndex));
+            }
+            return plan.toString();
+        } catch (RuntimeException e) {
+            return "无法获取查询计划：" + e.getMessage();
+        } finally {
+            if (rs != null) {
+                rs.close();
+            }
+        }
+    }
+
+    /**
+     * 写SQL的参数转为字符串（仅用于获取查询计划，null按空字符串绑定）
+     */
+    private static String[] toStringArgs(Object[] args) {
+        if (args == null || args.length == 0) {
+            return null;
+        }
+        String[] strings = new String[args.length];
+        for (int i = 0; i < args.length; i++) {
+            strings[i] = args[i] == null ? "" : String.valueOf(args[i]);
+        }
+        return strings;
+    }
+
+    /**
+     * 注册Activity生命周期回调，用于按界面统计调用次数（可重复调用，只注册一次）
+     * @param application 应用对象
+     */
+    public static void install(Application application) {
+        if (!INSTALLED.compareAndSet(false, true)) {
+            return;
+        }
+        application.registerActivityLifecycleCallbacks(new Application.ActivityLifecycleCallbacks() {
+            @Override
+            public void onActivityResumed(Activity activity) {
+                currentScreen = activity.getClass().getSimpleName();
+            }
+
+            @Override
+            public void onActivityCreated(Activity activity, Bundle savedInstanceState) {
+                // 界面创建时就会开始加载数据，此时尚未onResume
+                currentScreen = activity.getClass().getSimpleName();
+            }
+
+            @Override
+            public void onActivityStarted(Activity activity) {
+            }
+
+            @Override
+            public void onActivityPaused(Activity activity) {
+            }
+
+            @Override
+            public void onActivityStopped(Activity activity) {
+            }
+
+            @Override
+            public void onActivitySaveInstanceState(Activity activity, Bundle outState) {
+            }
+
+            @Override
+            public void onActivityDestroyed(Activity activity) {
+            }
+        });
+    }
+
+    public static void setEnabled(boolean enabled) {
+        QueryStats.enabled = enabled;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 设置慢查询阈值
+     * @param millis 阈值（毫秒）
+     */
+    public static void setSlowQueryThresholdMs(long millis) {
+        slowQueryNanos = millis * 1_000_000L;
+    }
+
+    /**
+     * 设置是否为每个查询记录查询计划（不论是否为慢查询）
+     * @param always true表示每个查询第一次执行时都记录
+     */
+    public static void setExplainAlways(boolean always) {
+        explainAlways = always;
+    }
+
+    /**
+     * 手动指定当前界面（如在Fragment切换时调用，或测试中模拟界面）
+     * @param screen 界面名称，null表示不属于任何界面
+     */
+    public static void setScreen(String screen) {
+        currentScreen = screen == null ? NO_SCREEN : screen;
+    }
+
+    /**
+     * 清空全部统计（如测试开始前、切换数据库后）
+     */
+    public static void reset() {
+        ENTRIES.clear();
+    }
+
+    /**
+     * 获取当前统计的快照（按总耗时从高到低排序）
+     * @return 各查询的统计快照
+     */
+    public static List<Snapshot> snapshot() {
+        List<Snapshot> list = new ArrayList<>();
+        for (Entry entry : ENTRIES.values()) {
+            list.add(entry.snapshot());
+        }
+        Collections.sort(list, new Comparator<Snapshot>() {
+            @Override
+            public int compare(Snapshot a, Snapshot b) {
+                return Long.compare(b.totalNanos, a.totalNanos);
+            }
+        });
+        return list;
+    }
+
+    /**
+     * 获取指定查询的统计快照
+     * @param name 查询名称
+     * @return 统计快照，尚未执行过时返回null
+     */
+    public static Snapshot snapshot(String name) {
+        Entry entry = ENTRIES.get(name);
+        return entry == null ? null : entry.snapshot();
+    }
+
+    /**
+     * 把当前统计输出到logcat（调试时使用）
+     */
+    public static void dump() {
+        for (Snapshot snapshot : snapshot()) {
+            Log.i(TAG, snapshot.toString());
+        }
+    }
+
+    /**
+     * 单个查询的统计数据（多线程并发累加）
+     */
+    private static final class Entry {
+        final String name;
+        final String sql;
+        final AtomicLong calls = new AtomicLong();
+        final AtomicLong errors = new AtomicLong();
+        final AtomicLong rows = new AtomicLong();
+        final AtomicLong totalNanos = new AtomicLong();
+        final AtomicLong maxNanos = new AtomicLong();
+        final AtomicLongArray histogram = new AtomicLongArray(BUCKET_BOUNDS_MICROS.length + 1);
+        final Map<String, AtomicInteger> callsByScreen = new ConcurrentHashMap<>();
+        final AtomicBoolean explained = new AtomicBoolean(false);
+        volatile String plan;
+
+        Entry(String name, String sql) {
+            this.name = name;
+            this.sql = sql;
+        }
+
+        void add(long nanos, int rowCount, String screen) {
+            calls.incrementAndGet();
+            rows.addAndGet(rowCount);
+            totalNanos.addAndGet(nanos);
+            long max;
+            do {
+                max = maxNanos.get();
+            } while (nanos > max && !maxNanos.compareAndSet(max, nanos));
+            histogram.incrementAndGet(bucketOf(nanos / 1000));
+            AtomicInteger count = callsByScreen.get(screen);
+            if (count == null) {
+                AtomicInteger created = new AtomicInteger();
+                count = callsByScreen.putIfAbsent(screen, created);
+                if (count == null) {
+                    count = created;
+                }
+            }
+            count.incrementAndGet();
+        }
+
+        Snapshot snapshot() {
+            long[] counts = new long[histogram.length()];
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = histogram.get(i);
+            }
+            Map<String, Integer> screens = new HashMap<>();
+            for (Map.Entry<String, AtomicInteger> e : callsByScreen.entrySet()) {
+                screens.put(e.getKey(), e.getValue().get());
+            }
+            return new Snapshot(name, sql, calls.get(), errors.get(), rows.get(), totalNanos.get(), maxNanos.get(),
+                    counts, screens, plan);
+        }
+    }
+
+    private static int bucketOf(long micros) {
+        for (int i = 0; i < BUCKET_BOUNDS_MICROS.length; i++) {
+            if (micros <= BUCKET_BOUNDS_MICROS[i]) {
+                return i;
+            }
+        }
+        return BUCKET_BOUNDS_MICROS.length;
+    }
+
+    /**
+     * 单个查询的统计快照（不可变）
+     */
+    public static final class Snapshot {
+        private final String name;
+        private final String sql;
+        private final long calls;
+        private final long errors;
+        private final long rows;
+        private final long totalNanos;
+        private final long maxNanos;
+        private final long[] histogram;
+        private final Map<String, Integer> callsByScreen;
+        private final String plan;
+
+        Snapshot(String name, String sql, long calls, long errors, long rows, long totalNanos, long maxNanos,
+                 long[] histogram, Map<String, Integer> callsByScreen, String plan) {
+            this.name = name;
+            this.sql = sql;
+            this.calls = calls;
+            this.errors = errors;
+            this.rows = rows;
+            this.totalNanos = totalNanos;
+            this.maxNanos = maxNanos;
+            this.histogram = histogram;
+            this.callsByScreen = Collections.unmodifiableMap(callsByScreen);
+            this.plan = plan;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /** 第一次执行时的SQL（IN列表等动态SQL只保留第一次的文本） */
+        public String getSql() {
+            return sql;
+        }
+
+        /** 成功执行的次数 */
+        public long getCalls() {
+            return calls;
+        }
+
+        /** 执行失败（抛出异常）的次数 */
+        public long getErrors() {
+            return errors;
+        }
+
+        /** 查询返回的总行数（写语句为受影响的总行数） */
+        public long getRows() {
+            return rows;
+        }
+
+        public double getTotalMillis() {
+            return totalNanos / 1e6;
+        }
+
+        public double getAvgMillis() {
+            return calls == 0 ? 0 : totalNanos / 1e6 / calls;
+        }
+
+        public double getMaxMillis() {
+            return maxNanos / 1e6;
+        }
+
+        /**
+         * 按直方图估算耗时百分位（返回所在区间的上限，落在最后一个区间时返回最大耗时）
+         * @param percentile 百分位（0~100，如95）
+         * @return 耗时（毫秒）
+         */
+        public double getPercentileMillis(double percentile) {
+            long target = (long) Math.ceil(calls * percentile / 100.0);
+            long seen = 0;
+            for (int i = 0; i < BUCKET_BOUNDS_MICROS.length; i++) {
+                seen += histogram[i];
+                if (seen >= target && seen > 0) {
+                    return Math.min(BUCKET_BOUNDS_MICROS[i] / 1000.0, getMaxMillis());
+                }
+            }
+            return getMaxMillis();
+        }
+
+        /** 直方图各区间的调用次数（区间上限见getBucketBoundsMicros，最后一个为超出部分） */
+        public long[] getHistogram() {
+            return histogram.clone();
+        }
+
+        public static long[] getBucketBoundsMicros() {
+            return BUCKET_BOUNDS_MICROS.clone();
+        }
+
+        /** 各界面的调用次数（key：Activity类名） */
+        public Map<String, Integer> getCallsByScreen() {
+            return callsByScreen;
+        }
+
+        /** 查询计划（慢查询或开启explainAlways后才有），未记录时返回null */
+        public String getPlan() {
+            return plan;
+        }
+
+        /**
+         * 查询计划中是否有不使用索引的全表扫描（全文索引虚拟表的扫描除外）
+         * @return 未记录查询计划时返回false
+         */
+        public boolean hasFullScan() {
+            if (plan == null) {
+                return false;
+            }
+            for (String step : plan.split("\n")) {
+                if (step.startsWith("SCAN") && !step.contains("USING") && !step.contains("VIRTUAL TABLE")) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s calls=%d errors=%d rows=%d total=%.1fms avg=%.2fms p95=%.2fms max=%.1fms screens=%s%s",
+                    name, calls, errors, rows, getTotalMillis(), getAvgMillis(), getPercentileMillis(95), getMaxMillis(),
+                    callsByScreen, hasFullScan() ? " 全表扫描" : "");
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.ccf.feige.orderfood.db;
+
+import android.content.Context;
+import android.content.res.AssetFileDescriptor;
+import android.content.res.AssetManager;
+import android.database.sqlite.SQLiteDatabase;
+import android.util.Log;
+
+import com.ccf.feige.orderfood.db.seed.BuiltinSeed;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * 预置数据库安装工具（首次启动时把assets中的预置数据库和内置图片复制到应用目录）
+ * 说明：
+ * 1. 预置数据库assets/seed/db_takeaway.db由benchmark模块的SeedAssetBuilder生成（表结构、索引、内置初始化数据、全文索引均已写好），
+ *    首次启动只需复制文件，不再在DBUntil.onCreate中逐条建表、解码图片再重新编码写出
+ * 2. 内置图片assets/seed/images复制到应用私有目录files/seed_images，数据库中的图片路径前缀在安装时替换为该目录
+ * 3. 复制使用文件通道：assets未压缩（build.gradle.kts中noCompress）时通过FileChannel.transferTo直接在文件之间传输，
+ *    否则按流式通道分块复制，均不把整个文件读入内存
+ * 4. 安装是原子的：先写临时文件/临时目录，全部完成后再改名，安装中途被杀进程不会留下半个数据库（下次启动重新安装）
+ * 在DBManager.init()的后台打开任务中调用，不会阻塞界面
+ */
+public final class SeedAssetInstaller {
+
+    private static final String TAG = "SeedAssetInstaller";
+
+    /** 预置数据库在assets中的路径 */
+    private static final String ASSET_DATABASE = "seed/" + DBUntil.databaseName;
+    /** 内置图片的安装目录名（位于files目录下） */
+    private static final String IMAGE_DIR = "seed_images";
+
+    private SeedAssetInstaller() {
+    }
+
+    /**
+     * 数据库文件不存在时安装预置数据库（已存在或没有打包预置数据库时不做任何操作）
+     * @param context 上下文对象
+     * @return 安装了预置数据库返回true；返回false时由DBUntil.onCreate建表并写入初始化数据
+     */
+    public static boolean installDatabase(Context context) {
+        File target = context.getDatabasePath(DBUntil.databaseName);
+        if (target.exists()) {
+            return false;
+        }
+        AssetManager assets = context.getAssets();
+        if (!hasAsset(assets, ASSET_DATABASE)) {
+            return false;
+        }
+        long start = System.nanoTime();
+        File tmp = new File(target.getPath() + ".tmp");
+        try {
+            String imageDir = installImages(context);
+            File parent = target.getParentFile();
+            if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+                throw new IOException("无法创建数据库目录：" + parent);
+            }
+            SQLiteDatabase.deleteDatabase(tmp);
+            copyAsset(assets, ASSET_DATABASE, tmp);
+            relocateImages(tmp, imageDir);
+            if (!tmp.renameTo(target)) {
+                throw new IOException("无法安装数据库：" + target);
+            }
+            Log.i(TAG, "预置数据库安装耗时" + (System.nanoTime() - start) / 1000000 + "ms");
+            return true;
+        } catch (IOException | RuntimeException e) {
+            // 安装失败时删除临时文件，回退到DBUntil.onCreate建表
+            Log.e(TAG, "安装预置数据库失败", e);
+            SQLiteDatabase.deleteDatabase(tmp);
+            return false;
+        }
+    }
+
+    /**
+     * 把内置图片复制到应用私有目录（已复制过时直接返回目录）
+     * @param context 上下文对象
+     * @return 内置图片目录的绝对路径（不以/结尾）
+     */
+    public static String installImages(Context context) throws IOException {
+        File dir = new File(context.getFilesDir(), IMAGE_DIR);
+        if (dir.isDirectory()) {
+            return dir.getAbsolutePath();
+        }
+        // 先复制到临时目录，全部完成后改名，目录存在即表示图片完整
+        File tmp = new File(context.getFilesDir(), IMAGE_DIR + ".tmp");
+        deleteDir(tmp);
+        if (!tmp.mkdirs()) {
+            throw new IOException("无法创建图片目录：" + tmp);
+        }
+        AssetManager assets = context.getAssets();
+        String[] names = assets.list(BuiltinSeed.ASSET_IMAGE_DIR);
+        if (names != null) {
+            for (String name : names) {
+                copyAsset(assets, BuiltinSeed.ASSET_IMAGE_DIR + "/" + name, new File(tmp, name));
+            }
+        }
+        if (!tmp.renameTo(dir)) {
+            throw new IOException("无法安装图片目录：" + dir);
+        }
+        return dir.getAbsolutePath();
+    }
+
+    /**
+     * 把预置数据库中的图片路径前缀（BuiltinSeed.ASSET_IMAGE_DIR）替换为图片的实际目录
+     * @param file 预置数据库文件（尚未改名为正式数据库）
+     * @param imageDir 图片的实际目录
+     */
+    private static void relocateImages(File file, String imageDir) {
+        SQLiteDatabase db = SQLiteDatabase.openDatabase(file.getPath(), null, SQLiteDatabase.OPEN_READWRITE);
+        try {
+            db.beginTransaction();
+            try {
+                String prefix = BuiltinSeed.ASSET_IMAGE_DIR + "/";
+                for (String[] column : BuiltinSeed.IMAGE_COLUMNS) {
+                    db.execSQL("update " + column[0] + " set " + column[1] + " = ? || substr(" + column[1] + ", ?) " +
+                                    "where substr(" + column[1] + ", 1, ?) = ?",
+                            new Object[]{imageDir + "/", prefix.length() + 1, prefix.length(), prefix});
+                }
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+        } finally {
+            db.close();
+        }
+    }
+
+    /**
+     * 通过文件通道复制一个asset文件，写完后同步到磁盘
+     * @param assets AssetManager
+     * @param name asset路径
+     * @param target 目标文件
+     */
+    private static void copyAsset(AssetManager assets, String name, File target) throws IOException {
+        try (FileOutputStream out = new FileOutputStream(target)) {
+            FileChannel outChannel = out.getChannel();
+            AssetFileDescriptor fd = openFd(assets, name);
+            if (fd != null) {
+                // 未压缩的asset：直接从APK文件的对应区间传输到目标文件（内核中完成，不经过Java堆）
+                try (FileInputStream in = fd.createInputStream()) {
+                    FileChannel inChannel = in.getChannel();
+                    long offset = fd.getStartOffset();
+                    long length = fd.getLength();
+                    long copied = 0;
+                    while (copied < length) {
+                        copied += inChannel.transferTo(offset + copied, length - copied, outChannel);
+                    }
+                } finally {
+                    fd.close();
+                }
+            } else {
+                // 压缩的asset：按流式通道分块写入
+                try (InputStream in = assets.open(name); ReadableByteChannel inChannel = Channels.newChannel(in)) {
+                    long position = 0;
+                    long n;
+                    while ((n = outChannel.transferFrom(inChannel, position, 1 << 20)) > 0) {
+                        position += n;
+                    }
+                }
+            }
+            outChannel.force(true);
+        }
+    }
+
+    /**
+     * 以文件描述符方式打开asset（仅未压缩的asset支持）
+     * @return 文件描述符，asset被压缩时返回null
+     */
+    private static AssetFileDescriptor openFd(AssetManager assets, String name) throws IOException {
+        try {
+            return assets.openFd(name);
+        } catch (FileNotFoundException e) {
+            // openFd对压缩的asset同样抛出FileNotFoundException，文件确实不存在时会在assets.open()中再次抛出
+            return null;
+        }
+    }
+
+    private static boolean hasAsset(AssetManager assets, String name) {
+        try (InputStream ignored = assets.open(name)) {
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static void deleteDir(File dir) {
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        dir.delete();
+    }
+}
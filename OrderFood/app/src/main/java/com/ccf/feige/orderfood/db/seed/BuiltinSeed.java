@@ -0,0 +1,65 @@
+package com.ccf.feige.orderfood.db.seed;
+
+import com.ccf.feige.orderfood.until.SearchTokens;
+
+import java.sql.SQLException;
+
+/**
+ * 内置初始化数据（首次安装时的演示商家、用户、菜品）
+ * 使用：
+ * 1. benchmark模块的SeedAssetBuilder写入预置数据库（assets/seed/db_takeaway.db），图片路径以ASSET_IMAGE_DIR开头，
+ *    应用首次启动时由SeedAssetInstaller复制数据库和图片，并把路径前缀替换为图片的实际目录
+ * 2. 预置数据库不存在时（或测试中的内存数据库），DBUntil.onCreate直接写入，图片路径为已复制好的实际目录
+ * 图片：assets/seed/images下的文件（已按应用保存图片的尺寸编码，含_thumb缩略图），复制即可使用，无需解码/重新编码
+ */
+public final class BuiltinSeed {
+
+    /** 预置数据库中图片路径的前缀（assets中的图片目录），安装时替换为图片的实际目录 */
+    public static final String ASSET_IMAGE_DIR = "seed/images";
+
+    /** 保存图片路径的表和列（安装预置数据库时替换路径前缀） */
+    public static final String[][] IMAGE_COLUMNS = {
+            {"d_business", "s_img"},
+            {"d_user", "s_img"},
+            {"d_food", "s_food_img"},
+            {"d_food_snapshot", "s_food_img"},
+    };
+
+    private BuiltinSeed() {
+    }
+
+    /**
+     * 写入内置初始化数据（表和全文索引表需已创建，不开启/提交事务，由调用方管理）
+     * @param sink 写入目标
+     * @param imageDir 图片目录（不以/结尾），图片路径为imageDir + "/" + 文件名
+     */
+    public static void write(SeedSink sink, String imageDir) throws SQLException {
+        // 商家
+        sink.insert(SeedGenerator.INSERT_BUSINESS, new Object[]{"admin", "123456", "南京大排档",
+                "南京大排档始创于1994年，三十年如一日磨出饮食佳境。全国上百家直营门店，地道金陵味。如有问题，请随时联系本店，定会竭力为您解决。",
+                "餐饮店", imageDir + "/njdpd.jpg"});
+
+        // 用户
+        sink.insert(SeedGenerator.INSERT_USER, new Object[]{"test", "123456", "张硕", "男", "徐州市", "12312312312",
+                imageDir + "/zs.jpg"});
+
+        // 菜品（价格单位：分）
+        food(sink, "1", "南京烤鸭", "南京烤鸭香、脆、瞅、鲜、嫩，旺火细烤去除多余水分，配己以特制卤汁细细品味，肉质紧实，尝之把命不喊。",
+                1900L, imageDir + "/roast_duck.jpg");
+        food(sink, "2", "鸭血粉丝汤", "南京传统地方风味，鲜嫩的鸭肝、鸭血与劲道的粉丝同煲，鲜美和比。",
+                2400L, imageDir + "/nanjing_duck_blood_vermicelli_soup.jpg");
+        food(sink, "3", "南京盐水鸭", "搓盐、复卤、挂晾、炆煮，十$道工序，一招一式绝不走样，招牌菜来之不易。",
+                1700L, imageDir + "/salted_duck.jpg");
+        food(sink, "4", "金陵汤包", "用烤鸭肉制成的小笼包，你吃过吗？本店创制，不可不尝哦。",
+                1200L, imageDir + "/nanjing_xiaolongbao.jpg");
+    }
+
+    /**
+     * 写入一道admin商家的菜品及其第一个版本快照、全文索引行
+     */
+    private static void food(SeedSink sink, String id, String name, String des, long price, String img) throws SQLException {
+        sink.insert(SeedGenerator.INSERT_FOOD, new Object[]{id, "admin", name, des, price, img});
+        sink.insert(SeedGenerator.INSERT_FOOD_SNAPSHOT, new Object[]{id, name, des, price, img});
+        sink.insert(SeedGenerator.INSERT_FOOD_FTS, new Object[]{SearchTokens.toSearchTokens(name), SearchTokens.toSearchTokens(des), id});
+    }
+}
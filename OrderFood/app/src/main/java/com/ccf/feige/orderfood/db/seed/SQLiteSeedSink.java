@@ -0,0 +1,103 @@
+package com.ccf.feige.orderfood.db.seed;
+
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 测试数据写入Android数据库（设备测试、调试时使用）
+ * 说明：按SQL文本缓存预编译语句（同DBManager.execute），在大事务中逐行绑定参数执行
+ * 使用示例：SQLiteSeedSink.seed(db, SeedConfig.forOrders(10000))；内置初始化数据：SQLiteSeedSink.seedBuiltin(db, imageDir)
+ */
+public class SQLiteSeedSink implements SeedSink {
+
+    private final SQLiteDatabase db;
+    private final Map<String, SQLiteStatement> statements = new HashMap<>();
+
+    private SQLiteSeedSink(SQLiteDatabase db) {
+        this.db = db;
+    }
+
+    /**
+     * 按参数生成测试数据并写入数据库（在调用线程中同步执行，请勿在主线程调用）
+     * @param db 已建好表的数据库（如DBUntil.onCreate之后）
+     * @param config 生成参数
+     * @return 写入的总行数
+     */
+    public static long seed(SQLiteDatabase db, SeedConfig config) {
+        SQLiteSeedSink sink = new SQLiteSeedSink(db);
+        db.beginTransaction();
+        try {
+            long rows = new SeedGenerator(config).generate(sink);
+            db.setTransactionSuccessful();
+            return rows;
+        } catch (SQLException e) {
+            throw new IllegalStateException("生成测试数据失败", e);
+        } finally {
+            db.endTransaction();
+            sink.close();
+        }
+    }
+
+    /**
+     * 写入内置初始化数据（在调用方的事务中执行，如DBUntil.onCreate）
+     * @param db 已建好表的数据库
+     * @param imageDir 内置图片所在目录（SeedAssetInstaller.installImages的返回值）
+     */
+    public static void seedBuiltin(SQLiteDatabase db, String imageDir) {
+        SQLiteSeedSink sink = new SQLiteSeedSink(db);
+        try {
+            BuiltinSeed.write(sink, imageDir);
+        } catch (SQLException e) {
+            throw new IllegalStateException("写入内置初始化数据失败", e);
+        } finally {
+            sink.close();
+        }
+    }
+
+    @Override
+    public void insert(String sql, Object[] args) {
+        SQLiteStatement statement = statements.get(sql);
+        if (statement == null) {
+            statement = db.compileStatement(sql);
+            statements.put(sql, statement);
+        }
+        statement.clearBindings();
+        for (int i = 0; i < args.length; i++) {
+            Object arg = args[i];
+            if (arg == null) {
+                statement.bindNull(i + 1);
+            } else if (arg instanceof Number) {
+                statement.bindLong(i + 1, ((Number) arg).longValue());
+            } else {
+                statement.bindString(i + 1, arg.toString());
+            }
+        }
+        statement.executeInsert();
+    }
+
+    @Override
+    public void execute(String sql) {
+        db.execSQL(sql);
+    }
+
+    @Override
+    public void commit() {
+        db.setTransactionSuccessful();
+        db.endTransaction();
+        db.beginTransaction();
+    }
+
+    /**
+     * 释放缓存的预编译语句
+     */
+    private void close() {
+        for (SQLiteStatement statement : statements.values()) {
+            statement.close();
+        }
+        statements.clear();
+    }
+}
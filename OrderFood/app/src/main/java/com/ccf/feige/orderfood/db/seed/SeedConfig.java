@@ -0,0 +1,191 @@
+package com.ccf.feige.orderfood.db.seed;
+
+/**
+ * 测试数据生成参数（SeedGenerator使用）
+ * 说明：数量类参数决定生成的行数，倾斜度参数决定数据分布（Zipf分布的指数，0表示均匀分布，越大越集中），
+ * 同一组参数（含随机数种子）在同一时区下每次生成的内容完全相同
+ * 使用示例：SeedConfig.forOrders(100000).setCommentRate(0.5)
+ */
+public class SeedConfig {
+
+    /** 默认订单截止时间（固定值，保证数据可复现）：2026-01-01 00:00 UTC */
+    public static final long DEFAULT_END_TIME = 1767225600000L;
+
+    private int merchants = 5;// 商家数量
+    private int dishesPerMerchant = 12;// 每个商家的菜品数量
+    private int customers = 50;// 用户数量
+    private int maxAddressesPerCustomer = 3;// 每个用户最多的收货地址数量（实际为1~该值）
+    private int orders = 1000;// 订单数量
+    private int maxItemsPerOrder = 6;// 每个订单最多的菜品种类数（实际为1~该值，少的居多）
+    private int days = 180;// 订单时间跨度（天，截止到endTime）
+    private long endTime = DEFAULT_END_TIME;// 订单时间的截止时间（时间戳毫秒）
+    private long seed = 1;// 随机数种子
+
+    private double merchantSkew = 1.0;// 商家热度倾斜度（少数热门商家占大部分订单）
+    private double dishSkew = 1.0;// 菜品热度倾斜度（每个商家的招牌菜销量最高）
+    private double customerSkew = 0.8;// 用户下单频次倾斜度（少数老顾客下单最多）
+
+    private double pendingRate = 0.05;// 未处理订单占比
+    private double cancelRate = 0.05;// 已取消订单占比（其余为已完成）
+    private double commentRate = 0.35;// 已完成订单中被评论的比例
+
+    private int ordersPerTransaction = 50000;// 每个事务写入的订单数量（大事务批量写入）
+
+    /**
+     * 按订单数量生成一组比例合适的参数：商家数量为订单数/1000（5~200），用户数量为订单数/20（至少50），
+     * 随机数种子取订单数量（同一数据量每次生成的内容相同）
+     * @param orders 订单数量
+     * @return 生成参数
+     */
+    public static SeedConfig forOrders(int orders) {
+        return new SeedConfig()
+                .setOrders(orders)
+                .setMerchants(Math.max(5, Math.min(200, orders / 1000)))
+                .setCustomers(Math.max(50, orders / 20))
+                .setSeed(orders);
+    }
+
+    public int getMerchants() {
+        return merchants;
+    }
+
+    public SeedConfig setMerchants(int merchants) {
+        this.merchants = merchants;
+        return this;
+    }
+
+    public int getDishesPerMerchant() {
+        return dishesPerMerchant;
+    }
+
+    public SeedConfig setDishesPerMerchant(int dishesPerMerchant) {
+        this.dishesPerMerchant = dishesPerMerchant;
+        return this;
+    }
+
+    public int getCustomers() {
+        return customers;
+    }
+
+    public SeedConfig setCustomers(int customers) {
+        this.customers = customers;
+        return this;
+    }
+
+    public int getMaxAddressesPerCustomer() {
+        return maxAddressesPerCustomer;
+    }
+
+    public SeedConfig setMaxAddressesPerCustomer(int maxAddressesPerCustomer) {
+        this.maxAddressesPerCustomer = maxAddressesPerCustomer;
+        return this;
+    }
+
+    public int getOrders() {
+        return orders;
+    }
+
+    public SeedConfig setOrders(int orders) {
+        this.orders = orders;
+        return this;
+    }
+
+    public int getMaxItemsPerOrder() {
+        return maxItemsPerOrder;
+    }
+
+    public SeedConfig setMaxItemsPerOrder(int maxItemsPerOrder) {
+        this.maxItemsPerOrder = maxItemsPerOrder;
+        return this;
+    }
+
+    public int getDays() {
+        return days;
+    }
+
+    public SeedConfig setDays(int days) {
+        this.days = days;
+        return this;
+    }
+
+    public long getEndTime() {
+        return endTime;
+    }
+
+    public SeedConfig setEndTime(long endTime) {
+        this.endTime = endTime;
+        return this;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public SeedConfig setSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    public double getMerchantSkew() {
+        return merchantSkew;
+    }
+
+    public SeedConfig setMerchantSkew(double merchantSkew) {
+        this.merchantSkew = merchantSkew;
+        return this;
+    }
+
+    public double getDishSkew() {
+        return dishSkew;
+    }
+
+    public SeedConfig setDishSkew(double dishSkew) {
+        this.dishSkew = dishSkew;
+        return this;
+    }
+
+    public double getCustomerSkew() {
+        return customerSkew;
+    }
+
+    public SeedConfig setCustomerSkew(double customerSkew) {
+        this.customerSkew = customerSkew;
+        return this;
+    }
+
+    public double getPendingRate() {
+        return pendingRate;
+    }
+
+    public SeedConfig setPendingRate(double pendingRate) {
+        this.pendingRate = pendingRate;
+        return this;
+    }
+
+    public double getCancelRate() {
+        return cancelRate;
+    }
+
+    public SeedConfig setCancelRate(double cancelRate) {
+        this.cancelRate = cancelRate;
+        return this;
+    }
+
+    public double getCommentRate() {
+        return commentRate;
+    }
+
+    public SeedConfig setCommentRate(double commentRate) {
+        this.commentRate = commentRate;
+        return this;
+    }
+
+    public int getOrdersPerTransaction() {
+        return ordersPerTransaction;
+    }
+
+    public SeedConfig setOrdersPerTransaction(int ordersPerTransaction) {
+        this.ordersPerTransaction = ordersPerTransaction;
+        return this;
+    }
+}
@@ -0,0 +1,418 @@
+package com.ccf.feige.orderfood.db.seed;
+
+import com.ccf.feige.orderfood.until.SearchTokens;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.TimeZone;
+
+/**
+ * 测试数据生成器：按SeedConfig向当前表结构（DBSchema）写入商家、菜品及其快照、用户、收货地址、订单及明细、评论，
+ * 同时写入菜品/订单全文索引，最后按迁移中的SQL重算菜品月销量和商家评分汇总表
+ * 核心功能：
+ * 1. 数据分布接近真实情况：商家、菜品、用户的热度按Zipf分布倾斜（少数热门商家/招牌菜/老顾客占大部分订单），
+ *    下单时间集中在午餐、晚餐高峰，周末和临近截止时间的日期订单更多，评分偏向4~5星
+ * 2. 大事务写入：每ordersPerTransaction个订单提交一次，百万级数据只需数秒
+ * 3. 不依赖任何Android类：通过SeedSink写入，设备测试使用SQLiteSeedSink，benchmark模块使用JDBC实现
+ * 说明：生成的ID有固定格式（商家b0、菜品f0_0、用户u0、订单o0），热度排名第0的商家/用户即为订单最多的商家/用户；
+ * 已有数据（如DBUntil.onCreate插入的admin/test）不受影响，但汇总表会按全部数据重算
+ * 使用示例：new SeedGenerator(SeedConfig.forOrders(100000)).generate(sink)
+ */
+public final class SeedGenerator {
+
+    /** 订单状态：1未处理 2取消 3完成（未评论）4完成且被评论（同OrderBean） */
+    private static final int ORDER_STA_UNHANDLED = 1;
+    private static final int ORDER_STA_CANCEL = 2;
+    private static final int ORDER_STA_FINISH = 3;
+    private static final int ORDER_STA_FINISH_COMMENTED = 4;
+
+    /** 一天、一小时的毫秒数 */
+    private static final long DAY = 24L * 60 * 60 * 1000;
+    private static final long HOUR = 60L * 60 * 1000;
+
+    /** 各插入语句（列顺序与insert()的参数数组一致） */
+    static final String INSERT_BUSINESS = "INSERT INTO d_business (s_id, s_pwd, s_name, s_describe, s_type, s_img, s_is_delete) " +
+            "VALUES (?, ?, ?, ?, ?, ?, 0)";
+    static final String INSERT_FOOD = "INSERT INTO d_food (s_food_id, s_business_id, s_food_name, s_food_des, s_food_price, s_food_img, s_is_delete) " +
+            "VALUES (?, ?, ?, ?, ?, ?, 0)";
+    // 全文索引的docid取菜品表/订单表的rowid（同FoodDao.addFood、OrderDao.placeOrder），不依赖表中已有的数据
+    static final String INSERT_FOOD_FTS = "INSERT INTO d_food_fts (docid, s_food_name, s_food_des) " +
+            "SELECT rowid, ?, ? FROM d_food WHERE s_food_id=?";
+    // 菜品的第一个版本快照（同FoodDao.addFood）
+    static final String INSERT_FOOD_SNAPSHOT = "INSERT INTO d_food_snapshot (s_food_id, s_version, s_food_name, s_food_des, s_food_price, s_food_img) " +
+            "VALUES (?, 1, ?, ?, ?, ?)";
+    static final String INSERT_USER = "INSERT INTO d_user (s_id, s_pwd, s_name, s_sex, s_address, s_phone, s_img, s_is_delete) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, 0)";
+    static final String INSERT_ADDRESS = "INSERT INTO d_address (s_id, s_user_id, s_user_name, s_user_address, s_user_phone) " +
+            "VALUES (?, ?, ?, ?, ?)";
+    static final String INSERT_ORDER = "INSERT INTO d_orders (s_order_id, s_order_time, s_business_id, s_user_id, " +
+            "s_order_details_id, s_order_sta, s_order_address) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    // 明细引用菜品的最新快照（生成的菜品只有一个版本，不依赖快照表中已有的数据）
+    static final String INSERT_ORDER_DETAIL = "INSERT INTO d_order_details (s_details_id, s_food_id, s_snapshot_id, s_food_num) " +
+            "SELECT ?, ?, MAX(s_snapshot_id), ? FROM d_food_snapshot WHERE s_food_id=?";
+    static final String INSERT_ORDER_FTS = "INSERT INTO d_orders_fts (docid, s_user_name, s_food_names) " +
+            "SELECT rowid, ?, ? FROM d_orders WHERE s_order_id=?";
+    static final String INSERT_COMMENT = "INSERT INTO d_comments (s_comment_id, s_comment_user_id, s_comment_business_id, " +
+            "s_comment_con, s_comment_time, s_comment_score, s_comment_img) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    /** 重算汇总表（同DBUntil迁移36、37的回填SQL，先清空再按全部数据汇总） */
+    static final String[] REBUILD_SUMMARIES = {
+            "delete from d_food_sales_monthly",
+            "insert into d_food_sales_monthly(s_food_id, s_yyyymm, s_qty) " +
+                    "select d.s_food_id, " +
+                    "CAST(strftime('%Y%m', o.s_order_time / 1000, 'unixepoch', 'localtime') AS INTEGER), " +
+                    "SUM(d.s_food_num) from d_orders o " +
+                    "join d_order_details d on d.s_details_id = o.s_order_details_id " +
+                    "where o.s_order_sta in (" + ORDER_STA_FINISH + "," + ORDER_STA_FINISH_COMMENTED + ") " +
+                    "group by 1, 2",
+            "delete from d_business_rating",
+            "insert into d_business_rating(s_business_id, s_score_sum, s_score_count) " +
+                    "select s_comment_business_id, SUM(s_comment_score), COUNT(*) from d_comments " +
+                    "where s_comment_business_id is not null group by s_comment_business_id",
+    };
+
+    /** 菜品名称与描述素材（名称和描述按下标对应） */
+    private static final String[] FOOD_NAMES = {"南京烤鸭", "鸭血粉丝汤", "南京盐水鸭", "金陵汤包", "牛肉锅贴", "皮肚面",
+            "糖醋排骨", "红烧狮子头", "小馄饨", "蟹黄包", "桂花糖芋苗", "什锦豆腐涝"};
+    private static final String[] FOOD_DES = {"旺火细烤，皮脆肉嫩", "鸭肝鸭血与粉丝同煲，汤鲜味美", "十道工序，咸香不腻",
+            "用烤鸭肉制成的小笼包", "底部焦脆，汁多肉香", "猪皮吸饱高汤，配手擀面", "酸甜适口，老少皆宜",
+            "肥瘦相间，入口即化", "皮薄馅大，骨汤打底", "蟹黄鲜香，一口爆汁", "桂花飘香，软糯香甜", "老南京早点"};
+    /** 菜品基础价格（分，与FOOD_NAMES对应，各商家在此基础上浮动） */
+    private static final long[] FOOD_PRICES = {1900, 2400, 1700, 1200, 1500, 1600, 2800, 3200, 1000, 2200, 900, 800};
+
+    /** 商家名称、类型素材 */
+    private static final String[] MERCHANT_NAMES = {"南京大排档", "金陵小吃", "秦淮人家", "鸭得堡", "老门东", "夫子庙小吃"};
+    private static final String[] MERCHANT_TYPES = {"餐饮店", "小吃店", "快餐店", "甜品店"};
+
+    /** 用户姓氏、名字、收货地址素材 */
+    private static final String[] SURNAMES = {"张", "李", "王", "刘", "陈", "杨", "赵", "黄", "周", "吴"};
+    private static final String[] GIVEN_NAMES = {"硕", "华", "芳", "洋", "静", "帆", "磊", "敏", "婷", "强", "军", "丽"};
+    private static final String[] ADDRESSES = {"徐州市云龙区", "南京市鼓楼区", "南京市玄武区", "南京市秦淮区", "苏州市姑苏区",
+            "无锡市梁溪区", "南京市江宁区", "徐州市泉山区"};
+
+    /** 评论内容素材（下标为评分-1） */
+    private static final String[] COMMENTS = {"太难吃了，不会再点", "味道一般，送得很慢", "还可以，分量有点少", "味道不错，送餐很快", "非常好吃，下次还点"};
+
+    /** 24小时的下单热度（午餐11~13点、晚餐17~20点为高峰，凌晨几乎没有订单） */
+    private static final double[] HOUR_WEIGHTS = {1, 0.5, 0.2, 0.1, 0.1, 0.3, 1, 3, 4, 3, 6, 14, 18, 10, 4, 3, 4, 12, 16, 12, 7, 5, 3, 2};
+    /** 评分分布（1~5星，好评居多） */
+    private static final double[] SCORE_WEIGHTS = {3, 4, 10, 28, 55};
+    /** 周末订单量相对工作日的倍数 */
+    private static final double WEEKEND_BOOST = 1.3;
+    /** 时间跨度内订单量的增长（最后一天相对第一天的倍数） */
+    private static final double GROWTH = 1.5;
+
+    private final SeedConfig config;
+    private final Random random;
+
+    /** 各商家菜品价格（下标：商家序号 * 每商家菜品数 + 菜品序号） */
+    private long[] dishPrices;
+    /** 各用户的收货地址数量 */
+    private int[] addressCounts;
+    /** 已写入的行数 */
+    private long rows;
+
+    public SeedGenerator(SeedConfig config) {
+        this.config = config;
+        this.random = new Random(config.getSeed());
+    }
+
+    /**
+     * 生成全部数据并写入sink（调用前sink已开启事务，生成过程中按批提交，返回前最后提交一次）
+     * @param sink 写入目标
+     * @return 写入的总行数（含全文索引行，不含汇总表）
+     */
+    public long generate(SeedSink sink) throws SQLException {
+        rows = 0;
+        generateMerchants(sink);
+        sink.commit();
+        generateCustomers(sink);
+        sink.commit();
+        generateOrders(sink);
+        sink.commit();
+        for (String sql : REBUILD_SUMMARIES) {
+            sink.execute(sql);
+        }
+        sink.commit();
+        return rows;
+    }
+
+    /**
+     * 商家及其菜品（含菜品快照、菜品全文索引）
+     */
+    private void generateMerchants(SeedSink sink) throws SQLException {
+        int dishes = config.getDishesPerMerchant();
+        dishPrices = new long[config.getMerchants() * dishes];
+        Object[] merchant = new Object[6];
+        Object[] food = new Object[6];
+        Object[] snapshot = new Object[5];
+        Object[] fts = new Object[3];
+        for (int b = 0; b < config.getMerchants(); b++) {
+            merchant[0] = businessId(b);
+            merchant[1] = "123456";
+            merchant[2] = MERCHANT_NAMES[b % MERCHANT_NAMES.length] + (b / MERCHANT_NAMES.length + 1) + "号店";
+            merchant[3] = "地道金陵味，如有问题请随时联系本店";
+            merchant[4] = MERCHANT_TYPES[b % MERCHANT_TYPES.length];
+            merchant[5] = "";
+            insert(sink, INSERT_BUSINESS, merchant);
+            for (int f = 0; f < dishes; f++) {
+                int kind = f % FOOD_NAMES.length;
+                // 各商家价格在基础价上浮动0~20%，取整到角
+                long price = FOOD_PRICES[kind] + 10L * random.nextInt((int) (FOOD_PRICES[kind] / 50) + 1);
+                dishPrices[b * dishes + f] = price;
+                food[0] = foodId(b, f);
+                food[1] = businessId(b);
+                food[2] = FOOD_NAMES[kind];
+                food[3] = FOOD_DES[kind];
+                food[4] = price;
+                food[5] = "";
+                insert(sink, INSERT_FOOD, food);
+                snapshot[0] = food[0];
+                snapshot[1] = food[2];
+                snapshot[2] = food[3];
+                snapshot[3] = food[4];
+                snapshot[4] = food[5];
+                insert(sink, INSERT_FOOD_SNAPSHOT, snapshot);
+                fts[0] = SearchTokens.toSearchTokens(FOOD_NAMES[kind]);
+                fts[1] = SearchTokens.toSearchTokens(FOOD_DES[kind]);
+                fts[2] = food[0];
+                insert(sink, INSERT_FOOD_FTS, fts);
+            }
+        }
+    }
+
+    /**
+     * 用户及其收货地址（每个用户1~maxAddressesPerCustomer个地址）
+     */
+    private void generateCustomers(SeedSink sink) throws SQLException {
+        addressCounts = new int[config.getCustomers()];
+        Object[] user = new Object[7];
+        Object[] address = new Object[5];
+        for (int u = 0; u < config.getCustomers(); u++) {
+            user[0] = userId(u);
+            user[1] = "123456";
+            user[2] = customerName(u);
+            user[3] = u % 2 == 0 ? "男" : "女";
+            user[4] = customerAddress(u, 0);
+            user[5] = customerPhone(u);
+            user[6] = "";
+            insert(sink, INSERT_USER, user);
+            int count = 1 + random.nextInt(Math.max(1, config.getMaxAddressesPerCustomer()));
+            addressCounts[u] = count;
+            for (int k = 0; k < count; k++) {
+                address[0] = "a" + u + "_" + k;
+                address[1] = userId(u);
+                address[2] = customerName(u);
+                address[3] = customerAddress(u, k);
+                address[4] = customerPhone(u);
+                insert(sink, INSERT_ADDRESS, address);
+            }
+            if ((u + 1) % config.getOrdersPerTransaction() == 0) {
+                sink.commit();
+            }
+        }
+    }
+
+    /**
+     * 订单、订单明细、订单全文索引和评论（每ordersPerTransaction个订单提交一次）
+     */
+    private void generateOrders(SeedSink sink) throws SQLException {
+        int dishes = config.getDishesPerMerchant();
+        Zipf merchants = new Zipf(config.getMerchants(), config.getMerchantSkew());
+        Zipf customers = new Zipf(config.getCustomers(), config.getCustomerSkew());
+        Zipf dishRanks = new Zipf(dishes, config.getDishSkew());
+        Zipf itemCounts = new Zipf(Math.max(1, config.getMaxItemsPerOrder()), 1.0);
+        Weighted scores = new Weighted(SCORE_WEIGHTS);
+        TimeSlots slots = new TimeSlots(config.getEndTime(), config.getDays());
+
+        Object[] order = new Object[7];
+        Object[] detail = new Object[4];
+        Object[] fts = new Object[3];
+        Object[] comment = new Object[7];
+        boolean[] picked = new boolean[dishes];
+        StringBuilder foodNames = new StringBuilder();
+        for (int i = 0; i < config.getOrders(); i++) {
+            int b = merchants.sample(random);
+            int u = customers.sample(random);
+            long time = slots.sample(random);
+            int sta = orderStatus();
+            String detailsId = "d" + i;
+            order[0] = "o" + i;
+            order[1] = time;
+            order[2] = businessId(b);
+            order[3] = userId(u);
+            order[4] = detailsId;
+            order[5] = sta;
+            // 同下单弹窗（UserBottomDialog）的格式：收件人-详细地址-电话
+            order[6] = customerName(u) + "-" + customerAddress(u, random.nextInt(addressCounts[u])) + "-" + customerPhone(u);
+            insert(sink, INSERT_ORDER, order);
+
+            // 菜品按热度抽取（同一订单内不重复），招牌菜随商家不同
+            Arrays.fill(picked, false);
+            foodNames.setLength(0);
+            int items = Math.min(dishes, 1 + itemCounts.sample(random));
+            for (int k = 0; k < items; k++) {
+                int f = (dishRanks.sample(random) + b) % dishes;
+                while (picked[f]) {
+                    f = (f + 1) % dishes;
+                }
+                picked[f] = true;
+                int kind = f % FOOD_NAMES.length;
+                detail[0] = detailsId;
+                detail[1] = foodId(b, f);
+                detail[2] = random.nextInt(10) < 7 ? 1 : 2 + random.nextInt(3);// 大多数菜品点1份
+                detail[3] = detail[1];
+                insert(sink, INSERT_ORDER_DETAIL, detail);
+                foodNames.append(FOOD_NAMES[kind]).append(' ');
+            }
+            fts[0] = SearchTokens.toSearchTokens(customerName(u));
+            fts[1] = SearchTokens.toSearchTokens(foodNames.toString());
+            fts[2] = order[0];
+            insert(sink, INSERT_ORDER_FTS, fts);
+
+            if (sta == ORDER_STA_FINISH_COMMENTED) {
+                int score = 1 + scores.sample(random);
+                comment[0] = "c" + i;
+                comment[1] = userId(u);
+                comment[2] = businessId(b);
+                comment[3] = COMMENTS[score - 1];
+                comment[4] = time + HOUR + (long) (random.nextDouble() * 47 * HOUR);// 送达后1~48小时内评论
+                comment[5] = score;
+                comment[6] = "";
+                insert(sink, INSERT_COMMENT, comment);
+            }
+            if ((i + 1) % config.getOrdersPerTransaction() == 0) {
+                sink.commit();
+            }
+        }
+    }
+
+    /**
+     * 按配置的比例抽取订单状态
+     * @return 订单状态（1~4）
+     */
+    private int orderStatus() {
+        double r = random.nextDouble();
+        if (r < config.getPendingRate()) {
+            return ORDER_STA_UNHANDLED;
+        }
+        if (r < config.getPendingRate() + config.getCancelRate()) {
+            return ORDER_STA_CANCEL;
+        }
+        return random.nextDouble() < config.getCommentRate() ? ORDER_STA_FINISH_COMMENTED : ORDER_STA_FINISH;
+    }
+
+    private void insert(SeedSink sink, String sql, Object[] args) throws SQLException {
+        sink.insert(sql, args);
+        rows++;
+    }
+
+    public static String businessId(int b) {
+        return "b" + b;
+    }
+
+    public static String userId(int u) {
+        return "u" + u;
+    }
+
+    public static String foodId(int b, int f) {
+        return "f" + b + "_" + f;
+    }
+
+    /**
+     * 用户昵称（姓+名+序号，序号保证昵称各不相同）
+     */
+    public static String customerName(int u) {
+        return SURNAMES[u % SURNAMES.length] + GIVEN_NAMES[(u / SURNAMES.length) % GIVEN_NAMES.length] + u;
+    }
+
+    private static String customerAddress(int u, int k) {
+        return ADDRESSES[(u + k) % ADDRESSES.length] + (u % 200 + 1) + "号";
+    }
+
+    private static String customerPhone(int u) {
+        String digits = Integer.toString(100000000 + u % 100000000);
+        return "1" + (3 + u % 7) + digits.substring(digits.length() - 9);
+    }
+
+    /**
+     * 按权重抽取下标（累计权重 + 二分查找）
+     */
+    private static class Weighted {
+
+        private final double[] cdf;
+
+        Weighted(double[] weights) {
+            cdf = new double[weights.length];
+            double sum = 0;
+            for (int i = 0; i < weights.length; i++) {
+                sum += weights[i];
+                cdf[i] = sum;
+            }
+        }
+
+        int sample(Random random) {
+            double r = random.nextDouble() * cdf[cdf.length - 1];
+            int i = Arrays.binarySearch(cdf, r);
+            // 未找到时返回-(插入位置)-1，插入位置即第一个累计权重大于r的下标
+            i = i < 0 ? -i - 1 : i + 1;
+            return Math.min(i, cdf.length - 1);
+        }
+    }
+
+    /**
+     * Zipf分布：排名第k（从0开始）的权重为 1/(k+1)^skew，skew为0时为均匀分布
+     */
+    private static final class Zipf extends Weighted {
+
+        Zipf(int n, double skew) {
+            super(weights(n, skew));
+        }
+
+        private static double[] weights(int n, double skew) {
+            double[] weights = new double[n];
+            for (int k = 0; k < n; k++) {
+                weights[k] = 1.0 / Math.pow(k + 1, skew);
+            }
+            return weights;
+        }
+    }
+
+    /**
+     * 下单时间：按“日期权重 × 小时权重”把时间跨度划分为一小时一格抽取，再在格内均匀取值
+     * 日期按本地时区（与月销量按localtime计算一致）划分，周末乘WEEKEND_BOOST，越临近截止时间订单越多
+     */
+    private static final class TimeSlots {
+
+        private final long firstSlot;
+        private final long endTime;
+        private final Weighted slots;
+
+        TimeSlots(long endTime, int days) {
+            this.endTime = endTime;
+            long offset = TimeZone.getDefault().getOffset(endTime);
+            long lastDayIndex = Math.floorDiv(endTime + offset, DAY);
+            long firstDayIndex = lastDayIndex - Math.max(1, days) + 1;
+            firstSlot = firstDayIndex * DAY - offset;
+            int dayCount = (int) (lastDayIndex - firstDayIndex + 1);
+            double[] weights = new double[dayCount * 24];
+            for (int d = 0; d < dayCount; d++) {
+                // 1970-01-01是星期四：(天序号+3)%7 得到 0=星期一 … 5=星期六 6=星期日
+                int dayOfWeek = (int) Math.floorMod(firstDayIndex + d + 3, 7L);
+                double dayWeight = (dayOfWeek >= 5 ? WEEKEND_BOOST : 1.0) * (1 + (GROWTH - 1) * d / Math.max(1, dayCount - 1));
+                for (int h = 0; h < 24; h++) {
+                    long slotStart = firstSlot + (d * 24L + h) * HOUR;
+                    // 截止时间之后的时段不产生订单
+                    weights[d * 24 + h] = slotStart >= endTime ? 0 : dayWeight * HOUR_WEIGHTS[h];
+                }
+            }
+            slots = new Weighted(weights);
+        }
+
+        long sample(Random random) {
+            long time = firstSlot + slots.sample(random) * HOUR + (long) (random.nextDouble() * HOUR);
+            return Math.min(time, endTime - 1);
+        }
+    }
+}
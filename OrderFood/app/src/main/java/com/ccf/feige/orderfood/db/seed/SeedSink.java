@@ -0,0 +1,32 @@
+package com.ccf.feige.orderfood.db.seed;
+
+import java.sql.SQLException;
+
+/**
+ * 测试数据的写入目标（SeedGenerator生成的每一行都通过它写入数据库）
+ * 实现：应用/设备测试使用SQLiteSeedSink（Android SQLiteDatabase），benchmark模块使用JDBC实现（sqlite-jdbc）
+ * 约定：
+ * 1. 调用generate()前由实现方开启事务，commit()提交当前事务并立即开启下一个事务，最后一次提交后由调用方结束事务
+ * 2. 同一条SQL会被调用成千上万次，实现方应按SQL文本缓存预编译语句
+ * 3. args数组会被生成器复用，insert()返回前必须完成参数绑定和执行，不能保存数组引用
+ */
+public interface SeedSink {
+
+    /**
+     * 插入一行数据
+     * @param sql 带?占位符的插入语句（SeedGenerator中的常量）
+     * @param args 参数值（String、Long、Integer或null）
+     */
+    void insert(String sql, Object[] args) throws SQLException;
+
+    /**
+     * 执行一条不带参数的语句（生成结束后重算汇总表时使用）
+     * @param sql SQL语句
+     */
+    void execute(String sql) throws SQLException;
+
+    /**
+     * 提交当前事务，并开启下一个事务
+     */
+    void commit() throws SQLException;
+}
@@ -32,12 +32,34 @@ import java.util.concurrent.Future;
 /**
  * 图片管理工具类
  * 功能：实现图片的各种保存（Bitmap、网络/本地Uri图片、系统资源图片）与图片路径生成，提供同步/异步保存方式
+ * 保存规则：每张图片一次写出两个文件——长边不超过MAX_IMAGE_SIZE的主图，以及长边不超过THUMB_SIZE的列表缩略图，
+ * 均为有损WebP格式；缩略图路径由主图路径推导（见getThumbPath），数据库中只需保存主图路径
  */
 public class FileImgUntil {
 
     // 单线程线程池，用于执行图片保存的异步任务，保证任务串行执行，避免多线程操作文件冲突
     private static  final ExecutorService executorService =Executors.newSingleThreadExecutor();
 
+    /**
+     * 主图长边的最大像素：相机/相册原图通常有几千像素，详情页展示1080px已足够清晰
+     */
+    public static final int MAX_IMAGE_SIZE = 1080;
+
+    /**
+     * 列表缩略图长边的最大像素：列表中的商品图片和头像控件都远小于该尺寸
+     */
+    public static final int THUMB_SIZE = 240;
+
+    // 主图压缩质量（有损WebP，0~100）
+    private static final int IMAGE_QUALITY = 85;
+    // 缩略图压缩质量（有损WebP，0~100）
+    private static final int THUMB_QUALITY = 75;
+
+    // 图片文件后缀
+    private static final String IMG_SUFFIX = ".webp";
+    // 缩略图文件名标记（插入在后缀之前，如 xxx.webp -> xxx_thumb.webp）
+    private static final String THUMB_MARK = "_thumb";
+
     /**
      * 异步保存Bitmap图片到指定路径
      * @param bitmap  需要保存的Bitmap图片对象
@@ -59,22 +81,76 @@ public class FileImgUntil {
 
     /**
      * 同步保存Bitmap图片到指定文件路径（核心同步保存方法）
+     * 说明：一次写出主图（长边缩小到MAX_IMAGE_SIZE以内）和列表缩略图（长边缩小到THUMB_SIZE以内），均为有损WebP
      * @param bitmap  需要保存的Bitmap图片对象
-     * @param path    图片要保存到的文件绝对路径
+     * @param path    主图要保存到的文件绝对路径（缩略图保存到getThumbPath(path)）
      */
     public static void   saveImageBitmapToFileImg(Bitmap bitmap,String path){
-        // 根据传入路径创建文件对象
-        File file=new File(path);
-        try {
-            // 创建文件输出流，用于将Bitmap数据写入文件
-            FileOutputStream fos=new FileOutputStream(file);
-            // 将Bitmap压缩为PNG格式写入输出流，100表示压缩质量（PNG格式为无损压缩，该参数无效）
-            bitmap.compress(Bitmap.CompressFormat.PNG,100,fos);
+        MainThreadGuard.checkDisk("FileImgUntil.saveImageBitmapToFileImg");
+        // 第一步：按最大尺寸缩小后写出主图
+        Bitmap image = scaleDown(bitmap, MAX_IMAGE_SIZE);
+        writeBitmap(image, IMAGE_QUALITY, path);
+        // 第二步：在主图基础上继续缩小，写出列表缩略图（主图已缩小，二次缩放开销很小）
+        Bitmap thumb = scaleDown(image, THUMB_SIZE);
+        writeBitmap(thumb, THUMB_QUALITY, getThumbPath(path));
+        // 释放缩放过程中新建的中间图片（原图由调用方管理，不能回收）
+        if (thumb != image) {
+            thumb.recycle();
+        }
+        if (image != bitmap) {
+            image.recycle();
+        }
+    }
+
+    /**
+     * 获取主图对应的列表缩略图路径
+     * @param path 主图文件绝对路径
+     * @return 缩略图文件绝对路径（如 /xxx/abc.webp -> /xxx/abc_thumb.webp），path为null时返回null
+     */
+    public static String getThumbPath(String path) {
+        if (path == null) {
+            return null;
+        }
+        int dot = path.lastIndexOf('.');
+        int slash = path.lastIndexOf('/');
+        if (dot <= slash) {
+            return path + THUMB_MARK;
+        }
+        return path.substring(0, dot) + THUMB_MARK + path.substring(dot);
+    }
+
+    /**
+     * 按长边等比缩小图片
+     * @param bitmap 原图
+     * @param maxSize 长边最大像素
+     * @return 缩小后的新图片；原图长边不超过maxSize时直接返回原图
+     */
+    private static Bitmap scaleDown(Bitmap bitmap, int maxSize) {
+        int width = bitmap.getWidth();
+        int height = bitmap.getHeight();
+        int longSide = Math.max(width, height);
+        if (longSide <= maxSize) {
+            return bitmap;
+        }
+        float scale = (float) maxSize / longSide;
+        return Bitmap.createScaledBitmap(bitmap, Math.max(1, Math.round(width * scale)),
+                Math.max(1, Math.round(height * scale)), true);
+    }
+
+    /**
+     * 将图片以有损WebP格式写入文件
+     * @param bitmap 图片
+     * @param quality 压缩质量（0~100）
+     * @param path 文件绝对路径
+     */
+    private static void writeBitmap(Bitmap bitmap, int quality, String path) {
+        // 根据传入路径创建文件对象，try-with-resources自动关闭输出流
+        try (FileOutputStream fos = new FileOutputStream(new File(path))) {
+            // 将Bitmap压缩为有损WebP格式写入输出流（minSdk为30，可直接使用WEBP_LOSSY）
+            bitmap.compress(Bitmap.CompressFormat.WEBP_LOSSY, quality, fos);
             // 刷新输出流，确保所有数据都写入文件
             fos.flush();
-            // 关闭输出流，释放资源
-            fos.close();
-        }catch (IOException e){
+        } catch (IOException e) {
             // 捕获文件写入过程中的IO异常，打印异常堆栈信息
             e.printStackTrace();
         }
@@ -88,7 +164,8 @@ public class FileImgUntil {
      */
     public static void   saveImageBitmapToFileImg(Uri url,Context context,String path){
         // 创建Glide的自定义目标对象，用于接收加载完成后的Bitmap对象
-        CustomTarget<Bitmap> target=new CustomTarget<Bitmap>() {
+        // 指定目标尺寸，Glide解码时即按采样率缩小，不会把几千像素的原图完整解码到内存
+        CustomTarget<Bitmap> target=new CustomTarget<Bitmap>(MAX_IMAGE_SIZE, MAX_IMAGE_SIZE) {
             /**
              * Glide图片加载完成回调方法
              * @param resource  加载成功后的Bitmap图片资源对象
@@ -97,23 +174,15 @@ public class FileImgUntil {
             @Override
             public void onResourceReady(@NonNull Bitmap resource, @Nullable Transition<? super Bitmap> transition) {
                 // 实现一个保存图标
-                // 根据传入路径创建文件对象
-                File file=new File(path);
-
-                try {
-                    // 创建文件输出流，用于将加载得到的Bitmap写入文件
-                    FileOutputStream fos=new FileOutputStream(file);
-                    // 将Bitmap压缩为PNG格式写入输出流
-                    resource.compress(Bitmap.CompressFormat.PNG,100,fos);
-                    // 刷新输出流，确保数据完整写入
-                    fos.flush();
-                    // 关闭输出流，释放资源
-                    fos.close();
-                }catch (IOException e){
-                    // 捕获文件写入IO异常，打印异常信息
-                    e.printStackTrace();
+                // 该回调在主线程执行，复制一份图片后交给图片保存线程写出主图和缩略图
+                // （resource由Glide的图片池管理，回调结束后可能被复用，不能直接在子线程中使用）
+                Bitmap copy = resource.copy(resource.getConfig() != null ? resource.getConfig() : Bitmap.Config.ARGB_8888, false);
+                if (copy != null) {
+                    executorService.submit(() -> {
+                        saveImageBitmapToFileImg(copy, path);
+                        copy.recycle();
+                    });
                 }
-
             }
 
             /**
@@ -136,11 +205,11 @@ public class FileImgUntil {
 
     /**
      * 生成唯一的图片保存路径（保存到系统公共图片目录）
-     * @return  完整的图片文件绝对路径，文件名采用UUID保证唯一性，格式为.png
+     * @return  完整的图片文件绝对路径，文件名采用UUID保证唯一性，格式为.webp（对应的缩略图路径见getThumbPath）
      */
     public static String getImgName(){
-        // 生成UUID并去除分隔符“-”，拼接为.png后缀的文件名
-        String pigName="/"+ UUID.randomUUID().toString().replace("-","")+".png";
+        // 生成UUID并去除分隔符“-”，拼接为.webp后缀的文件名
+        String pigName="/"+ UUID.randomUUID().toString().replace("-","")+IMG_SUFFIX;
         // 获取系统公共图片目录（DIRECTORY_PICTURES）的绝对路径，拼接文件名生成完整路径
         return Environment.getExternalStoragePublicDirectory(Environment.DIRECTORY_PICTURES).getAbsolutePath()+pigName;
     }
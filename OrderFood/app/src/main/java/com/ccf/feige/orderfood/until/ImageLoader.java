@@ -0,0 +1,306 @@
+package com.ccf.feige.orderfood.until;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.LruCache;
+import android.view.ViewGroup;
+import android.widget.ImageView;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 图片加载工具类（本地图片文件 -> ImageView）
+ * 核心功能：
+ * 1. 在后台线程中按目标控件尺寸计算采样率（inSampleSize）解码图片，避免在主线程全尺寸解码大图
+ * 2. 解码结果存入按内存大小限制的LRU缓存（key：图片路径+目标尺寸），列表滚动回来时直接命中缓存
+ * 3. 同一张图片同一尺寸的多个请求只解码一次（合并进行中的请求）；列表项视图被复用时取消旧请求
+ * 4. 列表中通过loadThumbnail()读取保存图片时生成的缩略图（见FileImgUntil），没有缩略图的旧图片回退读取原图
+ * 使用说明：load()/cancel()需在主线程调用（Adapter绑定数据、Activity/Fragment中均为主线程）
+ */
+public class ImageLoader {
+
+    /**
+     * 目标控件尚未完成测量且布局参数中没有固定尺寸时使用的默认目标宽高（px），与原头像加载逻辑保持一致
+     */
+    private static final int DEFAULT_SIZE = 500;
+
+    /**
+     * 解码线程数：解码为CPU密集操作，2个线程即可，避免与数据库读线程争抢CPU
+     */
+    private static final int DECODE_POOL_SIZE = 2;
+
+    /**
+     * 图片内存缓存：最大占用应用可用内存的1/8，按Bitmap实际占用字节数计算大小
+     */
+    private static final LruCache<String, Bitmap> MEMORY_CACHE =
+            new LruCache<String, Bitmap>((int) (Runtime.getRuntime().maxMemory() / 8)) {
+                @Override
+                protected int sizeOf(String key, Bitmap value) {
+                    return value.getByteCount();
+                }
+            };
+
+    // 解码线程池
+    private static final ExecutorService DECODE_EXECUTOR = Executors.newFixedThreadPool(DECODE_POOL_SIZE);
+    // 主线程Handler：解码完成后回到主线程设置图片
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+
+    /**
+     * 进行中的解码请求（key：缓存key），仅在主线程访问
+     */
+    private static final Map<String, Request> IN_FLIGHT = new HashMap<>();
+
+    /**
+     * 控件当前等待的缓存key（弱引用控件，界面销毁后自动移除），仅在主线程访问
+     * 说明：控件被复用并绑定新图片时，key随之更新，旧请求完成后不会再设置到该控件上
+     */
+    private static final Map<ImageView, String> TARGETS = new WeakHashMap<>();
+
+    /**
+     * 进行中的解码请求：同一key的所有等待控件共享一次解码
+     */
+    private static class Request {
+        // 等待该请求结果的控件
+        final List<ImageView> views = new ArrayList<>();
+        // 解码失败时使用的默认图片资源ID（0表示不设置）
+        final int errorResId;
+        // 解码任务
+        Future<?> future;
+
+        Request(int errorResId) {
+            this.errorResId = errorResId;
+        }
+    }
+
+    /**
+     * 加载本地图片到控件（失败时不设置默认图片）
+     * @param view 目标图片控件
+     * @param path 图片文件绝对路径
+     */
+    public static void load(ImageView view, String path) {
+        load(view, path, 0);
+    }
+
+    /**
+     * 加载本地图片到控件
+     * @param view 目标图片控件
+     * @param path 图片文件绝对路径（为空或文件不存在时显示默认图片）
+     * @param errorResId 路径无效或解码失败时显示的默认图片资源ID（如R.drawable.upimg），0表示不设置
+     */
+    public static void load(ImageView view, String path, int errorResId) {
+        load(view, path, errorResId, false);
+    }
+
+    /**
+     * 加载本地图片的列表缩略图到控件（列表项中使用，缩略图不存在时回退读取原图）
+     * @param view 目标图片控件
+     * @param path 原图文件绝对路径（即数据库中保存的图片路径）
+     */
+    public static void loadThumbnail(ImageView view, String path) {
+        load(view, path, 0, true);
+    }
+
+    /**
+     * 加载本地图片到控件
+     * 流程：取消该控件上的旧请求 -> 命中缓存则直接设置 -> 否则清空控件并加入（或新建）后台解码请求
+     * @param view 目标图片控件
+     * @param path 原图文件绝对路径
+     * @param errorResId 路径无效或解码失败时显示的默认图片资源ID，0表示不设置
+     * @param thumbnail 是否优先读取缩略图
+     */
+    private static void load(ImageView view, String path, int errorResId, boolean thumbnail) {
+        // 第一步：取消该控件上尚未完成的旧请求（控件被复用时避免显示上一条数据的图片）
+        cancel(view);
+        if (path == null || path.trim().isEmpty()) {
+            showError(view, errorResId);
+            return;
+        }
+
+        // 第二步：按目标尺寸生成缓存key，命中缓存则直接设置
+        int[] size = getTargetSize(view);
+        String key = (thumbnail ? "thumb:" : "") + path + "@" + size[0] + "x" + size[1];
+        Bitmap cached = MEMORY_CACHE.get(key);
+        if (cached != null) {
+            view.setImageBitmap(cached);
+            return;
+        }
+
+        // 第三步：未命中缓存，记录控件等待的key，加入进行中的同key请求或新建解码请求
+        TARGETS.put(view, key);
+        Request request = IN_FLIGHT.get(key);
+        if (request == null) {
+            Request newRequest = new Request(errorResId);
+            IN_FLIGHT.put(key, newRequest);
+            newRequest.future = DECODE_EXECUTOR.submit(() -> {
+                Bitmap bitmap = null;
+                if (thumbnail) {
+                    bitmap = decodeSampledBitmap(FileImgUntil.getThumbPath(path), size[0], size[1]);
+                }
+                if (bitmap == null) {
+                    bitmap = decodeSampledBitmap(path, size[0], size[1]);
+                }
+                Bitmap result = bitmap;
+                MAIN_HANDLER.post(() -> deliver(key, newRequest, result));
+            });
+            request = newRequest;
+        }
+        request.views.add(view);
+    }
+
+    /**
+     * 取消控件上尚未完成的加载请求，并清空控件当前显示的图片
+     * 说明：请求没有其他等待的控件时取消解码任务（尚未开始的任务直接移出队列）
+     * @param view 图片控件
+     */
+    public static void cancel(ImageView view) {
+        String key = TARGETS.remove(view);
+        view.setImageDrawable(null);
+        if (key == null) {
+            return;
+        }
+        Request request = IN_FLIGHT.get(key);
+        if (request == null) {
+            return;
+        }
+        request.views.remove(view);
+        if (request.views.isEmpty()) {
+            IN_FLIGHT.remove(key);
+            request.future.cancel(false);
+        }
+    }
+
+    /**
+     * 按目标尺寸解码本地图片（同步方法，需在后台线程调用）
+     * 说明：先只读取图片宽高计算采样率，再按采样率解码，避免大图片全尺寸加载导致OOM
+     * @param path 图片文件绝对路径
+     * @param reqWidth 目标宽度（px）
+     * @param reqHeight 目标高度（px）
+     * @return 解码后的图片，文件不存在或解码失败时返回null
+     */
+    public static Bitmap decodeSampledBitmap(String path, int reqWidth, int reqHeight) {
+        MainThreadGuard.checkDisk("ImageLoader.decodeSampledBitmap");
+        if (path == null || !new File(path).exists()) {
+            return null;
+        }
+        // 第一步：设置inJustDecodeBounds=true，仅获取图片尺寸不加载到内存
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeFile(path, options);
+
+        // 第二步：按计算得到的采样率加载图片
+        options.inJustDecodeBounds = false;
+        options.inSampleSize = calculateInSampleSize(options, reqWidth, reqHeight);
+        options.inPreferredConfig = Bitmap.Config.ARGB_8888;
+        return BitmapFactory.decodeFile(path, options);
+    }
+
+    /**
+     * 在后台线程按目标尺寸解码本地图片，完成后在主线程回调（结果不写入缓存，适用于需要拿到Bitmap本身的场景，如编辑页的原图）
+     * @param path 图片文件绝对路径
+     * @param reqWidth 目标宽度（px）
+     * @param reqHeight 目标高度（px）
+     * @param callback 解码完成回调（主线程），文件不存在或解码失败时参数为null
+     */
+    public static void decodeAsync(final String path, final int reqWidth, final int reqHeight, final Callback callback) {
+        DECODE_EXECUTOR.execute(() -> {
+            Bitmap bitmap = decodeSampledBitmap(path, reqWidth, reqHeight);
+            MAIN_HANDLER.post(() -> callback.onDecoded(bitmap));
+        });
+    }
+
+    /**
+     * 异步解码回调
+     */
+    public interface Callback {
+        void onDecoded(Bitmap bitmap);
+    }
+
+    /**
+     * 计算采样率：按2的幂次缩小，保证缩小后的图片宽高均不小于目标宽高（图片不失真）
+     * @param options 已读取图片宽高的解码参数（outWidth/outHeight）
+     * @param reqWidth 目标宽度（px）
+     * @param reqHeight 目标高度（px）
+     * @return 采样率（1表示不缩小）
+     */
+    public static int calculateInSampleSize(BitmapFactory.Options options, int reqWidth, int reqHeight) {
+        int inSampleSize = 1;
+        if (options.outHeight > reqHeight || options.outWidth > reqWidth) {
+            final int halfHeight = options.outHeight / 2;
+            final int halfWidth = options.outWidth / 2;
+            // 循环计算最大采样率，保证缩小后的图片宽高均不小于目标宽高
+            while ((halfHeight / inSampleSize) >= reqHeight && (halfWidth / inSampleSize) >= reqWidth) {
+                inSampleSize *= 2;
+            }
+        }
+        return inSampleSize;
+    }
+
+    /**
+     * 解码完成（主线程）：写入缓存，并设置到仍在等待该key的控件上
+     * @param key 缓存key
+     * @param request 解码请求
+     * @param bitmap 解码结果（失败时为null）
+     */
+    private static void deliver(String key, Request request, Bitmap bitmap) {
+        // 请求已被取消（或已被同key的新请求替换）时只写入缓存
+        if (IN_FLIGHT.get(key) == request) {
+            IN_FLIGHT.remove(key);
+        }
+        if (bitmap != null) {
+            MEMORY_CACHE.put(key, bitmap);
+        }
+        for (ImageView view : request.views) {
+            // 控件已被复用绑定其他图片时跳过
+            if (!key.equals(TARGETS.get(view))) {
+                continue;
+            }
+            TARGETS.remove(view);
+            if (bitmap != null) {
+                view.setImageBitmap(bitmap);
+            } else {
+                showError(view, request.errorResId);
+            }
+        }
+    }
+
+    /**
+     * 显示默认图片
+     * @param view 图片控件
+     * @param errorResId 默认图片资源ID，0表示不设置（保持空白）
+     */
+    private static void showError(ImageView view, int errorResId) {
+        if (errorResId != 0) {
+            view.setImageResource(errorResId);
+        } else {
+            view.setImageDrawable(null);
+        }
+    }
+
+    /**
+     * 获取目标控件的解码尺寸：优先使用已测量的宽高，其次使用布局参数中的固定宽高，都没有时使用默认尺寸
+     * @param view 图片控件
+     * @return 长度为2的数组：{宽度, 高度}（px）
+     */
+    private static int[] getTargetSize(ImageView view) {
+        int width = view.getWidth();
+        int height = view.getHeight();
+        ViewGroup.LayoutParams params = view.getLayoutParams();
+        if (width <= 0 && params != null && params.width > 0) {
+            width = params.width;
+        }
+        if (height <= 0 && params != null && params.height > 0) {
+            height = params.height;
+        }
+        return new int[]{width > 0 ? width : DEFAULT_SIZE, height > 0 ? height : DEFAULT_SIZE};
+    }
+}
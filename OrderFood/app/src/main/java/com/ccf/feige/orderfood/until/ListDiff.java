@@ -0,0 +1,100 @@
+package com.ccf.feige.orderfood.until;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+
+import com.ccf.feige.orderfood.bean.CommentBean;
+import com.ccf.feige.orderfood.bean.FoodBean;
+import com.ccf.feige.orderfood.bean.OrderBean;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 列表差异比较工具类：为RecyclerView的ListAdapter提供订单、菜品、评论的DiffUtil比较规则和稳定ID
+ * 使用方式：适配器继承ListAdapter并传入对应的比较规则，数据变化时调用submitList()提交新列表，
+ * 差异在后台线程中计算，主线程只刷新新增/删除/内容变化的行（如接单后只移除该订单所在的行）
+ */
+public class ListDiff {
+
+    /**
+     * 订单比较规则：订单ID相同即为同一行；订单下单后只有状态会变化，另比较收货地址和下单用户昵称
+     */
+    public static final DiffUtil.ItemCallback<OrderBean> ORDER = new DiffUtil.ItemCallback<OrderBean>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull OrderBean oldItem, @NonNull OrderBean newItem) {
+            return Objects.equals(oldItem.getOrderId(), newItem.getOrderId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull OrderBean oldItem, @NonNull OrderBean newItem) {
+            return oldItem.getOrderStatusCode() == newItem.getOrderStatusCode()
+                    && oldItem.getOrderTimeMillis() == newItem.getOrderTimeMillis()
+                    && Objects.equals(oldItem.getOrderAddress(), newItem.getOrderAddress())
+                    && Objects.equals(oldItem.getUserName(), newItem.getUserName());
+        }
+    };
+
+    /**
+     * 菜品比较规则：菜品ID相同即为同一行；名称、描述、价格、图片、所属商家均相同时无需重新绑定
+     */
+    public static final DiffUtil.ItemCallback<FoodBean> FOOD = new DiffUtil.ItemCallback<FoodBean>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull FoodBean oldItem, @NonNull FoodBean newItem) {
+            return Objects.equals(oldItem.getFoodId(), newItem.getFoodId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull FoodBean oldItem, @NonNull FoodBean newItem) {
+            return oldItem.getFoodPriceCents() == newItem.getFoodPriceCents()
+                    && Objects.equals(oldItem.getFoodName(), newItem.getFoodName())
+                    && Objects.equals(oldItem.getFoodDes(), newItem.getFoodDes())
+                    && Objects.equals(oldItem.getFoodImg(), newItem.getFoodImg())
+                    && Objects.equals(oldItem.getBusinessId(), newItem.getBusinessId());
+        }
+    };
+
+    /**
+     * 评论比较规则：评论ID相同即为同一行；评论发布后内容不可修改，比较内容、评分、图片即可
+     */
+    public static final DiffUtil.ItemCallback<CommentBean> COMMENT = new DiffUtil.ItemCallback<CommentBean>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull CommentBean oldItem, @NonNull CommentBean newItem) {
+            return Objects.equals(oldItem.getCommentId(), newItem.getCommentId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull CommentBean oldItem, @NonNull CommentBean newItem) {
+            return oldItem.getCommentScoreValue() == newItem.getCommentScoreValue()
+                    && oldItem.getCommentTimeMillis() == newItem.getCommentTimeMillis()
+                    && Objects.equals(oldItem.getCommentContent(), newItem.getCommentContent())
+                    && Objects.equals(oldItem.getCommentImg(), newItem.getCommentImg());
+        }
+    };
+
+    /**
+     * 稳定ID分配器：把字符串主键（UUID等）映射为RecyclerView需要的long型稳定ID
+     * 同一主键始终得到同一ID，不同主键的ID一定不同（按首次出现的顺序递增分配，不使用hashCode，避免冲突）
+     * 每个适配器持有一个实例，需在主线程调用
+     */
+    public static class StableIds {
+
+        // 主键 → 稳定ID
+        private final Map<String, Long> ids = new HashMap<>();
+
+        /**
+         * 获取主键对应的稳定ID（首次出现时分配新ID）
+         * @param key 数据主键（订单ID、菜品ID、评论ID）
+         * @return 稳定ID
+         */
+        public long idOf(String key) {
+            Long id = ids.get(key);
+            if (id == null) {
+                id = (long) ids.size();
+                ids.put(key, id);
+            }
+            return id;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.ccf.feige.orderfood.until;
+
+import android.content.Context;
+import android.content.pm.ApplicationInfo;
+import android.os.Looper;
+import android.os.StrictMode;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+/**
+ * 主线程I/O检查（仅调试包开启）：发现主线程上的数据库查询、文件读写、图片解码时记录并输出到logcat（TAG：MainThreadGuard）
+ * 检查来源：
+ * 1. 数据库：所有DAO查询/写入都经过QueryStats，在其中调用checkDatabase()（SQLite在native层读写文件，StrictMode检测不到）
+ * 2. 图片解码、图片文件读写：ImageLoader、FileImgUntil中调用checkDisk()
+ * 3. 其余文件读写（如SharedPreferences首次加载）：由install()设置的StrictMode线程策略检测，通过penaltyListener汇总到这里
+ * 定位：每条记录都从调用栈中找出所在界面（activity包下的类或MainActivity）和DAO方法（dao包下的方法），便于直接定位到代码
+ * 测试：Robolectric测试（src/test）中开启后驱动各界面，断言getViolations()为空
+ */
+public final class MainThreadGuard {
+
+    private static final String TAG = "MainThreadGuard";
+
+    /** 违规类型：数据库访问 */
+    public static final String TYPE_DATABASE = "database";
+    /** 违规类型：文件读写/图片解码 */
+    public static final String TYPE_DISK = "disk";
+    /** 违规类型：StrictMode检测到的其他违规 */
+    public static final String TYPE_STRICT_MODE = "strictMode";
+
+    private static final String APP_PACKAGE = "com.ccf.feige.orderfood.";
+    private static final String ACTIVITY_PACKAGE = APP_PACKAGE + "activity.";
+    private static final String DAO_PACKAGE = APP_PACKAGE + "dao.";
+    private static final String MAIN_ACTIVITY = APP_PACKAGE + "MainActivity";
+
+    /** 最多保留的违规记录条数（避免同一违规在列表滚动中反复触发时占用过多内存） */
+    private static final int MAX_VIOLATIONS = 200;
+
+    private static volatile boolean enabled = false;
+    private static final List<Violation> VIOLATIONS = new ArrayList<>();
+
+    private MainThreadGuard() {
+    }
+
+    /**
+     * 调试包中开启检查并设置StrictMode线程策略（在Application.onCreate中调用）
+     * @param context 上下文对象
+     */
+    public static void install(Context context) {
+        if ((context.getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) == 0) {
+            return;
+        }
+        enabled = true;
+        StrictMode.setThreadPolicy(new StrictMode.ThreadPolicy.Builder()
+                .detectDiskReads()
+                .detectDiskWrites()
+                .detectCustomSlowCalls()
+                .penaltyListener(Executors.newSingleThreadExecutor(),
+                        violation -> report(TYPE_STRICT_MODE, violation.getClass().getSimpleName(), violation.getStackTrace()))
+                .build());
+    }
+
+    public static void setEnabled(boolean enabled) {
+        MainThreadGuard.enabled = enabled;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 检查数据库访问是否发生在主线程
+     * @param operation 查询名称（如"FoodDao.getAllFoodById"）
+     */
+    public static void checkDatabase(String operation) {
+        check(TYPE_DATABASE, operation);
+    }
+
+    /**
+     * 检查文件读写/图片解码是否发生在主线程
+     * @param operation 操作名称（如"ImageLoader.decodeSampledBitmap"）
+     */
+    public static void checkDisk(String operation) {
+        check(TYPE_DISK, operation);
+    }
+
+    private static void check(String type, String operation) {
+        if (enabled && Looper.getMainLooper().isCurrentThread()) {
+            report(type, operation, new Throwable().getStackTrace());
+        }
+    }
+
+    /**
+     * 记录一条违规，并输出到logcat
+     */
+    private static void report(String type, String operation, StackTraceElement[] stack) {
+        Violation violation = new Violation(type, operation, findScreen(stack), findDaoMethod(stack), stack);
+        synchronized (VIOLATIONS) {
+            if (VIOLATIONS.size() < MAX_VIOLATIONS) {
+                VIOLATIONS.add(violation);
+            }
+        }
+        Log.w(TAG, violation.toString());
+    }
+
+    /**
+     * 调用栈中最近的界面类（activity包下的类或MainActivity，内部类/lambda取外部类名）
+     */
+    private static String findScreen(StackTraceElement[] stack) {
+        for (StackTraceElement frame : stack) {
+            String cls = frame.getClassName();
+            if (cls.startsWith(ACTIVITY_PACKAGE) || cls.startsWith(MAIN_ACTIVITY)) {
+                int inner = cls.indexOf('$');
+                String outer = inner >= 0 ? cls.substring(0, inner) : cls;
+                return outer.substring(outer.lastIndexOf('.') + 1);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 调用栈中最近的DAO方法（类名.方法名）
+     */
+    private static String findDaoMethod(StackTraceElement[] stack) {
+        for (StackTraceElement frame : stack) {
+            String cls = frame.getClassName();
+            if (cls.startsWith(DAO_PACKAGE)) {
+                return cls.substring(DAO_PACKAGE.length()) + "." + frame.getMethodName();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 获取已记录的违规（副本）
+     * @return 违规列表，按发生顺序排列
+     */
+    public static List<Violation> getViolations() {
+        synchronized (VIOLATIONS) {
+            return new ArrayList<>(VIOLATIONS);
+        }
+    }
+
+    /**
+     * 清空已记录的违规
+     */
+    public static void clear() {
+        synchronized (VIOLATIONS) {
+            VIOLATIONS.clear();
+        }
+    }
+
+    /**
+     * 一条主线程I/O违规
+     */
+    public static final class Violation {
+        private final String type;
+        private final String operation;
+        private final String screen;
+        private final String daoMethod;
+        private final StackTraceElement[] stack;
+
+        Violation(String type, String operation, String screen, String daoMethod, StackTraceElement[] stack) {
+            this.type = type;
+            this.operation = operation;
+            this.screen = screen;
+            this.daoMethod = daoMethod;
+            this.stack = stack;
+        }
+
+        /** 违规类型（TYPE_DATABASE/TYPE_DISK/TYPE_STRICT_MODE） */
+        public String getType() {
+            return type;
+        }
+
+        /** 操作名称（查询名称、工具方法名或StrictMode违规类名） */
+        public String getOperation() {
+            return operation;
+        }
+
+        /** 所在界面类名，调用栈中没有界面类时为null */
+        public String getScreen() {
+            return screen;
+        }
+
+        /** 所在DAO方法（类名.方法名），不是数据库访问或调用栈中没有DAO时为null */
+        public String getDaoMethod() {
+            return daoMethod;
+        }
+
+        public StackTraceElement[] getStackTrace() {
+            return stack.clone();
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder("主线程").append(type).append("：").append(operation)
+                    .append(" screen=").append(screen)
+                    .append(" dao=").append(daoMethod);
+            // 只输出本应用的调用栈，便于定位
+            for (StackTraceElement frame : stack) {
+                if (frame.getClassName().startsWith(APP_PACKAGE)
+                        && !frame.getClassName().equals(MainThreadGuard.class.getName())) {
+                    sb.append("\n    at ").append(frame);
+                }
+            }
+            return sb.toString();
+        }
+    }
+}
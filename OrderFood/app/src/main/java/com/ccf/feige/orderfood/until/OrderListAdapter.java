@@ -0,0 +1,72 @@
+package com.ccf.feige.orderfood.until;
+
+import androidx.recyclerview.widget.ListAdapter;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.ccf.feige.orderfood.bean.OrderBean;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 订单列表适配器的公共父类（商家端/用户端的已处理、未处理订单列表共用）
+ * 核心功能：
+ * 1. 继承ListAdapter，按ListDiff.ORDER在后台线程计算新旧列表差异，只刷新变化的行
+ * 2. 按订单ID分配稳定ID，数据刷新、窗口裁剪时RecyclerView能正确保留每一行的视图和滚动位置
+ * 3. 订单状态修改成功后（接单/取消）通过removeOrder()移除该行：由OrderPager管理数据时交给分页加载器移除，否则直接提交移除后的列表
+ * @param <VH> 子类的ViewHolder类型
+ */
+public abstract class OrderListAdapter<VH extends RecyclerView.ViewHolder> extends ListAdapter<OrderBean, VH> {
+
+    /**
+     * 订单移除监听：订单状态修改后需要从列表中移除时回调（OrderPager注册）
+     */
+    public interface OnOrderRemovedListener {
+        void onOrderRemoved(OrderBean order);
+    }
+
+    // 订单ID → 稳定ID
+    private final ListDiff.StableIds stableIds = new ListDiff.StableIds();
+    // 订单移除监听，未设置时由适配器自行移除
+    private OnOrderRemovedListener onOrderRemovedListener;
+
+    /**
+     * 构造方法：使用订单比较规则并开启稳定ID
+     */
+    protected OrderListAdapter() {
+        super(ListDiff.ORDER);
+        setHasStableIds(true);
+    }
+
+    /**
+     * 设置订单移除监听
+     * @param listener 订单移除监听
+     */
+    public void setOnOrderRemovedListener(OnOrderRemovedListener listener) {
+        this.onOrderRemovedListener = listener;
+    }
+
+    /**
+     * 获取指定位置订单的稳定ID
+     * @param position 列表位置
+     * @return 稳定ID（同一订单始终相同）
+     */
+    @Override
+    public long getItemId(int position) {
+        return stableIds.idOf(getItem(position).getOrderId());
+    }
+
+    /**
+     * 从列表中移除订单（订单状态修改成功后调用，只移除该订单所在的行）
+     * @param order 要移除的订单
+     */
+    protected void removeOrder(OrderBean order) {
+        if (onOrderRemovedListener != null) {
+            onOrderRemovedListener.onOrderRemoved(order);
+            return;
+        }
+        List<OrderBean> list = new ArrayList<>(getCurrentList());
+        list.remove(order);
+        submitList(list);
+    }
+}
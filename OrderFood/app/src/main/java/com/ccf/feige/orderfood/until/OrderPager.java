@@ -0,0 +1,318 @@
+package com.ccf.feige.orderfood.until;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.ccf.feige.orderfood.bean.OrderBean;
+import com.ccf.feige.orderfood.dao.OrderPagingSource;
+import com.ccf.feige.orderfood.db.DBManager;
+import com.ccf.feige.orderfood.db.InvalidationTracker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Future;
+
+/**
+ * 订单列表分页加载器（RecyclerView + OrderListAdapter + OrderPagingSource）
+ * 核心功能：
+ * 1. 首屏只加载一页订单，滚动到距离末尾PREFETCH_DISTANCE条以内时在后台预取下一页
+ * 2. 内存中最多保留MAX_WINDOW_PAGES页订单：向下加载超出窗口时裁掉头部，向上滚回顶部附近时再按键集加载更新的一页，并裁掉尾部
+ * 3. 每次变化都向适配器提交新列表，由DiffUtil在后台计算差异：只插入/移除/刷新变化的行，稳定ID保证裁剪头部后界面不跳动
+ * 4. 切换数据源（如搜索关键词变化、页面返回刷新）时丢弃进行中的旧请求结果；新的第一页到达前保留旧数据，未变化的行不会重新绑定
+ * 5. 订单状态修改后（接单/取消）由适配器回调remove()，只移除该订单所在的行
+ * 6. 设置数据源后通过InvalidationTracker观察订单相关的表：其他界面下单、接单、评论后在后台重新加载当前窗口并计算差异，
+ *    新订单出现在列表顶部、状态变化的行重新绑定，无需返回页面时整页重新加载，也无需轮询
+ * 说明：当前窗口内的订单由本类持有，适配器只展示提交给它的副本；所有方法需在主线程调用
+ */
+public class OrderPager extends RecyclerView.OnScrollListener {
+
+    /**
+     * 预取距离：最后一条可见订单距离列表末尾（或第一条可见订单距离列表开头）不超过该条数时加载下一页
+     */
+    public static final int PREFETCH_DISTANCE = 5;
+
+    /**
+     * 内存窗口的最大页数：超出后裁掉离当前位置最远的一端，订单再多内存占用也保持不变
+     */
+    public static final int MAX_WINDOW_PAGES = 5;
+
+    // 订单列表控件
+    private final RecyclerView listView;
+    // 列表布局管理器（用于获取首尾可见位置）
+    private final LinearLayoutManager layoutManager;
+    // 列表适配器
+    private final OrderListAdapter<?> adapter;
+    // 当前窗口内的订单
+    private final List<OrderBean> items = new ArrayList<>();
+
+    // 当前数据源
+    private OrderPagingSource source;
+    // 数据源版本号：每次切换数据源+1，旧版本的加载结果直接丢弃
+    private int generation;
+    // 进行中的加载请求（同一时间只有一个）
+    private Future<?> pending;
+    // 是否正在加载新数据源的第一页（此时窗口中仍是旧数据源的订单）
+    private boolean loadingFirst;
+
+    // 窗口尾部边界订单的(时间, 订单ID)：向下加载从这里继续（订单被移出列表后仍保留原边界）
+    private long tailTime;
+    private String tailId;
+    // 窗口头部边界订单的(时间, 订单ID)：窗口头部被裁剪后，向上加载从这里继续
+    private long headTime;
+    private String headId;
+    // 是否还有更旧的订单（尾部之后）
+    private boolean hasOlder;
+    // 是否还有更新的订单（头部被裁剪过）
+    private boolean hasNewer;
+
+    // 订单相关表的观察者：表变化时刷新当前窗口（setSource()时注册，release()时注销）
+    private final InvalidationTracker.Observer observer = new InvalidationTracker.Observer(OrderPagingSource.TABLES) {
+        @Override
+        public void onInvalidated(Set<String> tables) {
+            refresh();
+        }
+    };
+
+    /**
+     * 构造方法：初始化纵向列表，设置适配器和滚动监听，并接管适配器的订单移除操作
+     * @param listView 订单列表控件
+     * @param adapter 订单列表适配器
+     */
+    public OrderPager(RecyclerView listView, OrderListAdapter<?> adapter) {
+        this.listView = listView;
+        this.adapter = adapter;
+        Tools.initVerticalList(listView);
+        this.layoutManager = (LinearLayoutManager) listView.getLayoutManager();
+        listView.setAdapter(adapter);
+        listView.addOnScrollListener(this);
+        adapter.setOnOrderRemovedListener(this::remove);
+    }
+
+    /**
+     * 切换数据源并加载第一页（首次进入、搜索关键词变化时调用），之后订单数据变化时自动刷新
+     * @param source 订单分页数据源
+     */
+    public void setSource(OrderPagingSource source) {
+        release();
+        this.source = source;
+        InvalidationTracker.addObserver(observer);
+        hasOlder = false;
+        hasNewer = false;
+        loadingFirst = true;
+        int current = generation;
+        pending = DBManager.read(source::loadFirst, page -> {
+            if (current != generation) {
+                return;
+            }
+            pending = null;
+            loadingFirst = false;
+            items.clear();
+            items.addAll(page);
+            hasOlder = page.size() >= source.getPageSize();
+            updateBounds();
+            // 第一页提交完成后回到列表顶部
+            submit(() -> listView.scrollToPosition(0));
+        });
+    }
+
+    /**
+     * 取消进行中的加载（页面销毁时调用），之后到达的结果不再更新列表，滚动时也不再预取和自动刷新
+     */
+    public void release() {
+        InvalidationTracker.removeObserver(observer);
+        generation++;
+        source = null;
+        loadingFirst = false;
+        if (pending != null) {
+            pending.cancel(false);
+            pending = null;
+        }
+    }
+
+    /**
+     * 在后台重新加载当前窗口（订单相关的表变化时由InvalidationTracker回调），提交后由DiffUtil只更新变化的行，不改变滚动位置
+     * 说明：
+     * 1. 窗口头部未被裁剪过时从最新的订单加载到尾部边界，新增的订单出现在列表顶部；否则只重新加载首尾边界之间的订单，
+     *    新增的订单在向上滚动时由loadNewer()加载
+     * 2. 进行中的预取请求被丢弃（提交后重新检查是否需要预取）；窗口为空或第一页尚未加载完成时按第一页重新加载
+     */
+    public void refresh() {
+        if (source == null) {
+            return;
+        }
+        OrderPagingSource current = source;
+        if (loadingFirst) {
+            // 第一页可能在数据变化前就已查询，重新加载第一页（窗口中的旧数据不能作为刷新边界）
+            setSource(current);
+            return;
+        }
+        if (pending != null) {
+            pending.cancel(false);
+        }
+        int currentGeneration = ++generation;
+        if (items.isEmpty()) {
+            pending = DBManager.read(current::loadFirst, page -> {
+                if (currentGeneration != generation) {
+                    return;
+                }
+                pending = null;
+                items.addAll(page);
+                hasOlder = page.size() >= current.getPageSize();
+                hasNewer = false;
+                updateBounds();
+                submit(null);
+            });
+            return;
+        }
+        boolean newest = !hasNewer;
+        long fromTime = headTime;
+        String fromId = headId;
+        long toTime = tailTime;
+        String toId = tailId;
+        int limit = current.getPageSize() * MAX_WINDOW_PAGES;
+        pending = DBManager.read(() -> current.loadRange(newest, fromTime, fromId, toTime, toId, limit), page -> {
+            if (currentGeneration != generation) {
+                return;
+            }
+            pending = null;
+            items.clear();
+            items.addAll(page);
+            // 新增的订单使窗口超出上限时，尾部边界之前的订单没有全部加载，尾部之后可继续向下加载
+            if (page.size() >= limit) {
+                hasOlder = true;
+            }
+            updateBounds();
+            submit(null);
+        });
+    }
+
+    /**
+     * 从窗口中移除订单（订单状态修改成功后由适配器回调），只移除该订单所在的行
+     * @param order 要移除的订单
+     */
+    public void remove(OrderBean order) {
+        for (int i = 0; i < items.size(); i++) {
+            if (Objects.equals(items.get(i).getOrderId(), order.getOrderId())) {
+                items.remove(i);
+                // 边界保持不变：移除的订单恰好是首尾订单时，键集仍从原边界继续加载
+                submit(null);
+                return;
+            }
+        }
+    }
+
+    /**
+     * 滚动（以及数据变化后重新布局）时回调：接近窗口任一端时预取相邻一页
+     */
+    @Override
+    public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+        checkPrefetch();
+    }
+
+    /**
+     * 检查是否需要预取：同一时间只加载一页；列表中的订单全部被移除（如全部接单）时同样会继续加载下一页
+     */
+    private void checkPrefetch() {
+        if (pending != null || source == null) {
+            return;
+        }
+        int total = adapter.getItemCount();
+        int first = layoutManager.findFirstVisibleItemPosition();
+        int last = layoutManager.findLastVisibleItemPosition();
+        if (hasOlder && last >= total - 1 - PREFETCH_DISTANCE) {
+            loadOlder();
+        } else if (hasNewer && first <= PREFETCH_DISTANCE) {
+            loadNewer();
+        }
+    }
+
+    /**
+     * 在后台加载尾部之后更旧的一页，追加到列表末尾，超出窗口时裁掉头部
+     */
+    private void loadOlder() {
+        OrderPagingSource current = source;
+        int currentGeneration = generation;
+        long time = tailTime;
+        String id = tailId;
+        pending = DBManager.read(() -> current.loadOlderThan(time, id), page -> {
+            if (currentGeneration != generation) {
+                return;
+            }
+            pending = null;
+            hasOlder = page.size() >= current.getPageSize();
+            if (page.isEmpty()) {
+                return;
+            }
+            items.addAll(page);
+            // 超出窗口时从头部裁剪，裁剪后可向上重新加载
+            int overflow = items.size() - current.getPageSize() * MAX_WINDOW_PAGES;
+            if (overflow > 0) {
+                items.subList(0, overflow).clear();
+                hasNewer = true;
+            }
+            updateBounds();
+            submit(null);
+        });
+    }
+
+    /**
+     * 在后台加载头部之前更新的一页，插入到列表开头，超出窗口时裁掉尾部
+     */
+    private void loadNewer() {
+        OrderPagingSource current = source;
+        int currentGeneration = generation;
+        long time = headTime;
+        String id = headId;
+        pending = DBManager.read(() -> current.loadNewerThan(time, id), page -> {
+            if (currentGeneration != generation) {
+                return;
+            }
+            pending = null;
+            hasNewer = page.size() >= current.getPageSize();
+            if (page.isEmpty()) {
+                return;
+            }
+            items.addAll(0, page);
+            // 超出窗口时从尾部裁剪，裁剪后可向下重新加载
+            int overflow = items.size() - current.getPageSize() * MAX_WINDOW_PAGES;
+            if (overflow > 0) {
+                items.subList(items.size() - overflow, items.size()).clear();
+                hasOlder = true;
+            }
+            updateBounds();
+            submit(null);
+        });
+    }
+
+    /**
+     * 按当前窗口的首尾订单更新键集边界（列表为空时保留原边界）
+     */
+    private void updateBounds() {
+        if (items.isEmpty()) {
+            return;
+        }
+        OrderBean head = items.get(0);
+        headTime = head.getOrderTimeMillis();
+        headId = head.getOrderId();
+        OrderBean tail = items.get(items.size() - 1);
+        tailTime = tail.getOrderTimeMillis();
+        tailId = tail.getOrderId();
+    }
+
+    /**
+     * 向适配器提交当前窗口的副本（差异在后台计算），提交完成并重新布局后再检查一次是否需要预取
+     * @param afterCommit 提交完成后执行的操作，可为null
+     */
+    private void submit(Runnable afterCommit) {
+        adapter.submitList(new ArrayList<>(items), () -> {
+            if (afterCommit != null) {
+                afterCommit.run();
+            }
+            // 数据较少不足一屏、或行被移除后，不会产生滚动事件，这里在布局完成后主动检查
+            listView.post(this::checkPrefetch);
+        });
+    }
+}
@@ -0,0 +1,133 @@
+package com.ccf.feige.orderfood.until;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 全文索引（FTS）分词工具：写入索引前的文本分词、搜索关键词到MATCH表达式的转换
+ * 说明：不依赖任何Android类，Tools.toSearchTokens/toFtsMatchQuery委托给本类，
+ * benchmark模块（普通JVM）也直接编译本类，保证基准测试写入的索引与应用一致
+ */
+public final class SearchTokens {
+
+    private SearchTokens() {
+    }
+
+    /**
+     * 把文本转换为全文索引（FTS）使用的分词文本
+     * 说明：SQLite自带的分词器按空格/标点切词，无法切分中文；这里在写入索引前预先切分：
+     * 中日韩文字每个字单独成词，字母/数字连续的部分作为一个词，其他字符视为分隔符，词之间用空格连接
+     * 例如："南京烤鸭 Duck2" -> "南 京 烤 鸭 Duck2"
+     * @param text 原始文本（菜品名称、描述等），可为null
+     * @return 空格分隔的分词文本，text为null时返回空字符串
+     */
+    public static String toSearchTokens(String text) {
+        StringBuilder sb = new StringBuilder();
+        if (text == null) {
+            return "";
+        }
+        for (String token : splitSearchTokens(text)) {
+            if (sb.length() > 0) {
+                sb.append(' ');
+            }
+            sb.append(token);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 把用户输入的搜索关键词转换为全文索引的MATCH查询表达式
+     * 规则：连续的中日韩文字组成一个短语（如"烤鸭" -> "烤 鸭"，要求相邻出现，效果等同于LIKE包含匹配）；
+     * 字母/数字词按前缀匹配（如"duc" -> duc*）；多个部分之间为“且”关系
+     * 只保留文字/字母/数字，引号、星号等FTS语法字符会被当作分隔符丢弃，不会造成查询语法错误
+     * @param query 用户输入的关键词
+     * @return MATCH表达式，关键词中没有可检索的字符时返回null（调用方应返回全部数据）
+     */
+    public static String toFtsMatchQuery(String query) {
+        if (query == null) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder();
+        StringBuilder phrase = new StringBuilder();
+        // 先按空格、标点等分隔符拆成若干段，短语不跨段（"烤鸭 粉丝"表示两个关键词，而不是"烤鸭粉丝"）
+        for (String part : query.split("[^\\p{L}\\p{N}]+")) {
+            for (String token : splitSearchTokens(part)) {
+                if (isCjk(token.codePointAt(0))) {
+                    // 连续的中日韩单字拼成一个短语
+                    if (phrase.length() > 0) {
+                        phrase.append(' ');
+                    }
+                    phrase.append(token);
+                    continue;
+                }
+                appendPhrase(sb, phrase);
+                if (sb.length() > 0) {
+                    sb.append(' ');
+                }
+                sb.append(token).append('*');
+            }
+            appendPhrase(sb, phrase);
+        }
+        return sb.length() == 0 ? null : sb.toString();
+    }
+
+    /**
+     * 把累积的中文短语以双引号包裹追加到MATCH表达式中，并清空短语缓存
+     * @param sb MATCH表达式
+     * @param phrase 累积的短语（空格分隔的单字）
+     */
+    private static void appendPhrase(StringBuilder sb, StringBuilder phrase) {
+        if (phrase.length() == 0) {
+            return;
+        }
+        if (sb.length() > 0) {
+            sb.append(' ');
+        }
+        sb.append('"').append(phrase).append('"');
+        phrase.setLength(0);
+    }
+
+    /**
+     * 按全文索引规则切分文本：中日韩文字逐字切分，字母/数字连续部分为一个词，其他字符作为分隔符
+     * @param text 原始文本（非null）
+     * @return 切分后的词列表（按原文顺序）
+     */
+    private static List<String> splitSearchTokens(String text) {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder word = new StringBuilder();
+        int i = 0;
+        while (i < text.length()) {
+            int cp = text.codePointAt(i);
+            i += Character.charCount(cp);
+            if (isCjk(cp)) {
+                if (word.length() > 0) {
+                    tokens.add(word.toString());
+                    word.setLength(0);
+                }
+                tokens.add(new String(Character.toChars(cp)));
+            } else if (Character.isLetterOrDigit(cp)) {
+                word.appendCodePoint(cp);
+            } else if (word.length() > 0) {
+                tokens.add(word.toString());
+                word.setLength(0);
+            }
+        }
+        if (word.length() > 0) {
+            tokens.add(word.toString());
+        }
+        return tokens;
+    }
+
+    /**
+     * 判断字符是否为中日韩文字（汉字、平假名、片假名、韩文）
+     * @param codePoint 字符的Unicode码点
+     * @return true表示需要逐字切分
+     */
+    private static boolean isCjk(int codePoint) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+        return script == Character.UnicodeScript.HAN
+                || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA
+                || script == Character.UnicodeScript.HANGUL;
+    }
+}
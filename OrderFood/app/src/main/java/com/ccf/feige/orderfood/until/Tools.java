@@ -8,19 +8,37 @@ import android.view.View;
 import android.widget.ImageView;
 import android.widget.TextView;
 
+import androidx.core.content.ContextCompat;
+import androidx.recyclerview.widget.DividerItemDecoration;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
 import com.ccf.feige.orderfood.R;
-import com.ccf.feige.orderfood.bean.OrderBean;
-import com.ccf.feige.orderfood.bean.OrderDetailBean;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Locale;
 
 /**
- * 工具类：提供订单查询、SharedPreferences数据获取、数据库游标解析、评分星星展示等通用辅助功能
+ * 工具类：提供全文搜索分词、SharedPreferences数据获取、数据库游标解析、金额/时间换算、列表初始化、评分星星展示等通用辅助功能
  * 该类中的方法均为静态方法，无需实例化即可直接调用，用于简化项目中重复的业务逻辑代码
  */
 public class Tools {
 
+    /**
+     * 界面展示用的时间格式（下单时间、评论时间统一使用该格式）
+     */
+    public static final String TIME_PATTERN = "yyyy-MM-dd HH:mm";
+
+    /**
+     * 兼容解析的带秒时间格式（旧数据中可能存在）
+     */
+    private static final String TIME_PATTERN_SECONDS = "yyyy-MM-dd HH:mm:ss";
+
     /**
      * 获取当前登录账号（从SharedPreferences中读取）
      * @param context 上下文对象，用于获取SharedPreferences实例，不能为null
@@ -48,41 +66,118 @@ public class Tools {
 
 
     /**
-     * 订单列表过滤查询：根据关键字匹配用户名或订单内商品名，筛选出符合条件的订单
-     * @param list 原始订单列表（待过滤的完整订单数据）
-     * @param query 查询关键字（可以是用户名片段或商品名片段，大小写敏感）
-     * @return 返回筛选后的订单列表，仅包含用户名含关键字或包含匹配商品名的订单
+     * 从数据库查询游标中获取指定列名对应的长整型值（金额分、时间戳毫秒等INTEGER字段）
+     * @param rs 数据库查询返回的游标对象，需确保游标已处于有效位置
+     * @param columnName 要获取数据的列名
+     * @return 指定列的长整型值，列值为NULL时返回0
      */
-    public static List<OrderBean> filterOrder( List<OrderBean> list,String query){
-        // 初始化空列表，用于存储筛选后的符合条件的订单
-        List<OrderBean> list1=new ArrayList<>();
-        // 遍历原始订单列表中的每一个订单
-        for (OrderBean orderBean : list) {//判断用户名字是否有内容
-            // 第一种匹配：判断当前订单的用户名是否包含查询关键字
-            if(orderBean.getUserName().contains(query)){
-                // 用户名匹配成功，将该订单加入结果列表
-                list1.add(orderBean);
-            }else{
-                // 用户名不匹配时，获取该订单对应的订单详情列表（包含订单内的商品信息）
-                List<OrderDetailBean> list2 = orderBean.getOrderDetailBeanList();//详情表
-                // 初始化计数器，用于标记该订单是否有商品匹配关键字
-                int a=0;
-                // 遍历订单详情列表中的每一个商品
-                for (OrderDetailBean orderDetailBean : list2) {//判断商品名字是否有内容
-                    // 第二种匹配：判断当前商品名是否包含查询关键字
-                    if(orderDetailBean.getFoodName().contains(query)){
-                        // 商品名匹配成功，计数器自增（标记该订单符合条件）
-                        a++;
-                    }
-                }
-                // 若计数器大于0，说明该订单中有至少一个商品匹配关键字，将该订单加入结果列表
-                if(a!=0){
-                    list1.add(orderBean);
-                }
-            }
+    @SuppressLint("Range")
+    public static long getResultLong(Cursor rs, String columnName){
+        return rs.getLong(rs.getColumnIndex(columnName));
+    }
+
+    /**
+     * 从数据库查询游标中获取指定列名对应的整型值（订单状态、数量、评分等INTEGER字段）
+     * @param rs 数据库查询返回的游标对象，需确保游标已处于有效位置
+     * @param columnName 要获取数据的列名
+     * @return 指定列的整型值，列值为NULL时返回0
+     */
+    @SuppressLint("Range")
+    public static int getResultInt(Cursor rs, String columnName){
+        return rs.getInt(rs.getColumnIndex(columnName));
+    }
+
+    /**
+     * 金额转换：元（字符串，如"19.86"）转换为分（长整型，如1986）
+     * 说明：数据库中金额统一以INTEGER分存储，避免浮点误差，也便于SQL直接求和/排序
+     * @param yuan 以元为单位的金额字符串（允许带空格）
+     * @return 以分为单位的金额，空值或格式错误时返回0
+     */
+    public static long yuanToCents(String yuan){
+        if (yuan == null || yuan.trim().isEmpty()) {
+            return 0;
+        }
+        try {
+            // 四舍五入到分，防止输入超过两位小数
+            return new BigDecimal(yuan.trim()).setScale(2, RoundingMode.HALF_UP).movePointRight(2).longValue();
+        } catch (NumberFormatException e) {
+            e.printStackTrace();
+            return 0;
         }
-        // 返回最终筛选后的订单列表
-        return  list1;
+    }
+
+    /**
+     * 金额转换：分（长整型）转换为元（字符串），去掉多余的0，如1900→"19"、1950→"19.5"
+     * @param cents 以分为单位的金额
+     * @return 以元为单位的金额字符串，用于界面展示
+     */
+    public static String centsToYuan(long cents){
+        BigDecimal yuan = BigDecimal.valueOf(cents, 2).stripTrailingZeros();
+        return yuan.scale() < 0 ? yuan.setScale(0).toPlainString() : yuan.toPlainString();
+    }
+
+    /**
+     * 时间转换：时间戳毫秒转换为展示用字符串（yyyy-MM-dd HH:mm）
+     * @param millis 时间戳毫秒（数据库中INTEGER存储的时间）
+     * @return 格式化后的时间字符串，millis小于等于0时返回空字符串
+     */
+    public static String formatTime(long millis){
+        if (millis <= 0) {
+            return "";
+        }
+        // SimpleDateFormat非线程安全，每次调用新建实例
+        return new SimpleDateFormat(TIME_PATTERN, Locale.getDefault()).format(new Date(millis));
+    }
+
+    /**
+     * 时间转换：时间字符串（yyyy-MM-dd HH:mm 或 yyyy-MM-dd HH:mm:ss）转换为时间戳毫秒
+     * @param time 时间字符串
+     * @return 时间戳毫秒，空值或格式错误时返回0
+     */
+    public static long parseTime(String time){
+        if (time == null || time.trim().isEmpty()) {
+            return 0;
+        }
+        String value = time.trim();
+        // 先按带秒格式解析，失败再按不带秒格式解析
+        String pattern = value.length() > TIME_PATTERN.length() ? TIME_PATTERN_SECONDS : TIME_PATTERN;
+        try {
+            return new SimpleDateFormat(pattern, Locale.getDefault()).parse(value).getTime();
+        } catch (ParseException e) {
+            e.printStackTrace();
+            return 0;
+        }
+    }
+
+    /**
+     * 时间转换：时间戳毫秒转换为年月整数（本地时区），用于按月汇总的统计表
+     * @param millis 时间戳毫秒
+     * @return 年月整数，如2024年3月返回202403
+     */
+    public static int toYearMonth(long millis){
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTimeInMillis(millis);
+        // Calendar.MONTH从0开始，需+1
+        return calendar.get(Calendar.YEAR) * 100 + calendar.get(Calendar.MONTH) + 1;
+    }
+
+    /**
+     * 把文本转换为全文索引（FTS）使用的分词文本（规则见SearchTokens.toSearchTokens）
+     * 例如："南京烤鸭 Duck2" -> "南 京 烤 鸭 Duck2"
+     * @param text 原始文本（菜品名称、描述等），可为null
+     * @return 空格分隔的分词文本，text为null时返回空字符串
+     */
+    public static String toSearchTokens(String text) {
+        return SearchTokens.toSearchTokens(text);
+    }
+
+    /**
+     * 把用户输入的搜索关键词转换为全文索引的MATCH查询表达式（规则见SearchTokens.toFtsMatchQuery）
+     * @param query 用户输入的关键词
+     * @return MATCH表达式，关键词中没有可检索的字符时返回null（调用方应返回全部数据）
+     */
+    public static String toFtsMatchQuery(String query) {
+        return SearchTokens.toFtsMatchQuery(query);
     }
 
     /**
@@ -102,4 +197,15 @@ public class Tools {
         // 根据评分值（score-1对应数组索引）设置TextView的显示文字
         con.setText(conT[score-1]);
     }
-}
\ No newline at end of file
+
+    /**
+     * 初始化纵向列表（RecyclerView）：设置线性布局管理器，并在列表项之间留出10dp透明间距（与原ListView的分隔线一致）
+     * @param list 列表控件
+     */
+    public static void initVerticalList(RecyclerView list) {
+        list.setLayoutManager(new LinearLayoutManager(list.getContext()));
+        DividerItemDecoration divider = new DividerItemDecoration(list.getContext(), DividerItemDecoration.VERTICAL);
+        divider.setDrawable(ContextCompat.getDrawable(list.getContext(), R.drawable.list_divider_space));
+        list.addItemDecoration(divider);
+    }
+}
@@ -0,0 +1,199 @@
+package com.ccf.feige.orderfood;
+
+import android.app.Activity;
+import android.content.Context;
+import android.content.Intent;
+import android.database.sqlite.SQLiteDatabase;
+import android.os.Looper;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.ccf.feige.orderfood.activity.man.ManageManActivity;
+import com.ccf.feige.orderfood.activity.man.ManageManAddFoodActivity;
+import com.ccf.feige.orderfood.activity.man.ManageManCommentActivity;
+import com.ccf.feige.orderfood.activity.man.ManageManOrderFinishActivity;
+import com.ccf.feige.orderfood.activity.man.ManageManOrderNoFinishActivity;
+import com.ccf.feige.orderfood.activity.man.ManageManUpdateFoodActivity;
+import com.ccf.feige.orderfood.activity.man.ManageManUpdateMesActivity;
+import com.ccf.feige.orderfood.activity.man.ManageManUpdatePwdActivity;
+import com.ccf.feige.orderfood.activity.man.RegisterManActivity;
+import com.ccf.feige.orderfood.activity.user.ManageUserActivity;
+import com.ccf.feige.orderfood.activity.user.ManageUserAddAddressActivity;
+import com.ccf.feige.orderfood.activity.user.ManageUserAddressActivity;
+import com.ccf.feige.orderfood.activity.user.ManageUserBuyActivity;
+import com.ccf.feige.orderfood.activity.user.ManageUserCommentActivity;
+import com.ccf.feige.orderfood.activity.user.ManageUserUpdateAddressActivity;
+import com.ccf.feige.orderfood.activity.user.ManageUserUpdateMesActivity;
+import com.ccf.feige.orderfood.activity.user.ManageUserUpdatePwdActivity;
+import com.ccf.feige.orderfood.activity.user.RegisterUserActivity;
+import com.ccf.feige.orderfood.bean.AddressBean;
+import com.ccf.feige.orderfood.bean.FoodBean;
+import com.ccf.feige.orderfood.bean.UserBean;
+import com.ccf.feige.orderfood.dao.AdminDao;
+import com.ccf.feige.orderfood.dao.FoodDao;
+import com.ccf.feige.orderfood.db.DBManager;
+import com.ccf.feige.orderfood.db.DBUntil;
+import com.ccf.feige.orderfood.until.MainThreadGuard;
+import com.google.android.material.bottomnavigation.BottomNavigationView;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.android.controller.ActivityController;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.io.File;
+import java.util.List;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * 主线程I/O检查测试：逐个打开各界面（含底部导航切换的各个Fragment），界面中有任何主线程数据库查询、
+ * 文件读写、图片解码时失败，并给出所在界面、DAO方法和调用栈
+ */
+@RunWith(RobolectricTestRunner.class)
+public class MainThreadIoTest {
+
+    /** 每轮等待后台数据库任务完成的最长时间（毫秒） */
+    private static final long SETTLE_TIMEOUT_MS = 10000;
+    /** 测试数据库中内置图片路径的目录名（位于缓存目录下，建库时不复制图片） */
+    private static final String TEST_IMAGE_DIR = "test_seed_images";
+
+    private Context context;
+    private SQLiteDatabase db;
+    private FoodBean food;
+    private UserBean business;
+
+    @Before
+    public void setUp() {
+        context = ApplicationProvider.getApplicationContext();
+        // 准备数据时不检查（测试线程就是主线程）
+        MainThreadGuard.setEnabled(false);
+        // 内存数据库，写入初始化数据（不复制内置图片到files目录）
+        db = SQLiteDatabase.create(null);
+        new DBUntil(context, new File(context.getCacheDir(), TEST_IMAGE_DIR).getAbsolutePath()).onCreate(db);
+        DBManager.attach(db);
+        food = FoodDao.getAllFoodListByBusinessId("admin").get(0);
+        business = AdminDao.getBusinessUser("admin");
+        settle();
+
+        MainThreadGuard.clear();
+        MainThreadGuard.setEnabled(true);
+    }
+
+    @After
+    public void tearDown() {
+        MainThreadGuard.setEnabled(false);
+        MainThreadGuard.clear();
+        DBManager.attach(null);
+        db.close();
+    }
+
+    @Test
+    public void loginAndRegister_noMainThreadIo() {
+        launch(MainActivity.class, null);
+        launch(RegisterManActivity.class, null);
+        launch(RegisterUserActivity.class, null);
+        assertNoViolations();
+    }
+
+    @Test
+    public void businessScreens_noMainThreadIo() {
+        login("admin");
+        ActivityController<ManageManActivity> main = launch(ManageManActivity.class, null);
+        selectTab(main.get(), R.id.man_manage_bottom_menu, R.id.man_manage_bottom_menu_my);
+        selectTab(main.get(), R.id.man_manage_bottom_menu, R.id.man_manage_bottom_menu_home);
+
+        launch(ManageManAddFoodActivity.class, null);
+        launch(ManageManCommentActivity.class, null);
+        launch(ManageManOrderFinishActivity.class, null);
+        launch(ManageManOrderNoFinishActivity.class, null);
+        launch(ManageManUpdateMesActivity.class, null);
+        launch(ManageManUpdatePwdActivity.class, null);
+        launch(ManageManUpdateFoodActivity.class, new Intent().putExtra("food", food));
+        assertNoViolations();
+    }
+
+    @Test
+    public void userScreens_noMainThreadIo() {
+        login("test");
+        ActivityController<ManageUserActivity> main = launch(ManageUserActivity.class, null);
+        selectTab(main.get(), R.id.user_manage_bottom_menu, R.id.user_manage_bottom_menu_noFinish);
+        selectTab(main.get(), R.id.user_manage_bottom_menu, R.id.user_manage_bottom_menu_my);
+        selectTab(main.get(), R.id.user_manage_bottom_menu, R.id.user_manage_bottom_menu_home);
+
+        launch(ManageUserAddressActivity.class, null);
+        launch(ManageUserAddAddressActivity.class, null);
+        launch(ManageUserUpdateAddressActivity.class, new Intent()
+                .putExtra("address", new AddressBean("1", "test", "张硕", "徐州市", "12312312312")));
+        launch(ManageUserUpdateMesActivity.class, null);
+        launch(ManageUserUpdatePwdActivity.class, null);
+        launch(ManageUserBuyActivity.class, new Intent().putExtra("business", business));
+        launch(ManageUserCommentActivity.class, new Intent()
+                .putExtra("orderId", "none")
+                .putExtra("businessId", "admin"));
+        assertNoViolations();
+    }
+
+    /**
+     * 设置当前登录账号（Tools.getOnAccount读取）
+     */
+    private void login(String account) {
+        context.getSharedPreferences("data", Context.MODE_PRIVATE).edit().putString("account", account).commit();
+    }
+
+    /**
+     * 打开界面并等待后台加载完成
+     */
+    private <T extends Activity> ActivityController<T> launch(Class<T> cls, Intent extras) {
+        Intent intent = new Intent(context, cls);
+        if (extras != null) {
+            intent.putExtras(extras);
+        }
+        ActivityController<T> controller = Robolectric.buildActivity(cls, intent).setup();
+        settle();
+        return controller;
+    }
+
+    /**
+     * 切换底部导航并等待后台加载完成
+     */
+    private void selectTab(Activity activity, int navId, int itemId) {
+        BottomNavigationView nav = activity.findViewById(navId);
+        nav.setSelectedItemId(itemId);
+        settle();
+    }
+
+    /**
+     * 等待后台线程的查询完成，并执行其投递到主线程的回调（回调中可能继续发起查询，因此直到读写线程都空闲为止）
+     */
+    private static void settle() {
+        ShadowLooper mainLooper = shadowOf(Looper.getMainLooper());
+        mainLooper.idle();
+        do {
+            try {
+                assertTrue("等待后台数据库任务超时", DBManager.awaitIdle(SETTLE_TIMEOUT_MS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError(e);
+            }
+            mainLooper.idle();
+        } while (!DBManager.isIdle());
+    }
+
+    private static void assertNoViolations() {
+        List<MainThreadGuard.Violation> violations = MainThreadGuard.getViolations();
+        if (!violations.isEmpty()) {
+            StringBuilder sb = new StringBuilder("发现" + violations.size() + "处主线程I/O：");
+            for (MainThreadGuard.Violation violation : violations) {
+                sb.append("\n").append(violation);
+            }
+            fail(sb.toString());
+        }
+    }
+}
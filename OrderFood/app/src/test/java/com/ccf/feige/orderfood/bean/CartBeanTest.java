@@ -0,0 +1,90 @@
+package com.ccf.feige.orderfood.bean;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 购物车测试：加减数量时同步维护总金额；重新登记或改价时按已选数量调整总金额，已选数量不变
+ */
+public class CartBeanTest {
+
+    @Test
+    public void addAndSub_updateTotal() {
+        CartBean cart = new CartBean();
+        cart.register(food("1", 1900));
+        cart.register(food("2", 500));
+
+        assertEquals(1, cart.add("1"));
+        assertEquals(2, cart.add("1"));
+        assertEquals(1, cart.add("2"));
+        assertEquals(4300, cart.getTotalCents());
+
+        assertEquals(0, cart.sub("2"));
+        // 数量不低于0，总金额不变
+        assertEquals(0, cart.sub("2"));
+        assertEquals(3800, cart.getTotalCents());
+        // 未登记的商品不处理
+        assertEquals(0, cart.add("3"));
+        assertEquals(3800, cart.getTotalCents());
+    }
+
+    @Test
+    public void registerAgain_keepsQuantityAndUpdatesPrice() {
+        CartBean cart = new CartBean();
+        cart.register(food("1", 1900));
+        cart.add("1");
+        cart.add("1");
+
+        // 搜索后重新创建适配器，商品已改价
+        cart.register(food("1", 2100));
+        assertEquals(2, cart.getQuantity("1"));
+        assertEquals(4200, cart.getTotalCents());
+
+        cart.updatePrice("1", 2000);
+        assertEquals(4000, cart.getTotalCents());
+        List<OrderDetailBean> details = cart.toOrderDetails();
+        assertEquals(1, details.size());
+        assertEquals(2000, details.get(0).getFoodPriceCents());
+        assertEquals(2, details.get(0).getFoodCount());
+    }
+
+    @Test
+    public void updatePrices_followsCheckoutDetails() {
+        CartBean cart = new CartBean();
+        cart.register(food("1", 1900));
+        cart.register(food("2", 500));
+        cart.add("1");
+        cart.add("2");
+        cart.add("2");
+
+        // 结算时补全的明细：商品1已涨价
+        List<OrderDetailBean> details = cart.toOrderDetails();
+        details.get(0).setFoodPriceCents(2100);
+        cart.updatePrices(details);
+        assertEquals(2100 + 2 * 500, cart.getTotalCents());
+    }
+
+    @Test
+    public void toOrderDetails_skipsZeroQuantity() {
+        CartBean cart = new CartBean();
+        cart.register(food("1", 1900));
+        cart.register(food("2", 500));
+        assertTrue(cart.isEmpty());
+        cart.add("2");
+
+        List<OrderDetailBean> details = cart.toOrderDetails();
+        assertEquals(1, details.size());
+        assertEquals("2", details.get(0).getFoodId());
+    }
+
+    private static FoodBean food(String id, long priceCents) {
+        FoodBean food = new FoodBean();
+        food.setFoodId(id);
+        food.setFoodPriceCents(priceCents);
+        return food;
+    }
+}
@@ -0,0 +1,192 @@
+package com.ccf.feige.orderfood.until;
+
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListUpdateCallback;
+
+import com.ccf.feige.orderfood.bean.CommentBean;
+import com.ccf.feige.orderfood.bean.FoodBean;
+import com.ccf.feige.orderfood.bean.OrderBean;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 列表差异比较测试：订单窗口裁剪、追加、状态变化时只产生对应行的移除/插入/刷新；下单时间相同的订单按订单ID区分；
+ * 菜品、评论按主键和内容比较；稳定ID对同一主键始终相同
+ */
+public class ListDiffTest {
+
+    private static final long TIME = 1700000000000L;
+
+    @Test
+    public void order_sameIdDifferentStatus_changedContent() {
+        OrderBean oldItem = order("a", TIME, OrderBean.ORDER_STA_UNHANDLED);
+        OrderBean newItem = order("a", TIME, OrderBean.ORDER_STA_FINISH);
+        assertTrue(ListDiff.ORDER.areItemsTheSame(oldItem, newItem));
+        assertFalse(ListDiff.ORDER.areContentsTheSame(oldItem, newItem));
+        assertTrue(ListDiff.ORDER.areContentsTheSame(oldItem, order("a", TIME, OrderBean.ORDER_STA_UNHANDLED)));
+        // 下单时间相同的不同订单不是同一行
+        assertFalse(ListDiff.ORDER.areItemsTheSame(oldItem, order("b", TIME, OrderBean.ORDER_STA_UNHANDLED)));
+    }
+
+    @Test
+    public void orderWindow_trimHeadAndAppend_onlyMovesEnds() {
+        // 窗口o9~o0向下加载一页：裁掉头部两个订单，尾部追加两个更旧的订单（每2个订单下单时间相同）
+        List<OrderBean> oldList = orders(9, 0);
+        List<OrderBean> newList = orders(7, -2);
+        Updates updates = diff(oldList, newList);
+        assertEquals(2, updates.removed);
+        assertEquals(2, updates.inserted);
+        assertEquals(0, updates.changed);
+        assertEquals(0, updates.moved);
+    }
+
+    @Test
+    public void orderWindow_prependAndTrimTail_onlyMovesEnds() {
+        // 窗口头部被裁剪后向上加载一页：头部插入两个更新的订单，尾部裁掉两个
+        Updates updates = diff(orders(7, -2), orders(9, 0));
+        assertEquals(2, updates.removed);
+        assertEquals(2, updates.inserted);
+        assertEquals(0, updates.changed);
+        assertEquals(0, updates.moved);
+    }
+
+    @Test
+    public void orderWindow_boundaryRemovedAndStatusChanged_onlyTouchesThoseRows() {
+        List<OrderBean> oldList = orders(9, 0);
+        List<OrderBean> newList = new ArrayList<>(orders(9, 0));
+        // 首尾订单被接单移出列表，中间一个订单状态变化
+        newList.remove(newList.size() - 1);
+        newList.remove(0);
+        newList.get(3).setOrderStatusCode(Integer.parseInt(OrderBean.ORDER_STA_CANCEL));
+        Updates updates = diff(oldList, newList);
+        assertEquals(2, updates.removed);
+        assertEquals(0, updates.inserted);
+        assertEquals(1, updates.changed);
+        assertEquals(0, updates.moved);
+    }
+
+    @Test
+    public void food_comparesIdAndContent() {
+        FoodBean oldFood = food("1", 1900);
+        assertTrue(ListDiff.FOOD.areItemsTheSame(oldFood, food("1", 2100)));
+        assertFalse(ListDiff.FOOD.areContentsTheSame(oldFood, food("1", 2100)));
+        assertTrue(ListDiff.FOOD.areContentsTheSame(oldFood, food("1", 1900)));
+        assertFalse(ListDiff.FOOD.areItemsTheSame(oldFood, food("2", 1900)));
+    }
+
+    @Test
+    public void comment_comparesIdAndContent() {
+        CommentBean oldComment = comment("1", "好吃");
+        assertTrue(ListDiff.COMMENT.areItemsTheSame(oldComment, comment("1", "一般")));
+        assertFalse(ListDiff.COMMENT.areContentsTheSame(oldComment, comment("1", "一般")));
+        assertTrue(ListDiff.COMMENT.areContentsTheSame(oldComment, comment("1", "好吃")));
+    }
+
+    @Test
+    public void stableIds_sameKeySameId() {
+        ListDiff.StableIds ids = new ListDiff.StableIds();
+        long a = ids.idOf("a");
+        long b = ids.idOf("b");
+        assertNotEquals(a, b);
+        ids.idOf("c");
+        assertEquals(a, ids.idOf("a"));
+        assertEquals(b, ids.idOf("b"));
+    }
+
+    /**
+     * 按订单序号从from到to（倒序）生成订单，序号每2个共用一个下单时间
+     */
+    private static List<OrderBean> orders(int from, int to) {
+        List<OrderBean> list = new ArrayList<>();
+        for (int i = from; i >= to; i--) {
+            list.add(order("o" + i, TIME + Math.floorDiv(i, 2) * 1000L, OrderBean.ORDER_STA_UNHANDLED));
+        }
+        return list;
+    }
+
+    private static OrderBean order(String orderId, long time, String sta) {
+        return new OrderBean(orderId, time, "admin", "test", "d_" + orderId, Integer.parseInt(sta), "张三-南京-13800000000");
+    }
+
+    private static FoodBean food(String id, long priceCents) {
+        FoodBean food = new FoodBean();
+        food.setFoodId(id);
+        food.setFoodName("南京烤鸭");
+        food.setFoodPriceCents(priceCents);
+        return food;
+    }
+
+    private static CommentBean comment(String id, String content) {
+        CommentBean comment = new CommentBean();
+        comment.setCommentId(id);
+        comment.setCommentContent(content);
+        comment.setCommentScoreValue(5);
+        return comment;
+    }
+
+    private static Updates diff(final List<OrderBean> oldList, final List<OrderBean> newList) {
+        DiffUtil.DiffResult result = DiffUtil.calculateDiff(new DiffUtil.Callback() {
+            @Override
+            public int getOldListSize() {
+                return oldList.size();
+            }
+
+            @Override
+            public int getNewListSize() {
+                return newList.size();
+            }
+
+            @Override
+            public boolean areItemsTheSame(int oldPosition, int newPosition) {
+                return ListDiff.ORDER.areItemsTheSame(oldList.get(oldPosition), newList.get(newPosition));
+            }
+
+            @Override
+            public boolean areContentsTheSame(int oldPosition, int newPosition) {
+                return ListDiff.ORDER.areContentsTheSame(oldList.get(oldPosition), newList.get(newPosition));
+            }
+        });
+        Updates updates = new Updates();
+        result.dispatchUpdatesTo(updates);
+        return updates;
+    }
+
+    /**
+     * 统计差异结果分发的插入、移除、移动、刷新行数（分发顺序和位置由DiffUtil决定，这里只比较行数）
+     */
+    private static class Updates implements ListUpdateCallback {
+        int inserted;
+        int removed;
+        int moved;
+        int changed;
+
+        @Override
+        public void onInserted(int position, int count) {
+            inserted += count;
+        }
+
+        @Override
+        public void onRemoved(int position, int count) {
+            removed += count;
+        }
+
+        @Override
+        public void onMoved(int fromPosition, int toPosition) {
+            moved++;
+        }
+
+        @Override
+        public void onChanged(int position, int count, @Nullable Object payload) {
+            changed += count;
+        }
+    }
+}
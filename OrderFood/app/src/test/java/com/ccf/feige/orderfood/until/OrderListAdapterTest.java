@@ -0,0 +1,123 @@
+package com.ccf.feige.orderfood.until;
+
+import android.os.Looper;
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.ccf.feige.orderfood.bean.OrderBean;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * 订单列表适配器测试：同一订单在窗口裁剪、状态变化前后的稳定ID不变；未设置移除监听时只移除该订单，
+ * 设置了移除监听（OrderPager）时交给监听处理，适配器不自行修改列表
+ */
+@RunWith(RobolectricTestRunner.class)
+public class OrderListAdapterTest {
+
+    private static final long TIME = 1700000000000L;
+
+    @Test
+    public void stableIds_keptAcrossWindowChanges() {
+        TestAdapter adapter = new TestAdapter();
+        assertTrue(adapter.hasStableIds());
+        submit(adapter, orders("o5", "o4", "o3", "o2"));
+        long o3 = adapter.getItemId(2);
+        long o2 = adapter.getItemId(3);
+        assertNotEquals(o3, o2);
+
+        // 裁掉头部、追加尾部、o3状态变化后，同一订单的稳定ID不变
+        List<OrderBean> window = orders("o3", "o2", "o1", "o0");
+        window.get(0).setOrderStatusCode(Integer.parseInt(OrderBean.ORDER_STA_FINISH));
+        submit(adapter, window);
+        assertEquals("o3", adapter.getItem(0).getOrderId());
+        assertEquals(o3, adapter.getItemId(0));
+        assertEquals(o2, adapter.getItemId(1));
+        assertNotEquals(o2, adapter.getItemId(2));
+    }
+
+    @Test
+    public void removeOrder_withoutListener_removesOnlyThatRow() {
+        TestAdapter adapter = new TestAdapter();
+        List<OrderBean> list = orders("o2", "o1", "o0");
+        submit(adapter, list);
+        adapter.removeOrder(list.get(1));
+        awaitCommitted(adapter, Arrays.asList(list.get(0), list.get(2)));
+        assertEquals(2, adapter.getItemCount());
+    }
+
+    @Test
+    public void removeOrder_withListener_delegates() {
+        TestAdapter adapter = new TestAdapter();
+        List<OrderBean> list = orders("o2", "o1", "o0");
+        submit(adapter, list);
+        final List<OrderBean> removed = new ArrayList<>();
+        adapter.setOnOrderRemovedListener(removed::add);
+        adapter.removeOrder(list.get(1));
+        assertEquals(1, removed.size());
+        assertSame(list.get(1), removed.get(0));
+        assertEquals(3, adapter.getItemCount());
+    }
+
+    /**
+     * 提交列表并等待提交完成（空列表首次提交时直接生效，之后在后台线程计算差异）
+     */
+    private static void submit(TestAdapter adapter, List<OrderBean> list) {
+        adapter.submitList(list);
+        awaitCommitted(adapter, list);
+    }
+
+    /**
+     * 等待差异计算结果投递到主线程并提交为当前列表（条件满足即返回，超时失败）
+     */
+    private static void awaitCommitted(TestAdapter adapter, List<OrderBean> list) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!adapter.getCurrentList().equals(list)) {
+            assertTrue("等待列表提交超时", System.nanoTime() < deadline);
+            Thread.yield();
+            shadowOf(Looper.getMainLooper()).idle();
+        }
+    }
+
+    private static List<OrderBean> orders(String... ids) {
+        List<OrderBean> list = new ArrayList<>();
+        for (String id : ids) {
+            list.add(new OrderBean(id, TIME, "admin", "test", "d_" + id,
+                    Integer.parseInt(OrderBean.ORDER_STA_UNHANDLED), "张三-南京-13800000000"));
+        }
+        return list;
+    }
+
+    /**
+     * 测试用订单适配器（不创建实际的行视图）
+     */
+    private static class TestAdapter extends OrderListAdapter<RecyclerView.ViewHolder> {
+
+        @NonNull
+        @Override
+        public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+            return new RecyclerView.ViewHolder(new View(parent.getContext())) {
+            };
+        }
+
+        @Override
+        public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package com.ccf.feige.orderfood.until;
+
+import android.app.Activity;
+import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+import android.os.Looper;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.ccf.feige.orderfood.bean.OrderBean;
+import com.ccf.feige.orderfood.bean.OrderDetailBean;
+import com.ccf.feige.orderfood.dao.OrderDao;
+import com.ccf.feige.orderfood.db.DBManager;
+import com.ccf.feige.orderfood.db.DBUntil;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * 订单分页加载器测试：向下滚动时窗口最多保留MAX_WINDOW_PAGES页并裁掉头部，向上滚回时按键集加载更新的一页并裁掉尾部；
+ * 窗口首尾的订单被移出列表后，刷新和继续滚动仍从原边界加载，既不重复也不遗漏
+ * 说明：为用户test下60个未处理订单（每3个订单下单时间相同），每页4个订单，窗口最多20个订单；
+ * 列表固定为300像素高、每行100像素，每次等待后台查询、差异计算和布局全部完成后检查适配器中的列表
+ */
+@RunWith(RobolectricTestRunner.class)
+public class OrderPagerTest {
+
+    private static final int ORDERS = 60;
+    private static final int PAGE_SIZE = 4;
+    private static final int WINDOW = PAGE_SIZE * OrderPager.MAX_WINDOW_PAGES;
+    private static final int LIST_SIZE_PX = 300;
+    private static final int ROW_HEIGHT_PX = 100;
+    /** 每次等待列表稳定的最长时间（毫秒） */
+    private static final long SETTLE_TIMEOUT_MS = 10000;
+    /** 测试数据库中内置图片路径的目录名（位于缓存目录下，建库时不复制图片） */
+    private static final String TEST_IMAGE_DIR = "test_seed_images";
+
+    private SQLiteDatabase db;
+    private RecyclerView listView;
+    private TestAdapter adapter;
+    private OrderPager pager;
+    // 全部订单ID（按时间、订单ID倒序），订单被移出列表时同步移除
+    private final List<String> expected = new ArrayList<>();
+
+    @Before
+    public void setUp() throws InterruptedException {
+        Context context = ApplicationProvider.getApplicationContext();
+        // 准备数据时不检查主线程I/O（测试线程就是主线程）
+        MainThreadGuard.setEnabled(false);
+        // 等待应用启动时提交的打开数据库、归档任务结束，再换成内存数据库（Robolectric的files目录为临时目录）
+        assertTrue(DBManager.awaitIdle(SETTLE_TIMEOUT_MS));
+        db = SQLiteDatabase.create(null);
+        new DBUntil(context, new File(context.getCacheDir(), TEST_IMAGE_DIR).getAbsolutePath()).onCreate(db);
+        DBManager.attach(db);
+        long base = System.currentTimeMillis() - ORDERS * 1000L;
+        for (int i = 0; i < ORDERS; i++) {
+            String orderId = String.format(Locale.ROOT, "o%02d", i);
+            placeOrder(orderId, base + (i / 3) * 1000L);
+            expected.add(0, orderId);
+        }
+
+        Activity activity = Robolectric.buildActivity(Activity.class).setup().get();
+        listView = new RecyclerView(activity);
+        activity.setContentView(listView, new ViewGroup.LayoutParams(LIST_SIZE_PX, LIST_SIZE_PX));
+        adapter = new TestAdapter();
+        pager = new OrderPager(listView, adapter);
+        pager.setSource(OrderDao.pageOrdersByStaAndUser("test", OrderBean.ORDER_STA_UNHANDLED, null, PAGE_SIZE));
+        settle();
+    }
+
+    @After
+    public void tearDown() {
+        pager.release();
+        DBManager.attach(null);
+        db.close();
+    }
+
+    @Test
+    public void firstPage_prefetchesUntilScreenIsCovered() {
+        List<String> ids = assertWindow();
+        assertEquals(expected.get(0), ids.get(0));
+        assertTrue(ids.size() > PAGE_SIZE);
+    }
+
+    @Test
+    public void scrollDownThenUp_windowStaysBounded() {
+        // 向下滚动到底：窗口不超过WINDOW，头部被裁掉
+        List<String> ids = scrollUntil(true, expected.get(expected.size() - 1));
+        assertEquals(WINDOW, ids.size());
+        assertNotEquals(expected.get(0), ids.get(0));
+
+        // 向上滚回顶部：按键集从头部边界加载更新的订单（时间相同的订单按订单ID区分），尾部被裁掉
+        ids = scrollUntil(false, expected.get(0));
+        assertEquals(WINDOW, ids.size());
+        assertNotEquals(expected.get(expected.size() - 1), ids.get(ids.size() - 1));
+    }
+
+    @Test
+    public void boundaryOrdersRemoved_keepsLoadingFromOldBounds() {
+        // 滚动到底后窗口头部已被裁掉
+        List<String> window = scrollUntil(true, expected.get(expected.size() - 1));
+        assertNotEquals(expected.get(0), window.get(0));
+
+        // 窗口首尾订单被接单：适配器回调remove()，订单表变化后由InvalidationTracker刷新当前窗口
+        String head = window.get(0);
+        String tail = window.get(window.size() - 1);
+        for (String orderId : new String[]{head, tail}) {
+            assertEquals(1, OrderDao.updateOrderStatus(orderId, OrderBean.ORDER_STA_FINISH));
+            pager.remove(adapter.getCurrentList().get(orderIds(adapter.getCurrentList()).indexOf(orderId)));
+            expected.remove(orderId);
+        }
+        settle();
+        List<String> remaining = new ArrayList<>(window);
+        remaining.remove(head);
+        remaining.remove(tail);
+        assertEquals(remaining, assertWindow());
+
+        // 从原边界继续向上、向下加载，两端都能接上
+        scrollUntil(false, expected.get(0));
+        scrollUntil(true, expected.get(expected.size() - 1));
+    }
+
+    /**
+     * 反复滚动到列表一端，直到窗口包含指定订单，每次加载后检查窗口
+     * @param down true向下滚动，false向上滚动
+     * @param orderId 要加载到的订单ID
+     * @return 最终窗口中的订单ID
+     */
+    private List<String> scrollUntil(boolean down, String orderId) {
+        for (int i = 0; i < ORDERS; i++) {
+            listView.scrollToPosition(down ? adapter.getItemCount() - 1 : 0);
+            settle();
+            List<String> ids = assertWindow();
+            if (ids.contains(orderId)) {
+                return ids;
+            }
+        }
+        throw new AssertionError("滚动后未加载到订单" + orderId);
+    }
+
+    /**
+     * 检查适配器中的列表：不超过窗口大小，且是全部订单中连续的一段（无重复、无遗漏）
+     * @return 列表中的订单ID
+     */
+    private List<String> assertWindow() {
+        List<String> ids = orderIds(adapter.getCurrentList());
+        assertFalse(ids.isEmpty());
+        assertTrue("窗口超出" + WINDOW + "个订单：" + ids.size(), ids.size() <= WINDOW);
+        int start = expected.indexOf(ids.get(0));
+        assertTrue(start >= 0 && start + ids.size() <= expected.size());
+        assertEquals(expected.subList(start, start + ids.size()), ids);
+        return ids;
+    }
+
+    /**
+     * 等待列表稳定：后台查询完成、回调执行完毕、差异计算结果已提交、布局后触发的预取也已完成
+     * 说明：差异在ListAdapter自己的后台线程中计算，提交结果投递到主线程前适配器中仍是旧列表，此时继续等待
+     */
+    private void settle() {
+        ShadowLooper mainLooper = shadowOf(Looper.getMainLooper());
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(SETTLE_TIMEOUT_MS);
+        while (true) {
+            try {
+                assertTrue("等待后台数据库任务超时", DBManager.awaitIdle(SETTLE_TIMEOUT_MS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError(e);
+            }
+            mainLooper.idle();
+            layout();
+            mainLooper.idle();
+            if (DBManager.isIdle() && adapter.isCommitted() && mainLooper.isIdle()) {
+                return;
+            }
+            assertTrue("等待列表提交超时", System.nanoTime() < deadline);
+            Thread.yield();
+        }
+    }
+
+    /**
+     * 按固定尺寸测量并布局列表（滚动位置或数据变化后更新可见范围，可见范围变化时RecyclerView回调onScrolled）
+     */
+    private void layout() {
+        int spec = View.MeasureSpec.makeMeasureSpec(LIST_SIZE_PX, View.MeasureSpec.EXACTLY);
+        listView.measure(spec, spec);
+        listView.layout(0, 0, LIST_SIZE_PX, LIST_SIZE_PX);
+    }
+
+    private void placeOrder(String orderId, long time) {
+        OrderBean order = new OrderBean(orderId, time, "admin", "test", "d_" + orderId,
+                Integer.parseInt(OrderBean.ORDER_STA_UNHANDLED), "张三-南京-13800000000");
+        List<OrderDetailBean> details = new ArrayList<>();
+        details.add(new OrderDetailBean(null, "1", "南京烤鸭", "描述", 1900L, 1, ""));
+        assertEquals(1, OrderDao.placeOrder(order, details));
+    }
+
+    private static List<String> orderIds(List<OrderBean> orders) {
+        List<String> ids = new ArrayList<>();
+        for (OrderBean order : orders) {
+            ids.add(order.getOrderId());
+        }
+        return ids;
+    }
+
+    /**
+     * 测试用订单适配器：每行一个固定高度的TextView，并记录最近一次提交的列表
+     */
+    private static class TestAdapter extends OrderListAdapter<RecyclerView.ViewHolder> {
+
+        // 最近一次提交的列表
+        private List<OrderBean> submitted = Collections.emptyList();
+
+        @Override
+        public void submitList(List<OrderBean> list) {
+            submitted = list;
+            super.submitList(list);
+        }
+
+        @Override
+        public void submitList(List<OrderBean> list, Runnable commitCallback) {
+            submitted = list;
+            super.submitList(list, commitCallback);
+        }
+
+        /**
+         * 最近一次提交的列表是否已完成差异计算并成为当前列表
+         */
+        boolean isCommitted() {
+            return getCurrentList().equals(submitted);
+        }
+
+        @NonNull
+        @Override
+        public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+            TextView view = new TextView(parent.getContext());
+            view.setLayoutParams(new RecyclerView.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ROW_HEIGHT_PX));
+            return new RecyclerView.ViewHolder(view) {
+            };
+        }
+
+        @Override
+        public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
+            ((TextView) holder.itemView).setText(getItem(position).getOrderId());
+        }
+    }
+}
@@ -0,0 +1,72 @@
+plugins {
+    java
+    id("me.champeau.jmh")
+}
+
+// JVM基准测试模块：在普通Linux JVM上用sqlite-jdbc执行应用的表结构和DAO SQL，测量订单装配、搜索、汇总、下单等热点路径
+// 运行：./gradlew :benchmark:jmh（默认1k/10万/100万订单三档；-PbenchOrders=1000,100000 只跑指定数据量）
+// 报告：build/reports/jmh/results-<benchLabel>.json（-PbenchLabel=v1.0 指定标签，便于不同版本之间对比）
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_1_8
+    targetCompatibility = JavaVersion.VERSION_1_8
+}
+
+sourceSets {
+    main {
+        java {
+            // 直接编译应用中不依赖Android的表结构定义、DAO语句、分词工具和测试数据生成器，保证基准测试与应用使用同一份SQL、索引内容和数据分布
+            setSrcDirs(listOf("../app/src/main/java"))
+            include("com/ccf/feige/orderfood/db/DBSchema.java")
+            include("com/ccf/feige/orderfood/db/DBQueries.java")
+            include("com/ccf/feige/orderfood/until/SearchTokens.java")
+            include("com/ccf/feige/orderfood/db/seed/SeedConfig.java")
+            include("com/ccf/feige/orderfood/db/seed/SeedGenerator.java")
+            include("com/ccf/feige/orderfood/db/seed/SeedSink.java")
+            include("com/ccf/feige/orderfood/db/seed/BuiltinSeed.java")
+        }
+    }
+}
+
+dependencies {
+    // 本地SQLite驱动（内置FTS4，与Android自带SQLite的语法一致）
+    jmh("org.xerial:sqlite-jdbc:3.45.3.0")
+}
+
+// 生成的数据集缓存目录：同一数据量只生成一次，之后的运行直接复用
+val benchDataDir = layout.buildDirectory.dir("bench-data")
+val benchLabel = providers.gradleProperty("benchLabel").getOrElse("current")
+
+jmh {
+    jmhVersion.set("1.37")
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("reports/jmh/results-$benchLabel.json"))
+    jvmArgsAppend.add(benchDataDir.map { "-Dbench.dataDir=" + it.asFile.absolutePath })
+    providers.gradleProperty("benchOrders").orNull?.let { orders ->
+        benchmarkParameters.put("orders", objects.listProperty(String::class.java).value(orders.split(",")))
+    }
+}
+
+// 生成应用的预置数据库和内置图片缩略图（输出到app/src/main/assets/seed，生成后提交到仓库）
+// 运行：./gradlew :benchmark:buildSeedAsset（修改表结构、DBSchema.VERSION或BuiltinSeed后重新运行）
+tasks.register<JavaExec>("buildSeedAsset") {
+    group = "build"
+    description = "生成app/src/main/assets/seed下的预置数据库和缩略图"
+    classpath = sourceSets["jmh"].runtimeClasspath
+    mainClass.set("com.ccf.feige.orderfood.benchmark.SeedAssetBuilder")
+    args(rootProject.file("app/src/main/assets/seed").absolutePath)
+}
+
+// 对比订单明细按菜品快照保存与旧的宽表结构（每行复制菜品内容）的数据库文件大小
+// 运行：./gradlew :benchmark:snapshotSizeReport（-PbenchOrders=1000,100000 指定订单数量）
+tasks.register<JavaExec>("snapshotSizeReport") {
+    group = "verification"
+    description = "输出订单明细两种存储结构的数据库文件大小"
+    classpath = sourceSets["jmh"].runtimeClasspath
+    mainClass.set("com.ccf.feige.orderfood.benchmark.SnapshotSizeReport")
+    args(layout.buildDirectory.dir("snapshot-size").get().asFile.absolutePath,
+            providers.gradleProperty("benchOrders").getOrElse(""))
+}
@@ -0,0 +1,60 @@
+package com.ccf.feige.orderfood.benchmark;
+
+import com.ccf.feige.orderfood.db.DBQueries;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 订单归档基准测试：归档后的待处理列表（只查询订单主表）与历史列表/搜索（订单主表 + 归档表合并）
+ * 说明：与OrderListBenchmark中同名的基准测试对比——未归档时的结果即OrderListBenchmark，
+ * 待处理列表在各数据量下的耗时应基本不变，历史列表的合并查询只比单表多一次索引定位
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ArchiveBenchmark {
+
+    /** 每页条数（同OrderPagingSource.DEFAULT_PAGE_SIZE） */
+    private static final int PAGE_SIZE = 20;
+
+    /**
+     * 商家未处理订单列表的第一页（OrderDao.pageOrdersBySta，状态1只查询订单主表）
+     */
+    @Benchmark
+    public List<OrderQueries.Order> businessPendingFirstPage(ArchivedDatasetState state) throws Exception {
+        return OrderQueries.loadPage(state.conn, DBQueries.WHERE_BUSINESS_STA,
+                new String[]{state.randomBusiness(), "1"}, 0, null, PAGE_SIZE, false);
+    }
+
+    /**
+     * 商家已处理订单列表的第一页（OrderDao.pageOrdersFinish，同时查询归档表）
+     */
+    @Benchmark
+    public List<OrderQueries.Order> businessFinishedFirstPage(ArchivedDatasetState state) throws Exception {
+        return OrderQueries.loadPage(state.conn, DBQueries.WHERE_BUSINESS_FINISH,
+                new String[]{state.randomBusiness(), "1"}, 0, null, PAGE_SIZE, true);
+    }
+
+    /**
+     * 用户全部订单列表的第一页（OrderDao.pageOrdersByUser，同时查询归档表）
+     */
+    @Benchmark
+    public List<OrderQueries.Order> userHistoryFirstPage(ArchivedDatasetState state) throws Exception {
+        return OrderQueries.loadPage(state.conn, DBQueries.WHERE_USER,
+                new String[]{state.randomUser()}, 0, null, PAGE_SIZE, true);
+    }
+
+    /**
+     * 商家已处理订单中按菜品名称搜索的第一页（同时匹配归档订单的全文索引）
+     */
+    @Benchmark
+    public List<OrderQueries.Order> businessSearchByFood(ArchivedDatasetState state) throws Exception {
+        return OrderQueries.searchPage(state.conn, DBQueries.WHERE_BUSINESS_FINISH,
+                new String[]{state.randomBusiness(), "1"}, "烤鸭", PAGE_SIZE, true);
+    }
+}
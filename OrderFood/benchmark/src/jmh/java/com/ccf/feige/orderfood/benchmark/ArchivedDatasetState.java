@@ -0,0 +1,42 @@
+package com.ccf.feige.orderfood.benchmark;
+
+import com.ccf.feige.orderfood.db.DBSchema;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.sql.Statement;
+
+/**
+ * 已归档的数据集状态：在数据集副本上按OrderArchive的SQL归档下单超过ARCHIVE_DAYS天的已完成订单，
+ * 订单主表只剩未完成和最近的订单，其余订单在归档表中
+ * 说明：数据集的订单分布在截止时间前180天内，归档30天以前的订单后约七成订单移入归档表
+ */
+@State(Scope.Benchmark)
+public class ArchivedDatasetState extends WritableDatasetState {
+
+    /** 归档期限（天），相对于数据集的截止时间 */
+    static final int ARCHIVE_DAYS = 30;
+
+    /**
+     * 归档（在DatasetState.open之后执行）
+     */
+    @Setup(Level.Trial)
+    public void archive() throws Exception {
+        // 缓存的数据集可能在新增归档表之前生成，这里补建（IF NOT EXISTS）
+        try (Statement st = conn.createStatement()) {
+            for (String sql : DBSchema.ARCHIVE_TABLES) {
+                st.execute(sql);
+            }
+        }
+        conn.commit();
+        OrderQueries.archive(conn, config.getEndTime() - ARCHIVE_DAYS * 24L * 60 * 60 * 1000);
+        try (Statement st = conn.createStatement()) {
+            // 与应用运行一段时间后的状态一致，查询优化器按归档后的分布选择索引
+            st.execute("PRAGMA optimize");
+        }
+        conn.commit();
+    }
+}
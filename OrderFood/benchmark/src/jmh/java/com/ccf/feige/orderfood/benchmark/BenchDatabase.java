@@ -0,0 +1,135 @@
+package com.ccf.feige.orderfood.benchmark;
+
+import com.ccf.feige.orderfood.db.DBSchema;
+import com.ccf.feige.orderfood.db.seed.SeedConfig;
+import com.ccf.feige.orderfood.db.seed.SeedGenerator;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * 基准测试数据库：按订单数量生成（并缓存）数据集文件，打开JDBC连接
+ * 核心功能：
+ * 1. 建表、建索引直接使用应用的DBSchema，与DBUntil.onCreate创建的表结构一致
+ * 2. 每个数据量只生成一次，写入bench.dataDir下的orders-<数量>.db，之后的运行直接复用（先写临时文件再改名，中断不会留下半成品）
+ * 3. 写操作基准测试使用数据集的副本，不修改缓存的数据集，保证每次运行的数据一致
+ * 数据内容：由应用的SeedGenerator生成（参数见SeedConfig.forOrders），商家、用户数量随订单数量增长；
+ * 随机数种子固定，同一数据量每次生成的内容相同
+ */
+final class BenchDatabase {
+
+    /** 数据集目录（由build.gradle.kts通过系统属性传入） */
+    private static final File DATA_DIR = new File(System.getProperty("bench.dataDir", "build/bench-data"));
+
+    private BenchDatabase() {
+    }
+
+    /**
+     * 数据集的生成参数（同一订单数量的参数和随机数种子固定，保证数据集可复现）
+     * @param orders 订单数量
+     * @return 生成参数
+     */
+    static SeedConfig config(int orders) {
+        return SeedConfig.forOrders(orders);
+    }
+
+    /**
+     * 打开指定订单数量的数据集（不存在时先生成）
+     * @param orders 订单数量
+     * @param writable true表示打开数据集的副本（写操作基准测试使用），false直接打开缓存的数据集
+     * @return JDBC连接（自动提交已关闭）
+     */
+    static Connection open(int orders, boolean writable) throws Exception {
+        File dataset = ensureDataset(orders);
+        File file = dataset;
+        if (writable) {
+            file = new File(DATA_DIR, "orders-" + orders + "-write.db");
+            Files.copy(dataset.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        Connection conn = connect(file);
+        conn.setAutoCommit(false);
+        return conn;
+    }
+
+    /**
+     * 获取指定订单数量的数据集文件，不存在时生成
+     * @param orders 订单数量
+     * @return 数据集文件
+     */
+    private static synchronized File ensureDataset(int orders) throws Exception {
+        File file = new File(DATA_DIR, "orders-" + orders + ".db");
+        if (file.exists()) {
+            return file;
+        }
+        if (!DATA_DIR.isDirectory() && !DATA_DIR.mkdirs()) {
+            throw new IOException("无法创建数据集目录：" + DATA_DIR);
+        }
+        File tmp = new File(DATA_DIR, "orders-" + orders + ".db.tmp");
+        Files.deleteIfExists(tmp.toPath());
+        try (Connection conn = connect(tmp)) {
+            conn.setAutoCommit(false);
+            createSchema(conn);
+            populate(conn, orders);
+            conn.commit();
+            try (Statement st = conn.createStatement()) {
+                // 统计信息与应用运行一段时间后的状态一致，查询优化器按真实分布选择索引
+                st.execute("PRAGMA optimize");
+            }
+            conn.commit();
+        }
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        return file;
+    }
+
+    /**
+     * 打开数据库文件
+     * @param file 数据库文件
+     * @return JDBC连接
+     */
+    private static Connection connect(File file) throws SQLException {
+        Connection conn = DriverManager.getConnection("jdbc:sqlite:" + file.getAbsolutePath());
+        try (Statement st = conn.createStatement()) {
+            // 与DBUntil一致开启WAL
+            st.execute("PRAGMA journal_mode=WAL");
+        }
+        return conn;
+    }
+
+    /**
+     * 创建全部表和索引（同DBUntil.onCreate中的建表顺序，含订单归档表，不插入内置测试数据）
+     * @param conn 数据库连接
+     */
+    static void createSchema(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            for (String sql : DBSchema.TABLES) {
+                st.execute(sql);
+            }
+            for (String sql : DBSchema.INDEXES) {
+                st.execute(sql);
+            }
+            for (String sql : DBSchema.DERIVED_TABLES) {
+                st.execute(sql);
+            }
+            for (String sql : DBSchema.ARCHIVE_TABLES) {
+                st.execute(sql);
+            }
+        }
+    }
+
+    /**
+     * 生成数据集（SeedGenerator：热门商家/招牌菜/老顾客倾斜、午晚餐高峰，全文索引与汇总表一并写入）
+     * @param conn 数据库连接（自动提交已关闭）
+     * @param orders 订单数量
+     */
+    private static void populate(Connection conn, int orders) throws Exception {
+        try (JdbcSeedSink sink = new JdbcSeedSink(conn)) {
+            new SeedGenerator(config(orders)).generate(sink);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.ccf.feige.orderfood.benchmark;
+
+import com.ccf.feige.orderfood.db.seed.SeedGenerator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 下单基准测试：订单主表、明细和订单全文索引在同一事务中写入并提交（OrderDao.placeOrder）
+ * 说明：使用数据集副本（WritableDatasetState），每次调用写入一个新订单，不影响缓存的数据集
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CheckoutBenchmark {
+
+    /** 每单菜品数量（购物车中常见的数量） */
+    private static final int ITEMS = 3;
+
+    /**
+     * 下单（3道菜）
+     */
+    @Benchmark
+    public void placeOrder(WritableDatasetState state) throws Exception {
+        long seq = state.sequence++;
+        int b = state.random.nextInt(state.config.getMerchants());
+        OrderQueries.Order order = new OrderQueries.Order("bench" + seq, state.config.getEndTime() + seq,
+                SeedGenerator.businessId(b), state.randomUser(), "benchd" + seq, 1, "张硕-12312312312-徐州市");
+        List<OrderQueries.Detail> details = new ArrayList<>(ITEMS);
+        for (int k = 0; k < ITEMS; k++) {
+            details.add(new OrderQueries.Detail(order.detailsId, SeedGenerator.foodId(b, k), "南京烤鸭",
+                    "招牌菜" + k, 1900, 1 + k, ""));
+        }
+        OrderQueries.placeOrder(state.conn, order, details);
+    }
+}
@@ -0,0 +1,91 @@
+package com.ccf.feige.orderfood.benchmark;
+
+import com.ccf.feige.orderfood.db.DBQueries;
+import com.ccf.feige.orderfood.db.seed.SeedConfig;
+import com.ccf.feige.orderfood.db.seed.SeedGenerator;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.sql.Connection;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 基准测试共用的数据集状态：按订单数量参数打开数据集，并准备查询用的商家、用户、边界订单
+ * 说明：orders参数默认1k/10万/100万三档，可通过 -PbenchOrders 覆盖；
+ * 子类WritableDatasetState打开数据集副本，供会写入数据的基准测试使用
+ */
+@State(Scope.Benchmark)
+public class DatasetState {
+
+    /** 数据集的订单数量 */
+    @Param({"1000", "100000", "1000000"})
+    public int orders;
+
+    /** 数据库连接 */
+    Connection conn;
+    /** 每次调用使用的随机数（固定种子） */
+    Random random;
+    /** 数据集的生成参数（商家、用户、菜品数量等） */
+    SeedConfig config;
+    /** 查询用的商家（订单最多的商家） */
+    String businessId;
+    /** 查询用的用户（订单最多的用户） */
+    String userId;
+    /** 滚动到列表中部时的边界订单（用于键集分页的下一页） */
+    OrderQueries.Order middleOrder;
+    /** 当前年月（数据集最后一个月，月销量查询使用） */
+    int yyyymm;
+
+    @Setup(Level.Trial)
+    public void open() throws Exception {
+        conn = BenchDatabase.open(orders, writable());
+        config = BenchDatabase.config(orders);
+        random = new Random(42);
+        // 热度排名第0的商家/用户订单最多（SeedGenerator按Zipf分布生成）
+        businessId = SeedGenerator.businessId(0);
+        userId = SeedGenerator.userId(0);
+        yyyymm = OrderQueries.toYearMonth(config.getEndTime() - 1);
+        // 取商家已处理订单列表的第5页最后一个订单作为边界，模拟向下滚动后的加载
+        List<OrderQueries.Order> page = OrderQueries.loadOrders(conn, DBQueries.WHERE_BUSINESS_FINISH,
+                new String[]{businessId, "1"}, 100);
+        middleOrder = page.isEmpty() ? null : page.get(page.size() - 1);
+        conn.commit();
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws Exception {
+        if (conn != null) {
+            conn.close();
+        }
+    }
+
+    /**
+     * 是否打开数据集副本（会写入数据的基准测试返回true）
+     * @return false表示直接打开缓存的数据集
+     */
+    boolean writable() {
+        return false;
+    }
+
+    /**
+     * 随机取一个商家
+     * @return 商家ID
+     */
+    String randomBusiness() {
+        return SeedGenerator.businessId(random.nextInt(config.getMerchants()));
+    }
+
+    /**
+     * 随机取一个用户
+     * @return 用户ID
+     */
+    String randomUser() {
+        return SeedGenerator.userId(random.nextInt(config.getCustomers()));
+    }
+}
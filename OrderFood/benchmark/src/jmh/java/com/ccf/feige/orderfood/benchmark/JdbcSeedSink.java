@@ -0,0 +1,57 @@
+package com.ccf.feige.orderfood.benchmark;
+
+import com.ccf.feige.orderfood.db.seed.SeedSink;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 测试数据写入JDBC连接（生成基准测试数据集时使用，对应应用中的SQLiteSeedSink）
+ * 说明：连接需关闭自动提交，按SQL文本缓存预编译语句，逐行执行（全文索引行按订单ID回查rowid，不能延后批量执行）
+ */
+final class JdbcSeedSink implements SeedSink, AutoCloseable {
+
+    private final Connection conn;
+    private final Map<String, PreparedStatement> statements = new HashMap<>();
+
+    JdbcSeedSink(Connection conn) {
+        this.conn = conn;
+    }
+
+    @Override
+    public void insert(String sql, Object[] args) throws SQLException {
+        PreparedStatement ps = statements.get(sql);
+        if (ps == null) {
+            ps = conn.prepareStatement(sql);
+            statements.put(sql, ps);
+        }
+        for (int i = 0; i < args.length; i++) {
+            ps.setObject(i + 1, args[i]);
+        }
+        ps.executeUpdate();
+    }
+
+    @Override
+    public void execute(String sql) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            st.execute(sql);
+        }
+    }
+
+    @Override
+    public void commit() throws SQLException {
+        conn.commit();
+    }
+
+    @Override
+    public void close() throws SQLException {
+        for (PreparedStatement ps : statements.values()) {
+            ps.close();
+        }
+        statements.clear();
+    }
+}
@@ -0,0 +1,74 @@
+package com.ccf.feige.orderfood.benchmark;
+
+import com.ccf.feige.orderfood.db.DBQueries;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 订单列表基准测试：一页订单的查询与装配（主表 + 用户昵称 + 批量明细）以及订单关键词搜索
+ * 对应界面：商家未处理/已处理订单列表、用户订单列表的首页和滚动加载（OrderPager → OrderPagingSource）、
+ * 订单搜索框（全文索引，替代原Tools.filterOrder的全量加载后内存过滤）
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OrderListBenchmark {
+
+    /** 每页条数（同OrderPagingSource.DEFAULT_PAGE_SIZE） */
+    private static final int PAGE_SIZE = 20;
+
+    /**
+     * 商家未处理订单列表的第一页
+     */
+    @Benchmark
+    public List<OrderQueries.Order> businessPendingFirstPage(DatasetState state) throws Exception {
+        return OrderQueries.loadPage(state.conn, DBQueries.WHERE_BUSINESS_STA,
+                new String[]{state.randomBusiness(), "1"}, 0, null, PAGE_SIZE);
+    }
+
+    /**
+     * 商家已处理订单列表滚动到第5页之后的下一页（键集分页）
+     */
+    @Benchmark
+    public List<OrderQueries.Order> businessFinishedOlderPage(DatasetState state) throws Exception {
+        OrderQueries.Order boundary = state.middleOrder;
+        if (boundary == null) {
+            return OrderQueries.loadPage(state.conn, DBQueries.WHERE_BUSINESS_FINISH,
+                    new String[]{state.businessId, "1"}, 0, null, PAGE_SIZE);
+        }
+        return OrderQueries.loadPage(state.conn, DBQueries.WHERE_BUSINESS_FINISH,
+                new String[]{state.businessId, "1"}, boundary.time, boundary.orderId, PAGE_SIZE);
+    }
+
+    /**
+     * 用户全部订单列表的第一页
+     */
+    @Benchmark
+    public List<OrderQueries.Order> userHistoryFirstPage(DatasetState state) throws Exception {
+        return OrderQueries.loadPage(state.conn, DBQueries.WHERE_USER,
+                new String[]{state.randomUser()}, 0, null, PAGE_SIZE);
+    }
+
+    /**
+     * 商家已处理订单中按菜品名称搜索（中文短语匹配）的第一页
+     */
+    @Benchmark
+    public List<OrderQueries.Order> businessSearchByFood(DatasetState state) throws Exception {
+        return OrderQueries.searchPage(state.conn, DBQueries.WHERE_BUSINESS_FINISH,
+                new String[]{state.randomBusiness(), "1"}, "烤鸭", PAGE_SIZE);
+    }
+
+    /**
+     * 用户订单中按菜品名称搜索的第一页
+     */
+    @Benchmark
+    public List<OrderQueries.Order> userSearchByFood(DatasetState state) throws Exception {
+        return OrderQueries.searchPage(state.conn, DBQueries.WHERE_USER,
+                new String[]{state.randomUser()}, "汤包", PAGE_SIZE);
+    }
+}
@@ -0,0 +1,526 @@
+package com.ccf.feige.orderfood.benchmark;
+
+import com.ccf.feige.orderfood.db.DBQueries;
+import com.ccf.feige.orderfood.until.SearchTokens;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 基准测试使用的DAO查询（JDBC版本）
+ * 说明：应用中的DAO依赖android.database，无法在普通JVM上加载；SQL文本与应用共用DBQueries（benchmark模块直接编译该类），
+ * 这里只按对应DAO方法的执行步骤绑定参数、读取结果，每个方法的注释都写明了对应的DAO方法；
+ * 参数与Android的rawQuery一样按字符串绑定（由列的INTEGER亲和性在比较时转换），与应用的执行计划一致
+ */
+final class OrderQueries {
+
+    /** 可归档的订单状态（同OrderArchive.ARCHIVED_STATES） */
+    private static final String[] ARCHIVED_STATES = {"3", "4"};
+
+    private OrderQueries() {
+    }
+
+    /**
+     * 订单（对应OrderBean中基准测试用到的字段）
+     */
+    static final class Order {
+        final String orderId;
+        final long time;
+        final String businessId;
+        final String userId;
+        final String detailsId;
+        final int sta;
+        final String address;
+        String userName;
+        List<Detail> details = new ArrayList<>();
+
+        Order(String orderId, long time, String businessId, String userId, String detailsId, int sta, String address) {
+            this.orderId = orderId;
+            this.time = time;
+            this.businessId = businessId;
+            this.userId = userId;
+            this.detailsId = detailsId;
+            this.sta = sta;
+            this.address = address;
+        }
+    }
+
+    /**
+     * 订单明细（对应OrderDetailBean）
+     */
+    static final class Detail {
+        final String detailsId;
+        final String foodId;
+        final String foodName;
+        final String foodDes;
+        final long priceCents;
+        final int num;
+        final String img;
+
+        Detail(String detailsId, String foodId, String foodName, String foodDes, long priceCents, int num, String img) {
+            this.detailsId = detailsId;
+            this.foodId = foodId;
+            this.foodName = foodName;
+            this.foodDes = foodDes;
+            this.priceCents = priceCents;
+            this.num = num;
+            this.img = img;
+        }
+    }
+
+    /**
+     * 加载一页订单并装配明细（同OrderPagingSource.loadFirst/loadOlderThan → OrderRepository.loadOrders）
+     * @param conn 数据库连接
+     * @param where 筛选条件（使用别名o）
+     * @param args 筛选条件参数
+     * @param beforeTime 边界订单时间，beforeId为null时表示第一页
+     * @param beforeId 边界订单ID
+     * @param pageSize 每页条数
+     * @return 装配完成的订单列表
+     */
+    static List<Order> loadPage(Connection conn, String where, String[] args,
+                                long beforeTime, String beforeId, int pageSize) throws SQLException {
+        return loadPage(conn, where, args, beforeTime, beforeId, pageSize, false);
+    }
+
+    /**
+     * 加载一页订单并装配明细，可同时查询归档表（同OrderPagingSource的includeArchive）
+     * @param conn 数据库连接
+     * @param where 筛选条件（使用别名o）
+     * @param args 筛选条件参数
+     * @param beforeTime 边界订单时间，beforeId为null时表示第一页
+     * @param beforeId 边界订单ID
+     * @param pageSize 每页条数
+     * @param includeArchive true同时查询归档表（历史列表）
+     * @return 装配完成的订单列表
+     */
+    static List<Order> loadPage(Connection conn, String where, String[] args, long beforeTime, String beforeId,
+                                int pageSize, boolean includeArchive) throws SQLException {
+        String pageWhere = where;
+        String[] pageArgs = args;
+        if (beforeId != null) {
+            pageWhere = where + " and " + DBQueries.OLDER_THAN;
+            pageArgs = new String[args.length + 2];
+            System.arraycopy(args, 0, pageArgs, 0, args.length);
+            pageArgs[args.length] = String.valueOf(beforeTime);
+            pageArgs[args.length + 1] = beforeId;
+        }
+        return loadOrders(conn, pageWhere, pageArgs, pageSize, includeArchive);
+    }
+
+    /**
+     * 按条件加载订单并批量装配明细（同OrderRepository.loadOrders）
+     * @param conn 数据库连接
+     * @param where 筛选条件（使用别名o）
+     * @param args 筛选条件参数
+     * @param limit 条数，小于等于0表示全部
+     * @return 装配完成的订单列表
+     */
+    static List<Order> loadOrders(Connection conn, String where, String[] args, int limit) throws SQLException {
+        return loadOrders(conn, where, args, limit, false);
+    }
+
+    /**
+     * 按条件加载订单并批量装配明细，可同时查询归档表（同OrderRepository.loadOrders的includeArchive，UNION ALL按时间合并）
+     * @param conn 数据库连接
+     * @param where 筛选条件（使用别名o）
+     * @param args 筛选条件参数
+     * @param limit 条数，小于等于0表示全部
+     * @param includeArchive true同时查询归档表
+     * @return 装配完成的订单列表
+     */
+    static List<Order> loadOrders(Connection conn, String where, String[] args, int limit, boolean includeArchive)
+            throws SQLException {
+        StringBuilder sql = new StringBuilder(DBQueries.SELECT_ORDERS).append(" where ").append(where);
+        if (includeArchive) {
+            sql.append(" union all ").append(DBQueries.SELECT_ARCHIVE_ORDERS).append(" where ").append(where)
+                    .append(DBQueries.UNION_ORDER_BY_TIME_DESC);
+        } else {
+            sql.append(DBQueries.ORDER_BY_TIME_DESC);
+        }
+        if (limit > 0) {
+            sql.append(" LIMIT ").append(limit).append(" OFFSET 0");
+        }
+        List<Order> orders = new ArrayList<>();
+        try (PreparedStatement ps = conn.prepareStatement(sql.toString())) {
+            bindStrings(ps, 1, args);
+            if (includeArchive) {
+                bindStrings(ps, 1 + args.length, args);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    Order order = new Order(rs.getString("s_order_id"), rs.getLong("s_order_time"),
+                            rs.getString("s_business_id"), rs.getString("s_user_id"),
+                            rs.getString("s_order_details_id"), rs.getInt("s_order_sta"),
+                            rs.getString("s_order_address"));
+                    order.userName = rs.getString("u_name");
+                    orders.add(order);
+                }
+            }
+        }
+        attachOrderDetails(conn, orders);
+        return orders;
+    }
+
+    /**
+     * 批量装配订单明细：先查明细行（订单主表中查不到的再查归档明细表），再按去重后的快照ID查询菜品快照
+     * （同OrderRepository.attachOrderDetails/getOrderDetailsByIds）
+     * @param conn 数据库连接
+     * @param orders 待装配的订单
+     */
+    static void attachOrderDetails(Connection conn, List<Order> orders) throws SQLException {
+        Set<String> idSet = new LinkedHashSet<>();
+        for (Order order : orders) {
+            if (order.detailsId != null && !order.detailsId.isEmpty()) {
+                idSet.add(order.detailsId);
+            }
+        }
+        if (idSet.isEmpty()) {
+            return;
+        }
+        List<String> ids = new ArrayList<>(idSet);
+        // 第一步：明细行（详情ID、菜品ID、数量）及其引用的快照ID，先查订单主表的明细，剩余的详情ID再查归档明细表
+        List<Detail> rows = new ArrayList<>();
+        List<Long> snapshotIds = new ArrayList<>();
+        Set<Long> snapshotIdSet = new LinkedHashSet<>();
+        for (String table : DBQueries.DETAIL_TABLES) {
+            if (ids.isEmpty()) {
+                break;
+            }
+            Set<String> found = new HashSet<>();
+            for (int start = 0; start < ids.size(); start += DBQueries.MAX_IN_ARGS) {
+                List<String> batch = ids.subList(start, Math.min(start + DBQueries.MAX_IN_ARGS, ids.size()));
+                try (PreparedStatement ps = conn.prepareStatement(DBQueries.selectDetailRows(table, batch.size()))) {
+                    bindStrings(ps, 1, batch.toArray(new String[0]));
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            rows.add(new Detail(rs.getString("s_details_id"), rs.getString("s_food_id"), null, null, 0,
+                                    rs.getInt("s_food_num"), null));
+                            found.add(rs.getString("s_details_id"));
+                            long snapshotId = rs.getLong("s_snapshot_id");
+                            snapshotIds.add(snapshotId);
+                            snapshotIdSet.add(snapshotId);
+                        }
+                    }
+                }
+            }
+            List<String> remaining = new ArrayList<>();
+            for (String id : ids) {
+                if (!found.contains(id)) {
+                    remaining.add(id);
+                }
+            }
+            ids = remaining;
+        }
+        // 第二步：按快照ID批量查询菜品内容（同OrderRepository.getSnapshotsByIds）
+        Map<Long, Detail> snapshots = new HashMap<>();
+        List<Long> snapshotList = new ArrayList<>(snapshotIdSet);
+        for (int start = 0; start < snapshotList.size(); start += DBQueries.MAX_IN_ARGS) {
+            List<Long> batch = snapshotList.subList(start, Math.min(start + DBQueries.MAX_IN_ARGS, snapshotList.size()));
+            String[] args = new String[batch.size()];
+            for (int i = 0; i < args.length; i++) {
+                args[i] = String.valueOf(batch.get(i));
+            }
+            try (PreparedStatement ps = conn.prepareStatement(DBQueries.selectSnapshots(batch.size()))) {
+                bindStrings(ps, 1, args);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        snapshots.put(rs.getLong("s_snapshot_id"), new Detail(null, null, rs.getString("s_food_name"),
+                                rs.getString("s_food_des"), rs.getLong("s_food_price"), 0, rs.getString("s_food_img")));
+                    }
+                }
+            }
+        }
+        Map<String, List<Detail>> detailMap = new HashMap<>();
+        for (int i = 0; i < rows.size(); i++) {
+            Detail row = rows.get(i);
+            Detail snapshot = snapshots.get(snapshotIds.get(i));
+            Detail detail = snapshot == null ? row : new Detail(row.detailsId, row.foodId, snapshot.foodName,
+                    snapshot.foodDes, snapshot.priceCents, row.num, snapshot.img);
+            List<Detail> list = detailMap.get(row.detailsId);
+            if (list == null) {
+                list = new ArrayList<>();
+                detailMap.put(row.detailsId, list);
+            }
+            list.add(detail);
+        }
+        for (Order order : orders) {
+            List<Detail> details = detailMap.get(order.detailsId);
+            if (details != null) {
+                order.details = details;
+            }
+        }
+    }
+
+    /**
+     * 订单关键词搜索的第一页：全文索引取订单ID后装配订单（同OrderPagingSource带关键词时的load
+     * → OrderRepository.searchOrderIds + loadOrdersByIds；原Tools.filterOrder的内存过滤已由此替代）
+     * @param conn 数据库连接
+     * @param where 筛选条件（使用别名o）
+     * @param args 筛选条件参数
+     * @param query 用户输入的关键词
+     * @param pageSize 每页条数
+     * @return 装配完成的订单列表
+     */
+    static List<Order> searchPage(Connection conn, String where, String[] args, String query, int pageSize)
+            throws SQLException {
+        return searchPage(conn, where, args, query, pageSize, false);
+    }
+
+    /**
+     * 订单关键词搜索的第一页，可同时匹配归档订单的全文索引（同OrderRepository.searchOrderIds的includeArchive）
+     * @param conn 数据库连接
+     * @param where 筛选条件（使用别名o）
+     * @param args 筛选条件参数
+     * @param query 用户输入的关键词
+     * @param pageSize 每页条数
+     * @param includeArchive true同时匹配d_orders_archive_fts
+     * @return 装配完成的订单列表
+     */
+    static List<Order> searchPage(Connection conn, String where, String[] args, String query, int pageSize,
+                                  boolean includeArchive) throws SQLException {
+        String match = SearchTokens.toFtsMatchQuery(query);
+        if (match == null) {
+            return loadPage(conn, where, args, 0, null, pageSize, includeArchive);
+        }
+        StringBuilder sql = new StringBuilder(DBQueries.SELECT_SEARCH).append(" and ").append(where);
+        if (includeArchive) {
+            sql.append(" union all ").append(DBQueries.SELECT_ARCHIVE_SEARCH).append(" and ").append(where)
+                    .append(DBQueries.UNION_ORDER_BY_TIME_DESC);
+        } else {
+            sql.append(DBQueries.ORDER_BY_TIME_DESC);
+        }
+        sql.append(" LIMIT ").append(pageSize);
+        List<String> ids = new ArrayList<>();
+        try (PreparedStatement ps = conn.prepareStatement(sql.toString())) {
+            ps.setString(1, match);
+            bindStrings(ps, 2, args);
+            if (includeArchive) {
+                ps.setString(2 + args.length, match);
+                bindStrings(ps, 3 + args.length, args);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getString(1));
+                }
+            }
+        }
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return loadOrders(conn, DBQueries.whereOrderIdIn(ids.size()), ids.toArray(new String[0]), 0,
+                includeArchive);
+    }
+
+    /**
+     * 归档下单时间早于cutoffTime的全部已完成订单，每批一个事务（同OrderArchive.archiveBefore/archiveBatch）
+     * @param conn 数据库连接（自动提交已关闭）
+     * @param cutoffTime 归档时间界限（毫秒）
+     * @return 归档的订单数
+     */
+    static int archive(Connection conn, long cutoffTime) throws SQLException {
+        int total = 0;
+        for (String sta : ARCHIVED_STATES) {
+            int moved;
+            do {
+                moved = archiveBatch(conn, sta, cutoffTime);
+                total += moved;
+            } while (moved > 0);
+        }
+        return total;
+    }
+
+    /**
+     * 归档指定状态中最旧的一批订单（同OrderArchive.archiveBatch）
+     */
+    private static int archiveBatch(Connection conn, String sta, long cutoffTime) throws SQLException {
+        try {
+            // 本批的时间上界：第DBQueries.ARCHIVE_BATCH_SIZE个订单的下单时间，不足一批时为归档界限本身
+            long bound = cutoffTime - 1;
+            try (PreparedStatement ps = conn.prepareStatement(DBQueries.SELECT_ARCHIVE_BATCH_BOUND)) {
+                bindStrings(ps, 1, new String[]{sta, String.valueOf(cutoffTime)});
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (rs.next()) {
+                        bound = Math.min(bound, rs.getLong(1));
+                    }
+                }
+            }
+            int moved = 0;
+            for (String sql : DBQueries.ARCHIVE_STATEMENTS) {
+                try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                    ps.setString(1, sta);
+                    ps.setLong(2, bound);
+                    moved = ps.executeUpdate();
+                }
+            }
+            conn.commit();
+            // 最后一条语句（删除订单主表）的影响行数即本批归档的订单数
+            return moved;
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        }
+    }
+
+    /**
+     * 查询菜品当月销量（同FoodDao.getMouSalesNum）
+     * @param conn 数据库连接
+     * @param foodId 菜品ID
+     * @param yyyymm 年月
+     * @return 销量，无记录时返回0
+     */
+    static int monthlySales(Connection conn, String foodId, int yyyymm) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(DBQueries.SELECT_MONTHLY_SALES)) {
+            bindStrings(ps, 1, new String[]{foodId, String.valueOf(yyyymm), "0", "0"});
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+
+    /**
+     * 查询商家平均评分（同CommentDao.getAvgScoreBusiness未命中内存缓存时的查询）
+     * @param conn 数据库连接
+     * @param businessId 商家ID
+     * @return 平均评分字符串，无评论时返回"0"
+     */
+    static String avgScore(Connection conn, String businessId) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(DBQueries.SELECT_BUSINESS_RATING)) {
+            ps.setString(1, businessId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    long sum = rs.getLong(1);
+                    int count = rs.getInt(2);
+                    if (count > 0) {
+                        return String.valueOf((double) sum / count);
+                    }
+                }
+            }
+        }
+        return "0";
+    }
+
+    /**
+     * 下单：订单主表、全部明细（引用菜品快照）和订单全文索引在同一事务中写入（同OrderDao.placeOrder/insertDetail/insertSearchIndex）
+     * @param conn 数据库连接（自动提交已关闭）
+     * @param order 订单主表信息
+     * @param details 订单明细
+     */
+    static void placeOrder(Connection conn, Order order, List<Detail> details) throws SQLException {
+        try {
+            try (PreparedStatement ps = conn.prepareStatement(DBQueries.INSERT_ORDER)) {
+                ps.setString(1, order.orderId);
+                ps.setLong(2, order.time);
+                ps.setString(3, order.businessId);
+                ps.setString(4, order.userId);
+                ps.setString(5, order.detailsId);
+                ps.setInt(6, order.sta);
+                ps.setString(7, order.address);
+                ps.executeUpdate();
+            }
+            try (PreparedStatement ps = conn.prepareStatement(DBQueries.INSERT_ORDER_DETAIL)) {
+                for (Detail detail : details) {
+                    ps.setString(1, order.detailsId);
+                    ps.setString(2, detail.foodId);
+                    ps.setLong(3, getOrCreateSnapshot(conn, detail));
+                    ps.setInt(4, detail.num);
+                    ps.executeUpdate();
+                }
+            }
+            String userName = null;
+            try (PreparedStatement ps = conn.prepareStatement(DBQueries.SELECT_ORDER_USER_NAME)) {
+                ps.setString(1, order.userId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (rs.next()) {
+                        userName = rs.getString(1);
+                    }
+                }
+            }
+            StringBuilder foodNames = new StringBuilder();
+            for (Detail detail : details) {
+                foodNames.append(detail.foodName).append(' ');
+            }
+            try (PreparedStatement ps = conn.prepareStatement(DBQueries.INSERT_ORDER_SEARCH_INDEX)) {
+                ps.setString(1, SearchTokens.toSearchTokens(userName));
+                ps.setString(2, SearchTokens.toSearchTokens(foodNames.toString()));
+                ps.setString(3, order.orderId);
+                ps.executeUpdate();
+            }
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        }
+    }
+
+    /**
+     * 获取明细内容对应的菜品快照ID，没有相同内容的版本时新增一个版本（同FoodDao.getOrCreateSnapshot）
+     */
+    private static long getOrCreateSnapshot(Connection conn, Detail detail) throws SQLException {
+        String[] content = {nonNull(detail.foodId), nonNull(detail.foodName), nonNull(detail.foodDes),
+                String.valueOf(detail.priceCents), nonNull(detail.img)};
+        long id = findSnapshot(conn, content);
+        if (id > 0) {
+            return id;
+        }
+        try (PreparedStatement ps = conn.prepareStatement(DBQueries.INSERT_SNAPSHOT_VERSION)) {
+            ps.setString(1, content[0]);
+            ps.setString(2, content[1]);
+            ps.setString(3, content[2]);
+            ps.setLong(4, detail.priceCents);
+            ps.setString(5, content[4]);
+            ps.setString(6, content[0]);
+            ps.executeUpdate();
+        }
+        return findSnapshot(conn, content);
+    }
+
+    /**
+     * 按内容查找菜品的快照版本（同FoodDao.findSnapshot）
+     */
+    private static long findSnapshot(Connection conn, String[] content) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(DBQueries.FIND_SNAPSHOT)) {
+            bindStrings(ps, 1, content);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+    }
+
+    private static String nonNull(String value) {
+        return value == null ? "" : value;
+    }
+
+    /**
+     * 计算本地时区的年月（同Tools.toYearMonth）
+     * @param millis 时间戳毫秒
+     * @return 年*100+月，如202403
+     */
+    static int toYearMonth(long millis) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTimeInMillis(millis);
+        return calendar.get(Calendar.YEAR) * 100 + calendar.get(Calendar.MONTH) + 1;
+    }
+
+    /**
+     * 按字符串绑定参数（与Android的rawQuery(sql, String[])一致）
+     * @param ps 预编译语句
+     * @param first 第一个参数的位置（从1开始）
+     * @param args 参数
+     */
+    private static void bindStrings(PreparedStatement ps, int first, String[] args) throws SQLException {
+        for (int i = 0; i < args.length; i++) {
+            ps.setString(first + i, args[i]);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.ccf.feige.orderfood.benchmark;
+
+import com.ccf.feige.orderfood.db.DBSchema;
+import com.ccf.feige.orderfood.db.seed.BuiltinSeed;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+
+/**
+ * 预置数据库生成工具：生成应用首次启动时直接复制使用的assets/seed/db_takeaway.db，并为内置图片生成列表缩略图
+ * 运行：./gradlew :benchmark:buildSeedAsset（修改表结构、DBSchema.VERSION或内置初始化数据后重新运行，并提交生成的文件）
+ * 说明：
+ * 1. 建表、建索引使用应用的DBSchema（同BenchDatabase.createSchema），内置数据使用应用的BuiltinSeed，与DBUntil.onCreate写入的内容一致
+ * 2. 图片路径以BuiltinSeed.ASSET_IMAGE_DIR开头，安装时由SeedAssetInstaller替换为实际目录
+ * 3. user_version设为DBSchema.VERSION（SQLiteOpenHelper打开时不再执行onCreate），日志模式为DELETE（单个文件，应用打开后切换为WAL），
+ *    最后VACUUM压缩文件
+ * 4. 内置图片长边超过1080px时按应用保存图片的尺寸缩小（FileImgUntil.MAX_IMAGE_SIZE），并生成长边240px的_thumb缩略图（FileImgUntil.THUMB_SIZE），
+ *    应用中直接复制，无需解码/重新编码
+ */
+public final class SeedAssetBuilder {
+
+    /** 同FileImgUntil.MAX_IMAGE_SIZE */
+    private static final int MAX_IMAGE_SIZE = 1080;
+    /** 同FileImgUntil.THUMB_SIZE */
+    private static final int THUMB_SIZE = 240;
+    /** 同FileImgUntil.THUMB_MARK */
+    private static final String THUMB_MARK = "_thumb";
+    private static final float IMAGE_QUALITY = 0.85f;
+    private static final float THUMB_QUALITY = 0.75f;
+
+    private SeedAssetBuilder() {
+    }
+
+    /**
+     * @param args args[0]：输出目录（app/src/main/assets/seed）
+     */
+    public static void main(String[] args) throws Exception {
+        File seedDir = new File(args[0]);
+        buildImages(new File(seedDir, "images"));
+        File database = new File(seedDir, "db_takeaway.db");
+        buildDatabase(database);
+        System.out.println("预置数据库：" + database.getAbsolutePath() + "（" + database.length() + "字节）");
+    }
+
+    /**
+     * 生成预置数据库（先写临时文件，完成后替换）
+     * @param target 输出文件
+     */
+    static void buildDatabase(File target) throws Exception {
+        File tmp = new File(target.getPath() + ".tmp");
+        Files.deleteIfExists(tmp.toPath());
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + tmp.getAbsolutePath())) {
+            conn.setAutoCommit(false);
+            BenchDatabase.createSchema(conn);
+            try (JdbcSeedSink sink = new JdbcSeedSink(conn)) {
+                BuiltinSeed.write(sink, BuiltinSeed.ASSET_IMAGE_DIR);
+            }
+            conn.commit();
+            conn.setAutoCommit(true);
+            try (Statement st = conn.createStatement()) {
+                st.execute("PRAGMA user_version = " + DBSchema.VERSION);
+                st.execute("PRAGMA journal_mode = DELETE");
+                st.execute("VACUUM");
+            }
+        }
+        Files.move(tmp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * 缩小过大的内置图片，并为每张图片生成缩略图
+     * @param dir 内置图片目录
+     */
+    static void buildImages(File dir) throws IOException {
+        File[] files = dir.listFiles((d, name) -> name.endsWith(".jpg") && !name.contains(THUMB_MARK + "."));
+        if (files == null) {
+            throw new IOException("内置图片目录不存在：" + dir);
+        }
+        for (File file : files) {
+            BufferedImage image = ImageIO.read(file);
+            if (Math.max(image.getWidth(), image.getHeight()) > MAX_IMAGE_SIZE) {
+                image = scaleDown(image, MAX_IMAGE_SIZE);
+                writeJpeg(image, IMAGE_QUALITY, file);
+            }
+            String name = file.getName();
+            File thumb = new File(dir, name.substring(0, name.lastIndexOf('.')) + THUMB_MARK + ".jpg");
+            writeJpeg(scaleDown(image, THUMB_SIZE), THUMB_QUALITY, thumb);
+        }
+    }
+
+    /**
+     * 按长边等比缩小图片（同FileImgUntil.scaleDown），长边不超过maxSize时返回原图
+     */
+    private static BufferedImage scaleDown(BufferedImage image, int maxSize) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int longest = Math.max(width, height);
+        if (longest <= maxSize) {
+            return image;
+        }
+        float scale = maxSize / (float) longest;
+        int w = Math.max(1, Math.round(width * scale));
+        int h = Math.max(1, Math.round(height * scale));
+        BufferedImage scaled = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = scaled.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(image, 0, 0, w, h, null);
+        } finally {
+            g.dispose();
+        }
+        return scaled;
+    }
+
+    /**
+     * 按指定质量写出JPEG（先写临时文件再替换）
+     */
+    private static void writeJpeg(BufferedImage image, float quality, File target) throws IOException {
+        File tmp = new File(target.getPath() + ".tmp");
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(tmp)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        Files.move(tmp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
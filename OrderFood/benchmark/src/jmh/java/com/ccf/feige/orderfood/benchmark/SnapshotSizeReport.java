@@ -0,0 +1,106 @@
+package com.ccf.feige.orderfood.benchmark;
+
+import com.ccf.feige.orderfood.db.DBSchema;
+import com.ccf.feige.orderfood.db.seed.SeedGenerator;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * 订单明细存储体积对比工具：同一份生成数据分别按菜品快照结构（当前DBSchema）和旧的宽表结构（每行明细复制菜品名称/描述/单价/图片）保存，
+ * 输出VACUUM后的数据库文件大小
+ * 运行：./gradlew :benchmark:snapshotSizeReport（-PbenchOrders=1000,100000 指定订单数量，默认1万/10万）
+ * 说明：旧结构由快照结构的数据按快照ID联表还原（同迁移41之前的d_order_details），两份数据内容完全一致，只有明细的存储方式不同
+ */
+public final class SnapshotSizeReport {
+
+    /** 迁移41之前的订单详情表 */
+    private static final String CREATE_LEGACY_DETAILS = "create table d_order_details_legacy(s_details_id varchar(30), " +
+            "s_food_id varchar(20), s_food_name varchar(20), s_food_des varchar(200), s_food_price INTEGER DEFAULT 0, " +
+            "s_food_num INTEGER DEFAULT 0, s_food_img varchar(255))";
+
+    private SnapshotSizeReport() {
+    }
+
+    /**
+     * @param args args[0]：输出目录；args[1]（可选）：逗号分隔的订单数量
+     */
+    public static void main(String[] args) throws Exception {
+        File dir = new File(args[0]);
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IllegalStateException("无法创建输出目录：" + dir);
+        }
+        String orders = args.length > 1 && !args[1].isEmpty() ? args[1] : "10000,100000";
+        for (String value : orders.split(",")) {
+            report(dir, Integer.parseInt(value.trim()));
+        }
+    }
+
+    /**
+     * 生成一份数据集并输出两种结构的文件大小
+     * @param dir 输出目录
+     * @param orders 订单数量
+     */
+    private static void report(File dir, int orders) throws Exception {
+        File snapshot = new File(dir, "snapshot-" + orders + ".db");
+        File legacy = new File(dir, "legacy-" + orders + ".db");
+        Files.deleteIfExists(snapshot.toPath());
+        Files.deleteIfExists(legacy.toPath());
+
+        long details;
+        long snapshots;
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + snapshot.getAbsolutePath())) {
+            conn.setAutoCommit(false);
+            BenchDatabase.createSchema(conn);
+            try (JdbcSeedSink sink = new JdbcSeedSink(conn)) {
+                new SeedGenerator(BenchDatabase.config(orders)).generate(sink);
+            }
+            conn.commit();
+            conn.setAutoCommit(true);
+            details = count(conn, "select count(*) from d_order_details");
+            snapshots = count(conn, "select count(*) from d_food_snapshot");
+            vacuum(conn);
+        }
+
+        Files.copy(snapshot.toPath(), legacy.toPath());
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + legacy.getAbsolutePath())) {
+            conn.setAutoCommit(false);
+            try (Statement st = conn.createStatement()) {
+                st.execute(CREATE_LEGACY_DETAILS);
+                st.execute("insert into d_order_details_legacy select d.s_details_id, d.s_food_id, s.s_food_name, " +
+                        "s.s_food_des, s.s_food_price, d.s_food_num, s.s_food_img from d_order_details d " +
+                        "left join d_food_snapshot s on s.s_snapshot_id = d.s_snapshot_id");
+                st.execute("drop table d_order_details");
+                st.execute("drop table d_food_snapshot");
+                st.execute("alter table d_order_details_legacy rename to d_order_details");
+                for (String sql : DBSchema.INDEXES) {
+                    st.execute(sql);
+                }
+            }
+            conn.commit();
+            conn.setAutoCommit(true);
+            vacuum(conn);
+        }
+
+        System.out.printf("%d订单 / %d明细 / %d快照：宽表%,d字节，快照%,d字节（%.1f%%）%n", orders, details, snapshots,
+                legacy.length(), snapshot.length(), 100.0 * snapshot.length() / legacy.length());
+    }
+
+    private static long count(Connection conn, String sql) throws SQLException {
+        try (Statement st = conn.createStatement(); ResultSet rs = st.executeQuery(sql)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    private static void vacuum(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            st.execute("PRAGMA journal_mode = DELETE");
+            st.execute("VACUUM");
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.ccf.feige.orderfood.benchmark;
+
+import com.ccf.feige.orderfood.db.seed.SeedGenerator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 汇总数据基准测试：菜品月销量、商家平均评分
+ * 对应界面：商家首页/用户购买页的菜品列表（每个菜品显示当月销量）、用户首页商品列表（每行显示商家评分，
+ * 此处测量的是CommentDao内存缓存未命中时的数据库查询）
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SummaryBenchmark {
+
+    /**
+     * 一个商家全部菜品的当月销量（一屏菜品列表）
+     */
+    @Benchmark
+    public void monthlySalesForMenu(DatasetState state, Blackhole blackhole) throws Exception {
+        int b = state.random.nextInt(state.config.getMerchants());
+        for (int f = 0; f < state.config.getDishesPerMerchant(); f++) {
+            blackhole.consume(OrderQueries.monthlySales(state.conn, SeedGenerator.foodId(b, f), state.yyyymm));
+        }
+    }
+
+    /**
+     * 单个商家的平均评分
+     */
+    @Benchmark
+    public String businessRatingAverage(DatasetState state) throws Exception {
+        return OrderQueries.avgScore(state.conn, state.randomBusiness());
+    }
+}
@@ -0,0 +1,19 @@
+package com.ccf.feige.orderfood.benchmark;
+
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * 可写的数据集状态：打开缓存数据集的副本，写入的数据不会影响其他基准测试和下一次运行
+ */
+@State(Scope.Benchmark)
+public class WritableDatasetState extends DatasetState {
+
+    /** 本次运行写入的订单序号（生成不重复的订单ID） */
+    long sequence;
+
+    @Override
+    boolean writable() {
+        return true;
+    }
+}
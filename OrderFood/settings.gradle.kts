@@ -24,4 +24,5 @@ dependencyResolutionManagement {
 // 声明你的项目模块（确保包含 OrderFood 模块）
 rootProject.name = "big_homework"
 include(":app") // 对应你的 OrderFood 模块（与文件夹名称一致）
+include(":benchmark") // JVM基准测试模块（JMH + sqlite-jdbc，不依赖Android）
  
\ No newline at end of file